@@ -0,0 +1,51 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Graphics.Assets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*! \class AssetsBenchmark
+    \brief Masoara Assets.Init(): citirea si decuparea tuturor texturilor jocului.
+
+    Rulare (din radacina proiectului, ca sa fie gasite texturile):
+        java -jar benchmarks/target/benchmarks.jar AssetsBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AssetsBenchmark
+{
+    @Setup
+    public void Setup()
+    {
+        BenchmarkMaps.Silence();
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        BenchmarkMaps.Restore();
+    }
+
+    @Benchmark
+    public BufferedImage Init()
+    {
+        Assets.Init();
+        return Assets.heroRight;
+    }
+}
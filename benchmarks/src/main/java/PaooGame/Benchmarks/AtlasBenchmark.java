@@ -0,0 +1,122 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.ScaledImageCache;
+import PaooGame.Graphics.TextureAtlas;
+import PaooGame.Items.Character;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*! \class AtlasBenchmark
+    \brief Compara desenarea unui ecran de dale si sprite-uri din imagini separate (ScaledImageCache) cu
+    desenarea prin copierea dreptunghiurilor din pagina atlasului.
+
+    Atlasul trebuie coacut inainte cu AtlasBaker (res/textures/atlas). Dalele desenate alterneaza intre toate
+    dalele din Assets, ca in harta reala, iar peste ele se deseneaza 500 de sprite-uri ale eroului.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar AtlasBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AtlasBenchmark
+{
+    private static final int VIEW_WIDTH = 1280;
+    private static final int VIEW_HEIGHT = 720;
+    private static final int SPRITES = 500;
+
+    private final int spriteSize = Character.DEFAULT_CREATURE_WIDTH;
+    private TextureAtlas atlas;
+    private BufferedImage[] tiles;
+    private TextureAtlas.Region[] regions;
+    private BufferedImage sprite;
+    private TextureAtlas.Region spriteRegion;
+    private BufferedImage target;
+    private Graphics2D g;
+
+    @Setup
+    public void Setup()
+    {
+        BenchmarkMaps.Silence();
+        try {
+            Assets.Init();
+        } finally {
+            BenchmarkMaps.Restore();
+        }
+        atlas = Assets.atlas;
+        if (atlas == null) {
+            throw new IllegalStateException("Atlasul lipseste sau este vechi; rulati intai PaooGame.Graphics.AtlasBaker");
+        }
+
+        tiles = new BufferedImage[]{
+                Assets.grass, Assets.grass2, Assets.water, Assets.deepWater, Assets.soil,
+                Assets.tile1_level2, Assets.tile2_level2, Assets.tile3_level2, Assets.tile4_level2,
+                Assets.tile1_level3, Assets.tile2_level3, Assets.tile3_level3, Assets.tile4_level3
+        };
+        regions = new TextureAtlas.Region[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            regions[i] = atlas.Find(tiles[i]);
+        }
+        sprite = Assets.heroRight;
+        spriteRegion = atlas.Find(sprite);
+
+        target = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = target.createGraphics();
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        g.dispose();
+    }
+
+    /// Imagini separate (ScaledImageCache)
+    @Benchmark
+    public BufferedImage SeparateImages()
+    {
+        int i = 0;
+        for (int y = 0; y < VIEW_HEIGHT; y += Tile.TILE_HEIGHT) {
+            for (int x = 0; x < VIEW_WIDTH; x += Tile.TILE_WIDTH) {
+                g.drawImage(ScaledImageCache.Get(tiles[i++ % tiles.length], Tile.TILE_WIDTH, Tile.TILE_HEIGHT), x, y, null);
+            }
+        }
+        for (int s = 0; s < SPRITES; s++) {
+            g.drawImage(ScaledImageCache.Get(sprite, spriteSize, spriteSize), (s * 37) % VIEW_WIDTH, (s * 53) % VIEW_HEIGHT, null);
+        }
+        return target;
+    }
+
+    /// Dreptunghiuri din pagina atlasului
+    @Benchmark
+    public BufferedImage AtlasRegions()
+    {
+        int i = 0;
+        for (int y = 0; y < VIEW_HEIGHT; y += Tile.TILE_HEIGHT) {
+            for (int x = 0; x < VIEW_WIDTH; x += Tile.TILE_WIDTH) {
+                atlas.Draw(g, regions[i++ % regions.length], x, y);
+            }
+        }
+        for (int s = 0; s < SPRITES; s++) {
+            atlas.Draw(g, spriteRegion, (s * 37) % VIEW_WIDTH, (s * 53) % VIEW_HEIGHT);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,161 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Maps.MapLoader;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*! \class BenchmarkMaps
+    \brief Genereaza hartile folosite de benchmark-uri: copii .tmx ale hartilor din res/Mapa si harti sintetice mari.
+
+    Benchmark-urile primesc harta ca @Param, printr-un nume scurt (vezi Source()).
+ */
+public final class BenchmarkMaps
+{
+    private static final PrintStream console = System.out;
+
+    private BenchmarkMaps()
+    {
+    }
+
+    /*! \fn public static File Source(String name, File dir)
+        \brief Scrie in directorul dat harta cu numele scurt primit ca @Param de benchmark-uri.
+
+        \param name "Level1", "level2", "level3" pentru hartile din res/Mapa convertite in .tmx, acelasi nume cu
+        sufixul ".json" pentru o copie a fisierului JSON original sau "synthetic_N" pentru o harta sintetica NxN.
+     */
+    public static File Source(String name, File dir) throws IOException
+    {
+        File file;
+        if (name.startsWith("synthetic_")) {
+            int size = Integer.parseInt(name.substring("synthetic_".length()));
+            file = WriteSyntheticTmx(dir, size, size, 1, 42);
+        } else if (name.endsWith(".json")) {
+            file = new File(dir, name);
+            try (InputStream in = BenchmarkMaps.class.getResourceAsStream("/Mapa/" + name)) {
+                if (in == null) {
+                    throw new IOException("Harta /Mapa/" + name + " lipseste (res trebuie sa fie in classpath)");
+                }
+                Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } else {
+            file = WriteBundledAsTmx("/Mapa/" + name + ".json", dir);
+        }
+        file.deleteOnExit();
+        return file;
+    }
+
+    /*! \fn public static void Silence()
+        \brief Ascunde mesajele afisate de joc (incarcarea hartilor, Assets) pana la Restore().
+
+        Fara asta, JMH ar transmite din JVM-ul copil cateva linii la fiecare operatie masurata.
+     */
+    public static void Silence()
+    {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /*! \fn public static void Restore()
+        \brief Reface iesirea standard ascunsa de Silence().
+     */
+    public static void Restore()
+    {
+        System.setOut(console);
+    }
+
+    /*! \fn public static File WriteBundledAsTmx(String jsonPath, File dir)
+        \brief Converteste o harta JSON inclusa in proiect (toate layer-ele) intr-un fisier .tmx cu date CSV.
+     */
+    public static File WriteBundledAsTmx(String jsonPath, File dir) throws IOException
+    {
+        MapLoader.MapData data = new MapLoader().loadMap(jsonPath);
+        if (data == null) {
+            throw new IOException("Harta " + jsonPath + " nu a putut fi incarcata (res trebuie sa fie in classpath)");
+        }
+
+        List<int[]> layers = new ArrayList<>();
+        for (MapLoader.LayerData layer : data.layers) {
+            layers.add(layer.tiles.ToArray());
+        }
+
+        String name = new File(jsonPath).getName().replace(".json", ".tmx");
+        File out = new File(dir, name);
+        WriteTmx(out, data.width, data.height, data.tileWidth, data.tileHeight, layers);
+        return out;
+    }
+
+    /*! \fn public static File WriteSyntheticTmx(File dir, int width, int height, int layerCount, long seed)
+        \brief Scrie o harta sintetica cu ID-uri aleatoare (0 - 499), reproductibila pentru acelasi seed.
+     */
+    public static File WriteSyntheticTmx(File dir, int width, int height, int layerCount, long seed) throws IOException
+    {
+        List<int[]> layers = new ArrayList<>();
+        for (int i = 0; i < layerCount; i++) {
+            layers.add(RandomTiles(width, height, seed + i));
+        }
+        File out = new File(dir, "synthetic_" + width + "x" + height + "x" + layerCount + ".tmx");
+        WriteTmx(out, width, height, 32, 32, layers);
+        return out;
+    }
+
+    /*! \fn public static int[] RandomTiles(int width, int height, long seed)
+        \brief Returneaza un layer de dale aleatoare, pe randuri.
+     */
+    public static int[] RandomTiles(int width, int height, long seed)
+    {
+        Random random = new Random(seed);
+        int[] tiles = new int[width * height];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = random.nextInt(500);
+        }
+        return tiles;
+    }
+
+    /*! \fn public static void WriteTmx(File out, int width, int height, int tileWidth, int tileHeight, List<int[]> layers)
+        \brief Scrie un fisier .tmx cu layer-ele date (pe randuri), in format CSV.
+     */
+    public static void WriteTmx(File out, int width, int height, int tileWidth, int tileHeight, List<int[]> layers) throws IOException
+    {
+        try (BufferedWriter w = new BufferedWriter(new FileWriter(out), 1 << 16)) {
+            w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            w.write("<map version=\"1.10\" orientation=\"orthogonal\" renderorder=\"right-down\" width=\"" + width
+                    + "\" height=\"" + height + "\" tilewidth=\"" + tileWidth + "\" tileheight=\"" + tileHeight + "\" infinite=\"0\">\n");
+            for (int l = 0; l < layers.size(); l++) {
+                int[] tiles = layers.get(l);
+                w.write(" <layer id=\"" + (l + 1) + "\" name=\"layer" + (l + 1) + "\" width=\"" + width + "\" height=\"" + height + "\">\n");
+                w.write("  <data encoding=\"csv\">\n");
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        w.write(Integer.toString(tiles[y * width + x]));
+                        if (x < width - 1 || y < height - 1) {
+                            w.write(',');
+                        }
+                    }
+                    w.write('\n');
+                }
+                w.write("</data>\n </layer>\n");
+            }
+            w.write("</map>\n");
+        }
+    }
+
+    /*! \fn public static File TempDir()
+        \brief Creeaza un director temporar sters la iesirea din program.
+     */
+    public static File TempDir() throws IOException
+    {
+        File dir = Files.createTempDirectory("paoo-bench").toFile();
+        dir.deleteOnExit();
+        return dir;
+    }
+}
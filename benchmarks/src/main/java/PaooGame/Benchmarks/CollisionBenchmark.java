@@ -0,0 +1,98 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.CollisionDetector;
+import PaooGame.Maps.MapLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class CollisionBenchmark
+    \brief Masoara interogarile CollisionDetector pe harta nivelului 1 (JSON, cu proprietatile tileset-ului).
+
+    O operatie face QUERIES interogari in puncte aleatoare (reproductibile) din interiorul hartii.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar CollisionBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CollisionBenchmark
+{
+    private static final int QUERIES = 1000;
+    private static final String MAP = "/Mapa/Level1.json";
+
+    private final CollisionDetector detector = new CollisionDetector();
+    private MapLoader.MapData map;
+    private float[][] points;
+    private float[][] targets;
+
+    @Setup
+    public void Setup()
+    {
+        map = new MapLoader().loadMap(MAP);
+        if (map == null) {
+            throw new IllegalStateException("Harta " + MAP + " lipseste (res trebuie sa fie in classpath)");
+        }
+        map.getCollisionLayer();
+        points = RandomPoints(1);
+        targets = RandomPoints(3);
+    }
+
+    @Benchmark
+    public int CheckCollision()
+    {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (detector.checkCollision(points[0][i], points[1][i], 32, 32, map)) hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int HasLineOfSight()
+    {
+        int visible = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (detector.hasLineOfSight(points[0][i], points[1][i], targets[0][i], targets[1][i], map)) visible++;
+        }
+        return visible;
+    }
+
+    @Benchmark
+    public float FindSafePosition()
+    {
+        float sum = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            sum += detector.findSafePosition(points[0][i], points[1][i], map, 32, 32)[0];
+        }
+        return sum;
+    }
+
+    /*! \fn private float[][] RandomPoints(long seed)
+        \brief QUERIES puncte aleatoare in interiorul hartii: [0] = x, [1] = y.
+     */
+    private float[][] RandomPoints(long seed)
+    {
+        Random random = new Random(seed);
+        float[][] result = new float[2][QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            result[0][i] = random.nextFloat() * (map.width - 1) * map.tileWidth;
+            result[1][i] = random.nextFloat() * (map.height - 1) * map.tileHeight;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Maps.CollisionLayer;
+import PaooGame.Maps.MapBinaryLoader;
+import PaooGame.Maps.MapCompiler;
+import PaooGame.Maps.MapLoader;
+import PaooGame.Maps.TiledJsonReader;
+import PaooGame.Maps.TileGrid;
+import PaooGame.Maps.TmxStreamLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*! \class CompiledMapBenchmark
+    \brief Compara incarcarea hartilor din formatele text (TMX prin StAX, JSON prin TiledJsonReader, plus calculul
+    coliziunii) cu incarcarea fisierelor compilate .bmap prin MapBinaryLoader.
+
+    Pentru formatul compilat se masoara atat incarcarea directa (Load) cat si cea folosita de joc (LoadIfCurrent),
+    care verifica in plus lungimea si CRC32 ale sursei. Fisierele .bmap mici sunt citite in heap, cele mari sunt
+    mapate in memorie (vezi MapBinaryLoader).
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar CompiledMapBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CompiledMapBenchmark
+{
+    @Param({"Level1.json", "Level1", "level2.json", "level2", "level3.json", "level3", "synthetic_2048"})
+    public String map;
+
+    private File source;
+    private String compiled;
+
+    @Setup
+    public void Setup() throws Exception
+    {
+        source = BenchmarkMaps.Source(map, BenchmarkMaps.TempDir());
+        compiled = MapBinaryLoader.CompiledPath(source.getPath());
+        MapCompiler.Compile(source.getPath(), compiled);
+        new File(compiled).deleteOnExit();
+    }
+
+    /// Parsare + coliziune
+    @Benchmark
+    public CollisionLayer Text() throws Exception
+    {
+        return LoadText(source);
+    }
+
+    @Benchmark
+    public MapLoader.MapData CompiledLoad() throws Exception
+    {
+        return MapBinaryLoader.Load(Paths.get(compiled));
+    }
+
+    /// Load + lungimea si CRC32 ale sursei
+    @Benchmark
+    public MapLoader.MapData CompiledLoadIfCurrent()
+    {
+        return MapBinaryLoader.LoadIfCurrent(source.getPath());
+    }
+
+    /*! \fn private static CollisionLayer LoadText(File source)
+        \brief Incarcarea text, ca inainte de formatul compilat: parsare si calculul coliziunii.
+     */
+    private static CollisionLayer LoadText(File source) throws Exception
+    {
+        if (source.getName().endsWith(".json")) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(source), 1 << 16)) {
+                return new TiledJsonReader().Read(in).getCollisionLayer();
+            }
+        }
+        TmxStreamLoader.TmxMap tmx = new TmxStreamLoader().Load(source.getPath());
+        List<TileGrid> grids = new ArrayList<>();
+        for (TmxStreamLoader.TmxLayer layer : tmx.layers) {
+            grids.add(TileGrid.FromArray(layer.tiles, tmx.width, tmx.height));
+        }
+        return CollisionLayer.Build(tmx.width, tmx.height, grids, Collections.<MapLoader.TilesetData>emptyList());
+    }
+}
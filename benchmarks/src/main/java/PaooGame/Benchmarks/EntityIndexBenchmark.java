@@ -0,0 +1,98 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.CollisionDetector;
+import PaooGame.Items.EntityIndex;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class EntityIndexBenchmark
+    \brief Compara testul tuturor perechilor (CollisionDetector.checkEntityCollision) cu EntityIndex.
+
+    Entitati de 24..48 pixeli sunt plasate aleator pe o lume cu densitate constanta (aproximativ o entitate
+    la 16 dale), ca intr-un nivel cu multi inamici. O operatie este un tick complet: reconstruirea indexului plus
+    gasirea tuturor perechilor care se suprapun. La pregatire se verifica faptul ca indexul gaseste acelasi numar
+    de perechi ca testul exhaustiv.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar EntityIndexBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EntityIndexBenchmark
+{
+    @Param({"100", "1000", "10000"})
+    public int n;
+
+    private final CollisionDetector detector = new CollisionDetector();
+    private final EntityIndex index = new EntityIndex(2 * Tile.TILE_WIDTH, 2 * Tile.TILE_HEIGHT);
+    private float[] x;
+    private float[] y;
+    private int[] w;
+    private int[] h;
+
+    @Setup
+    public void Setup()
+    {
+        Random random = new Random(5);
+        float world = (float) Math.sqrt(n * 16.0) * Tile.TILE_WIDTH;
+        x = new float[n];
+        y = new float[n];
+        w = new int[n];
+        h = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextFloat() * world;
+            y[i] = random.nextFloat() * world;
+            w[i] = 24 + random.nextInt(25);
+            h[i] = 24 + random.nextInt(25);
+        }
+
+        int expected = AllPairs();
+        int found = Indexed();
+        if (found != expected) {
+            throw new IllegalStateException("EntityIndex a gasit " + found + " perechi, testul exhaustiv " + expected);
+        }
+    }
+
+    @Benchmark
+    public int AllPairs()
+    {
+        int pairs = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (detector.checkEntityCollision(x[i], y[i], w[i], h[i], x[j], y[j], w[j], h[j])) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /// Reconstruirea indexului + perechile
+    @Benchmark
+    public int Indexed()
+    {
+        index.Clear();
+        for (int i = 0; i < n; i++) {
+            index.Add(x[i], y[i], w[i], h[i]);
+        }
+        index.Build();
+        return index.FindPairs();
+    }
+}
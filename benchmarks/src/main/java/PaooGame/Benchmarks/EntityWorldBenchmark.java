@@ -0,0 +1,175 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.CollisionDetector;
+import PaooGame.Items.EntityIndex;
+import PaooGame.Items.EntityWorld;
+import PaooGame.Maps.CollisionLayer;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class EntityWorldBenchmark
+    \brief Masoara un tick (miscare cu coliziuni pe dale, coliziuni intre entitati, decupare) pentru 10k si 100k
+    entitati, in EntityWorld si in varianta cu cate un obiect pe entitate (campurile unui Character plus cele
+    trei Rectangle ale unui Item).
+
+    Obiectele sunt create amestecat cu alte alocari si apoi parcurse in ordine aleatoare, cum ajung in timp
+    entitatile create si distruse in joc. Harta are 10% dale solide; entitatile care se lovesc de un perete
+    isi inverseaza viteza pe axa respectiva. O operatie este un tick.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar EntityWorldBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EntityWorldBenchmark
+{
+    private static final int MAP_SIZE = 512;
+    private static final int VIEW_WIDTH = 1280;
+    private static final int VIEW_HEIGHT = 720;
+
+    /*! \class ObjectEntity
+        \brief Entitate clasica: un obiect pe heap cu aceleasi campuri ca Item + Character.
+     */
+    private static final class ObjectEntity
+    {
+        float x, y, prevX, prevY;
+        int width = 48, height = 48;
+        Rectangle normalBounds = new Rectangle(16, 16, 16, 32);
+        Rectangle attackBounds = new Rectangle(10, 10, 38, 38);
+        Rectangle bounds = normalBounds;
+        int life = 10;
+        float speed = 3.0f;
+        float xMove, yMove;
+    }
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    private final CollisionDetector detector = new CollisionDetector();
+    private final EntityIndex objectIndex = new EntityIndex(2 * Tile.TILE_WIDTH, 2 * Tile.TILE_HEIGHT);
+    private final List<ObjectEntity> objects = new ArrayList<>();
+    private CollisionLayer layer;
+    private EntityWorld world;
+
+    @Setup
+    public void Setup()
+    {
+        Random random = new Random(9);
+        layer = new CollisionLayer(MAP_SIZE, MAP_SIZE);
+        for (int i = 0; i < MAP_SIZE * MAP_SIZE / 10; i++) {
+            layer.Set(CollisionLayer.SOLID, random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), true);
+        }
+
+        world = new EntityWorld(2 * Tile.TILE_WIDTH, 2 * Tile.TILE_HEIGHT);
+        List<Object> garbage = new ArrayList<>();
+        Random spawn = new Random(n);
+        for (int i = 0; i < n; i++) {
+            float x = spawn.nextFloat() * (MAP_SIZE - 2) * Tile.TILE_WIDTH;
+            float y = spawn.nextFloat() * (MAP_SIZE - 2) * Tile.TILE_HEIGHT;
+            float vx = (spawn.nextFloat() * 2 - 1) * PaooGame.Items.Character.DEFAULT_SPEED;
+            float vy = (spawn.nextFloat() * 2 - 1) * PaooGame.Items.Character.DEFAULT_SPEED;
+
+            int handle = world.Create(x, y, 48, 48, 16, 16, 16, 32);
+            world.SetVelocity(world.IndexOf(handle), vx, vy);
+
+            ObjectEntity entity = new ObjectEntity();
+            entity.x = x;
+            entity.y = y;
+            entity.xMove = vx;
+            entity.yMove = vy;
+            objects.add(entity);
+            garbage.add(new byte[16 + spawn.nextInt(256)]);
+        }
+        garbage.clear();
+        Collections.shuffle(objects, spawn);
+    }
+
+    /// Cate un obiect pe entitate, ca Item
+    @Benchmark
+    public int Objects()
+    {
+        return TickObjects(objects, objectIndex, layer, detector);
+    }
+
+    /// Vectori paraleli
+    @Benchmark
+    public int World()
+    {
+        return TickWorld(world, layer);
+    }
+
+    private static int TickWorld(EntityWorld world, CollisionLayer layer)
+    {
+        world.Move(layer, Tile.TILE_WIDTH, Tile.TILE_HEIGHT);
+        // Cine nu s-a putut misca pe o axa se intoarce
+        for (int i = 0, n = world.GetCount(); i < n; i++) {
+            int blocked = world.GetBlocked(i);
+            if (blocked != 0) {
+                float vx = world.GetVelocityX(i);
+                float vy = world.GetVelocityY(i);
+                world.SetVelocity(i, (blocked & EntityWorld.BLOCKED_X) != 0 ? -vx : vx,
+                        (blocked & EntityWorld.BLOCKED_Y) != 0 ? -vy : vy);
+            }
+        }
+        int pairs = world.Collide();
+        return pairs + world.Cull(MAP_SIZE * Tile.TILE_WIDTH / 2.0f, MAP_SIZE * Tile.TILE_HEIGHT / 2.0f, VIEW_WIDTH, VIEW_HEIGHT);
+    }
+
+    private static int TickObjects(List<ObjectEntity> objects, EntityIndex index, CollisionLayer layer,
+                                   CollisionDetector detector)
+    {
+        for (ObjectEntity e : objects) {
+            e.prevX = e.x;
+            e.prevY = e.y;
+            Rectangle b = e.bounds;
+            float dx = detector.sweepX(layer, Tile.TILE_WIDTH, Tile.TILE_HEIGHT, e.x + b.x, e.y + b.y, b.width, b.height, e.xMove);
+            e.x += dx;
+            float dy = detector.sweepY(layer, Tile.TILE_WIDTH, Tile.TILE_HEIGHT, e.x + b.x, e.y + b.y, b.width, b.height, e.yMove);
+            e.y += dy;
+            if (dx != e.xMove) {
+                e.xMove = -e.xMove;
+            }
+            if (dy != e.yMove) {
+                e.yMove = -e.yMove;
+            }
+        }
+
+        index.Clear();
+        for (ObjectEntity e : objects) {
+            index.Add(e.x + e.bounds.x, e.y + e.bounds.y, e.bounds.width, e.bounds.height);
+        }
+        index.Build();
+        int pairs = index.FindPairs();
+
+        float viewX = MAP_SIZE * Tile.TILE_WIDTH / 2.0f;
+        float viewY = MAP_SIZE * Tile.TILE_HEIGHT / 2.0f;
+        int visible = 0;
+        for (ObjectEntity e : objects) {
+            if (e.x < viewX + VIEW_WIDTH && e.x + e.width > viewX && e.y < viewY + VIEW_HEIGHT && e.y + e.height > viewY) {
+                visible++;
+            }
+        }
+        return pairs + visible;
+    }
+}
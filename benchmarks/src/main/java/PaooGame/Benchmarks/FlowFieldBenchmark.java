@@ -0,0 +1,105 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.AI.FlowField;
+import PaooGame.AI.FlowFieldService;
+import PaooGame.AI.PathfindingService;
+import PaooGame.Maps.CollisionLayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class FlowFieldBenchmark
+    \brief Compara un camp de directii comun cu cate o cautare A* pe inamic, pe aceeasi harta sintetica
+    ca PathfindingBenchmark (latura data, 25% dale solide).
+
+    Scenariul: eroul se muta intr-o dala noua, iar N inamici trebuie sa afle incotro sa mearga.
+    Cu A* fiecare inamic face o cautare proprie (cache-ul nu ajuta, tinta este noua); cu campul de directii
+    se face o singura propagare, apoi fiecare inamic citeste o directie. O operatie parcurge TARGETS tinte.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar FlowFieldBenchmark -prof gc [-p size=256 -p enemies=500]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FlowFieldBenchmark
+{
+    private static final int TARGETS = 16;
+
+    @Param("128")
+    public int size;
+
+    @Param("200")
+    public int enemies;
+
+    private final int[] targets = new int[TARGETS];
+    private int[] positions;
+    private PathfindingService pathfinding;
+    private FlowFieldService service;
+
+    @Setup
+    public void Setup()
+    {
+        Random random = new Random(11);
+        CollisionLayer layer = new CollisionLayer(size, size);
+        for (int i = 0; i < size * size / 4; i++) {
+            layer.Set(CollisionLayer.SOLID, random.nextInt(size), random.nextInt(size), true);
+        }
+        for (int i = 0; i < TARGETS; i++) {
+            targets[i] = PathfindingBenchmark.RandomFree(layer, random, size);
+        }
+        positions = new int[enemies];
+        for (int i = 0; i < enemies; i++) {
+            positions[i] = PathfindingBenchmark.RandomFree(layer, random, size);
+        }
+        pathfinding = new PathfindingService(layer);
+        service = new FlowFieldService(layer, false);
+    }
+
+    /// A* pentru fiecare inamic, tinta noua
+    @Benchmark
+    public int AStarPerEnemy()
+    {
+        int moving = 0;
+        for (int target : targets) {
+            pathfinding.Invalidate();
+            for (int position : positions) {
+                if (pathfinding.FindPath(position % size, position / size, target % size, target / size) != null) {
+                    moving++;
+                }
+            }
+        }
+        return moving;
+    }
+
+    /// Un flow field comun, tinta noua
+    @Benchmark
+    public int SharedField()
+    {
+        int moving = 0;
+        for (int target : targets) {
+            service.SetTarget(target % size, target / size);
+            FlowField field = service.GetField();
+            for (int position : positions) {
+                if (field.GetDirection(position % size, position / size) < FlowField.NONE) {
+                    moving++;
+                }
+            }
+        }
+        return moving;
+    }
+}
@@ -0,0 +1,101 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.ScaledImageCache;
+import PaooGame.Items.Character;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*! \class ImageScaleBenchmark
+    \brief Compara desenarea cu scalare la fiecare apel (drawImage cu latime/inaltime) cu desenarea
+    copiilor deja scalate din ScaledImageCache (drawImage simplu).
+
+    O operatie deseneaza un ecran plin de dale de iarba (16x16 -> TILE_WIDTH x TILE_HEIGHT) si 500 de sprite-uri
+    ale eroului (celula din characters.png -> 48x48) intr-o imagine de 1280x720.
+
+    Rulare (din radacina proiectului, ca sa fie gasite texturile):
+        java -jar benchmarks/target/benchmarks.jar ImageScaleBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageScaleBenchmark
+{
+    private static final int VIEW_WIDTH = 1280;
+    private static final int VIEW_HEIGHT = 720;
+    private static final int SPRITES = 500;
+
+    private final int spriteSize = Character.DEFAULT_CREATURE_WIDTH;
+    private BufferedImage tile;
+    private BufferedImage sprite;
+    private BufferedImage target;
+    private Graphics2D g;
+
+    @Setup
+    public void Setup()
+    {
+        BenchmarkMaps.Silence();
+        try {
+            Assets.Init();
+        } finally {
+            BenchmarkMaps.Restore();
+        }
+        tile = Assets.grass;
+        sprite = Assets.heroRight;
+        target = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = target.createGraphics();
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        g.dispose();
+    }
+
+    /// drawImage cu latime/inaltime la fiecare desenare
+    @Benchmark
+    public BufferedImage ScaleEachDraw()
+    {
+        for (int y = 0; y < VIEW_HEIGHT; y += Tile.TILE_HEIGHT) {
+            for (int x = 0; x < VIEW_WIDTH; x += Tile.TILE_WIDTH) {
+                g.drawImage(tile, x, y, Tile.TILE_WIDTH, Tile.TILE_HEIGHT, null);
+            }
+        }
+        for (int i = 0; i < SPRITES; i++) {
+            g.drawImage(sprite, (i * 37) % VIEW_WIDTH, (i * 53) % VIEW_HEIGHT, spriteSize, spriteSize, null);
+        }
+        return target;
+    }
+
+    /// ScaledImageCache + copiere simpla
+    @Benchmark
+    public BufferedImage ScaledCache()
+    {
+        for (int y = 0; y < VIEW_HEIGHT; y += Tile.TILE_HEIGHT) {
+            for (int x = 0; x < VIEW_WIDTH; x += Tile.TILE_WIDTH) {
+                g.drawImage(ScaledImageCache.Get(tile, Tile.TILE_WIDTH, Tile.TILE_HEIGHT), x, y, null);
+            }
+        }
+        for (int i = 0; i < SPRITES; i++) {
+            g.drawImage(ScaledImageCache.Get(sprite, spriteSize, spriteSize), (i * 37) % VIEW_WIDTH, (i * 53) % VIEW_HEIGHT, null);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,83 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Input.KeyEventQueue;
+import PaooGame.Input.KeyManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.concurrent.TimeUnit;
+
+/*! \class InputBenchmark
+    \brief Masoara costul intrarii: un eveniment trecut prin KeyEventQueue (Offer + Drain), KeyManager.Update()
+    fara evenimente si un tick cu o apasare scurta (apasare si eliberare intre doua Update()).
+
+    Toate trebuie sa nu aloce nimic (gc.alloc.rate.norm = 0 B/op).
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar InputBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class InputBenchmark
+{
+    private final KeyEventQueue queue = new KeyEventQueue(KeyEventQueue.DEFAULT_CAPACITY);
+    private final KeyEventQueue.Handler handler = (keyCode, pressed, nanos) -> { };
+    private KeyManager keys;
+    private KeyEvent press;
+    private KeyEvent release;
+
+    @Setup
+    public void Setup()
+    {
+        BenchmarkMaps.Silence();
+        try {
+            keys = new KeyManager();
+        } finally {
+            BenchmarkMaps.Restore();
+        }
+        Component source = new Canvas();
+        press = new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_R, 'r');
+        release = new KeyEvent(source, KeyEvent.KEY_RELEASED, 0, 0, KeyEvent.VK_R, 'r');
+    }
+
+    /// Offer + Drain (un eveniment)
+    @Benchmark
+    public int OfferDrain()
+    {
+        queue.Offer(KeyEvent.VK_W, true, 0L);
+        return queue.Drain(handler);
+    }
+
+    /// KeyManager.Update() fara evenimente
+    @Benchmark
+    public void UpdateIdle()
+    {
+        keys.Update();
+    }
+
+    /// Apasare scurta (R) + Update() + IsPressed
+    @Benchmark
+    public void ShortPress()
+    {
+        keys.keyPressed(press);
+        keys.keyReleased(release);
+        keys.Update();
+        if (!keys.IsPressed(KeyEvent.VK_R) || !keys.IsReleased(KeyEvent.VK_R) || keys.IsHeld(KeyEvent.VK_R)) {
+            throw new IllegalStateException("Apasarea scurta s-a pierdut");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Maps.LevelCache;
+import PaooGame.Maps.Map;
+import PaooGame.Maps.MapPreloader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*! \class LevelSwitchBenchmark
+    \brief Compara timpul petrecut pe firul jocului la schimbarea nivelului: construirea sincrona a hartii
+    (implementarea anterioara din PlayState) fata de preluarea unei harti preincarcate de MapPreloader.
+
+    Incarcarea sincrona porneste de fiecare data cu LevelCache gol (parsarea completa, ca inainte de cache).
+    Pentru preluare se asteapta, inaintea fiecarei invocari si in afara masuratorii, ca harta sa fie gata; se
+    masoara doar Take(). Timpul ei este de ordinul microsecundelor, deci aproape de rezolutia masurarii pe invocare,
+    iar memoria raportata de -prof gc include si alocarile facute de Preload() pe firul benchmark-ului.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar LevelSwitchBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LevelSwitchBenchmark
+{
+    @Param({"Level1", "level2", "level3", "synthetic_1024"})
+    public String map;
+
+    private String path;
+
+    /*! \class Preloaded
+        \brief Harta preincarcata pentru o singura invocare a lui Take().
+     */
+    @State(Scope.Thread)
+    public static class Preloaded
+    {
+        private final MapPreloader preloader = new MapPreloader(source -> new Map(null, source), MapPreloader.DEFAULT_CAPACITY);
+        private String path;
+
+        @Setup(Level.Invocation)
+        public void Preload(LevelSwitchBenchmark benchmark) throws InterruptedException
+        {
+            path = benchmark.path;
+            preloader.Preload(path);
+            while (!preloader.IsReady(path)) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @Setup
+    public void Setup() throws Exception
+    {
+        BenchmarkMaps.Silence();
+        path = BenchmarkMaps.Source(map, BenchmarkMaps.TempDir()).getPath();
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        BenchmarkMaps.Restore();
+    }
+
+    /// Construirea sincrona, cu LevelCache gol
+    @Benchmark
+    public Map Sync()
+    {
+        LevelCache.GetShared().Clear();
+        Map level = new Map(null, path);
+        if (!level.isMapLoaded()) {
+            throw new IllegalStateException("Harta nu s-a incarcat: " + path);
+        }
+        return level;
+    }
+
+    @Benchmark
+    public Map Take(Preloaded preloaded)
+    {
+        Map level = preloaded.preloader.Take(preloaded.path);
+        if (level == null || !level.isMapLoaded()) {
+            throw new IllegalStateException("Harta preincarcata lipseste: " + preloaded.path);
+        }
+        return level;
+    }
+}
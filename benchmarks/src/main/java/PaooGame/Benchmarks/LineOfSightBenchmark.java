@@ -0,0 +1,126 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.CollisionDetector;
+import PaooGame.Maps.CollisionLayer;
+import PaooGame.Maps.MapLoader;
+import PaooGame.Maps.ShortTileGrid;
+import PaooGame.Maps.TileGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class LineOfSightBenchmark
+    \brief Compara linia de vedere prin esantionare (implementarea anterioara din CollisionDetector) cu
+    parcurgerea exacta a grilei (DDA), simpla si in lot (o origine, multe tinte).
+
+    Harta este sintetica (10% dale solide); tintele sunt la cel mult 20 de dale de origine, ca pentru AI-ul inamicilor.
+    O operatie verifica toate tintele (un tick). Esantionarea poate vedea prin colturile dalelor solide, deci
+    numarul de tinte vizibile intors de ea poate fi mai mare decat cel al DDA.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar LineOfSightBenchmark -prof gc [-p targets=2000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LineOfSightBenchmark
+{
+    private static final int MAP_SIZE = 256;
+    private static final int TILE = 32;
+
+    @Param("500")
+    public int targets;
+
+    private final CollisionDetector detector = new CollisionDetector();
+    private MapLoader.MapData map;
+    private CollisionLayer layer;
+    private float originX;
+    private float originY;
+    private float[] targetsX;
+    private float[] targetsY;
+    private boolean[] visible;
+
+    @Setup
+    public void Setup()
+    {
+        Random random = new Random(7);
+        TileGrid grid = new ShortTileGrid(MAP_SIZE, MAP_SIZE);
+        for (int i = 0; i < MAP_SIZE * MAP_SIZE / 10; i++) {
+            grid.Set(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), 901); // ID solid in MapLoader
+        }
+        map = new MapLoader.MapData(grid, MAP_SIZE, MAP_SIZE, TILE, TILE);
+        layer = map.getCollisionLayer();
+
+        originX = MAP_SIZE * TILE / 2.0f + 5;
+        originY = MAP_SIZE * TILE / 2.0f + 11;
+        targetsX = new float[targets];
+        targetsY = new float[targets];
+        for (int i = 0; i < targets; i++) {
+            targetsX[i] = originX + (random.nextFloat() * 2 - 1) * 20 * TILE;
+            targetsY[i] = originY + (random.nextFloat() * 2 - 1) * 20 * TILE;
+        }
+        visible = new boolean[targets];
+    }
+
+    /// Esantionare: checkCollision la fiecare dala de pe segment
+    @Benchmark
+    public int Sampled()
+    {
+        int count = 0;
+        for (int i = 0; i < targets; i++) {
+            if (HasLineOfSightSampled(detector, originX, originY, targetsX[i], targetsY[i], map)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int Dda()
+    {
+        int count = 0;
+        for (int i = 0; i < targets; i++) {
+            if (detector.hasLineOfSight(layer, TILE, TILE, originX, originY, targetsX[i], targetsY[i])) count++;
+        }
+        return count;
+    }
+
+    /// DDA in lot: o origine, toate tintele
+    @Benchmark
+    public int DdaBatch()
+    {
+        return detector.hasLineOfSight(layer, TILE, TILE, originX, originY, targetsX, targetsY, targets, visible);
+    }
+
+    /*! \fn static boolean HasLineOfSightSampled(CollisionDetector detector, float x1, float y1, float x2, float y2, MapLoader.MapData mapData)
+        \brief Implementarea anterioara a CollisionDetector.hasLineOfSight(), pastrata doar ca referinta pentru comparatie.
+     */
+    static boolean HasLineOfSightSampled(CollisionDetector detector, float x1, float y1, float x2, float y2, MapLoader.MapData mapData)
+    {
+        float distance = detector.getDistance(x1, y1, x2, y2);
+        int steps = (int) (distance / mapData.tileWidth);
+
+        for (int i = 0; i <= steps; i++) {
+            float t = (float) i / steps;
+            float checkX = x1 + t * (x2 - x1);
+            float checkY = y1 + t * (y2 - y1);
+
+            if (detector.checkCollision(checkX, checkY, 1, 1, mapData)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
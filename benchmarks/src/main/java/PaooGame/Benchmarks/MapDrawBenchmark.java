@@ -0,0 +1,98 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Game;
+import PaooGame.Maps.Map;
+import PaooGame.RefLinks;
+import PaooGame.Tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*! \class MapDrawBenchmark
+    \brief Masoara desenarea hartii intr-o imagine de VIEW_WIDTH x VIEW_HEIGHT, cu camera deplasata la fiecare
+    operatie (ca o panoramare continua): cu chunk-urile gata si cu refacerea lor (costul dalelor, pe layer-e).
+
+    Rulare (din radacina proiectului, ca sa fie gasite texturile):
+        java -jar benchmarks/target/benchmarks.jar MapDrawBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapDrawBenchmark
+{
+    private static final int VIEW_WIDTH = 1280;
+    private static final int VIEW_HEIGHT = 720;
+
+    @Param({"Level1", "level2", "level3", "synthetic_1024"})
+    public String map;
+
+    private Map level;
+    private BufferedImage target;
+    private Graphics2D g;
+    private int maxX;
+    private int maxY;
+    private int frame;
+
+    @Setup
+    public void Setup() throws Exception
+    {
+        BenchmarkMaps.Silence();
+        try {
+            String path = BenchmarkMaps.Source(map, BenchmarkMaps.TempDir()).getPath();
+            level = new Map(new RefLinks(new Game("benchmark", VIEW_WIDTH, VIEW_HEIGHT)), path);
+            if (!level.isMapLoaded()) {
+                throw new IllegalStateException("Harta nu s-a incarcat: " + path);
+            }
+        } finally {
+            BenchmarkMaps.Restore();
+        }
+        target = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = target.createGraphics();
+        maxX = Math.max(1, level.getWidth() * Tile.TILE_WIDTH - VIEW_WIDTH);
+        maxY = Math.max(1, level.getHeight() * Tile.TILE_HEIGHT - VIEW_HEIGHT);
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        g.dispose();
+    }
+
+    /// Chunk-urile gata, doar copierea lor
+    @Benchmark
+    public BufferedImage Draw()
+    {
+        return DrawFrame();
+    }
+
+    /// Chunk-urile invalidate inainte de fiecare desenare
+    @Benchmark
+    public BufferedImage Repaint()
+    {
+        level.GetChunkCache().InvalidateAll();
+        return DrawFrame();
+    }
+
+    private BufferedImage DrawFrame()
+    {
+        int step = frame++ * 7;
+        level.Draw(g, null, step % maxX, (step / 3) % maxY);
+        return target;
+    }
+}
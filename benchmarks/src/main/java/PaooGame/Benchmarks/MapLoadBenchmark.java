@@ -0,0 +1,98 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Maps.MapLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*! \class MapLoadBenchmark
+    \brief Compara incarcarea hartilor JSON prin expresii regulate (implementarea anterioara din MapLoader)
+    cu parser-ul TiledJsonReader folosit acum de MapLoader.loadMap().
+
+    Implementarea veche citea doar primul layer; cea noua le citeste pe toate, plus tileset-urile si obiectele.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar MapLoadBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapLoadBenchmark
+{
+    @Param({"/Mapa/Level1.json", "/Mapa/level2.json", "/Mapa/level3.json"})
+    public String json;
+
+    private final MapLoader loader = new MapLoader();
+
+    @Benchmark
+    public int[][] Regex() throws Exception
+    {
+        return LoadWithRegex(json);
+    }
+
+    /// Toate layer-ele; fisierul .bmap nu exista in res, deci se parseaza JSON-ul
+    @Benchmark
+    public MapLoader.MapData TiledJsonReader()
+    {
+        return loader.loadMap(json);
+    }
+
+    /*! \fn static int[][] LoadWithRegex(String jsonPath)
+        \brief Implementarea anterioara a MapLoader.loadMap(), pastrata doar ca referinta pentru comparatie.
+     */
+    static int[][] LoadWithRegex(String jsonPath) throws Exception
+    {
+        InputStream is = MapLoadBenchmark.class.getResourceAsStream(jsonPath);
+        if (is == null) {
+            throw new Exception("Nu pot gasi fisierul: " + jsonPath);
+        }
+        Scanner scanner = new Scanner(is);
+        StringBuilder jsonContent = new StringBuilder();
+        while (scanner.hasNextLine()) {
+            jsonContent.append(scanner.nextLine());
+        }
+        scanner.close();
+        String json = jsonContent.toString();
+
+        int mapWidth = FindInt(json, "\"width\":(\\d+)");
+        int mapHeight = FindInt(json, "\"height\":(\\d+)");
+        FindInt(json, "\"tilewidth\":(\\d+)");
+        FindInt(json, "\"tileheight\":(\\d+)");
+
+        int[][] tiles = new int[mapHeight][mapWidth];
+        Matcher dataMatcher = Pattern.compile("\"data\":\\[(.*?)\\]").matcher(json);
+        if (dataMatcher.find()) {
+            String[] values = dataMatcher.group(1).split(",");
+            int index = 0;
+            for (int y = 0; y < mapHeight && index < values.length; y++) {
+                for (int x = 0; x < mapWidth && index < values.length; x++) {
+                    tiles[y][x] = (int) Long.parseLong(values[index].trim()) & 0x0FFFFFFF;
+                    index++;
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private static int FindInt(String json, String regex)
+    {
+        Matcher matcher = Pattern.compile(regex).matcher(json);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,96 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.AI.PathfindingService;
+import PaooGame.Maps.CollisionLayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*! \class PathfindingBenchmark
+    \brief Masoara PathfindingService pe o harta sintetica de tip "pestera" (latura data, 25% dale solide).
+
+    O operatie face QUERIES cautari: fara cache (perechi start/tinta diferite) sau repetate (din cache),
+    ca in cazul mai multor inamici care urmaresc eroul din aceleasi zone.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar PathfindingBenchmark -prof gc [-p size=256]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PathfindingBenchmark
+{
+    private static final int QUERIES = 64;
+
+    @Param("128")
+    public int size;
+
+    private final int[] starts = new int[QUERIES];
+    private final int[] goals = new int[QUERIES];
+    private PathfindingService service;
+
+    @Setup
+    public void Setup()
+    {
+        Random random = new Random(11);
+        CollisionLayer layer = new CollisionLayer(size, size);
+        for (int i = 0; i < size * size / 4; i++) {
+            layer.Set(CollisionLayer.SOLID, random.nextInt(size), random.nextInt(size), true);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = RandomFree(layer, random, size);
+            goals[i] = RandomFree(layer, random, size);
+        }
+        service = new PathfindingService(layer);
+    }
+
+    /// Cache-ul este golit la fiecare operatie
+    @Benchmark
+    public int Uncached()
+    {
+        service.Invalidate();
+        return RunAll();
+    }
+
+    @Benchmark
+    public int Cached()
+    {
+        return RunAll();
+    }
+
+    private int RunAll()
+    {
+        int found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            if (service.FindPath(starts[i] % size, starts[i] / size, goals[i] % size, goals[i] / size) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    static int RandomFree(CollisionLayer layer, Random random, int size)
+    {
+        while (true) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            if (!layer.IsSolid(x, y)) {
+                return y * size + x;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Loop.FrameProfiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*! \class ProfilerBenchmark
+    \brief Masoara costul FrameProfiler: un frame inregistrat ca in Game (fazele unui frame cu un tick si
+    trei layer-e redesenate), o singura faza, calculul unei percentile si desenarea suprapunerii.
+
+    Inregistrarea trebuie sa nu aloce nimic (gc.alloc.rate.norm = 0 B/op).
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar ProfilerBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ProfilerBenchmark
+{
+    private final FrameProfiler profiler = new FrameProfiler("frame", FrameProfiler.DEFAULT_CAPACITY);
+    private Graphics g;
+
+    @Setup
+    public void Setup()
+    {
+        // Istoricul plin, ca dupa cateva secunde de joc
+        for (int i = 0; i < FrameProfiler.DEFAULT_CAPACITY; i++) {
+            RecordFrame();
+        }
+        g = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB).getGraphics();
+        profiler.ToggleOverlay();
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        g.dispose();
+    }
+
+    /// 14 faze + EndFrame
+    @Benchmark
+    public void RecordFrame()
+    {
+        profiler.BeginFrame();
+        profiler.Begin(FrameProfiler.UPDATE);
+        profiler.Begin(FrameProfiler.KEYS);
+        profiler.End(FrameProfiler.KEYS);
+        profiler.Begin(FrameProfiler.STATE_UPDATE);
+        profiler.End(FrameProfiler.STATE_UPDATE);
+        profiler.End(FrameProfiler.UPDATE);
+        profiler.Begin(FrameProfiler.DRAW);
+        profiler.Begin(FrameProfiler.MAP);
+        for (int i = 0; i < 3; i++) {
+            profiler.Begin(FrameProfiler.LAYER + i);
+            profiler.AddTiles(256);
+            profiler.End(FrameProfiler.LAYER + i);
+        }
+        profiler.End(FrameProfiler.MAP);
+        profiler.Begin(FrameProfiler.HUD);
+        profiler.End(FrameProfiler.HUD);
+        profiler.End(FrameProfiler.DRAW);
+        profiler.Begin(FrameProfiler.SHOW);
+        profiler.End(FrameProfiler.SHOW);
+        profiler.EndFrame();
+    }
+
+    /// Doar Begin/End (o faza)
+    @Benchmark
+    public void BeginEnd()
+    {
+        profiler.Begin(FrameProfiler.HUD);
+        profiler.End(FrameProfiler.HUD);
+    }
+
+    /// Percentila p99 peste DEFAULT_CAPACITY frame-uri
+    @Benchmark
+    public long Percentile()
+    {
+        return profiler.GetPercentileNanos(FrameProfiler.FRAME, 99);
+    }
+
+    /// Suprapunerea afisata cu F3
+    @Benchmark
+    public void DrawOverlay()
+    {
+        profiler.DrawOverlay(g, 1020, 470);
+    }
+}
@@ -0,0 +1,120 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Maps.LevelCache;
+import PaooGame.Maps.Map;
+import PaooGame.Maps.TileGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*! \class RestartBenchmark
+    \brief Compara restartul unui nivel (tasta R): reincarcarea completa a hartii (implementarea anterioara),
+    construirea unei harti noi din LevelCache (schimbarea de nivel) si Map.Reset() pe harta existenta.
+
+    Inaintea fiecarui ResetAfterEdits() se modifica MODIFIED_TILES dale cu SetTileId (ca jocul), in afara
+    masuratorii; memoria raportata de -prof gc include insa si alocarile acestor modificari.
+    ResetUnmodified() arata costul fix al unui restart.
+    Mesajele afisate de Map la incarcare sunt ascunse in timpul masuratorilor.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar RestartBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RestartBenchmark
+{
+    private static final int MODIFIED_TILES = 64;
+
+    @Param({"Level1", "level2", "level3", "synthetic_1024"})
+    public String map;
+
+    private final LevelCache cache = LevelCache.GetShared();
+    private String path;
+    private Map level;
+
+    /*! \class Edited
+        \brief Modifica MODIFIED_TILES dale inaintea fiecarei invocari a lui ResetAfterEdits().
+     */
+    @State(Scope.Thread)
+    public static class Edited
+    {
+        @Setup(Level.Invocation)
+        public void Modify(RestartBenchmark benchmark)
+        {
+            Map level = benchmark.level;
+            TileGrid tiles = level.GetLayerTiles(0);
+            int width = level.getWidth();
+            int cells = width * level.getHeight();
+            for (int i = 0; i < MODIFIED_TILES; i++) {
+                int index = (int) ((long) i * cells / MODIFIED_TILES);
+                int x = index % width;
+                int y = index / width;
+                level.SetTileId(x, y, 0, tiles.Get(x, y) == 1 ? 2 : 1);
+            }
+        }
+    }
+
+    @Setup
+    public void Setup() throws Exception
+    {
+        BenchmarkMaps.Silence();
+        path = BenchmarkMaps.Source(map, BenchmarkMaps.TempDir()).getPath();
+        level = new Map(null, path);
+        if (!level.isMapLoaded()) {
+            throw new IllegalStateException("Harta nu s-a incarcat: " + path);
+        }
+    }
+
+    @TearDown
+    public void TearDown()
+    {
+        BenchmarkMaps.Restore();
+    }
+
+    /// Reincarcare completa (parsare)
+    @Benchmark
+    public Map FullReload()
+    {
+        cache.Invalidate(path);
+        return new Map(null, path);
+    }
+
+    /// Harta noua din LevelCache
+    @Benchmark
+    public Map FromLevelCache()
+    {
+        return new Map(null, path);
+    }
+
+    @Benchmark
+    public int ResetUnmodified()
+    {
+        return level.Reset();
+    }
+
+    @Benchmark
+    public int ResetAfterEdits(Edited edited)
+    {
+        int restored = level.Reset();
+        if (restored != MODIFIED_TILES) {
+            throw new IllegalStateException("Reset() a refacut " + restored + " dale, asteptate " + MODIFIED_TILES);
+        }
+        return restored;
+    }
+}
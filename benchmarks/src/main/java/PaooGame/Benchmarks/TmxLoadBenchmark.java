@@ -0,0 +1,97 @@
+package PaooGame.Benchmarks;
+
+import PaooGame.Maps.TmxStreamLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/*! \class TmxLoadBenchmark
+    \brief Compara incarcarea .tmx prin DOM (implementarea anterioara din Map.LoadWorldFromTMX) cu TmxStreamLoader.
+
+    Se masoara timpul si memoria alocata pe incarcare (-prof gc) pentru hartile din res/Mapa (convertite in .tmx)
+    si pentru o harta sintetica de 2048x2048 dale. Pe harta sintetica DOM are nevoie de un heap mare.
+
+    Rulare (din radacina proiectului):
+        java -jar benchmarks/target/benchmarks.jar TmxLoadBenchmark -prof gc [-p map=synthetic_1024]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+public class TmxLoadBenchmark
+{
+    @Param({"Level1", "level2", "level3", "synthetic_2048"})
+    public String map;
+
+    private final TmxStreamLoader loader = new TmxStreamLoader();
+    private String path;
+
+    @Setup
+    public void Setup() throws Exception
+    {
+        path = BenchmarkMaps.Source(map, BenchmarkMaps.TempDir()).getPath();
+    }
+
+    @Benchmark
+    public int[][][] Dom() throws Exception
+    {
+        return LoadWithDom(path);
+    }
+
+    @Benchmark
+    public TmxStreamLoader.TmxMap Stax() throws Exception
+    {
+        return loader.Load(path);
+    }
+
+    /*! \fn static int[][][] LoadWithDom(String path)
+        \brief Implementarea anterioara a incarcarii (DOM), pastrata doar ca referinta pentru comparatie.
+     */
+    static int[][][] LoadWithDom(String path) throws Exception
+    {
+        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+        Document doc = dBuilder.parse(new File(path));
+        doc.getDocumentElement().normalize();
+
+        Element mapElement = doc.getDocumentElement();
+        int width = Integer.parseInt(mapElement.getAttribute("width"));
+        int height = Integer.parseInt(mapElement.getAttribute("height"));
+
+        NodeList layerList = doc.getElementsByTagName("layer");
+        int[][][] layers = new int[layerList.getLength()][][];
+        for (int l = 0; l < layerList.getLength(); l++) {
+            Element data = (Element) ((Element) layerList.item(l)).getElementsByTagName("data").item(0);
+            String csvData = data.getTextContent().trim();
+            csvData = csvData.replaceAll("\\s+", "");
+            String[] tileIds = csvData.split(",");
+
+            int[][] tiles = new int[width][height];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    tiles[x][y] = Integer.parseInt(tileIds[y * width + x].trim());
+                }
+            }
+            layers[l] = tiles;
+        }
+        return layers;
+    }
+}
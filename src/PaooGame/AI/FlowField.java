@@ -0,0 +1,92 @@
+package PaooGame.AI;
+
+/*! \class FlowField
+    \brief Rezultatul unei propagari de la o dala tinta: pentru fiecare dala, directia in care trebuie facut
+    urmatorul pas pentru a ajunge la tinta pe drumul cel mai scurt.
+
+    Directiile sunt pastrate pe 4 biti (doua dale intr-un octet), pe randuri. Un obiect FlowField nu se mai
+    modifica dupa ce a fost publicat, deci poate fi citit de pe orice fir; o reconstruire produce un obiect nou.
+ */
+public final class FlowField
+{
+    public static final int NONE    = 8;    /*!< Dala solida sau de pe care tinta nu se poate atinge.*/
+    public static final int TARGET  = 9;    /*!< Dala tinta.*/
+
+    /*! Deplasarea pe X / Y pentru fiecare directie 0 - 7 (aceeasi ordine ca in PathfindingService).*/
+    static final int[] DIRECTION_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    static final int[] DIRECTION_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final int width;
+    private final int height;
+    private final int targetX;
+    private final int targetY;
+    private final int layerVersion;     /*!< Versiunea stratului de coliziune folosita la construire.*/
+    private final byte[] packed;        /*!< Directia dalei i in bitii (i & 1) * 4 .. +3 ai octetului i / 2.*/
+    private final int reachableCells;
+
+    FlowField(int width, int height, int targetX, int targetY, int layerVersion, byte[] packed, int reachableCells)
+    {
+        this.width = width;
+        this.height = height;
+        this.targetX = targetX;
+        this.targetY = targetY;
+        this.layerVersion = layerVersion;
+        this.packed = packed;
+        this.reachableCells = reachableCells;
+    }
+
+    /*! \fn public int GetDirection(int x, int y)
+        \brief Returneaza directia (0 - 7), NONE sau TARGET pentru dala data; O(1).
+     */
+    public int GetDirection(int x, int y)
+    {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return NONE;
+        }
+        int index = y * width + x;
+        return (packed[index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    /*! \fn public static int GetStepX(int direction)
+        \brief Returneaza -1, 0 sau 1: pasul pe X pentru directia data (0 pentru NONE/TARGET).
+     */
+    public static int GetStepX(int direction)
+    {
+        return direction < 8 ? DIRECTION_X[direction] : 0;
+    }
+
+    public static int GetStepY(int direction)
+    {
+        return direction < 8 ? DIRECTION_Y[direction] : 0;
+    }
+
+    public int GetTargetX()
+    {
+        return targetX;
+    }
+
+    public int GetTargetY()
+    {
+        return targetY;
+    }
+
+    public int GetLayerVersion()
+    {
+        return layerVersion;
+    }
+
+    public int GetReachableCells()
+    {
+        return reachableCells;
+    }
+
+    public int GetWidth()
+    {
+        return width;
+    }
+
+    public int GetHeight()
+    {
+        return height;
+    }
+}
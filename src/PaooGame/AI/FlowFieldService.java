@@ -0,0 +1,320 @@
+package PaooGame.AI;
+
+import PaooGame.Maps.CollisionLayer;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*! \class FlowFieldService
+    \brief Construieste si publica un FlowField catre dala eroului, comun pentru toti inamicii care il urmaresc.
+
+    La fiecare schimbare a dalei tinta (sau a stratului de coliziune) se face o singura propagare Dijkstra de la
+    tinta peste toata harta, cu costurile 10/14 ale PathfindingService si o coada pe "galeti" (algoritmul lui Dial,
+    costurile fiind intregi mici), fara heap si fara alocari in afara vectorului de directii publicat.
+    Oricate caractere isi afla apoi directia cu o singura citire (GetField().GetDirection(x, y)).
+
+    Pe hartile mari (cel putin BACKGROUND_CELLS dale) reconstruirea se face pe un fir de fundal comun; cererile
+    venite in timpul unei reconstruiri sunt comasate (se construieste doar ultima tinta), iar pana la publicare
+    caracterele folosesc campul anterior.
+ */
+public class FlowFieldService
+{
+    public static final int BACKGROUND_CELLS = 64 * 1024;  /*!< De la cate dale reconstruirea se muta pe firul de fundal.*/
+
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int BUCKETS = DIAGONAL_COST + 1;  /*!< Galeti circulare: distantele din coada difera cu cel mult costul maxim.*/
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "flowfield");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private final CollisionLayer layer;
+    private final int width;
+    private final int height;
+    private final boolean background;
+
+    // Folosite doar de firul care construieste
+    private final int paddedWidth;
+    private final boolean[] blocked;
+    private int blockedVersion = -1;
+    private final int[] distance;
+    private final int[][] buckets = new int[BUCKETS][];
+    private final int[] bucketSizes = new int[BUCKETS];
+
+    private volatile FlowField field;               /*!< Ultimul camp publicat (null inainte de prima construire).*/
+    private volatile long requestedTarget = -1;     /*!< (x << 32) | y al ultimei tinte cerute.*/
+    private volatile int requestedVersion;          /*!< Versiunea stratului de coliziune la ultima cerere.*/
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    // Metrici (scrise de firul care construieste)
+    private volatile long lastBuildNanos;
+    private volatile long totalBuildNanos;
+    private volatile int buildCount;
+    private volatile int requestCount;
+
+    /*! \fn public FlowFieldService(CollisionLayer layer)
+        \brief Constructorul; modul (sincron/fundal) se alege dupa dimensiunea hartii.
+     */
+    public FlowFieldService(CollisionLayer layer)
+    {
+        this(layer, layer.GetWidth() * layer.GetHeight() >= BACKGROUND_CELLS);
+    }
+
+    public FlowFieldService(CollisionLayer layer, boolean background)
+    {
+        this.layer = layer;
+        this.width = layer.GetWidth();
+        this.height = layer.GetHeight();
+        this.background = background;
+        this.paddedWidth = width + 2;
+        this.blocked = new boolean[paddedWidth * (height + 2)];
+        this.distance = new int[width * height];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new int[64];
+        }
+    }
+
+    /*! \fn public void SetTarget(int tileX, int tileY)
+        \brief Cere un camp catre dala data; se apeleaza la fiecare tick, dar reconstruieste doar la schimbari.
+     */
+    public void SetTarget(int tileX, int tileY)
+    {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return;
+        }
+        long target = ((long) tileX << 32) | tileY;
+        int version = layer.GetVersion();
+        if (target == requestedTarget && version == requestedVersion) {
+            return;
+        }
+        requestedTarget = target;
+        requestedVersion = version;
+        requestCount++;
+
+        if (!background) {
+            BuildLatest();
+        } else if (building.compareAndSet(false, true)) {
+            BACKGROUND.execute(this::BuildLoop);
+        }
+        // Altfel firul de fundal va vedea noua tinta cand termina construirea curenta
+    }
+
+    /*! \fn private void BuildLoop()
+        \brief Ruleaza pe firul de fundal: construieste pana cand campul publicat corespunde ultimei cereri.
+     */
+    private void BuildLoop()
+    {
+        try {
+            do {
+                BuildLatest();
+            } while (!IsUpToDate());
+        } finally {
+            building.set(false);
+        }
+        // O cerere venita intre ultima verificare si eliberarea indicatorului nu trebuie pierduta
+        if (!IsUpToDate() && building.compareAndSet(false, true)) {
+            BACKGROUND.execute(this::BuildLoop);
+        }
+    }
+
+    /*! \fn private boolean IsUpToDate()
+        \brief Verifica daca ultimul camp publicat corespunde ultimei cereri.
+     */
+    private boolean IsUpToDate()
+    {
+        FlowField current = field;
+        long target = requestedTarget;
+        return current != null && current.GetTargetX() == (int) (target >> 32) && current.GetTargetY() == (int) target
+                && current.GetLayerVersion() >= requestedVersion;   // versiunile doar cresc
+    }
+
+    private void BuildLatest()
+    {
+        long target = requestedTarget;
+        long start = System.nanoTime();
+        field = Build((int) (target >> 32), (int) target);
+        long elapsed = System.nanoTime() - start;
+        lastBuildNanos = elapsed;
+        totalBuildNanos += elapsed;
+        buildCount++;
+    }
+
+    /*! \fn private FlowField Build(int targetX, int targetY)
+        \brief Propagarea Dijkstra de la tinta si calculul directiilor.
+     */
+    private FlowField Build(int targetX, int targetY)
+    {
+        int version = layer.GetVersion();
+        if (version != blockedVersion) {
+            RebuildBlocked();
+            blockedVersion = version;
+        }
+
+        Arrays.fill(distance, UNREACHED);
+        Arrays.fill(bucketSizes, 0);
+        int target = targetY * width + targetX;
+        int reachable = 0;
+        if (!blocked[(targetY + 1) * paddedWidth + targetX + 1]) {
+            distance[target] = 0;
+            Enqueue(0, target);
+            reachable = Propagate();
+        }
+
+        byte[] packed = new byte[(width * height + 1) >> 1];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                int direction;
+                if (index == target && reachable > 0) {
+                    direction = FlowField.TARGET;
+                } else if (distance[index] == UNREACHED) {
+                    direction = FlowField.NONE;
+                } else {
+                    direction = BestDirection(x, y);
+                }
+                packed[index >> 1] |= (byte) (direction << ((index & 1) << 2));
+            }
+        }
+        return new FlowField(width, height, targetX, targetY, version, packed, reachable);
+    }
+
+    /*! \fn private int Propagate()
+        \brief Goleste coada pe galeti in ordinea distantelor; returneaza numarul de dale atinse.
+     */
+    private int Propagate()
+    {
+        int settled = 0;
+        int pending = 1;
+        for (int d = 0; pending > 0; d++) {
+            int bucket = d % BUCKETS;
+            // Galeata poate primi elemente noi (distanta d) doar de la dale cu distanta < d, deja procesate
+            for (int i = 0; i < bucketSizes[bucket]; i++) {
+                int node = buckets[bucket][i];
+                pending--;
+                if (distance[node] != d) {
+                    continue;   // intrare veche, dala a fost atinsa ulterior pe un drum mai scurt
+                }
+                settled++;
+                int x = node % width;
+                int y = node / width;
+                int padded = (y + 1) * paddedWidth + x + 1;
+                for (int k = 0; k < 8; k++) {
+                    int dx = FlowField.DIRECTION_X[k];
+                    int dy = FlowField.DIRECTION_Y[k];
+                    if (blocked[padded + dy * paddedWidth + dx]) {
+                        continue;
+                    }
+                    boolean diagonal = k >= 4;
+                    if (diagonal && (blocked[padded + dx] || blocked[padded + dy * paddedWidth])) {
+                        continue;
+                    }
+                    int next = node + dy * width + dx;
+                    int nextDistance = d + (diagonal ? DIAGONAL_COST : STRAIGHT_COST);
+                    if (nextDistance < distance[next]) {
+                        distance[next] = nextDistance;
+                        Enqueue(nextDistance % BUCKETS, next);
+                        pending++;
+                    }
+                }
+            }
+            bucketSizes[bucket] = 0;
+        }
+        return settled;
+    }
+
+    private void Enqueue(int bucket, int node)
+    {
+        int size = bucketSizes[bucket];
+        if (size == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+        }
+        buckets[bucket][size] = node;
+        bucketSizes[bucket] = size + 1;
+    }
+
+    /*! \fn private int BestDirection(int x, int y)
+        \brief Directia catre vecinul prin care distanta pana la tinta este minima (fara taierea colturilor).
+     */
+    private int BestDirection(int x, int y)
+    {
+        int padded = (y + 1) * paddedWidth + x + 1;
+        int best = FlowField.NONE;
+        int bestDistance = UNREACHED;
+        for (int k = 0; k < 8; k++) {
+            int dx = FlowField.DIRECTION_X[k];
+            int dy = FlowField.DIRECTION_Y[k];
+            if (blocked[padded + dy * paddedWidth + dx]) {
+                continue;
+            }
+            boolean diagonal = k >= 4;
+            if (diagonal && (blocked[padded + dx] || blocked[padded + dy * paddedWidth])) {
+                continue;
+            }
+            int neighbour = distance[(y + dy) * width + x + dx];
+            if (neighbour == UNREACHED) {
+                continue;
+            }
+            int through = neighbour + (diagonal ? DIAGONAL_COST : STRAIGHT_COST);
+            if (through < bestDistance) {
+                bestDistance = through;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private void RebuildBlocked()
+    {
+        Arrays.fill(blocked, true);
+        for (int y = 0; y < height; y++) {
+            int row = (y + 1) * paddedWidth + 1;
+            for (int x = 0; x < width; x++) {
+                blocked[row + x] = layer.IsSolid(x, y);
+            }
+        }
+    }
+
+    /*! \fn public FlowField GetField()
+        \brief Returneaza ultimul camp publicat (null pana la prima construire).
+     */
+    public FlowField GetField()
+    {
+        return field;
+    }
+
+    public boolean IsBackground()
+    {
+        return background;
+    }
+
+    public double GetLastBuildMillis()
+    {
+        return lastBuildNanos / 1_000_000.0;
+    }
+
+    public double GetAverageBuildMillis()
+    {
+        int builds = buildCount;
+        return builds == 0 ? 0 : totalBuildNanos / 1_000_000.0 / builds;
+    }
+
+    public int GetBuildCount()
+    {
+        return buildCount;
+    }
+
+    /*! \fn public int GetRequestCount()
+        \brief Numarul de schimbari de tinta cerute; diferenta fata de GetBuildCount() sunt cererile comasate.
+     */
+    public int GetRequestCount()
+    {
+        return requestCount;
+    }
+}
@@ -0,0 +1,335 @@
+package PaooGame.AI;
+
+import PaooGame.Maps.CollisionLayer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/*! \class PathfindingService
+    \brief Cautare de drumuri A* pe grila de dale a hartii (8 directii), construita peste bitii SOLID din CollisionLayer.
+
+    Dalele blocate sunt copiate intr-un boolean[] cu o bordura de o dala, refacut doar cand se schimba harta.
+    Toate structurile de lucru sunt vectori primitivi alocati o singura data pentru dimensiunea hartii:
+    costurile si parintii nodurilor sunt valide doar daca "stampila" nodului este egala cu generatia cautarii
+    curente, deci o cautare noua nu trebuie sa stearga nimic. Lista deschisa este un heap binar pe int[]
+    (cheie = f, valoare = indexul dalei), cu inserari duplicate in loc de decrease-key.
+
+    Drumurile gasite (si lipsa lor, cand cautarea a epuizat dalele accesibile) sunt pastrate intr-un cache LRU dupa
+    perechea (dala start, dala tinta); o cautare oprita de limita de expandari nu este pastrata.
+    Cache-ul este golit automat cand se modifica stratul de coliziune (vezi CollisionLayer.GetVersion()).
+
+    Nu se taie colturile: o miscare pe diagonala cere ca ambele dale ortogonale vecine sa fie libere.
+    Clasa nu este sigura pentru mai multe fire; se foloseste de pe firul de actualizare a jocului.
+ */
+public class PathfindingService
+{
+    public static final int DEFAULT_CACHE_CAPACITY = 256;  /*!< Numarul de drumuri pastrate in cache.*/
+
+    private static final int STRAIGHT_COST = 10;    /*!< Costul unui pas orizontal/vertical.*/
+    private static final int DIAGONAL_COST = 14;    /*!< Costul unui pas pe diagonala (~10 * sqrt(2)).*/
+    private static final int[] NO_PATH = new int[0];
+    private static final int[] DIRECTION_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DIRECTION_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final CollisionLayer layer;
+    private final int width;
+    private final int height;
+    private final int paddedWidth;
+    private final boolean[] blocked;    /*!< Copie a bitilor SOLID cu o bordura de dale blocate: [(y + 1) * paddedWidth + x + 1].*/
+
+    // Starea nodurilor, valida doar cand stamp[i] == generation
+    private final int[] stamp;
+    private final int[] cost;       /*!< Costul g de la start.*/
+    private final int[] parent;     /*!< Dala din care s-a ajuns in dala i.*/
+    private final boolean[] closed;
+    private int generation;
+
+    // Heap binar minim pe f
+    private int[] heapKeys = new int[256];
+    private int[] heapNodes = new int[256];
+    private int heapSize;
+
+    private final LinkedHashMap<Long, int[]> cache;
+    private int cachedVersion;
+    private int maxExpansions;      /*!< Limita de dale expandate pe cautare (protejeaza frame-ul pe harti mari).*/
+    private boolean searchCutOff;   /*!< true daca ultima cautare a fost oprita de maxExpansions, nu de lipsa drumului.*/
+
+    private long queries;
+    private long cacheHits;
+    private long expansions;
+
+    /*! \fn public PathfindingService(CollisionLayer layer)
+        \brief Constructorul serviciului pentru stratul de coliziune al unei harti.
+     */
+    public PathfindingService(CollisionLayer layer)
+    {
+        this(layer, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public PathfindingService(CollisionLayer layer, final int cacheCapacity)
+    {
+        this.layer = layer;
+        this.width = layer.GetWidth();
+        this.height = layer.GetHeight();
+        int cells = width * height;
+        this.stamp = new int[cells];
+        this.cost = new int[cells];
+        this.parent = new int[cells];
+        this.closed = new boolean[cells];
+        this.paddedWidth = width + 2;
+        this.blocked = new boolean[paddedWidth * (height + 2)];
+        this.maxExpansions = cells;
+        this.cachedVersion = layer.GetVersion();
+        RebuildBlocked();
+        this.cache = new LinkedHashMap<Long, int[]>(cacheCapacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Long, int[]> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    /*! \fn public int[] FindPath(int startX, int startY, int goalX, int goalY)
+        \brief Cauta un drum intre doua dale.
+
+        \return Indicii dalelor (y * latime + x) de la start la tinta, inclusiv, sau null daca nu exista drum.
+        Vectorul este partajat cu cache-ul si nu trebuie modificat.
+     */
+    public int[] FindPath(int startX, int startY, int goalX, int goalY)
+    {
+        queries++;
+        int version = layer.GetVersion();
+        if (version != cachedVersion) {
+            cache.clear();
+            cachedVersion = version;
+            RebuildBlocked();
+        }
+
+        if (!IsWalkable(startX, startY) || !IsWalkable(goalX, goalY)) {
+            return null;
+        }
+
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        long key = ((long) start << 32) | (goal & 0xFFFFFFFFL);
+        int[] path = cache.get(key);
+        if (path != null) {
+            cacheHits++;
+            return path == NO_PATH ? null : path;
+        }
+
+        path = Search(start, goal);
+        // O cautare oprita de limita nu dovedeste ca tinta este inaccesibila, deci nu se pastreaza
+        if (path != null || !searchCutOff) {
+            cache.put(key, path == null ? NO_PATH : path);
+        }
+        return path;
+    }
+
+    /*! \fn private int[] Search(int start, int goal)
+        \brief A* propriu-zis; singura alocare este vectorul drumului gasit.
+     */
+    private int[] Search(int start, int goal)
+    {
+        NextGeneration();
+        searchCutOff = false;
+        int goalX = goal % width;
+        int goalY = goal / width;
+
+        Touch(start, 0, -1);
+        heapSize = 0;
+        Push(Heuristic(start % width, start / width, goalX, goalY), start);
+
+        int expanded = 0;
+        while (heapSize > 0) {
+            int node = Pop();
+            if (closed[node]) {
+                continue;   // intrare veche, nodul a fost deja expandat cu un cost mai mic
+            }
+            if (node == goal) {
+                expansions += expanded;
+                return BuildPath(goal);
+            }
+            closed[node] = true;
+            if (++expanded > maxExpansions) {
+                searchCutOff = true;
+                break;
+            }
+
+            int x = node % width;
+            int y = node / width;
+            int g = cost[node];
+            int padded = (y + 1) * paddedWidth + x + 1;
+            for (int d = 0; d < 8; d++) {
+                int dx = DIRECTION_X[d];
+                int dy = DIRECTION_Y[d];
+                // Bordura blocata face inutila verificarea limitelor hartii
+                if (blocked[padded + dy * paddedWidth + dx]) {
+                    continue;
+                }
+                boolean diagonal = d >= 4;
+                if (diagonal && (blocked[padded + dx] || blocked[padded + dy * paddedWidth])) {
+                    continue;
+                }
+                int nx = x + dx;
+                int ny = y + dy;
+                int next = ny * width + nx;
+                int nextCost = g + (diagonal ? DIAGONAL_COST : STRAIGHT_COST);
+                if (stamp[next] == generation && (closed[next] || cost[next] <= nextCost)) {
+                    continue;
+                }
+                Touch(next, nextCost, node);
+                Push(nextCost + Heuristic(nx, ny, goalX, goalY), next);
+            }
+        }
+        expansions += expanded;
+        return null;
+    }
+
+    private int[] BuildPath(int goal)
+    {
+        int length = 0;
+        for (int node = goal; node != -1; node = parent[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = goal, i = length - 1; node != -1; node = parent[node], i--) {
+            path[i] = node;
+        }
+        return path;
+    }
+
+    /*! \fn private static int Heuristic(int x, int y, int goalX, int goalY)
+        \brief Distanta "octile" (admisibila pentru miscarea in 8 directii cu costurile 10/14).
+     */
+    private static int Heuristic(int x, int y, int goalX, int goalY)
+    {
+        int dx = Math.abs(x - goalX);
+        int dy = Math.abs(y - goalY);
+        return STRAIGHT_COST * (dx + dy) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(dx, dy);
+    }
+
+    private boolean IsWalkable(int x, int y)
+    {
+        return x >= 0 && y >= 0 && x < width && y < height && !blocked[(y + 1) * paddedWidth + x + 1];
+    }
+
+    /*! \fn private void RebuildBlocked()
+        \brief Copiaza bitii SOLID din stratul de coliziune in vectorul cu bordura.
+     */
+    private void RebuildBlocked()
+    {
+        Arrays.fill(blocked, true);
+        for (int y = 0; y < height; y++) {
+            int row = (y + 1) * paddedWidth + 1;
+            for (int x = 0; x < width; x++) {
+                blocked[row + x] = layer.IsSolid(x, y);
+            }
+        }
+    }
+
+    private void Touch(int node, int g, int from)
+    {
+        stamp[node] = generation;
+        cost[node] = g;
+        parent[node] = from;
+        closed[node] = false;
+    }
+
+    private void NextGeneration()
+    {
+        generation++;
+        if (generation == 0) {
+            // Dupa 2^32 cautari stampilele vechi ar putea parea valide
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    private void Push(int key, int node)
+    {
+        if (heapSize == heapKeys.length) {
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKeys[up] <= key) {
+                break;
+            }
+            heapKeys[i] = heapKeys[up];
+            heapNodes[i] = heapNodes[up];
+            i = up;
+        }
+        heapKeys[i] = key;
+        heapNodes[i] = node;
+    }
+
+    private int Pop()
+    {
+        int top = heapNodes[0];
+        int key = heapKeys[--heapSize];
+        int node = heapNodes[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (key <= heapKeys[child]) {
+                break;
+            }
+            heapKeys[i] = heapKeys[child];
+            heapNodes[i] = heapNodes[child];
+            i = child;
+        }
+        heapKeys[i] = key;
+        heapNodes[i] = node;
+        return top;
+    }
+
+    /*! \fn public void Invalidate()
+        \brief Goleste cache-ul de drumuri (de exemplu dupa o schimbare care nu trece prin CollisionLayer).
+     */
+    public void Invalidate()
+    {
+        cache.clear();
+    }
+
+    public void SetMaxExpansions(int maxExpansions)
+    {
+        this.maxExpansions = Math.max(1, maxExpansions);
+    }
+
+    public int GetCellX(int cell)
+    {
+        return cell % width;
+    }
+
+    public int GetCellY(int cell)
+    {
+        return cell / width;
+    }
+
+    public CollisionLayer GetCollisionLayer()
+    {
+        return layer;
+    }
+
+    public long GetQueries()
+    {
+        return queries;
+    }
+
+    public long GetCacheHits()
+    {
+        return cacheHits;
+    }
+
+    public long GetExpansions()
+    {
+        return expansions;
+    }
+}
@@ -1,13 +1,11 @@
 package PaooGame;
 
+import PaooGame.Maps.CollisionLayer;
 import PaooGame.Maps.MapLoader;
 
 public class CollisionDetector {
-    private MapLoader mapLoader;
-
-    public CollisionDetector() {
-        this.mapLoader = new MapLoader();
-    }
+    // Toleranța (în pixeli) pentru marginile aflate exact pe granița dintre două tile-uri
+    private static final float EDGE_EPSILON = 1e-3f;
 
     /**
      * Verifică coliziunea unei entități cu tile-urile din hartă
@@ -16,29 +14,86 @@ public class CollisionDetector {
                                   MapLoader.MapData mapData) {
 
         // Calculează tile-urile care se intersectează cu entitatea
-        int leftTile = (int) (entityX / mapData.tileWidth);
-        int rightTile = (int) ((entityX + entityWidth) / mapData.tileWidth);
-        int topTile = (int) (entityY / mapData.tileHeight);
-        int bottomTile = (int) ((entityY + entityHeight) / mapData.tileHeight);
-
-        // Verifică fiecare tile din zona entității
-        for (int y = topTile; y <= bottomTile; y++) {
-            for (int x = leftTile; x <= rightTile; x++) {
-                // Verifică bounds
-                if (x < 0 || x >= mapData.width || y < 0 || y >= mapData.height) {
-                    return true; // Coliziune cu marginea hărții
-                }
+        int leftTile = (int) Math.floor(entityX / mapData.tileWidth);
+        int rightTile = (int) Math.floor((entityX + entityWidth) / mapData.tileWidth);
+        int topTile = (int) Math.floor(entityY / mapData.tileHeight);
+        int bottomTile = (int) Math.floor((entityY + entityHeight) / mapData.tileHeight);
+
+        // Coliziune cu marginea hărții
+        if (leftTile < 0 || topTile < 0 || rightTile >= mapData.width || bottomTile >= mapData.height) {
+            return true;
+        }
+
+        // Un test pe bitii fiecărui rând din zona entității
+        return mapData.getCollisionLayer().AnyInRect(CollisionLayer.SOLID, leftTile, topTile, rightTile, bottomTile);
+    }
 
-                int tileId = mapData.tiles[y][x];
+    /**
+     * Deplasarea permisă pe axa X pentru dreptunghiul (left, top, width, height) care vrea să se miște cu dx.
+     * Se parcurg doar coloanele de tile-uri traversate de muchia din față (O(tile-uri traversate)), fiecare
+     * coloană fiind testată pe bitii rândurilor acoperite; marginea hărții este solidă. Rezultatul este
+     * exact distanța până la contact, deci nu există "tunelare" la viteze mari.
+     */
+    public float sweepX(CollisionLayer layer, int tileWidth, int tileHeight,
+                        float left, float top, float width, float height, float dx) {
+        if (dx == 0 || layer == null) {
+            return dx;
+        }
+        int row0 = (int) Math.floor((top + EDGE_EPSILON) / tileHeight);
+        int row1 = (int) Math.ceil((top + height - EDGE_EPSILON) / tileHeight) - 1;
 
-                // Verifică dacă tile-ul este solid
-                if (mapLoader.isSolidTile(tileId)) {
-                    return true;
+        if (dx > 0) {
+            float right = left + width;
+            int first = (int) Math.ceil((right - EDGE_EPSILON) / tileWidth);
+            int last = (int) Math.ceil((right + dx - EDGE_EPSILON) / tileWidth) - 1;
+            for (int column = first; column <= last; column++) {
+                if (column >= layer.GetWidth() || layer.AnyInRect(CollisionLayer.SOLID, column, row0, column, row1)) {
+                    return Math.max(0, column * tileWidth - right);
+                }
+            }
+        } else {
+            int first = (int) Math.floor((left + EDGE_EPSILON) / tileWidth) - 1;
+            int last = (int) Math.floor((left + dx + EDGE_EPSILON) / tileWidth);
+            for (int column = first; column >= last; column--) {
+                if (column < 0 || layer.AnyInRect(CollisionLayer.SOLID, column, row0, column, row1)) {
+                    return Math.min(0, (column + 1) * tileWidth - left);
                 }
             }
         }
+        return dx;
+    }
+
+    /**
+     * Deplasarea permisă pe axa Y; echivalentul lui sweepX pentru rândurile traversate de muchia din față.
+     * Un rând întreg (coloanele acoperite de entitate) se testează cu o singură operație pe biti.
+     */
+    public float sweepY(CollisionLayer layer, int tileWidth, int tileHeight,
+                        float left, float top, float width, float height, float dy) {
+        if (dy == 0 || layer == null) {
+            return dy;
+        }
+        int column0 = (int) Math.floor((left + EDGE_EPSILON) / tileWidth);
+        int column1 = (int) Math.ceil((left + width - EDGE_EPSILON) / tileWidth) - 1;
 
-        return false;
+        if (dy > 0) {
+            float bottom = top + height;
+            int first = (int) Math.ceil((bottom - EDGE_EPSILON) / tileHeight);
+            int last = (int) Math.ceil((bottom + dy - EDGE_EPSILON) / tileHeight) - 1;
+            for (int row = first; row <= last; row++) {
+                if (row >= layer.GetHeight() || layer.AnyInRect(CollisionLayer.SOLID, column0, row, column1, row)) {
+                    return Math.max(0, row * tileHeight - bottom);
+                }
+            }
+        } else {
+            int first = (int) Math.floor((top + EDGE_EPSILON) / tileHeight) - 1;
+            int last = (int) Math.floor((top + dy + EDGE_EPSILON) / tileHeight);
+            for (int row = first; row >= last; row--) {
+                if (row < 0 || layer.AnyInRect(CollisionLayer.SOLID, column0, row, column1, row)) {
+                    return Math.min(0, (row + 1) * tileHeight - top);
+                }
+            }
+        }
+        return dy;
     }
 
     /**
@@ -65,8 +120,7 @@ public class CollisionDetector {
             return false;
         }
 
-        int tileId = mapData.tiles[centerTileY][centerTileX];
-        return mapLoader.isDangerousTile(tileId);
+        return mapData.getCollisionLayer().IsDangerous(centerTileX, centerTileY);
     }
 
     /**
@@ -75,10 +129,11 @@ public class CollisionDetector {
     public float[] findSafePosition(float currentX, float currentY,
                                     MapLoader.MapData mapData, int entityWidth, int entityHeight) {
 
-        // Caută în spirală pentru o poziție sigură
+        // Caută în spirală pentru o poziție sigură; fiecare inel testează doar pozițiile noi de pe contur
         for (int radius = 1; radius <= 10; radius++) {
             for (int dx = -radius; dx <= radius; dx++) {
-                for (int dy = -radius; dy <= radius; dy++) {
+                int step = (dx == -radius || dx == radius) ? 1 : 2 * radius;
+                for (int dy = -radius; dy <= radius; dy += step) {
                     float testX = currentX + dx * mapData.tileWidth;
                     float testY = currentY + dy * mapData.tileHeight;
 
@@ -111,19 +166,118 @@ public class CollisionDetector {
      * Verifică dacă există o linie liberă între două puncte (pentru AI)
      */
     public boolean hasLineOfSight(float x1, float y1, float x2, float y2, MapLoader.MapData mapData) {
-        float distance = getDistance(x1, y1, x2, y2);
-        int steps = (int) (distance / mapData.tileWidth);
+        return hasLineOfSight(mapData.getCollisionLayer(), mapData.tileWidth, mapData.tileHeight, x1, y1, x2, y2);
+    }
 
-        for (int i = 0; i <= steps; i++) {
-            float t = (float) i / steps;
-            float checkX = x1 + t * (x2 - x1);
-            float checkY = y1 + t * (y2 - y1);
+    /**
+     * Linie de vedere exactă: parcurge (Amanatides-Woo) fiecare tile traversat de segment o singură dată,
+     * de la tile-ul de start la cel de final, și se oprește la primul tile solid sau în afara hărții.
+     * Când segmentul trece exact printr-un colț se testează ambele tile-uri vecine, ca să nu se
+     * "vadă" printre două ziduri așezate pe diagonală.
+     */
+    public boolean hasLineOfSight(CollisionLayer layer, int tileWidth, int tileHeight,
+                                  float x1, float y1, float x2, float y2) {
+        int cellX = (int) Math.floor(x1 / tileWidth);
+        int cellY = (int) Math.floor(y1 / tileHeight);
+        if (isBlocking(layer, cellX, cellY)) {
+            return false;
+        }
+        return traverse(layer, tileWidth, tileHeight, x1, y1, cellX, cellY, x2, y2);
+    }
+
+    /**
+     * Parcurgerea propriu-zisă, de la tile-ul (cellX, cellY) al originii (deja verificat) până la tile-ul țintei.
+     */
+    private boolean traverse(CollisionLayer layer, int tileWidth, int tileHeight,
+                             float x1, float y1, int cellX, int cellY, float x2, float y2) {
+        int endX = (int) Math.floor(x2 / tileWidth);
+        int endY = (int) Math.floor(y2 / tileHeight);
+
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+        int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+
+        // Parametrul t (0..1 de-a lungul segmentului) la care se trece următoarea graniță verticală/orizontală
+        float tDeltaX = stepX != 0 ? tileWidth / Math.abs(dx) : Float.POSITIVE_INFINITY;
+        float tDeltaY = stepY != 0 ? tileHeight / Math.abs(dy) : Float.POSITIVE_INFINITY;
+        float tMaxX = stepX > 0 ? ((cellX + 1) * tileWidth - x1) / dx
+                : (stepX < 0 ? (cellX * tileWidth - x1) / dx : Float.POSITIVE_INFINITY);
+        float tMaxY = stepY > 0 ? ((cellY + 1) * tileHeight - y1) / dy
+                : (stepY < 0 ? (cellY * tileHeight - y1) / dy : Float.POSITIVE_INFINITY);
 
-            if (checkCollision(checkX, checkY, 1, 1, mapData)) {
+        int remaining = Math.abs(endX - cellX) + Math.abs(endY - cellY);
+        while (remaining > 0) {
+            if (tMaxX < tMaxY) {
+                cellX += stepX;
+                tMaxX += tDeltaX;
+                remaining--;
+            } else if (tMaxY < tMaxX) {
+                cellY += stepY;
+                tMaxY += tDeltaY;
+                remaining--;
+            } else if (cellX == endX || cellY == endY) {
+                // Colț în care ținta este deja atinsă pe o axă (de exemplu capătul exact pe colț):
+                // pasul diagonal ar trece de tile-ul țintei, deci se avansează doar pe axa rămasă
+                if (cellX != endX) {
+                    cellX += stepX;
+                    tMaxX += tDeltaX;
+                } else {
+                    cellY += stepY;
+                    tMaxY += tDeltaY;
+                }
+                remaining--;
+            } else {
+                // Colț: ambele vecine trebuie să fie libere
+                if (isBlocking(layer, cellX + stepX, cellY) || isBlocking(layer, cellX, cellY + stepY)) {
+                    return false;
+                }
+                cellX += stepX;
+                cellY += stepY;
+                tMaxX += tDeltaX;
+                tMaxY += tDeltaY;
+                remaining -= 2;
+            }
+            if (isBlocking(layer, cellX, cellY)) {
                 return false;
             }
         }
-
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Linia de vedere de la un punct la mai multe ținte (de exemplu eroul față de toți inamicii).
+     * visible[i] primește rezultatul pentru ținta i; returnează numărul de ținte vizibile.
+     * Ținta aflată în același tile cu originea este vizibilă fără traversare.
+     */
+    public int hasLineOfSight(CollisionLayer layer, int tileWidth, int tileHeight, float originX, float originY,
+                              float[] targetsX, float[] targetsY, int count, boolean[] visible) {
+        int originCellX = (int) Math.floor(originX / tileWidth);
+        int originCellY = (int) Math.floor(originY / tileHeight);
+        boolean originFree = !isBlocking(layer, originCellX, originCellY);
+        int visibleCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            boolean result;
+            if (!originFree) {
+                result = false;
+            } else if ((int) Math.floor(targetsX[i] / tileWidth) == originCellX
+                    && (int) Math.floor(targetsY[i] / tileHeight) == originCellY) {
+                result = true;
+            } else {
+                result = traverse(layer, tileWidth, tileHeight, originX, originY, originCellX, originCellY,
+                        targetsX[i], targetsY[i]);
+            }
+            visible[i] = result;
+            if (result) {
+                visibleCount++;
+            }
+        }
+        return visibleCount;
+    }
+
+    private static boolean isBlocking(CollisionLayer layer, int cellX, int cellY) {
+        return cellX < 0 || cellY < 0 || cellX >= layer.GetWidth() || cellY >= layer.GetHeight()
+                || layer.IsSolid(cellX, cellY);
+    }
+}
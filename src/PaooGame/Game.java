@@ -2,23 +2,36 @@ package PaooGame;
 
 import PaooGame.GameWindow.GameWindow;
 import PaooGame.Graphics.Assets;
+import PaooGame.Input.InputSource;
 import PaooGame.Input.KeyManager;
+import PaooGame.Loop.FrameProfiler;
+import PaooGame.Loop.FrameScheduler;
+import PaooGame.Loop.FrameStats;
+import PaooGame.Loop.HeadlessReport;
+import PaooGame.Loop.JvmMetrics;
+import PaooGame.Loop.SnapshotExchange;
+import PaooGame.Loop.WorldSnapshot;
 import PaooGame.States.*;
 import PaooGame.Tiles.Tile;
 
 import java.awt.*;
+import java.awt.event.KeyEvent;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 
 /*! \class Game
     \brief Clasa principala a intregului proiect. Implementeaza Game - Loop (Update -> Draw)
  */
 public class Game implements Runnable
 {
+    public static final int DEFAULT_UPDATE_RATE = 60;   /*!< Numarul implicit de update-uri pe secunda.*/
+    public static final int DEFAULT_FRAME_RATE  = 60;   /*!< Numarul implicit de frame-uri desenate pe secunda.*/
+
     private GameWindow      wnd;        /*!< Fereastra in care se va desena tabla jocului*/
-    private boolean         runState;   /*!< Flag ce starea firului de executie.*/
+    private volatile boolean runState;  /*!< Flag ce starea firului de executie.*/
     private Thread          gameThread; /*!< Referinta catre thread-ul de update si draw al ferestrei*/
     private BufferStrategy  bs;         /*!< Referinta catre un mecanism cu care se organizeaza memoria complexa pentru un canvas.*/
-    private Graphics        g;          /*!< Referinta catre un context grafic.*/
 
     ///Available states
     private State playState;            /*!< Referinta catre joc.*/
@@ -28,6 +41,23 @@ public class Game implements Runnable
     private KeyManager keyManager;      /*!< Referinta catre obiectul care gestioneaza intrarile din partea utilizatorului.*/
     private RefLinks refLink;            /*!< Referinta catre un obiect a carui sarcina este doar de a retine diverse referinte pentru a fi usor accesibile.*/
 
+    private GameCamera gameCamera;      /*!< Camera jocului (zona din harta afisata in fereastra).*/
+
+    private FrameScheduler scheduler;   /*!< Planificatorul de frame-uri (pas fix pentru Update, asteptare fara busy-spin).*/
+    private float interpolation;        /*!< Factorul de interpolare intre ultimele doua stari, folosit la desenare.*/
+    private int updateRate;             /*!< Numarul de update-uri pe secunda.*/
+    private int frameRate;              /*!< Numarul tinta de frame-uri pe secunda (<= 0 fara limita).*/
+
+    private boolean decoupledRendering; /*!< true daca desenarea ruleaza pe un fir separat de update.*/
+    private Thread renderThread;        /*!< Firul de desenare in modul decuplat.*/
+    private SnapshotExchange snapshots; /*!< Schimbul fara lock-uri de snapshot-uri intre cele doua fire.*/
+    private long tickCount;             /*!< Numarul de tick-uri de simulare executate.*/
+    private boolean frameStatsReport;   /*!< true daca statisticile frame-urilor se afiseaza periodic in consola.*/
+
+    private final FrameProfiler profiler;   /*!< Fazele frame-urilor desenate (firul care deseneaza).*/
+    private FrameProfiler tickProfiler;     /*!< Fazele tick-urilor firului de update, doar in modul decuplat.*/
+    private String profilerCsvPath;         /*!< Fisierul in care se scriu percentilele la iesire (null = deloc).*/
+
     /*! \fn public Game(String title, int width, int height)
         \brief Constructor de initializare al clasei Game.
 
@@ -43,6 +73,11 @@ public class Game implements Runnable
         wnd = new GameWindow(title, width, height);
         runState = false;
         keyManager = new KeyManager();
+        gameCamera = new GameCamera(width, height);
+        updateRate = DEFAULT_UPDATE_RATE;
+        frameRate = DEFAULT_FRAME_RATE;
+        scheduler = new FrameScheduler(updateRate, frameRate);
+        profiler = new FrameProfiler("frame", FrameProfiler.DEFAULT_CAPACITY);
         System.out.println("✓ Joc creat cu dimensiuni: " + width + "x" + height);
     }
 
@@ -66,6 +101,17 @@ public class Game implements Runnable
 
         System.out.println("✓ Fereastra construita si focus setat");
 
+        InitStates();
+
+        // Focus final pe canvas dupa initializare
+        wnd.GetCanvas().requestFocus();
+    }
+
+    /*! \fn private void InitStates()
+        \brief Initializeaza aseturile, RefLinks si starile programului (comun modului cu fereastra si celui fara).
+     */
+    private void InitStates()
+    {
         ///Se incarca toate elementele grafice (dale)
         Assets.Init();
         System.out.println("✓ Assets incarcate");
@@ -85,9 +131,6 @@ public class Game implements Runnable
         ///Seteaza starea implicita cu care va fi lansat programul in executie (SCHIMBAT LA MENIU)
         State.SetState(menuState);
         System.out.println("✓ Stare initiala setata la MenuState");
-
-        // Focus final pe canvas dupa initializare
-        wnd.GetCanvas().requestFocus();
     }
 
     /*! \fn public void run()
@@ -99,30 +142,135 @@ public class Game implements Runnable
     {
         /// Initializeaza obiectul game
         InitGame();
-        long oldTime = System.nanoTime();   /*!< Retine timpul in nanosecunde aferent frame-ului anterior.*/
-        long curentTime;                    /*!< Retine timpul curent de executie.*/
-
-        /// Apelul functiilor Update() & Draw() trebuie realizat la fiecare 16.7 ms
-        /// sau mai bine spus de 60 ori pe secunda.
 
-        final int framesPerSecond   = 60; /*!< Constanta intreaga initializata cu numarul de frame-uri pe secunda.*/
-        final double timeFrame      = 1000000000 / framesPerSecond; /*!< Durata unui frame in nanosecunde.*/
+        if (decoupledRendering)
+        {
+            RunDecoupled();
+            return;
+        }
 
-        System.out.println("✓ Game loop pornit");
+        /// Update() se executa cu pas fix (60 de ori pe secunda), iar Draw() o data pe frame.
+        /// Intre frame-uri planificatorul doarme in loc sa tina un nucleu ocupat 100%.
+        System.out.println("✓ Game loop pornit (" + updateRate + " update-uri/s)");
 
         /// Atat timp timp cat threadul este pornit Update() & Draw()
         while (runState == true)
         {
-            /// Se obtine timpul curent
-            curentTime = System.nanoTime();
-            /// Daca diferenta de timp dintre curentTime si oldTime mai mare decat 16.6 ms
-            if((curentTime - oldTime) > timeFrame)
+            scheduler.BeginFrame();
+            profiler.BeginFrame();
+            /// Actualizeaza pozitiile elementelor cu pas fix, recuperand eventualele tick-uri ramase in urma
+            while (scheduler.ShouldUpdate())
+            {
+                Update();
+            }
+            /// Deseneaza elementele grafica in fereastra, interpoland intre ultimele doua stari.
+            interpolation = scheduler.GetInterpolation();
+            Draw(null, interpolation);
+            profiler.EndFrame();
+            /// Asteapta inceputul urmatorului frame (sleep / parkNanos / spin scurt)
+            scheduler.EndFrame();
+        }
+    }
+
+    /*! \fn private void RunDecoupled()
+        \brief Bucla de update pentru modul decuplat: simularea ruleaza cu pas fix pe firul curent si
+        publica dupa fiecare tick un snapshot, iar desenarea ruleaza pe un fir separat.
+
+        Un BufferStrategy.show() lent (vsync, compozitor) nu mai intarzie astfel citirea tastaturii si State.Update().
+     */
+    private void RunDecoupled()
+    {
+        snapshots = new SnapshotExchange();
+        tickProfiler = new FrameProfiler("tick", FrameProfiler.DEFAULT_CAPACITY);
+        /// Firul de update nu deseneaza, deci ritmul lui este chiar ritmul tick-urilor
+        scheduler.SetTargetFrameRate(updateRate);
+
+        renderThread = new Thread(this::RenderLoop, "render");
+        renderThread.start();
+        System.out.println("✓ Game loop pornit in mod decuplat (" + updateRate + " update-uri/s, desenare pe firul 'render')");
+
+        while (runState == true)
+        {
+            scheduler.BeginFrame();
+            while (scheduler.ShouldUpdate())
             {
-                /// Actualizeaza pozitiile elementelor
+                tickProfiler.BeginFrame();
                 Update();
-                /// Deseneaza elementele grafica in fereastra.
-                Draw();
-                oldTime = curentTime;
+                PublishSnapshot();
+                tickProfiler.EndFrame();
+            }
+            scheduler.EndFrame();
+        }
+
+        try
+        {
+            renderThread.join();
+        }
+        catch(InterruptedException ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    /*! \fn private void PublishSnapshot()
+        \brief Copiaza starea de dupa tick-ul curent intr-un snapshot si il publica pentru firul de desenare.
+     */
+    private void PublishSnapshot()
+    {
+        WorldSnapshot snapshot = snapshots.BeginWrite();
+        snapshot.tick = ++tickCount;
+        snapshot.state = State.GetState();
+        if (snapshot.state != null)
+        {
+            snapshot.state.WriteSnapshot(snapshot);
+        }
+        snapshot.publishNanos = System.nanoTime();
+        snapshots.Publish();
+    }
+
+    /*! \fn private void RenderLoop()
+        \brief Bucla firului de desenare: preia cel mai recent snapshot si il deseneaza, interpoland
+        pozitiile in functie de timpul scurs de la publicare.
+     */
+    private void RenderLoop()
+    {
+        final long tickNanos = 1_000_000_000L / updateRate;
+        final long frameNanos = frameRate > 0 ? 1_000_000_000L / frameRate : 0;
+        FrameStats renderStats = new FrameStats();
+        long lastFrame = System.nanoTime();
+        long nextFrame = lastFrame + frameNanos;
+        long lastReport = lastFrame;
+
+        while (runState == true)
+        {
+            long now = System.nanoTime();
+            renderStats.Record(now - lastFrame, frameNanos);
+            lastFrame = now;
+
+            profiler.BeginFrame();
+            WorldSnapshot snapshot = snapshots.AcquireLatest();
+            float alpha = Math.min(1.0f, (float)(now - snapshot.publishNanos) / tickNanos);
+            Draw(snapshot, alpha);
+            profiler.EndFrame();
+            renderStats.RecordWork(System.nanoTime() - now);
+
+            if (frameNanos > 0)
+            {
+                FrameScheduler.WaitUntil(nextFrame);
+                nextFrame += frameNanos;
+                if (System.nanoTime() - nextFrame > frameNanos)
+                {
+                    nextFrame = System.nanoTime() + frameNanos;
+                }
+            }
+
+            if (frameStatsReport && now - lastReport >= 5_000_000_000L)
+            {
+                System.out.println(String.format("[Render] FPS: %.1f | frame: %.2f ms | jitter: %.3f ms | desenare: %.2f ms",
+                        renderStats.GetFramesPerSecond(), renderStats.GetAverageFrameMillis(),
+                        renderStats.GetJitterMillis(), renderStats.GetAverageWorkMillis()));
+                renderStats.Reset();
+                lastReport = now;
             }
         }
     }
@@ -138,6 +286,11 @@ public class Game implements Runnable
         {
             /// Se actualizeaza flagul de stare a threadului
             runState = true;
+            /// Percentilele profiler-ului se scriu la iesirea din program (fereastra se inchide cu System.exit)
+            if (profilerCsvPath != null)
+            {
+                Runtime.getRuntime().addShutdownHook(new Thread(this::WriteProfilerCsv, "profiler-csv"));
+            }
             /// Se construieste threadul avand ca parametru obiectul Game. De retinut faptul ca Game class
             /// implementeaza interfata Runnable. Threadul creat va executa functia run() suprascrisa in clasa Game.
             gameThread = new Thread(this);
@@ -182,6 +335,68 @@ public class Game implements Runnable
         }
     }
 
+    /*! \fn public HeadlessReport RunHeadless(long ticks, InputSource input, boolean render)
+        \brief Ruleaza jocul fara fereastra pe firul curent: ticks tick-uri de simulare, cat de repede se poate.
+
+        Nu se construieste nici fereastra, nici BufferStrategy, deci functioneaza si cu java.awt.headless=true.
+        Tastele vin din input (KeyManager.SetInputSource), nu de la tastatura. Daca render este true, dupa
+        fiecare tick se deseneaza un frame intr-o imagine din memorie de dimensiunea ferestrei; altfel desenarea
+        este omisa. Nu se poate apela cat timp jocul ruleaza cu StartGame().
+
+        \param ticks Numarul de tick-uri de rulat.
+        \param input Sursa tastelor.
+        \param render true pentru a desena fiecare tick in imaginea din memorie.
+        \return Tick-urile pe secunda, rata de alocare si colectarile GC din timpul rularii.
+     */
+    public HeadlessReport RunHeadless(long ticks, InputSource input, boolean render)
+    {
+        if (runState)
+        {
+            throw new IllegalStateException("Jocul ruleaza deja cu fereastra");
+        }
+        decoupledRendering = false;
+        InitStates();
+        keyManager.SetInputSource(input);
+        /// Fara interpolare: fiecare frame deseneaza starea de dupa tick-ul tocmai rulat
+        interpolation = 1.0f;
+
+        BufferedImage image = render ? new BufferedImage(wnd.GetWndWidth(), wnd.GetWndHeight(), BufferedImage.TYPE_INT_RGB) : null;
+        Graphics2D g = render ? image.createGraphics() : null;
+        long gcCountBefore = JvmMetrics.GcCount();
+        long gcMillisBefore = JvmMetrics.GcMillis();
+        System.out.println("✓ Rulare fara fereastra: " + ticks + " tick-uri" + (render ? ", desenare in memorie" : ", fara desenare"));
+
+        long allocBefore = JvmMetrics.AllocatedBytes();
+        long start = System.nanoTime();
+        for (long i = 0; i < ticks; i++)
+        {
+            profiler.BeginFrame();
+            Update();
+            if (render)
+            {
+                profiler.Begin(FrameProfiler.DRAW);
+                DrawFrame(g, null, interpolation);
+                profiler.End(FrameProfiler.DRAW);
+            }
+            profiler.EndFrame();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocAfter = JvmMetrics.AllocatedBytes();
+
+        if (g != null)
+        {
+            g.dispose();
+        }
+        keyManager.SetInputSource(null);
+        if (profilerCsvPath != null)
+        {
+            WriteProfilerCsv();
+        }
+        return new HeadlessReport(ticks, render ? ticks : 0, nanos,
+                (allocBefore >= 0 && allocAfter >= 0) ? allocAfter - allocBefore : -1,
+                JvmMetrics.GcCount() - gcCountBefore, JvmMetrics.GcMillis() - gcMillisBefore);
+    }
+
     /*! \fn private void Update()
         \brief Actualizeaza starea elementelor din joc.
 
@@ -189,22 +404,37 @@ public class Game implements Runnable
      */
     private void Update()
     {
+        FrameProfiler updateProfiler = decoupledRendering ? tickProfiler : profiler;
+        updateProfiler.Begin(FrameProfiler.UPDATE);
         ///Determina starea tastelor
+        updateProfiler.Begin(FrameProfiler.KEYS);
         keyManager.Update();
+        updateProfiler.End(FrameProfiler.KEYS);
+        ///F3 afiseaza/ascunde suprapunerea profiler-ului
+        if(keyManager.IsPressed(KeyEvent.VK_F3))
+        {
+            profiler.ToggleOverlay();
+        }
         ///Trebuie obtinuta starea curenta pentru care urmeaza a se actualiza starea, atentie trebuie sa fie diferita de null.
         if(State.GetState() != null)
         {
             ///Actualizez starea curenta a jocului daca exista.
+            updateProfiler.Begin(FrameProfiler.STATE_UPDATE);
             State.GetState().Update();
+            updateProfiler.End(FrameProfiler.STATE_UPDATE);
         }
+        updateProfiler.End(FrameProfiler.UPDATE);
     }
 
-    /*! \fn private void Draw()
+    /*! \fn private void Draw(WorldSnapshot snapshot, float alpha)
         \brief Deseneaza elementele grafice in fereastra coresponzator starilor actualizate ale elementelor.
 
-        Metoda este declarata privat deoarece trebuie apelata doar in metoda run()
+        Metoda este declarata privat deoarece trebuie apelata doar in metoda run() sau pe firul de desenare.
+
+        \param snapshot Snapshot-ul de desenat (modul decuplat) sau null pentru starea curenta.
+        \param alpha Factorul de interpolare.
      */
-    private void Draw()
+    private void Draw(WorldSnapshot snapshot, float alpha)
     {
         /// Returnez bufferStrategy pentru canvasul existent
         bs = wnd.GetCanvas().getBufferStrategy();
@@ -224,26 +454,48 @@ public class Game implements Runnable
                 e.printStackTrace();
             }
         }
+        profiler.Begin(FrameProfiler.DRAW);
         /// Se obtine contextul grafic curent in care se poate desena.
-        g = bs.getDrawGraphics();
+        Graphics g = bs.getDrawGraphics();
+        DrawFrame(g, snapshot, alpha);
+        profiler.End(FrameProfiler.DRAW);
+
+        /// Se afiseaza pe ecran
+        profiler.Begin(FrameProfiler.SHOW);
+        bs.show();
+        profiler.End(FrameProfiler.SHOW);
+
+        /// Elibereaza resursele de memorie aferente contextului grafic curent (zonele de memorie ocupate de
+        /// elementele grafice ce au fost desenate pe canvas).
+        g.dispose();
+    }
+
+    /*! \fn private void DrawFrame(Graphics g, WorldSnapshot snapshot, float alpha)
+        \brief Deseneaza un frame in contextul grafic dat (buffer-ul ferestrei sau imaginea din modul fara fereastra).
+     */
+    private void DrawFrame(Graphics g, WorldSnapshot snapshot, float alpha)
+    {
         /// Se sterge ce era
         g.clearRect(0, 0, wnd.GetWndWidth(), wnd.GetWndHeight());
 
         /// operatie de desenare
         ///Trebuie obtinuta starea curenta pentru care urmeaza a se actualiza starea, atentie trebuie sa fie diferita de null.
-        if(State.GetState() != null)
+        if(snapshot != null)
+        {
+            ///In modul decuplat se deseneaza starea capturata in snapshot.
+            if(snapshot.state != null)
+            {
+                snapshot.state.Draw(g, snapshot, alpha);
+            }
+        }
+        else if(State.GetState() != null)
         {
             ///Actualizez starea curenta a jocului daca exista.
             State.GetState().Draw(g);
         }
+        ///Suprapunerea profiler-ului (F3), peste tot restul
+        profiler.DrawOverlay(g, wnd.GetWndWidth() - 260, wnd.GetWndHeight() - 250);
         /// end operatie de desenare
-
-        /// Se afiseaza pe ecran
-        bs.show();
-
-        /// Elibereaza resursele de memorie aferente contextului grafic curent (zonele de memorie ocupate de
-        /// elementele grafice ce au fost desenate pe canvas).
-        g.dispose();
     }
 
     /*! \fn public int GetWidth()
@@ -262,6 +514,94 @@ public class Game implements Runnable
         return wnd.GetWndHeight();
     }
 
+    /*! \fn public void SetTargetFrameRate(int framesPerSecond)
+        \brief Seteaza numarul tinta de frame-uri pe secunda (<= 0 inseamna fara limita).
+     */
+    public void SetTargetFrameRate(int framesPerSecond)
+    {
+        frameRate = framesPerSecond;
+        scheduler.SetTargetFrameRate(framesPerSecond);
+    }
+
+    /*! \fn public void SetUpdateRate(int updatesPerSecond)
+        \brief Seteaza frecventa pasului fix de simulare.
+     */
+    public void SetUpdateRate(int updatesPerSecond)
+    {
+        scheduler.SetUpdateRate(updatesPerSecond);
+        updateRate = updatesPerSecond;
+    }
+
+    /*! \fn public void SetFrameStatsReport(boolean enabled)
+        \brief Activeaza afisarea in consola, la fiecare 5 s, a statisticilor frame-urilor (oprita implicit).
+
+        In modul decuplat se afiseaza si statisticile firului de desenare.
+     */
+    public void SetFrameStatsReport(boolean enabled)
+    {
+        frameStatsReport = enabled;
+        scheduler.SetReportEnabled(enabled);
+    }
+
+    /*! \fn public void SetDecoupledRendering(boolean decoupled)
+        \brief Activeaza modul in care desenarea ruleaza pe un fir separat de simulare.
+
+        Trebuie apelata inainte de StartGame(). In acest mod SetTargetFrameRate() limiteaza doar firul
+        de desenare; o valoare <= 0 il lasa sa deseneze cat de repede permite afisajul.
+     */
+    public void SetDecoupledRendering(boolean decoupled)
+    {
+        decoupledRendering = decoupled;
+    }
+
+    /*! \fn public FrameProfiler GetProfiler()
+        \brief Returneaza profiler-ul firului care deseneaza (fazele desenarii se inregistreaza aici).
+     */
+    public FrameProfiler GetProfiler()
+    {
+        return profiler;
+    }
+
+    /*! \fn public void SetProfilerCsv(String path)
+        \brief Seteaza fisierul CSV in care se scriu percentilele fazelor la iesire; trebuie apelata inainte de StartGame().
+     */
+    public void SetProfilerCsv(String path)
+    {
+        profilerCsvPath = path;
+    }
+
+    /*! \fn private void WriteProfilerCsv()
+        \brief Scrie percentilele profiler-elor in fisierul CSV (apelata la oprirea JVM-ului).
+     */
+    private void WriteProfilerCsv()
+    {
+        try
+        {
+            FrameProfiler.WriteCsv(profilerCsvPath, profiler, tickProfiler);
+            System.out.println("Profiler: percentilele au fost scrise in " + profilerCsvPath);
+        }
+        catch(IOException e)
+        {
+            System.err.println("EROARE la scrierea profiler-ului in " + profilerCsvPath + ": " + e.getMessage());
+        }
+    }
+
+    /*! \fn public float GetInterpolation()
+        \brief Returneaza factorul de interpolare [0, 1] pentru desenarea frame-ului curent.
+     */
+    public float GetInterpolation()
+    {
+        return interpolation;
+    }
+
+    /*! \fn public GameCamera GetGameCamera()
+        \brief Returneaza camera jocului.
+     */
+    public GameCamera GetGameCamera()
+    {
+        return gameCamera;
+    }
+
     /*! \fn public KeyManager GetKeyManager()
         \brief Returneaza obiectul care gestioneaza tastatura.
      */
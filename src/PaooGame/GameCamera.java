@@ -0,0 +1,149 @@
+package PaooGame;
+
+import PaooGame.Items.Item;
+
+/*! \class GameCamera
+    \brief Implementeaza camera (viewport-ul) jocului: zona din harta care este afisata in fereastra.
+
+    Camera urmareste o entitate (de regula eroul) cu o miscare netezita si este limitata la marginile
+    hartii, astfel incat in afara hartii nu se vede niciodata "gol". Offset-urile sunt in pixeli si
+    reprezinta coordonatele in harta ale coltului stanga-sus al ferestrei.
+ */
+public class GameCamera
+{
+    public static final float DEFAULT_SMOOTHING = 0.15f; /*!< Fractiunea din distanta pana la tinta parcursa la fiecare tick.*/
+
+    private float xOffset;          /*!< Offset-ul curent pe axa X.*/
+    private float yOffset;          /*!< Offset-ul curent pe axa Y.*/
+    private float prevXOffset;      /*!< Offset-ul pe axa X de la tick-ul anterior (pentru interpolare).*/
+    private float prevYOffset;      /*!< Offset-ul pe axa Y de la tick-ul anterior (pentru interpolare).*/
+    private final int viewWidth;    /*!< Latimea zonei vizibile (fereastra) in pixeli.*/
+    private final int viewHeight;   /*!< Inaltimea zonei vizibile (fereastra) in pixeli.*/
+    private int mapPixelWidth;      /*!< Latimea hartii in pixeli (0 = fara limitare).*/
+    private int mapPixelHeight;     /*!< Inaltimea hartii in pixeli (0 = fara limitare).*/
+    private float smoothing;        /*!< Factorul de netezire din intervalul (0, 1]; 1 inseamna urmarire instantanee.*/
+
+    /*! \fn public GameCamera(int viewWidth, int viewHeight)
+        \brief Constructorul camerei.
+
+        \param viewWidth Latimea ferestrei in pixeli.
+        \param viewHeight Inaltimea ferestrei in pixeli.
+     */
+    public GameCamera(int viewWidth, int viewHeight)
+    {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.smoothing = DEFAULT_SMOOTHING;
+    }
+
+    /*! \fn public void SetMapBounds(int mapPixelWidth, int mapPixelHeight)
+        \brief Seteaza dimensiunile hartii curente, folosite pentru limitarea camerei.
+     */
+    public void SetMapBounds(int mapPixelWidth, int mapPixelHeight)
+    {
+        this.mapPixelWidth = mapPixelWidth;
+        this.mapPixelHeight = mapPixelHeight;
+    }
+
+    /*! \fn public void SetSmoothing(float smoothing)
+        \brief Seteaza factorul de netezire (0, 1].
+     */
+    public void SetSmoothing(float smoothing)
+    {
+        this.smoothing = Math.max(0.01f, Math.min(1.0f, smoothing));
+    }
+
+    /*! \fn public void Follow(Item target)
+        \brief Apropie camera de entitatea data (centrata in fereastra); se apeleaza o data pe tick.
+     */
+    public void Follow(Item target)
+    {
+        prevXOffset = xOffset;
+        prevYOffset = yOffset;
+
+        float targetX = ClampX(target.GetX() + target.GetWidth() / 2.0f - viewWidth / 2.0f);
+        float targetY = ClampY(target.GetY() + target.GetHeight() / 2.0f - viewHeight / 2.0f);
+
+        xOffset += (targetX - xOffset) * smoothing;
+        yOffset += (targetY - yOffset) * smoothing;
+
+        // Sub jumatate de pixel diferenta nu se mai vede; evita "tremuratul" la oprire
+        if (Math.abs(targetX - xOffset) < 0.5f) xOffset = targetX;
+        if (Math.abs(targetY - yOffset) < 0.5f) yOffset = targetY;
+    }
+
+    /*! \fn public void CenterOn(Item target)
+        \brief Muta camera instantaneu pe entitatea data (de exemplu la incarcarea unui nivel).
+     */
+    public void CenterOn(Item target)
+    {
+        xOffset = ClampX(target.GetX() + target.GetWidth() / 2.0f - viewWidth / 2.0f);
+        yOffset = ClampY(target.GetY() + target.GetHeight() / 2.0f - viewHeight / 2.0f);
+        prevXOffset = xOffset;
+        prevYOffset = yOffset;
+    }
+
+    /*! \fn private float ClampX(float offset)
+        \brief Limiteaza offset-ul pe X la marginile hartii; harta mai ingusta decat fereastra este centrata.
+     */
+    private float ClampX(float offset)
+    {
+        if (mapPixelWidth <= 0) {
+            return offset;
+        }
+        if (mapPixelWidth <= viewWidth) {
+            return (mapPixelWidth - viewWidth) / 2.0f;
+        }
+        return Math.max(0, Math.min(offset, mapPixelWidth - viewWidth));
+    }
+
+    /*! \fn private float ClampY(float offset)
+        \brief Limiteaza offset-ul pe Y la marginile hartii; harta mai scunda decat fereastra este centrata.
+     */
+    private float ClampY(float offset)
+    {
+        if (mapPixelHeight <= 0) {
+            return offset;
+        }
+        if (mapPixelHeight <= viewHeight) {
+            return (mapPixelHeight - viewHeight) / 2.0f;
+        }
+        return Math.max(0, Math.min(offset, mapPixelHeight - viewHeight));
+    }
+
+    /*! \fn public float GetRenderXOffset(float alpha)
+        \brief Returneaza offset-ul pe X interpolat intre tick-ul anterior si cel curent.
+     */
+    public float GetRenderXOffset(float alpha)
+    {
+        return prevXOffset + (xOffset - prevXOffset) * alpha;
+    }
+
+    /*! \fn public float GetRenderYOffset(float alpha)
+        \brief Returneaza offset-ul pe Y interpolat intre tick-ul anterior si cel curent.
+     */
+    public float GetRenderYOffset(float alpha)
+    {
+        return prevYOffset + (yOffset - prevYOffset) * alpha;
+    }
+
+    public float GetXOffset()
+    {
+        return xOffset;
+    }
+
+    public float GetYOffset()
+    {
+        return yOffset;
+    }
+
+    public int GetViewWidth()
+    {
+        return viewWidth;
+    }
+
+    public int GetViewHeight()
+    {
+        return viewHeight;
+    }
+}
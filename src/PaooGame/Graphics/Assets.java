@@ -47,52 +47,221 @@ public class Assets
     public static BufferedImage tile7_level3;
     public static BufferedImage tile8_level3;
 
+    // Imaginile sursa, decodate in paralel de Init()
+    private static final String MENU_BACKGROUND_PATH = "res/textures/FUNDAL.jpg";
+    private static final String CHARACTERS_PATH      = "res/textures/characters.png";
+    private static final String LEVEL1_SHEET_PATH    = "res/textures/gentle forest v01.png";
+    private static final String LEVEL2_SHEET_PATH    = "res/textures/CaveBG.png";
+    private static final String LEVEL3_SHEET_PATH    = "res/textures/CaveG.png";
+
+    // Atlasul produs de AtlasBaker din sheet-urile de mai sus (daca exista si este la zi)
+    static final String ATLAS_MANIFEST_PATH = "res/textures/atlas/atlas.bin";
+    static final String[] SHEET_PATHS = {CHARACTERS_PATH, LEVEL1_SHEET_PATH, LEVEL2_SHEET_PATH, LEVEL3_SHEET_PATH};
+
+    /*! Numele regiunilor din atlas = numele campurilor de mai sus (vezi GetRegion/SetRegion).*/
+    static final String[] REGION_NAMES = {
+            "heroLeft", "heroRight", "heroFront", "heroBack",
+            "grass", "grass2", "water", "deepWater", "soil", "rigthMarginSoil", "rigthMarginSoil2", "leftTopCornerSoil",
+            "tile1_level2", "tile2_level2", "tile3_level2", "tile4_level2",
+            "tile5_level2", "tile6_level2", "tile7_level2", "tile8_level2",
+            "tile1_level3", "tile2_level3", "tile3_level3", "tile4_level3",
+            "tile5_level3", "tile6_level3", "tile7_level3", "tile8_level3"
+    };
+
+    public static TextureAtlas atlas;   /*!< Atlasul folosit la desenare sau null daca dalele sunt decupate din sheet-uri.*/
+
+    private static long initMillis;     /*!< Durata ultimului Init() (decodare + decupare).*/
+
     /*! \fn public static void Init()
         \brief Functia initializeza referintele catre elementele grafice utilizate.
+
+        Daca exista atlasul coacut de AtlasBaker, se decodeaza doar paginile lui si fundalul meniului; altfel
+        toate imaginile sursa sunt decodate in paralel (ImageLoader.LoadImages), apoi sunt decupate pe firul curent.
      */
     public static void Init()
     {
         System.out.println("Initializare Assets...");
+        long start = System.nanoTime();
+
+        if (!InitFromAtlas()) {
+            InitFromSheets();
+        }
+
+        initMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Assets initializate complet in " + initMillis + " ms" + (atlas != null ? " (din atlas)" : ""));
+    }
+
+    /*! \fn private static boolean InitFromAtlas()
+        \brief Incarca regiunile din atlas; returneaza false daca atlasul lipseste, este vechi sau incomplet.
+     */
+    private static boolean InitFromAtlas()
+    {
+        try {
+            TextureAtlas loaded = TextureAtlas.ReadManifest(ATLAS_MANIFEST_PATH);
+            if (loaded == null) {
+                return false;
+            }
+            for (String name : REGION_NAMES) {
+                if (loaded.Get(name) == null) {
+                    System.out.println("Atlasul nu contine regiunea " + name + ", se folosesc texturile originale");
+                    return false;
+                }
+            }
+
+            String[] pagePaths = loaded.GetPagePaths();
+            String[] paths = new String[pagePaths.length + 1];
+            paths[0] = MENU_BACKGROUND_PATH;
+            System.arraycopy(pagePaths, 0, paths, 1, pagePaths.length);
+            BufferedImage[] images = ImageLoader.LoadImages(paths);
+
+            BufferedImage[] pages = new BufferedImage[pagePaths.length];
+            System.arraycopy(images, 1, pages, 0, pages.length);
+            loaded.SetPages(pages);
+
+            loadMenuBackground(images[0]);
+            for (String name : REGION_NAMES) {
+                SetRegion(name, loaded.GetImage(name));
+            }
+            atlas = loaded;
+            return true;
+        } catch (Exception e) {
+            System.err.println("EROARE la incarcarea atlasului: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /*! \fn static void InitFromSheets()
+        \brief Decupeaza dalele si sprite-urile din sheet-urile originale (si pentru AtlasBaker).
+     */
+    static void InitFromSheets()
+    {
+        atlas = null;
+        BufferedImage[] images = ImageLoader.LoadImages(MENU_BACKGROUND_PATH, CHARACTERS_PATH,
+                LEVEL1_SHEET_PATH, LEVEL2_SHEET_PATH, LEVEL3_SHEET_PATH);
 
         // Incarca fundalul pentru meniu
-        loadMenuBackground();
+        loadMenuBackground(images[0]);
 
         // Incarca sprite-urile pentru personaje
-        loadCharacterSprites();
+        loadCharacterSprites(images[1]);
 
         // Incarca tile-urile pentru Level 1 (forest - existent)
-        loadLevel1Tiles();
+        loadLevel1Tiles(images[2]);
 
         // Incarca tile-urile pentru Level 2 (cave)
-        loadLevel2Tiles();
+        loadLevel2Tiles(images[3]);
 
         // Incarca tile-urile pentru Level 3 (cave dark)
-        loadLevel3Tiles();
+        loadLevel3Tiles(images[4]);
+    }
+
+    /*! \fn static BufferedImage GetRegion(String name)
+        \brief Imaginea curenta a regiunii cu numele dat (unul din REGION_NAMES).
+     */
+    static BufferedImage GetRegion(String name)
+    {
+        switch (name) {
+            case "heroLeft":          return heroLeft;
+            case "heroRight":         return heroRight;
+            case "heroFront":         return heroFront;
+            case "heroBack":          return heroBack;
+            case "grass":             return grass;
+            case "grass2":            return grass2;
+            case "water":             return water;
+            case "deepWater":         return deepWater;
+            case "soil":              return soil;
+            case "rigthMarginSoil":   return rigthMarginSoil;
+            case "rigthMarginSoil2":  return rigthMarginSoil2;
+            case "leftTopCornerSoil": return leftTopCornerSoil;
+            case "tile1_level2":      return tile1_level2;
+            case "tile2_level2":      return tile2_level2;
+            case "tile3_level2":      return tile3_level2;
+            case "tile4_level2":      return tile4_level2;
+            case "tile5_level2":      return tile5_level2;
+            case "tile6_level2":      return tile6_level2;
+            case "tile7_level2":      return tile7_level2;
+            case "tile8_level2":      return tile8_level2;
+            case "tile1_level3":      return tile1_level3;
+            case "tile2_level3":      return tile2_level3;
+            case "tile3_level3":      return tile3_level3;
+            case "tile4_level3":      return tile4_level3;
+            case "tile5_level3":      return tile5_level3;
+            case "tile6_level3":      return tile6_level3;
+            case "tile7_level3":      return tile7_level3;
+            case "tile8_level3":      return tile8_level3;
+            default:                  return null;
+        }
+    }
+
+    private static void SetRegion(String name, BufferedImage image)
+    {
+        switch (name) {
+            case "heroLeft":          heroLeft = image; break;
+            case "heroRight":         heroRight = image; break;
+            case "heroFront":         heroFront = image; break;
+            case "heroBack":          heroBack = image; break;
+            case "grass":             grass = image; break;
+            case "grass2":            grass2 = image; break;
+            case "water":             water = image; break;
+            case "deepWater":         deepWater = image; break;
+            case "soil":              soil = image; break;
+            case "rigthMarginSoil":   rigthMarginSoil = image; break;
+            case "rigthMarginSoil2":  rigthMarginSoil2 = image; break;
+            case "leftTopCornerSoil": leftTopCornerSoil = image; break;
+            case "tile1_level2":      tile1_level2 = image; break;
+            case "tile2_level2":      tile2_level2 = image; break;
+            case "tile3_level2":      tile3_level2 = image; break;
+            case "tile4_level2":      tile4_level2 = image; break;
+            case "tile5_level2":      tile5_level2 = image; break;
+            case "tile6_level2":      tile6_level2 = image; break;
+            case "tile7_level2":      tile7_level2 = image; break;
+            case "tile8_level2":      tile8_level2 = image; break;
+            case "tile1_level3":      tile1_level3 = image; break;
+            case "tile2_level3":      tile2_level3 = image; break;
+            case "tile3_level3":      tile3_level3 = image; break;
+            case "tile4_level3":      tile4_level3 = image; break;
+            case "tile5_level3":      tile5_level3 = image; break;
+            case "tile6_level3":      tile6_level3 = image; break;
+            case "tile7_level3":      tile7_level3 = image; break;
+            case "tile8_level3":      tile8_level3 = image; break;
+        }
+    }
 
-        System.out.println("Assets initializate complet");
+    /*! \fn static boolean IsSprite(String name)
+        \brief Regiunile eroului se deseneaza la dimensiunea caracterelor, restul la dimensiunea dalelor.
+     */
+    static boolean IsSprite(String name)
+    {
+        return name.startsWith("hero");
+    }
+
+    /*! \fn public static long GetInitMillis()
+        \brief Returneaza durata ultimului Init() in milisecunde.
+     */
+    public static long GetInitMillis()
+    {
+        return initMillis;
     }
 
-    /*! \fn private static void loadMenuBackground()
+    /*! \fn private static void loadMenuBackground(BufferedImage image)
         \brief Incarca fundalul pentru meniu
      */
-    private static void loadMenuBackground()
+    private static void loadMenuBackground(BufferedImage image)
     {
         System.out.println("Incarcarea fundalului pentru meniu...");
-        backgroundMenu = ImageLoader.LoadImage("res/textures/FUNDAL.jpg");
+        backgroundMenu = image;
         if (backgroundMenu != null) {
             System.out.println("Fundal incarcat cu succes");
         }
     }
 
-    /*! \fn private static void loadCharacterSprites()
+    /*! \fn private static void loadCharacterSprites(BufferedImage characterSheet)
         \brief Incarca sprite-urile pentru personaje
      */
-    private static void loadCharacterSprites()
+    private static void loadCharacterSprites(BufferedImage characterSheet)
     {
         System.out.println("Incarcarea sprite-urilor pentru personaje...");
 
-        BufferedImage characterSheet = ImageLoader.LoadImage("res/textures/characters.png");
-
         if (characterSheet != null && characterSheet.getWidth() > 32 && characterSheet.getHeight() > 32) {
             int spriteWidth = characterSheet.getWidth() / 9;
             int spriteHeight = characterSheet.getHeight() / 4;
@@ -110,15 +279,13 @@ public class Assets
         }
     }
 
-    /*! \fn private static void loadLevel1Tiles()
+    /*! \fn private static void loadLevel1Tiles(BufferedImage mapSheetImage)
         \brief Incarca tile-urile pentru Level 1 (Forest theme - existent)
      */
-    private static void loadLevel1Tiles()
+    private static void loadLevel1Tiles(BufferedImage mapSheetImage)
     {
         System.out.println("Incarcarea tile-urilor pentru Level 1 (Forest)...");
 
-        BufferedImage mapSheetImage = ImageLoader.LoadImage("res/textures/gentle forest v01.png");
-
         if (mapSheetImage != null) {
             SpriteSheet mapSheet = new SpriteSheet(mapSheetImage);
             try {
@@ -138,17 +305,15 @@ public class Assets
         }
     }
 
-    /*! \fn private static void loadLevel2Tiles()
+    /*! \fn private static void loadLevel2Tiles(BufferedImage level2Image)
         \brief Incarca tile-urile pentru Level 2 din CaveBG.png
         Cu dimensiuni corecte: 32x23 pixeli per tile
      */
-    private static void loadLevel2Tiles()
+    private static void loadLevel2Tiles(BufferedImage level2Image)
     {
         System.out.println("Incarcarea tile-urilor pentru Level 2 din CaveBG.png...");
         System.out.println("Dimensiuni tile: 32x32 pixeli");
 
-        BufferedImage level2Image = ImageLoader.LoadImage("res/textures/CaveBG.png");
-
         if (level2Image != null) {
             System.out.println("CaveBG.png incarcat: " + level2Image.getWidth() + "x" + level2Image.getHeight());
 
@@ -176,17 +341,15 @@ public class Assets
         }
     }
 
-    /*! \fn private static void loadLevel3Tiles()
+    /*! \fn private static void loadLevel3Tiles(BufferedImage level3Image)
         \brief Incarca tile-urile pentru Level 3 din CaveG.png
         Cu dimensiuni corecte: 32x23 pixeli per tile
      */
-    private static void loadLevel3Tiles()
+    private static void loadLevel3Tiles(BufferedImage level3Image)
     {
         System.out.println("Incarcarea tile-urilor pentru Level 3 din CaveG.png...");
         System.out.println("Dimensiuni tile: 32x32 pixeli");
 
-        BufferedImage level3Image = ImageLoader.LoadImage("res/textures/CaveG.png");
-
         if (level3Image != null) {
             System.out.println("CaveG.png incarcat: " + level3Image.getWidth() + "x" + level3Image.getHeight());
 
@@ -0,0 +1,145 @@
+package PaooGame.Graphics;
+
+import PaooGame.Items.Character;
+import PaooGame.Tiles.Tile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*! \class AtlasBaker
+    \brief Unealta rulata la build (nu in joc) care impacheteaza dalele si sprite-urile folosite in atlas.
+
+    Regiunile sunt cele din Assets.REGION_NAMES, decupate din sheet-urile originale si scalate (NEAREST) la
+    dimensiunea la care se deseneaza: TILE_WIDTH x TILE_HEIGHT pentru dale, DEFAULT_CREATURE_WIDTH x
+    DEFAULT_CREATURE_HEIGHT pentru erou. Impachetarea este pe rafturi (regiunile sortate descrescator dupa
+    inaltime) in pagini cu dimensiuni puteri ale lui 2, de cel mult MAX_PAGE_SIZE. Nu sunt necesare margini intre
+    regiuni: ele sunt copiate 1:1, fara filtrare.
+
+    Rezultat: atlas0.png, atlas1.png, ... si manifestul atlas.bin (vezi TextureAtlas) in directorul dat.
+
+    Rulare (din radacina proiectului, dupa orice modificare a texturilor din res/textures):
+        java -cp out PaooGame.Graphics.AtlasBaker [director]
+ */
+public class AtlasBaker
+{
+    private static final int MIN_PAGE_SIZE = 64;
+    private static final int MAX_PAGE_SIZE = 1024;
+
+    public static void main(String[] args) throws IOException
+    {
+        String manifestPath = Assets.ATLAS_MANIFEST_PATH;
+        File directory = new File(args.length > 0 ? args[0] : manifestPath.substring(0, manifestPath.lastIndexOf('/')));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Nu se poate crea directorul " + directory);
+        }
+
+        Assets.InitFromSheets();
+        List<BufferedImage> images = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String name : Assets.REGION_NAMES) {
+            BufferedImage source = Assets.GetRegion(name);
+            if (source == null) {
+                throw new IOException("Regiune lipsa in Assets: " + name);
+            }
+            int width = Assets.IsSprite(name) ? Character.DEFAULT_CREATURE_WIDTH : Tile.TILE_WIDTH;
+            int height = Assets.IsSprite(name) ? Character.DEFAULT_CREATURE_HEIGHT : Tile.TILE_HEIGHT;
+            images.add(ScaledImageCache.Get(source, width, height));
+            names.add(name);
+        }
+
+        // Ordinea de impachetare: descrescator dupa inaltime (rafturi cat mai pline)
+        Integer[] order = new Integer[images.size()];
+        long area = 0;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            area += (long) images.get(i).getWidth() * images.get(i).getHeight();
+        }
+        Arrays.sort(order, (a, b) -> images.get(b).getHeight() - images.get(a).getHeight());
+
+        int pageWidth = MIN_PAGE_SIZE;
+        while (pageWidth < MAX_PAGE_SIZE && (long) pageWidth * pageWidth < area) {
+            pageWidth <<= 1;
+        }
+
+        List<TextureAtlas.Region> regions = new ArrayList<>();
+        List<Integer> pageHeights = new ArrayList<>();
+        int page = 0, x = 0, y = 0, shelfHeight = 0;
+        for (int index : order) {
+            BufferedImage image = images.get(index);
+            int w = image.getWidth(), h = image.getHeight();
+            if (w > pageWidth || h > MAX_PAGE_SIZE) {
+                throw new IOException("Regiunea " + names.get(index) + " nu incape intr-o pagina");
+            }
+            if (x + w > pageWidth) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (y + h > MAX_PAGE_SIZE) {
+                pageHeights.add(NextPowerOfTwo(y));
+                page++;
+                x = 0;
+                y = 0;
+                shelfHeight = 0;
+            }
+            regions.add(new TextureAtlas.Region(names.get(index), page, x, y, w, h));
+            x += w;
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+        pageHeights.add(NextPowerOfTwo(y + shelfHeight));
+
+        // Paginile (PNG cu transparenta, nepremultiplicat)
+        int pageCount = pageHeights.size();
+        String[] pageFiles = new String[pageCount];
+        int[] widths = new int[pageCount];
+        int[] heights = new int[pageCount];
+        for (int p = 0; p < pageCount; p++) {
+            pageFiles[p] = "atlas" + p + ".png";
+            widths[p] = pageWidth;
+            heights[p] = pageHeights.get(p);
+            BufferedImage pageImage = new BufferedImage(widths[p], heights[p], BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = pageImage.createGraphics();
+            g2d.setComposite(AlphaComposite.Src);
+            for (TextureAtlas.Region region : regions) {
+                if (region.page == p) {
+                    g2d.drawImage(images.get(names.indexOf(region.name)), region.x, region.y, null);
+                }
+            }
+            g2d.dispose();
+            ImageIO.write(pageImage, "png", new File(directory, pageFiles[p]));
+            System.out.println("Pagina " + pageFiles[p] + ": " + widths[p] + "x" + heights[p]);
+        }
+
+        // Manifestul, cu CRC32 al surselor pentru detectarea unui atlas vechi
+        String[] sources = Assets.SHEET_PATHS;
+        long[] sourceChecksums = new long[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            sourceChecksums[i] = TextureAtlas.Checksum(sources[i]);
+            if (sourceChecksums[i] < 0) {
+                throw new IOException("Textura sursa lipseste: " + sources[i]);
+            }
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(directory, "atlas.bin")))) {
+            TextureAtlas.WriteManifest(out, pageFiles, widths, heights, sources, sourceChecksums, regions);
+        }
+        System.out.println("Atlas scris in " + directory + ": " + regions.size() + " regiuni, " + pageCount + " pagini");
+    }
+
+    private static int NextPowerOfTwo(int value)
+    {
+        int size = MIN_PAGE_SIZE;
+        while (size < value) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
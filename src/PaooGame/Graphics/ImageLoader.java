@@ -1,74 +1,62 @@
 package PaooGame.Graphics;
 
 import javax.imageio.ImageIO;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.File;
 import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*! \class public class ImageLoader
-    \brief Clasa ce contine o metoda statica pentru incarcarea unei imagini in memorie.
+    \brief Clasa ce contine metode statice pentru incarcarea imaginilor in memorie.
+
+    Calea unei imagini este rezolvata o singura data (classpath cu "/", fisier, classpath fara "/") si pastrata,
+    iar imaginea este decodata o singura data din locul gasit. LoadImages() decodeaza mai multe imagini in paralel
+    (ForkJoinPool comun), iar fiecare imagine este convertita intr-un format compatibil cu ecranul
+    (vezi ToCompatibleImage()), ca Java2D sa o poata desena accelerat, fara conversii la fiecare desenare.
  */
 public class ImageLoader
 {
+    private static final ConcurrentHashMap<String, URL> resolved = new ConcurrentHashMap<>(); /*!< Calea ceruta -> locul gasit.*/
+
+    static
+    {
+        // Fara cache pe disc: ImageIO ar copia fiecare flux intr-un fisier temporar inainte de decodare
+        ImageIO.setUseCache(false);
+    }
+
     /*! \fn  public static BufferedImage loadImage(String path)
-        \brief Incarca o imagine intr-un obiect BufferedImage si returneaza o referinta catre acesta.
+        \brief Incarca o imagine intr-un obiect BufferedImage compatibil cu ecranul si returneaza o referinta catre acesta.
+
+        Daca imaginea lipseste sau nu poate fi citita se returneaza o imagine temporara de 16x16 (magenta, respectiv rosie).
 
         \param path Calea relativa pentru localizarea fisierul imagine.
      */
     public static BufferedImage LoadImage(String path)
     {
-        System.out.println("incercare incarcare: " + path);
-
         try
         {
-            // incearca mai intai sa incarce resursa din classpath
-            InputStream inputStream = ImageLoader.class.getResourceAsStream("/" + path);
-
-            if (inputStream != null) {
-                BufferedImage img = ImageIO.read(inputStream);
-                if (img != null) {
-                    System.out.println("✓ Imagine incarcata din classpath: " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
-                    return img;
-                }
+            URL location = Resolve(path);
+            if (location == null) {
+                System.out.println("⚠ Imagine lipsa, se creeaza temporara: " + path);
+                return CreatePlaceholder(Color.MAGENTA);
             }
 
-            // Daca resursa nu exista in classpath, incarca ca fisier
-            File file = new File(path);
-            System.out.println("Verificare fisier: " + file.getAbsolutePath());
-            System.out.println("Fisierul exista: " + file.exists());
-
-            if (file.exists()) {
-                BufferedImage img = ImageIO.read(file);
-                if (img != null) {
-                    System.out.println("✓ Imagine incarcata ca fisier: " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
-                    return img;
-                } else {
-                    System.out.println("Fisierul exista dar nu se poate citi ca imagine: " + path);
-                }
-            } else {
-                System.out.println("Fisierul nu exista: " + file.getAbsolutePath());
+            BufferedImage img;
+            try (InputStream inputStream = location.openStream()) {
+                img = ImageIO.read(inputStream);
             }
-
-            // incearca si fara slash-ul de la inceput pentru classpath
-            inputStream = ImageLoader.class.getResourceAsStream(path);
-            if (inputStream != null) {
-                BufferedImage img = ImageIO.read(inputStream);
-                if (img != null) {
-                    System.out.println("✓ Imagine incarcata din classpath (fara /): " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
-                    return img;
-                }
+            if (img == null) {
+                System.out.println("Fisierul exista dar nu se poate citi ca imagine: " + path);
+                return CreatePlaceholder(Color.MAGENTA);
             }
-
-            System.out.println("⚠ Imagine lipsa, se creeaza temporara: " + path);
-
-            // Returneaza o imagine temporara pentru a evita crash-ul
-            BufferedImage tempImage = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
-            java.awt.Graphics2D g2d = tempImage.createGraphics();
-            g2d.setColor(java.awt.Color.MAGENTA); // Culoare vizibila pentru debugging
-            g2d.fillRect(0, 0, 16, 16);
-            g2d.dispose();
-            return tempImage;
+            System.out.println("✓ Imagine incarcata: " + path + " (" + img.getWidth() + "x" + img.getHeight() + ")");
+            return ToCompatibleImage(img);
         }
         catch(IOException e)
         {
@@ -76,12 +64,132 @@ public class ImageLoader
             e.printStackTrace();
 
             // Returneaza o imagine temporara si in caz de eroare
-            BufferedImage tempImage = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
-            java.awt.Graphics2D g2d = tempImage.createGraphics();
-            g2d.setColor(java.awt.Color.RED); // Culoare diferita pentru erori
-            g2d.fillRect(0, 0, 16, 16);
-            g2d.dispose();
-            return tempImage;
+            return CreatePlaceholder(Color.RED);
+        }
+    }
+
+    /*! \fn public static BufferedImage[] LoadImages(String... paths)
+        \brief Incarca mai multe imagini in paralel; rezultatul i corespunde caii i.
+     */
+    public static BufferedImage[] LoadImages(String... paths)
+    {
+        List<CompletableFuture<BufferedImage>> tasks = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            tasks.add(CompletableFuture.supplyAsync(() -> LoadImage(path)));
         }
+
+        BufferedImage[] images = new BufferedImage[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            images[i] = tasks.get(i).join();
+        }
+        return images;
+    }
+
+    /*! \fn static InputStream Open(String path)
+        \brief Deschide o resursa oarecare (de exemplu manifestul atlasului) cautata ca o imagine; null daca lipseste.
+     */
+    static InputStream Open(String path) throws IOException
+    {
+        URL location = Resolve(path);
+        return location == null ? null : location.openStream();
+    }
+
+    /*! \fn private static URL Resolve(String path)
+        \brief Gaseste locul imaginii (fara sa o deschida) in ordinea: classpath cu "/", fisier, classpath fara "/".
+
+        Rezultatul este pastrat, deci o cale este cautata o singura data pe toata durata jocului.
+     */
+    private static URL Resolve(String path) throws IOException
+    {
+        URL location = resolved.get(path);
+        if (location != null) {
+            return location;
+        }
+
+        location = ImageLoader.class.getResource("/" + path);
+        if (location == null) {
+            File file = new File(path);
+            if (file.isFile()) {
+                location = file.toURI().toURL();
+            }
+        }
+        if (location == null) {
+            location = ImageLoader.class.getResource(path);
+        }
+        if (location != null) {
+            resolved.put(path, location);
+        }
+        return location;
+    }
+
+    /*! \fn public static BufferedImage ToCompatibleImage(BufferedImage image)
+        \brief Copiaza imaginea intr-un format compatibil cu ecranul (opac sau cu transparenta, dupa imagine).
+
+        Cu ecran, formatul este cel al GraphicsConfiguration implicite; fara ecran (headless) se folosesc
+        TYPE_INT_RGB pentru imaginile opace si TYPE_INT_ARGB_PRE pentru cele transparente, formatele pe care
+        Java2D le deseneaza direct. Imaginile deja compatibile sunt returnate neschimbate.
+     */
+    public static BufferedImage ToCompatibleImage(BufferedImage image)
+    {
+        int transparency = image.getColorModel().getTransparency();
+        GraphicsConfiguration configuration = GetGraphicsConfiguration();
+
+        if (configuration != null) {
+            if (image.getColorModel().equals(configuration.getColorModel(transparency))) {
+                return image;
+            }
+        } else if (image.getType() == HeadlessType(transparency)) {
+            return image;
+        }
+
+        BufferedImage compatible = CreateCompatibleImage(image.getWidth(), image.getHeight(), transparency);
+        Graphics2D g2d = compatible.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return compatible;
+    }
+
+    /*! \fn public static BufferedImage CreateCompatibleImage(int width, int height, int transparency)
+        \brief Creeaza o imagine goala in formatul compatibil cu ecranul (vezi ToCompatibleImage()).
+
+        \param transparency Transparency.OPAQUE, BITMASK sau TRANSLUCENT.
+     */
+    public static BufferedImage CreateCompatibleImage(int width, int height, int transparency)
+    {
+        GraphicsConfiguration configuration = GetGraphicsConfiguration();
+        if (configuration != null) {
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height, HeadlessType(transparency));
+    }
+
+    private static int HeadlessType(int transparency)
+    {
+        return transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+    }
+
+    /*! \fn private static GraphicsConfiguration GetGraphicsConfiguration()
+        \brief Configuratia ecranului implicit sau null in modul headless.
+     */
+    private static GraphicsConfiguration GetGraphicsConfiguration()
+    {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /*! \fn private static BufferedImage CreatePlaceholder(Color color)
+        \brief Creeaza o imagine temporara de 16x16 pentru a evita crash-ul (culoare vizibila pentru debugging).
+     */
+    private static BufferedImage CreatePlaceholder(Color color)
+    {
+        BufferedImage tempImage = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = tempImage.createGraphics();
+        g2d.setColor(color);
+        g2d.fillRect(0, 0, 16, 16);
+        g2d.dispose();
+        return tempImage;
     }
 }
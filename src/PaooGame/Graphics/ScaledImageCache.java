@@ -0,0 +1,138 @@
+package PaooGame.Graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*! \class ScaledImageCache
+    \brief Pastreaza copiile redimensionate ale dalelor si sprite-urilor, create o singura data.
+
+    Desenarea cu drawImage(img, x, y, latime, inaltime, null) cand imaginea are alta dimensiune obliga Java2D
+    sa scaleze la fiecare desenare (calea lenta, cu transformare). Get() intoarce o imagine compatibila cu ecranul
+    care are deja dimensiunea ceruta, deci se poate desena cu drawImage(img, x, y, null) (copiere simpla).
+
+    Cheia este (imaginea sursa - dupa identitate, dimensiunea tinta, interpolarea). Imaginile sursa sunt
+    elementele grafice din Assets, care traiesc cat jocul, asa ca referintele puternice din cheie nu tin in
+    viata nimic in plus. Interpolarea implicita este NEAREST, aceeasi pe care o folosea scalarea la desenare.
+ */
+public class ScaledImageCache
+{
+    public static final int NEAREST  = 0;   /*!< Cel mai apropiat pixel (pixel art, implicit in Java2D).*/
+    public static final int BILINEAR = 1;
+    public static final int BICUBIC  = 2;
+
+    private static final Object[] INTERPOLATION_HINTS = {
+            RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR,
+            RenderingHints.VALUE_INTERPOLATION_BICUBIC
+    };
+
+    private static final ConcurrentHashMap<Key, BufferedImage> cache = new ConcurrentHashMap<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /*! \class Key
+        \brief Cheia cache-ului; imaginea sursa este comparata dupa identitate.
+     */
+    private static final class Key
+    {
+        final BufferedImage source;
+        final int width;
+        final int height;
+        final int interpolation;
+
+        Key(BufferedImage source, int width, int height, int interpolation)
+        {
+            this.source = source;
+            this.width = width;
+            this.height = height;
+            this.interpolation = interpolation;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return source == key.source && width == key.width && height == key.height && interpolation == key.interpolation;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return ((System.identityHashCode(source) * 31 + width) * 31 + height) * 31 + interpolation;
+        }
+    }
+
+    private ScaledImageCache()
+    {
+    }
+
+    /*! \fn public static BufferedImage Get(BufferedImage source, int width, int height)
+        \brief Imaginea sursa la dimensiunea data, cu interpolarea NEAREST.
+     */
+    public static BufferedImage Get(BufferedImage source, int width, int height)
+    {
+        return Get(source, width, height, NEAREST);
+    }
+
+    /*! \fn public static BufferedImage Get(BufferedImage source, int width, int height, int interpolation)
+        \brief Imaginea sursa la dimensiunea data; este creata la prima cerere si refolosita apoi.
+
+        \param interpolation NEAREST, BILINEAR sau BICUBIC.
+     */
+    public static BufferedImage Get(BufferedImage source, int width, int height, int interpolation)
+    {
+        if (source.getWidth() == width && source.getHeight() == height) {
+            hits.incrementAndGet();
+            return source;      // ImageLoader a convertit deja sursa intr-un format compatibil
+        }
+        Key key = new Key(source, width, height, interpolation);
+        BufferedImage scaled = cache.get(key);
+        if (scaled != null) {
+            hits.incrementAndGet();
+            return scaled;
+        }
+        return cache.computeIfAbsent(key, k -> {
+            misses.incrementAndGet();
+            return Scale(k.source, k.width, k.height, k.interpolation);
+        });
+    }
+
+    private static BufferedImage Scale(BufferedImage source, int width, int height, int interpolation)
+    {
+        BufferedImage scaled = ImageLoader.CreateCompatibleImage(width, height, source.getColorModel().getTransparency());
+        Graphics2D g2d = scaled.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, INTERPOLATION_HINTS[interpolation]);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return scaled;
+    }
+
+    /*! \fn public static void Clear()
+        \brief Elibereaza toate copiile (de exemplu dupa schimbarea rezolutiei).
+     */
+    public static void Clear()
+    {
+        cache.clear();
+    }
+
+    public static long GetHits()
+    {
+        return hits.get();
+    }
+
+    public static long GetMisses()
+    {
+        return misses.get();
+    }
+
+    public static int GetSize()
+    {
+        return cache.size();
+    }
+}
@@ -0,0 +1,259 @@
+package PaooGame.Graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/*! \class TextureAtlas
+    \brief Una sau mai multe imagini mari (pagini, dimensiuni puteri ale lui 2) in care sunt impachetate toate
+    dalele si sprite-urile folosite, deja scalate la dimensiunea de desenare.
+
+    Atlasul este produs dinainte de AtlasBaker si descris de un manifest binar compact:
+        int    MAGIC ('ATL1')
+        short  VERSION
+        short  numarul de pagini,  apoi pentru fiecare: UTF fisier (relativ la manifest), short latime, short inaltime
+        short  numarul de surse,   apoi pentru fiecare: UTF cale, long CRC32 al fisierului la coacere
+        short  numarul de regiuni, apoi pentru fiecare: UTF nume, byte pagina, short x, y, latime, inaltime
+
+    Sursele permit detectarea unui atlas vechi: daca vreo textura sursa are acum alt CRC32 (ca la hartile compilate,
+    vezi MapBinaryLoader) sau nu poate fi citita pentru verificare, ReadManifest() refuza atlasul si Assets foloseste
+    decuparea obisnuita. Sursele sunt cautate la fel ca imaginile (ImageLoader.Open), deci si din classpath/.jar.
+
+    La desenare, Draw() copiaza dreptunghiul regiunii direct din pagina (fara subimagini si fara scalare);
+    GetImage() ofera si o subimagine, pentru codul care are nevoie de un BufferedImage.
+ */
+public class TextureAtlas
+{
+    public static final int MAGIC = 0x41544C31;  /*!< 'ATL1'*/
+    public static final int VERSION = 2;          /*!< 2: sursele sunt identificate prin CRC32, nu prin lungime.*/
+    private static final int CHECKSUM_BUFFER = 1 << 16;
+
+    /*! \class Region
+        \brief O dala sau un sprite din atlas.
+     */
+    public static final class Region
+    {
+        public final String name;
+        public final int page;
+        public final int x;
+        public final int y;
+        public final int width;
+        public final int height;
+
+        public Region(String name, int page, int x, int y, int width, int height)
+        {
+            this.name = name;
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final String[] pagePaths;
+    private final int[] pageWidths;
+    private final int[] pageHeights;
+    private final List<Region> regions;
+    private final HashMap<String, Region> byName = new HashMap<>();
+    private final IdentityHashMap<BufferedImage, Region> byImage = new IdentityHashMap<>();
+    private final HashMap<String, BufferedImage> images = new HashMap<>();
+    private BufferedImage[] pages;
+
+    private TextureAtlas(String[] pagePaths, int[] pageWidths, int[] pageHeights, List<Region> regions)
+    {
+        this.pagePaths = pagePaths;
+        this.pageWidths = pageWidths;
+        this.pageHeights = pageHeights;
+        this.regions = regions;
+        for (Region region : regions) {
+            byName.put(region.name, region);
+        }
+    }
+
+    /*! \fn public static TextureAtlas ReadManifest(String manifestPath)
+        \brief Citeste manifestul; paginile se incarca apoi (de exemplu in paralel) si se dau lui SetPages().
+
+        \return Atlasul fara pagini sau null daca manifestul lipseste ori sursele s-au schimbat de la coacere.
+     */
+    public static TextureAtlas ReadManifest(String manifestPath) throws IOException
+    {
+        InputStream stream = ImageLoader.Open(manifestPath);
+        if (stream == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Manifest de atlas invalid: " + manifestPath);
+            }
+            if (in.readShort() != VERSION) {
+                System.out.println("Manifestul atlasului are alta versiune, se folosesc texturile originale");
+                return null;
+            }
+
+            String directory = manifestPath.substring(0, manifestPath.lastIndexOf('/') + 1);
+            int pageCount = in.readShort();
+            String[] pagePaths = new String[pageCount];
+            int[] pageWidths = new int[pageCount];
+            int[] pageHeights = new int[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                pagePaths[i] = directory + in.readUTF();
+                pageWidths[i] = in.readShort() & 0xFFFF;
+                pageHeights[i] = in.readShort() & 0xFFFF;
+            }
+
+            int sourceCount = in.readShort();
+            for (int i = 0; i < sourceCount; i++) {
+                String source = in.readUTF();
+                long checksum = in.readLong();
+                long current = Checksum(source);
+                if (current < 0) {
+                    System.out.println("Textura " + source + " nu poate fi verificata, se folosesc texturile originale");
+                    return null;
+                }
+                if (current != checksum) {
+                    System.out.println("Atlasul este mai vechi decat " + source + ", se folosesc texturile originale");
+                    return null;
+                }
+            }
+
+            int regionCount = in.readShort();
+            List<Region> regions = new ArrayList<>(regionCount);
+            for (int i = 0; i < regionCount; i++) {
+                String name = in.readUTF();
+                int page = in.readByte();
+                int x = in.readShort() & 0xFFFF;
+                int y = in.readShort() & 0xFFFF;
+                int width = in.readShort() & 0xFFFF;
+                int height = in.readShort() & 0xFFFF;
+                if (page < 0 || page >= pageCount || x + width > pageWidths[page] || y + height > pageHeights[page]) {
+                    throw new IOException("Regiune in afara paginii in manifest: " + name);
+                }
+                regions.add(new Region(name, page, x, y, width, height));
+            }
+            return new TextureAtlas(pagePaths, pageWidths, pageHeights, regions);
+        }
+    }
+
+    /*! \fn static long Checksum(String path)
+        \brief CRC32 al unei texturi sursa, gasita ca o imagine (ImageLoader.Open), sau -1 daca nu exista.
+     */
+    static long Checksum(String path) throws IOException
+    {
+        InputStream stream = ImageLoader.Open(path);
+        if (stream == null) {
+            return -1;
+        }
+        try (CheckedInputStream in = new CheckedInputStream(stream, new CRC32())) {
+            byte[] buffer = new byte[CHECKSUM_BUFFER];
+            while (in.read(buffer) != -1) {
+                // CRC-ul se actualizeaza la fiecare citire
+            }
+            return in.getChecksum().getValue();
+        }
+    }
+
+    /*! \fn public static void WriteManifest(OutputStream stream, String[] pageFiles, int[] pageWidths, int[] pageHeights, String[] sources, long[] sourceChecksums, List<Region> regions)
+        \brief Scrie manifestul binar (folosit de AtlasBaker).
+     */
+    public static void WriteManifest(OutputStream stream, String[] pageFiles, int[] pageWidths, int[] pageHeights,
+                                     String[] sources, long[] sourceChecksums, List<Region> regions) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(pageFiles.length);
+        for (int i = 0; i < pageFiles.length; i++) {
+            out.writeUTF(pageFiles[i]);
+            out.writeShort(pageWidths[i]);
+            out.writeShort(pageHeights[i]);
+        }
+        out.writeShort(sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            out.writeUTF(sources[i]);
+            out.writeLong(sourceChecksums[i]);
+        }
+        out.writeShort(regions.size());
+        for (Region region : regions) {
+            out.writeUTF(region.name);
+            out.writeByte(region.page);
+            out.writeShort(region.x);
+            out.writeShort(region.y);
+            out.writeShort(region.width);
+            out.writeShort(region.height);
+        }
+        out.flush();
+    }
+
+    /*! \fn public void SetPages(BufferedImage[] loaded)
+        \brief Ataseaza paginile incarcate (in ordinea din GetPagePaths()) si pregateste subimaginile regiunilor.
+     */
+    public void SetPages(BufferedImage[] loaded) throws IOException
+    {
+        for (int i = 0; i < loaded.length; i++) {
+            if (loaded[i].getWidth() != pageWidths[i] || loaded[i].getHeight() != pageHeights[i]) {
+                throw new IOException("Pagina de atlas are alta dimensiune decat in manifest: " + pagePaths[i]);
+            }
+        }
+        pages = loaded;
+        for (Region region : regions) {
+            BufferedImage image = pages[region.page].getSubimage(region.x, region.y, region.width, region.height);
+            images.put(region.name, image);
+            byImage.put(image, region);
+        }
+    }
+
+    /*! \fn public void Draw(Graphics g, Region region, int x, int y)
+        \brief Copiaza regiunea din pagina ei la (x, y), la dimensiunea din atlas.
+     */
+    public void Draw(Graphics g, Region region, int x, int y)
+    {
+        g.drawImage(pages[region.page], x, y, x + region.width, y + region.height,
+                region.x, region.y, region.x + region.width, region.y + region.height, null);
+    }
+
+    /*! \fn public Region Get(String name)
+        \brief Regiunea cu numele dat sau null.
+     */
+    public Region Get(String name)
+    {
+        return byName.get(name);
+    }
+
+    /*! \fn public Region Find(BufferedImage image)
+        \brief Regiunea careia ii corespunde o imagine obtinuta din GetImage() sau null.
+     */
+    public Region Find(BufferedImage image)
+    {
+        return byImage.get(image);
+    }
+
+    /*! \fn public BufferedImage GetImage(String name)
+        \brief Subimaginea regiunii (pentru compatibilitate cu codul care lucreaza cu BufferedImage) sau null.
+     */
+    public BufferedImage GetImage(String name)
+    {
+        return images.get(name);
+    }
+
+    public String[] GetPagePaths()
+    {
+        return pagePaths;
+    }
+
+    public List<Region> GetRegions()
+    {
+        return regions;
+    }
+}
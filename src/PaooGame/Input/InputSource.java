@@ -0,0 +1,17 @@
+package PaooGame.Input;
+
+/*! \interface InputSource
+    \brief Sursa de taste folosita in locul tastaturii (de exemplu in modul fara fereastra).
+
+    KeyManager o apeleaza o data pe tick, inainte de a calcula flagurile de directie.
+ */
+public interface InputSource
+{
+    /*! \fn void Fill(long tick, boolean[] keys)
+        \brief Scrie in keys starea tastelor pentru tick-ul dat (true = tasta tinuta apasata).
+
+        \param tick Numarul tick-ului, incepand de la 0.
+        \param keys Vectorul de flaguri al KeyManager, indexat dupa codul tastei.
+     */
+    void Fill(long tick, boolean[] keys);
+}
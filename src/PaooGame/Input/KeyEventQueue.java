@@ -0,0 +1,86 @@
+package PaooGame.Input;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*! \class KeyEventQueue
+    \brief Coada circulara fara lock-uri de evenimente de tastatura (cod, apasat/eliberat, momentul in ns), cu un
+    singur producator (firul AWT) si un singur consumator (firul jocului).
+
+    Producatorul scrie evenimentul in slotul de la tail si apoi publica tail cu setRelease; consumatorul citeste
+    tail cu getAcquire, deci vede evenimentele complet scrise, si elibereaza sloturile publicand head. Nu se
+    aloca nimic dupa constructie. Daca, intre doua tick-uri, sosesc mai multe evenimente decat capacitatea,
+    cele noi sunt respinse si numarate (GetDropped()).
+ */
+public class KeyEventQueue
+{
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /*! \interface Handler
+        \brief Primeste evenimentele scoase din coada de Drain().
+     */
+    public interface Handler
+    {
+        void OnKey(int keyCode, boolean pressed, long nanos);
+    }
+
+    private final int mask;
+    private final int[] events;     /*!< (keyCode << 1) | apasat.*/
+    private final long[] nanos;     /*!< Momentul fiecarui eveniment (System.nanoTime()).*/
+    private final AtomicInteger head = new AtomicInteger();    /*!< Urmatorul slot de citit; scris doar de consumator.*/
+    private final AtomicInteger tail = new AtomicInteger();    /*!< Urmatorul slot de scris; scris doar de producator.*/
+    private volatile int dropped;   /*!< Evenimente respinse pentru ca coada era plina (scris doar de producator).*/
+
+    /*! \fn public KeyEventQueue(int capacity)
+        \brief Constructorul; capacitatea este rotunjita la o putere a lui 2.
+     */
+    public KeyEventQueue(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        events = new int[size];
+        nanos = new long[size];
+    }
+
+    /*! \fn public boolean Offer(int keyCode, boolean pressed, long time)
+        \brief Adauga un eveniment (doar de pe firul producator); false daca coada este plina.
+     */
+    public boolean Offer(int keyCode, boolean pressed, long time)
+    {
+        int t = tail.get();
+        if (t - head.getAcquire() > mask) {
+            dropped++;
+            return false;
+        }
+        events[t & mask] = (keyCode << 1) | (pressed ? 1 : 0);
+        nanos[t & mask] = time;
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /*! \fn public int Drain(Handler handler)
+        \brief Scoate toate evenimentele publicate, in ordinea sosirii (doar de pe firul consumator).
+
+        \return Numarul de evenimente scoase.
+     */
+    public int Drain(Handler handler)
+    {
+        int h = head.get();
+        int t = tail.getAcquire();
+        for (int i = h; i != t; i++) {
+            int event = events[i & mask];
+            handler.OnKey(event >>> 1, (event & 1) != 0, nanos[i & mask]);
+        }
+        head.setRelease(t);
+        return t - h;
+    }
+
+    public int GetCapacity()
+    {
+        return mask + 1;
+    }
+
+    public int GetDropped()
+    {
+        return dropped;
+    }
+}
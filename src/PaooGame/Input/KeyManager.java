@@ -6,35 +6,144 @@ import java.awt.event.KeyListener;
 /*! \class public class KeyManager implements KeyListener
     \brief Gestioneaza intrarea (input-ul) de tastatura.
 
-    Clasa citeste daca au fost apasata o tasta, stabiliteste ce tasta a fost actionata si seteaza corespunzator un flag.
-    In program trebuie sa se tina cont de flagul aferent tastei de interes. Daca flagul respectiv este true inseamna
-    ca tasta respectiva a fost apasata si false nu a fost apasata.
+    Evenimentele de tastatura sosesc pe firul AWT si sunt puse intr-o coada fara lock-uri (KeyEventQueue), impreuna
+    cu momentul in care au sosit. Update() este apelata o data pe tick de firul jocului si goleste coada in trei
+    seturi de biti (cate un bit pe cod de tasta [0 - 255]):
+        - held: tastele tinute apasate dupa ultimul eveniment;
+        - pressed: tastele apasate in acest tick (frontul de apasare);
+        - released: tastele eliberate in acest tick.
+    O apasare mai scurta decat un tick apare deci ca pressed si released in acelasi tick, in loc sa se piarda.
+    Starile interogheaza fronturile cu IsPressed()/IsReleased() in O(1), fara flaguri proprii.
  */
 public class KeyManager implements KeyListener
 {
-    public boolean[] keys; /*!< Vector de flaguri pentru toate tastele. Tastele vor fi regasite dupa cod [0 - 255]*/
+    private static final int KEY_COUNT = 256;
+    private static final int WORDS = KEY_COUNT / Long.SIZE;
+
     public boolean up;      /*!< Flag pentru tasta "sus" apasata.*/
     public boolean down;    /*!< Flag pentru tasta "jos" apasata.*/
     public boolean left;    /*!< Flag pentru tasta "stanga" apasata.*/
     public boolean right;   /*!< Flag pentru tasta "dreapta" apasata.*/
 
+    private final KeyEventQueue queue;                  /*!< Evenimentele firului AWT, inca nepreluate de joc.*/
+    private final KeyEventQueue.Handler apply = this::Apply;
+    private final long[] held = new long[WORDS];        /*!< Tastele tinute apasate.*/
+    private final long[] pressed = new long[WORDS];     /*!< Tastele apasate in tick-ul curent.*/
+    private final long[] released = new long[WORDS];    /*!< Tastele eliberate in tick-ul curent.*/
+    private final long[] eventNanos = new long[KEY_COUNT];  /*!< Momentul ultimului eveniment al fiecarei taste.*/
+    private InputSource inputSource;    /*!< Sursa de taste in locul tastaturii (null = evenimentele ferestrei).*/
+    private final boolean[] sourceKeys = new boolean[KEY_COUNT];    /*!< Starea scrisa de inputSource.*/
+    private long tick;                  /*!< Numarul de Update() de la setarea sursei.*/
+
     /*! \fn public KeyManager()
         \brief Constructorul clasei.
      */
     public KeyManager()
     {
-        ///Constructie vector de flaguri aferente tastelor.
-        keys = new boolean[256];
+        queue = new KeyEventQueue(KeyEventQueue.DEFAULT_CAPACITY);
         System.out.println("✓ KeyManager initializat");
     }
 
+    /*! \fn public void SetInputSource(InputSource source)
+        \brief Seteaza sursa din care se citesc tastele la fiecare Update() (null revine la tastatura).
+     */
+    public void SetInputSource(InputSource source)
+    {
+        inputSource = source;
+        tick = 0;
+    }
 
+    /*! \fn public void Update()
+        \brief Preia evenimentele sosite de la tick-ul anterior si recalculeaza fronturile; se apeleaza o data pe tick.
+     */
     public void Update()
     {
-        up    = keys[KeyEvent.VK_W];
-        down  = keys[KeyEvent.VK_S];
-        left  = keys[KeyEvent.VK_A];
-        right = keys[KeyEvent.VK_D];
+        for (int i = 0; i < WORDS; i++) {
+            pressed[i] = 0;
+            released[i] = 0;
+        }
+        queue.Drain(apply);
+        if (inputSource != null) {
+            // Sursa da starea dorita a tastelor; diferentele fata de held devin evenimente
+            inputSource.Fill(tick++, sourceKeys);
+            long now = System.nanoTime();
+            for (int word = 0; word < WORDS; word++) {
+                long bits = 0;
+                for (int bit = 0; bit < Long.SIZE; bit++) {
+                    if (sourceKeys[(word << 6) + bit]) {
+                        bits |= 1L << bit;
+                    }
+                }
+                for (long changed = bits ^ held[word]; changed != 0; changed &= changed - 1) {
+                    int keyCode = (word << 6) + Long.numberOfTrailingZeros(changed);
+                    Apply(keyCode, (bits & (1L << keyCode)) != 0, now);
+                }
+            }
+        }
+        up    = IsHeld(KeyEvent.VK_W);
+        down  = IsHeld(KeyEvent.VK_S);
+        left  = IsHeld(KeyEvent.VK_A);
+        right = IsHeld(KeyEvent.VK_D);
+    }
+
+    /*! \fn private void Apply(int keyCode, boolean down, long nanos)
+        \brief Aplica un eveniment peste seturile de biti (doar pe firul jocului).
+     */
+    private void Apply(int keyCode, boolean down, long nanos)
+    {
+        int word = keyCode >>> 6;
+        long bit = 1L << keyCode;
+        if (down) {
+            // Repetarea automata a tastei nu este un front nou
+            if ((held[word] & bit) == 0) {
+                pressed[word] |= bit;
+            }
+            held[word] |= bit;
+        } else if ((held[word] & bit) != 0) {
+            released[word] |= bit;
+            held[word] &= ~bit;
+        }
+        eventNanos[keyCode] = nanos;
+    }
+
+    /*! \fn public boolean IsHeld(int keyCode)
+        \brief true daca tasta este tinuta apasata.
+     */
+    public boolean IsHeld(int keyCode)
+    {
+        return keyCode >= 0 && keyCode < KEY_COUNT && (held[keyCode >>> 6] & (1L << keyCode)) != 0;
+    }
+
+    /*! \fn public boolean IsPressed(int keyCode)
+        \brief true daca tasta a fost apasata in tick-ul curent (chiar daca a fost si eliberata intre timp).
+     */
+    public boolean IsPressed(int keyCode)
+    {
+        return keyCode >= 0 && keyCode < KEY_COUNT && (pressed[keyCode >>> 6] & (1L << keyCode)) != 0;
+    }
+
+    /*! \fn public boolean IsReleased(int keyCode)
+        \brief true daca tasta a fost eliberata in tick-ul curent.
+     */
+    public boolean IsReleased(int keyCode)
+    {
+        return keyCode >= 0 && keyCode < KEY_COUNT && (released[keyCode >>> 6] & (1L << keyCode)) != 0;
+    }
+
+    /*! \fn public long GetEventNanos(int keyCode)
+        \brief Momentul (System.nanoTime()) ultimului eveniment al tastei sau 0 daca nu a existat.
+     */
+    public long GetEventNanos(int keyCode)
+    {
+        return keyCode >= 0 && keyCode < KEY_COUNT ? eventNanos[keyCode] : 0;
+    }
+
+    /*! \fn public int GetDroppedEvents()
+        \brief Numarul de evenimente pierdute pentru ca coada s-a umplut intre doua tick-uri.
+     */
+    public int GetDroppedEvents()
+    {
+        return queue.GetDropped();
     }
 
     /*! \fn public void keyPressed(KeyEvent e)
@@ -46,8 +155,8 @@ public class KeyManager implements KeyListener
     public void keyPressed(KeyEvent e)
     {
         int keyCode = e.getKeyCode();
-        if (keyCode >= 0 && keyCode < keys.length) {
-            keys[keyCode] = true;
+        if (keyCode >= 0 && keyCode < KEY_COUNT) {
+            queue.Offer(keyCode, true, System.nanoTime());
 
             // Debug pentru taste importante in meniu
             if (keyCode == KeyEvent.VK_W) System.out.println("Tasta W apasata");
@@ -67,8 +176,8 @@ public class KeyManager implements KeyListener
     public void keyReleased(KeyEvent e)
     {
         int keyCode = e.getKeyCode();
-        if (keyCode >= 0 && keyCode < keys.length) {
-            keys[keyCode] = false;
+        if (keyCode >= 0 && keyCode < KEY_COUNT) {
+            queue.Offer(keyCode, false, System.nanoTime());
         }
     }
 
@@ -81,4 +190,4 @@ public class KeyManager implements KeyListener
     {
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package PaooGame.Input;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.Random;
+
+/*! \class SyntheticInput
+    \brief Intrare generata (bot) pentru rulari fara fereastra: porneste un joc nou din meniu si apoi se
+    plimba aleator prin nivel, cu restart (R) la intervale fixe.
+
+    Secventa depinde doar de seed, deci doua rulari cu acelasi seed apasa aceleasi taste la aceleasi tick-uri.
+    Fill() nu aloca nimic.
+ */
+public class SyntheticInput implements InputSource
+{
+    private static final int START_TICKS = 2;           /*!< Cat timp se tine ENTER la inceput (NEW GAME din meniu).*/
+    private static final int MIN_HOLD_TICKS = 10;       /*!< Durata minima a unei directii.*/
+    private static final int MAX_HOLD_TICKS = 60;       /*!< Durata maxima a unei directii.*/
+    private static final int[] DIRECTIONS = {KeyEvent.VK_W, KeyEvent.VK_A, KeyEvent.VK_S, KeyEvent.VK_D};
+
+    private final Random random;
+    private final int restartInterval;  /*!< La cate tick-uri se apasa R (<= 0 niciodata).*/
+    private int heldKeys;               /*!< Bitii directiilor tinute apasate (indici in DIRECTIONS).*/
+    private long changeTick;            /*!< Tick-ul la care se alege o noua directie.*/
+
+    /*! \fn public SyntheticInput(long seed, int restartInterval)
+        \brief Constructorul clasei.
+
+        \param seed Seed-ul generatorului de directii.
+        \param restartInterval La cate tick-uri se reporneste nivelul (<= 0 niciodata).
+     */
+    public SyntheticInput(long seed, int restartInterval)
+    {
+        this.random = new Random(seed);
+        this.restartInterval = restartInterval;
+        this.changeTick = START_TICKS;
+    }
+
+    @Override
+    public void Fill(long tick, boolean[] keys)
+    {
+        Arrays.fill(keys, false);
+        if (tick < START_TICKS) {
+            keys[KeyEvent.VK_ENTER] = true;
+            return;
+        }
+
+        if (tick >= changeTick) {
+            // Una sau doua directii (diagonala), uneori niciuna
+            heldKeys = random.nextInt(8) == 0 ? 0 : (1 << random.nextInt(4)) | (random.nextBoolean() ? 1 << random.nextInt(4) : 0);
+            changeTick = tick + MIN_HOLD_TICKS + random.nextInt(MAX_HOLD_TICKS - MIN_HOLD_TICKS + 1);
+        }
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            keys[DIRECTIONS[i]] = (heldKeys & (1 << i)) != 0;
+        }
+        // R este tinut un singur tick, deci PlayState vede apasarea o data
+        if (restartInterval > 0 && tick > START_TICKS && tick % restartInterval == 0) {
+            keys[KeyEvent.VK_R] = true;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package PaooGame.Items;
 
+import PaooGame.AI.FlowField;
+import PaooGame.CollisionDetector;
+import PaooGame.Maps.CollisionLayer;
+import PaooGame.Maps.Map;
 import PaooGame.RefLinks;
+import PaooGame.Tiles.Tile;
 
 /*! \class public abstract class Character extends Item
     \brief Defineste notiunea abstracta de caracter/individ/fiinta din joc.
@@ -20,6 +25,8 @@ public abstract class Character extends Item
     protected float xMove;  /*!< Retine noua pozitie a caracterului pe axa X.*/
     protected float yMove;  /*!< Retine noua pozitie a caracterului pe axa Y.*/
 
+    private static final CollisionDetector collisionDetector = new CollisionDetector(); /*!< Calculeaza deplasarile permise fata de dalele solide.*/
+
     /*! \fn public Character(RefLinks refLink, float x, float y, int width, int height)
         \brief Constructor de initializare al clasei Character
 
@@ -53,20 +60,89 @@ public abstract class Character extends Item
 
     /*! \fn public void MoveX()
         \brief Modifica pozitia caracterului pe axa X.
+
+        Deplasarea este limitata de dalele solide si de marginile hartii (swept AABB pe dreptunghiul bounds):
+        caracterul ajunge exact in contact cu primul obstacol de pe drum, indiferent de viteza.
      */
     public void MoveX()
     {
-        ///Aduna la pozitia curenta numarul de pixeli cu care trebuie sa se deplaseze pe axa X.
-        x += xMove;
+        ///Aduna la pozitia curenta numarul de pixeli cu care se poate deplasa pe axa X.
+        CollisionLayer layer = GetCollisionLayer();
+        if (layer == null) {
+            x += xMove;
+            return;
+        }
+        x += collisionDetector.sweepX(layer, Tile.TILE_WIDTH, Tile.TILE_HEIGHT,
+                x + bounds.x, y + bounds.y, bounds.width, bounds.height, xMove);
     }
 
     /*! \fn public void MoveY()
-        \brief Modifica pozitia caracterului pe axa Y.
+        \brief Modifica pozitia caracterului pe axa Y (cu aceleasi limitari ca MoveX).
      */
     public void MoveY()
     {
-        ///Aduna la pozitia curenta numarul de pixeli cu care trebuie sa se deplaseze pe axa Y.
-        y += yMove;
+        ///Aduna la pozitia curenta numarul de pixeli cu care se poate deplasa pe axa Y.
+        CollisionLayer layer = GetCollisionLayer();
+        if (layer == null) {
+            y += yMove;
+            return;
+        }
+        y += collisionDetector.sweepY(layer, Tile.TILE_WIDTH, Tile.TILE_HEIGHT,
+                x + bounds.x, y + bounds.y, bounds.width, bounds.height, yMove);
+    }
+
+    /*! \fn protected boolean FollowFlowField(FlowField field)
+        \brief Seteaza xMove/yMove pe directia campului din dala in care se afla centrul caracterului.
+
+        \return false daca nu exista camp, dala nu are drum catre tinta sau caracterul a ajuns in dala tinta
+        (deplasarea ramane atunci 0 si caracterul poate trece la alt comportament, de exemplu atacul).
+     */
+    protected boolean FollowFlowField(FlowField field)
+    {
+        xMove = 0;
+        yMove = 0;
+        if (field == null) {
+            return false;
+        }
+        int direction = field.GetDirection(GetTileX(), GetTileY());
+        if (direction >= FlowField.NONE) {
+            return false;
+        }
+        int stepX = FlowField.GetStepX(direction);
+        int stepY = FlowField.GetStepY(direction);
+        // Pe diagonala viteza se imparte pe cele doua axe
+        float step = (stepX != 0 && stepY != 0) ? speed * 0.70710678f : speed;
+        xMove = stepX * step;
+        yMove = stepY * step;
+        return true;
+    }
+
+    /*! \fn public int GetTileX()
+        \brief Returneaza coloana dalei in care se afla centrul dreptunghiului de coliziune.
+     */
+    public int GetTileX()
+    {
+        return (int) Math.floor((x + bounds.x + bounds.width / 2.0f) / Tile.TILE_WIDTH);
+    }
+
+    /*! \fn public int GetTileY()
+        \brief Returneaza linia dalei in care se afla centrul dreptunghiului de coliziune.
+     */
+    public int GetTileY()
+    {
+        return (int) Math.floor((y + bounds.y + bounds.height / 2.0f) / Tile.TILE_HEIGHT);
+    }
+
+    /*! \fn private CollisionLayer GetCollisionLayer()
+        \brief Returneaza stratul de coliziune al hartii curente sau null daca nu exista o harta incarcata.
+     */
+    private CollisionLayer GetCollisionLayer()
+    {
+        Map map = refLink.GetMap();
+        if (map == null || !map.isMapLoaded()) {
+            return null;
+        }
+        return map.GetCollisionLayer();
     }
 
     /*! \fn public int GetLife()
@@ -0,0 +1,322 @@
+package PaooGame.Items;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*! \class EntityIndex
+    \brief Index spatial (grila uniforma aliniata cu dalele, cu dispersie) pentru coliziunile intre entitati.
+
+    Fiecare entitate este inregistrata in toate celulele pe care le atinge dreptunghiul ei de coliziune.
+    Celula (cx, cy) este dispersata intr-o galeata dintr-un tabel de dimensiune putere a lui 2 (aproximativ dublul
+    numarului de inregistrari), deci costul nu depinde de dimensiunea hartii. Galetile sunt pastrate compact
+    (ca o matrice rara CSR): bucketStart[b] .. bucketStart[b + 1] indica intrarile galetii b in entries[].
+    Toate structurile sunt vectori primitivi refolositi de la un tick la altul.
+
+    Indexul se reconstruieste complet la fiecare tick (Rebuild), in O(n). Interogarile:
+        - Query(): entitatile care se suprapun cu un dreptunghi;
+        - FindPairs(): toate perechile de entitati care se suprapun, fiecare raportata o singura data.
+    Suprapunerea are aceeasi definitie ca in CollisionDetector.checkEntityCollision() (marginile care doar se ating
+    nu se suprapun).
+ */
+public class EntityIndex
+{
+    private final float inverseCellWidth;   /*!< 1 / latimea unei celule in pixeli.*/
+    private final float inverseCellHeight;  /*!< 1 / inaltimea unei celule in pixeli.*/
+
+    // Dreptunghiurile entitatilor (indexul entitatii = ordinea adaugarii)
+    private int count;
+    private float[] left = new float[64];
+    private float[] top = new float[64];
+    private float[] right = new float[64];
+    private float[] bottom = new float[64];
+    private int[] minCellX = new int[64];
+    private int[] minCellY = new int[64];
+    private int[] maxCellX = new int[64];
+    private int[] maxCellY = new int[64];
+    private Item[] items = new Item[64];
+
+    // Galetile in format compact
+    private int mask;
+    private int[] bucketStart = new int[2];
+    private int[] bucketFill = new int[0];
+    private int entryCount;
+    private int[] entries = new int[128];       /*!< Indexul entitatii.*/
+    private int[] entryCellX = new int[128];
+    private int[] entryCellY = new int[128];
+
+    // Rezultate
+    private int[] stamp = new int[64];          /*!< Elimina duplicatele din Query() (entitati in mai multe celule).*/
+    private int generation;
+    private int[] results = new int[64];
+    private int resultCount;
+    private int[] pairs = new int[128];
+    private int pairCount;
+
+    /*! \fn public EntityIndex(int cellWidth, int cellHeight)
+        \brief Constructorul; celulele ar trebui sa fie un multiplu al dalei si cel putin cat o entitate obisnuita.
+     */
+    public EntityIndex(int cellWidth, int cellHeight)
+    {
+        this.inverseCellWidth = 1.0f / cellWidth;
+        this.inverseCellHeight = 1.0f / cellHeight;
+    }
+
+    /*! \fn public void Rebuild(List<? extends Item> list)
+        \brief Reconstruieste indexul din pozitia si dreptunghiul de coliziune (bounds) curente ale entitatilor.
+     */
+    public void Rebuild(List<? extends Item> list)
+    {
+        Clear();
+        for (Item item : list) {
+            int id = Add(item.x + item.bounds.x, item.y + item.bounds.y, item.bounds.width, item.bounds.height);
+            items[id] = item;
+        }
+        Build();
+    }
+
+    /*! \fn public void Clear()
+        \brief Goleste indexul inainte de o serie de apeluri Add() urmata de Build().
+     */
+    public void Clear()
+    {
+        Arrays.fill(items, 0, count, null);
+        count = 0;
+    }
+
+    /*! \fn public int Add(float x, float y, float width, float height)
+        \brief Adauga un dreptunghi (in pixeli) si returneaza indexul entitatii; devine vizibil dupa Build().
+     */
+    public int Add(float x, float y, float width, float height)
+    {
+        if (count == left.length) {
+            Grow(count * 2);
+        }
+        int id = count++;
+        left[id] = x;
+        top[id] = y;
+        right[id] = x + width;
+        bottom[id] = y + height;
+        minCellX[id] = (int) Math.floor(x * inverseCellWidth);
+        minCellY[id] = (int) Math.floor(y * inverseCellHeight);
+        maxCellX[id] = (int) Math.floor(right[id] * inverseCellWidth);
+        maxCellY[id] = (int) Math.floor(bottom[id] * inverseCellHeight);
+        items[id] = null;
+        return id;
+    }
+
+    /*! \fn public void Build()
+        \brief Distribuie intrarile pe galeti (sortare prin numarare, doua treceri).
+     */
+    public void Build()
+    {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += (maxCellX[i] - minCellX[i] + 1) * (maxCellY[i] - minCellY[i] + 1);
+        }
+        entryCount = total;
+        if (entries.length < total) {
+            int capacity = Math.max(total, entries.length * 2);
+            entries = new int[capacity];
+            entryCellX = new int[capacity];
+            entryCellY = new int[capacity];
+        }
+
+        int buckets = Integer.highestOneBit(Math.max(16, total * 2) - 1) << 1;
+        mask = buckets - 1;
+        if (bucketStart.length < buckets + 1) {
+            bucketStart = new int[buckets + 1];
+            bucketFill = new int[buckets];
+        } else {
+            Arrays.fill(bucketStart, 0, buckets + 1, 0);
+        }
+
+        // Prima trecere: cate intrari are fiecare galeata
+        for (int i = 0; i < count; i++) {
+            for (int cy = minCellY[i]; cy <= maxCellY[i]; cy++) {
+                for (int cx = minCellX[i]; cx <= maxCellX[i]; cx++) {
+                    bucketStart[Bucket(cx, cy) + 1]++;
+                }
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        System.arraycopy(bucketStart, 0, bucketFill, 0, buckets);
+
+        // A doua trecere: scrierea intrarilor
+        for (int i = 0; i < count; i++) {
+            for (int cy = minCellY[i]; cy <= maxCellY[i]; cy++) {
+                for (int cx = minCellX[i]; cx <= maxCellX[i]; cx++) {
+                    int slot = bucketFill[Bucket(cx, cy)]++;
+                    entries[slot] = i;
+                    entryCellX[slot] = cx;
+                    entryCellY[slot] = cy;
+                }
+            }
+        }
+    }
+
+    /*! \fn public int Query(float x, float y, float width, float height)
+        \brief Cauta entitatile care se suprapun cu dreptunghiul dat.
+
+        \return Numarul de entitati gasite; indicii lor sunt in GetResults()[0 .. rezultat - 1].
+     */
+    public int Query(float x, float y, float width, float height)
+    {
+        resultCount = 0;
+        float queryRight = x + width;
+        float queryBottom = y + height;
+        int cx0 = (int) Math.floor(x * inverseCellWidth);
+        int cy0 = (int) Math.floor(y * inverseCellHeight);
+        int cx1 = (int) Math.floor(queryRight * inverseCellWidth);
+        int cy1 = (int) Math.floor(queryBottom * inverseCellHeight);
+
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > count) {
+            // Dreptunghi mai mare decat indexul: parcurgerea tuturor entitatilor este mai ieftina
+            for (int i = 0; i < count; i++) {
+                if (Overlaps(i, x, y, queryRight, queryBottom)) {
+                    AddResult(i);
+                }
+            }
+            return resultCount;
+        }
+
+        NextGeneration();
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int bucket = Bucket(cx, cy);
+                for (int e = bucketStart[bucket], end = bucketStart[bucket + 1]; e < end; e++) {
+                    int id = entries[e];
+                    if (stamp[id] == generation) {
+                        continue;
+                    }
+                    stamp[id] = generation;
+                    if (Overlaps(id, x, y, queryRight, queryBottom)) {
+                        AddResult(id);
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    /*! \fn public int FindPairs()
+        \brief Gaseste toate perechile de entitati care se suprapun.
+
+        O pereche apare in toate celulele comune, dar este raportata doar in celula
+        (max(minCellX), max(minCellY)) a celor doua, care este mereu comuna daca dreptunghiurile se suprapun.
+
+        \return Numarul de perechi; perechea k este (GetPairs()[2k], GetPairs()[2k + 1]), cu primul index mai mic.
+     */
+    public int FindPairs()
+    {
+        pairCount = 0;
+        for (int b = 0; b <= mask; b++) {
+            int start = bucketStart[b];
+            int end = bucketStart[b + 1];
+            for (int i = start; i < end; i++) {
+                int a = entries[i];
+                int cx = entryCellX[i];
+                int cy = entryCellY[i];
+                for (int j = i + 1; j < end; j++) {
+                    int c = entries[j];
+                    if (c == a || entryCellX[j] != cx || entryCellY[j] != cy) {
+                        continue;   // alta celula dispersata in aceeasi galeata
+                    }
+                    if (Math.max(minCellX[a], minCellX[c]) != cx || Math.max(minCellY[a], minCellY[c]) != cy) {
+                        continue;   // perechea este raportata in alta celula comuna
+                    }
+                    if (Overlaps(c, left[a], top[a], right[a], bottom[a])) {
+                        AddPair(Math.min(a, c), Math.max(a, c));
+                    }
+                }
+            }
+        }
+        return pairCount;
+    }
+
+    private boolean Overlaps(int id, float x0, float y0, float x1, float y1)
+    {
+        return left[id] < x1 && right[id] > x0 && top[id] < y1 && bottom[id] > y0;
+    }
+
+    private int Bucket(int cx, int cy)
+    {
+        return ((cx * 73856093) ^ (cy * 19349663)) & mask;
+    }
+
+    private void AddResult(int id)
+    {
+        if (resultCount == results.length) {
+            results = Arrays.copyOf(results, resultCount * 2);
+        }
+        results[resultCount++] = id;
+    }
+
+    private void AddPair(int a, int b)
+    {
+        if (pairCount * 2 == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[2 * pairCount] = a;
+        pairs[2 * pairCount + 1] = b;
+        pairCount++;
+    }
+
+    private void NextGeneration()
+    {
+        generation++;
+        if (generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    private void Grow(int capacity)
+    {
+        left = Arrays.copyOf(left, capacity);
+        top = Arrays.copyOf(top, capacity);
+        right = Arrays.copyOf(right, capacity);
+        bottom = Arrays.copyOf(bottom, capacity);
+        minCellX = Arrays.copyOf(minCellX, capacity);
+        minCellY = Arrays.copyOf(minCellY, capacity);
+        maxCellX = Arrays.copyOf(maxCellX, capacity);
+        maxCellY = Arrays.copyOf(maxCellY, capacity);
+        items = Arrays.copyOf(items, capacity);
+        stamp = Arrays.copyOf(stamp, capacity);
+    }
+
+    /*! \fn public int[] GetResults()
+        \brief Indicii gasiti de ultimul Query() (vector refolosit, valid pana la urmatorul apel).
+     */
+    public int[] GetResults()
+    {
+        return results;
+    }
+
+    /*! \fn public int[] GetPairs()
+        \brief Perechile gasite de ultimul FindPairs() (vector refolosit, valid pana la urmatorul apel).
+     */
+    public int[] GetPairs()
+    {
+        return pairs;
+    }
+
+    /*! \fn public Item GetItem(int id)
+        \brief Entitatea cu indexul dat, daca indexul a fost construit cu Rebuild(List); altfel null.
+     */
+    public Item GetItem(int id)
+    {
+        return items[id];
+    }
+
+    public int GetCount()
+    {
+        return count;
+    }
+
+    public int GetEntryCount()
+    {
+        return entryCount;
+    }
+}
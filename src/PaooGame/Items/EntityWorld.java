@@ -0,0 +1,477 @@
+package PaooGame.Items;
+
+import PaooGame.CollisionDetector;
+import PaooGame.Maps.CollisionLayer;
+
+import java.util.Arrays;
+
+/*! \class EntityWorld
+    \brief Entitatile unui nivel pastrate ca "structura de vectori": cate un vector primitiv pe camp.
+
+    Pozitia, pozitia anterioara, viteza, dreptunghiul de coliziune, dimensiunea imaginii, viata si viteza maxima
+    ale entitatii i se afla la indexul i in vectori separati. Entitatile vii ocupa mereu indicii 0 .. count - 1
+    (la stergere ultima entitate este mutata in locul celei sterse), deci sistemele parcurg vectori contigui:
+        - Move(): aplica viteza cu aceleasi limitari de coliziune ca Character.MoveX/MoveY;
+        - Collide(): reface EntityIndex si gaseste perechile care se suprapun;
+        - Cull(): alege entitatile a caror imagine intersecteaza camera.
+
+    Indicii se schimba la stergeri, asa ca din afara entitatile sunt referite prin "handle"-uri stabile
+    (slot + generatie); IndexOf() transforma un handle in indexul curent sau -1 daca entitatea nu mai exista.
+
+    Adaptorul pentru clasele existente: Attach(item) inregistreaza un Item (de exemplu eroul). Un astfel de
+    Item se misca singur in Update()-ul lui; la fiecare tick SyncItems() ii copiaza pozitia si dreptunghiul
+    de coliziune in vectori, iar Move() il sare, asa ca participa la coliziuni si la decupare ca oricare alta entitate.
+ */
+public class EntityWorld
+{
+    public static final int MAX_ENTITIES = 1 << 20;         /*!< Numarul maxim de sloturi (bitii de index din handle).*/
+    public static final int INVALID_HANDLE = -1;
+    public static final int BLOCKED_X = 1;                  /*!< GetBlocked(): deplasarea pe X a fost oprita de o dala solida.*/
+    public static final int BLOCKED_Y = 2;                  /*!< GetBlocked(): deplasarea pe Y a fost oprita de o dala solida.*/
+
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = MAX_ENTITIES - 1;
+    private static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+    private static final CollisionDetector collisionDetector = new CollisionDetector();
+
+    private int count;
+
+    // Campurile entitatilor, pe indici densi 0 .. count - 1
+    private float[] x;
+    private float[] y;
+    private float[] prevX;
+    private float[] prevY;
+    private float[] velocityX;
+    private float[] velocityY;
+    private float[] boundsX;        /*!< Dreptunghiul de coliziune, relativ la (x, y).*/
+    private float[] boundsY;
+    private float[] boundsWidth;
+    private float[] boundsHeight;
+    private float[] width;          /*!< Dimensiunea imaginii (pentru decupare).*/
+    private float[] height;
+    private int[] life;
+    private float[] speed;
+    private byte[] blocked;         /*!< BLOCKED_X / BLOCKED_Y de la ultimul Move().*/
+    private Item[] items;           /*!< Item-ul atasat (adaptor) sau null pentru entitatile pur "pe vectori".*/
+    private int[] denseSlot;        /*!< Slotul handle-ului entitatii de la indexul dat.*/
+
+    // Sloturi: slot -> index dens si generatia curenta a slotului
+    private int[] slotIndex;
+    private int[] slotGeneration;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+
+    private final EntityIndex index;
+    private int pairCount;
+    private int[] visible = new int[64];
+    private int visibleCount;
+
+    /*! \fn public EntityWorld(int cellWidth, int cellHeight)
+        \brief Constructorul; dimensiunea celulelor este cea a indexului spatial folosit de Collide().
+     */
+    public EntityWorld(int cellWidth, int cellHeight)
+    {
+        index = new EntityIndex(cellWidth, cellHeight);
+        Allocate(64);
+        slotIndex = new int[64];
+        slotGeneration = new int[64];
+        freeSlots = new int[64];
+    }
+
+    /*! \fn public int Create(float x, float y, int width, int height, float boundsX, float boundsY, float boundsWidth, float boundsHeight)
+        \brief Adauga o entitate si returneaza handle-ul ei; viata si viteza pornesc de la valorile din Character.
+     */
+    public int Create(float x, float y, int width, int height,
+                      float boundsX, float boundsY, float boundsWidth, float boundsHeight)
+    {
+        if (count == this.x.length) {
+            Allocate(count * 2);
+        }
+        int slot = AcquireSlot();
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        prevX[i] = x;
+        prevY[i] = y;
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+        this.boundsX[i] = boundsX;
+        this.boundsY[i] = boundsY;
+        this.boundsWidth[i] = boundsWidth;
+        this.boundsHeight[i] = boundsHeight;
+        this.width[i] = width;
+        this.height[i] = height;
+        life[i] = Character.DEFAULT_LIFE;
+        speed[i] = Character.DEFAULT_SPEED;
+        blocked[i] = 0;
+        items[i] = null;
+        denseSlot[i] = slot;
+        slotIndex[slot] = i;
+        return (slotGeneration[slot] << INDEX_BITS) | slot;
+    }
+
+    /*! \fn public int Attach(Item item)
+        \brief Inregistreaza un Item existent (adaptor); pozitia lui este citita din obiect la fiecare SyncItems().
+     */
+    public int Attach(Item item)
+    {
+        int handle = Create(item.x, item.y, item.width, item.height,
+                item.bounds.x, item.bounds.y, item.bounds.width, item.bounds.height);
+        int i = slotIndex[handle & INDEX_MASK];
+        items[i] = item;
+        if (item instanceof Character) {
+            life[i] = ((Character) item).life;
+            speed[i] = ((Character) item).speed;
+        }
+        return handle;
+    }
+
+    /*! \fn public void Destroy(int handle)
+        \brief Sterge entitatea; ultima entitate ia locul ei, deci indicii (nu si handle-urile) se pot schimba.
+     */
+    public void Destroy(int handle)
+    {
+        int i = IndexOf(handle);
+        if (i < 0) {
+            return;
+        }
+        int slot = handle & INDEX_MASK;
+        int last = --count;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            velocityX[i] = velocityX[last];
+            velocityY[i] = velocityY[last];
+            boundsX[i] = boundsX[last];
+            boundsY[i] = boundsY[last];
+            boundsWidth[i] = boundsWidth[last];
+            boundsHeight[i] = boundsHeight[last];
+            width[i] = width[last];
+            height[i] = height[last];
+            life[i] = life[last];
+            speed[i] = speed[last];
+            blocked[i] = blocked[last];
+            items[i] = items[last];
+            denseSlot[i] = denseSlot[last];
+            slotIndex[denseSlot[i]] = i;
+        }
+        items[last] = null;
+        // Generatia noua invalideaza handle-urile vechi ale slotului
+        slotGeneration[slot] = (slotGeneration[slot] + 1) & GENERATION_MASK;
+        slotIndex[slot] = -1;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /*! \fn public void Clear()
+        \brief Sterge toate entitatile, pastrand vectorii alocati; handle-urile vechi devin invalide.
+     */
+    public void Clear()
+    {
+        while (count > 0) {
+            Destroy(GetHandle(count - 1));
+        }
+    }
+
+    /*! \fn public int IndexOf(int handle)
+        \brief Indexul curent al entitatii sau -1 daca handle-ul nu mai este valid.
+     */
+    public int IndexOf(int handle)
+    {
+        if (handle < 0) {
+            return -1;
+        }
+        int slot = handle & INDEX_MASK;
+        if (slot >= slotCount || slotGeneration[slot] != (handle >>> INDEX_BITS)) {
+            return -1;
+        }
+        return slotIndex[slot];
+    }
+
+    /*! \fn public int GetHandle(int i)
+        \brief Handle-ul entitatii de la indexul dat (de exemplu pentru rezultatele din GetPairs()).
+     */
+    public int GetHandle(int i)
+    {
+        int slot = denseSlot[i];
+        return (slotGeneration[slot] << INDEX_BITS) | slot;
+    }
+
+    /*! \fn public void Update(CollisionLayer layer, int tileWidth, int tileHeight, float viewX, float viewY, float viewWidth, float viewHeight)
+        \brief Un tick complet: sincronizarea Item-urilor atasate, miscarea, coliziunile intre entitati si decuparea.
+     */
+    public void Update(CollisionLayer layer, int tileWidth, int tileHeight,
+                       float viewX, float viewY, float viewWidth, float viewHeight)
+    {
+        SyncItems();
+        Move(layer, tileWidth, tileHeight);
+        Collide();
+        Cull(viewX, viewY, viewWidth, viewHeight);
+    }
+
+    /*! \fn public void SyncItems()
+        \brief Copiaza in vectori starea Item-urilor atasate (dupa ce acestea si-au facut Update()-ul).
+     */
+    public void SyncItems()
+    {
+        for (int i = 0; i < count; i++) {
+            Item item = items[i];
+            if (item == null) {
+                continue;
+            }
+            x[i] = item.x;
+            y[i] = item.y;
+            prevX[i] = item.prevX;
+            prevY[i] = item.prevY;
+            boundsX[i] = item.bounds.x;
+            boundsY[i] = item.bounds.y;
+            boundsWidth[i] = item.bounds.width;
+            boundsHeight[i] = item.bounds.height;
+            width[i] = item.width;
+            height[i] = item.height;
+            if (item instanceof Character) {
+                Character character = (Character) item;
+                velocityX[i] = character.xMove;
+                velocityY[i] = character.yMove;
+                life[i] = character.life;
+                speed[i] = character.speed;
+            }
+        }
+    }
+
+    /*! \fn public void Move(CollisionLayer layer, int tileWidth, int tileHeight)
+        \brief Aplica viteza entitatilor vii, pe axe separate, oprindu-le in dalele solide (layer poate fi null).
+     */
+    public void Move(CollisionLayer layer, int tileWidth, int tileHeight)
+    {
+        for (int i = 0; i < count; i++) {
+            if (items[i] != null || life[i] <= 0) {
+                continue;
+            }
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            if (layer == null) {
+                x[i] += velocityX[i];
+                y[i] += velocityY[i];
+                continue;
+            }
+            float dx = collisionDetector.sweepX(layer, tileWidth, tileHeight,
+                    x[i] + boundsX[i], y[i] + boundsY[i], boundsWidth[i], boundsHeight[i], velocityX[i]);
+            x[i] += dx;
+            float dy = collisionDetector.sweepY(layer, tileWidth, tileHeight,
+                    x[i] + boundsX[i], y[i] + boundsY[i], boundsWidth[i], boundsHeight[i], velocityY[i]);
+            y[i] += dy;
+            blocked[i] = (byte) ((dx != velocityX[i] ? BLOCKED_X : 0) | (dy != velocityY[i] ? BLOCKED_Y : 0));
+        }
+    }
+
+    /*! \fn public int Collide()
+        \brief Reface indexul spatial si gaseste perechile de entitati care se suprapun.
+
+        \return Numarul de perechi; perechile (indici densi) sunt in GetPairs().
+     */
+    public int Collide()
+    {
+        index.Clear();
+        for (int i = 0; i < count; i++) {
+            index.Add(x[i] + boundsX[i], y[i] + boundsY[i], boundsWidth[i], boundsHeight[i]);
+        }
+        index.Build();
+        pairCount = index.FindPairs();
+        return pairCount;
+    }
+
+    /*! \fn public int Cull(float viewX, float viewY, float viewWidth, float viewHeight)
+        \brief Alege entitatile a caror imagine se vede in dreptunghiul camerei.
+
+        \return Numarul de entitati vizibile; indicii lor sunt in GetVisible().
+     */
+    public int Cull(float viewX, float viewY, float viewWidth, float viewHeight)
+    {
+        float viewRight = viewX + viewWidth;
+        float viewBottom = viewY + viewHeight;
+        if (visible.length < count) {
+            visible = new int[Math.max(count, visible.length * 2)];
+        }
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (x[i] < viewRight && x[i] + width[i] > viewX && y[i] < viewBottom && y[i] + height[i] > viewY) {
+                visible[n++] = i;
+            }
+        }
+        visibleCount = n;
+        return n;
+    }
+
+    private int AcquireSlot()
+    {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == MAX_ENTITIES) {
+            throw new IllegalStateException("Prea multe entitati (maxim " + MAX_ENTITIES + ")");
+        }
+        if (slotCount == slotIndex.length) {
+            slotIndex = Arrays.copyOf(slotIndex, slotCount * 2);
+            slotGeneration = Arrays.copyOf(slotGeneration, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    private void Allocate(int capacity)
+    {
+        x = Resize(x, capacity);
+        y = Resize(y, capacity);
+        prevX = Resize(prevX, capacity);
+        prevY = Resize(prevY, capacity);
+        velocityX = Resize(velocityX, capacity);
+        velocityY = Resize(velocityY, capacity);
+        boundsX = Resize(boundsX, capacity);
+        boundsY = Resize(boundsY, capacity);
+        boundsWidth = Resize(boundsWidth, capacity);
+        boundsHeight = Resize(boundsHeight, capacity);
+        width = Resize(width, capacity);
+        height = Resize(height, capacity);
+        speed = Resize(speed, capacity);
+        blocked = blocked == null ? new byte[capacity] : Arrays.copyOf(blocked, capacity);
+        life = life == null ? new int[capacity] : Arrays.copyOf(life, capacity);
+        denseSlot = denseSlot == null ? new int[capacity] : Arrays.copyOf(denseSlot, capacity);
+        items = items == null ? new Item[capacity] : Arrays.copyOf(items, capacity);
+    }
+
+    private static float[] Resize(float[] array, int capacity)
+    {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    public int GetCount()
+    {
+        return count;
+    }
+
+    public float GetX(int i)
+    {
+        return x[i];
+    }
+
+    public float GetY(int i)
+    {
+        return y[i];
+    }
+
+    /*! \fn public float GetRenderX(int i, float alpha)
+        \brief Pozitia pe axa X interpolata intre ultimele doua tick-uri (ca Item.GetRenderX).
+     */
+    public float GetRenderX(int i, float alpha)
+    {
+        return prevX[i] + (x[i] - prevX[i]) * alpha;
+    }
+
+    public float GetRenderY(int i, float alpha)
+    {
+        return prevY[i] + (y[i] - prevY[i]) * alpha;
+    }
+
+    /*! \fn public void SetPosition(int i, float x, float y)
+        \brief Muta entitatea fara interpolare (teleportare).
+     */
+    public void SetPosition(int i, float x, float y)
+    {
+        this.x[i] = x;
+        this.y[i] = y;
+        prevX[i] = x;
+        prevY[i] = y;
+    }
+
+    public float GetVelocityX(int i)
+    {
+        return velocityX[i];
+    }
+
+    public float GetVelocityY(int i)
+    {
+        return velocityY[i];
+    }
+
+    public void SetVelocity(int i, float velocityX, float velocityY)
+    {
+        this.velocityX[i] = velocityX;
+        this.velocityY[i] = velocityY;
+    }
+
+    public int GetLife(int i)
+    {
+        return life[i];
+    }
+
+    public void SetLife(int i, int life)
+    {
+        this.life[i] = life;
+    }
+
+    public float GetSpeed(int i)
+    {
+        return speed[i];
+    }
+
+    public void SetSpeed(int i, float speed)
+    {
+        this.speed[i] = speed;
+    }
+
+    /*! \fn public int GetBlocked(int i)
+        \brief Axele (BLOCKED_X / BLOCKED_Y) pe care ultimul Move() a oprit entitatea intr-o dala solida.
+     */
+    public int GetBlocked(int i)
+    {
+        return blocked[i];
+    }
+
+    /*! \fn public Item GetItem(int i)
+        \brief Item-ul atasat entitatii sau null.
+     */
+    public Item GetItem(int i)
+    {
+        return items[i];
+    }
+
+    /*! \fn public int[] GetPairs()
+        \brief Perechile gasite de ultimul Collide(): (GetPairs()[2k], GetPairs()[2k + 1]), indici densi.
+     */
+    public int[] GetPairs()
+    {
+        return index.GetPairs();
+    }
+
+    public int GetPairCount()
+    {
+        return pairCount;
+    }
+
+    /*! \fn public int[] GetVisible()
+        \brief Indicii entitatilor gasite de ultimul Cull() (vector refolosit).
+     */
+    public int[] GetVisible()
+    {
+        return visible;
+    }
+
+    public int GetVisibleCount()
+    {
+        return visibleCount;
+    }
+
+    /*! \fn public EntityIndex GetIndex()
+        \brief Indexul spatial construit de ultimul Collide() (indicii sunt indicii densi ai lumii).
+     */
+    public EntityIndex GetIndex()
+    {
+        return index;
+    }
+}
@@ -1,6 +1,9 @@
 package PaooGame.Items;
 
+import PaooGame.GameCamera;
 import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.ScaledImageCache;
+import PaooGame.Graphics.TextureAtlas;
 import PaooGame.RefLinks;
 
 import java.awt.*;
@@ -53,6 +56,8 @@ public class Hero extends Character
     @Override
     public void Update()
     {
+        ///Retine pozitia de la tick-ul anterior pentru interpolarea desenarii
+        SavePreviousPosition();
         ///Verifica daca a fost apasata o tasta
         GetInput();
         ///Actualizeaza pozitia
@@ -61,6 +66,20 @@ public class Hero extends Character
         UpdateImage();
     }
 
+    /*! \fn public void Respawn(float x, float y)
+        \brief Readuce eroul la starea de start in pozitia data (restart de nivel fara un obiect nou).
+     */
+    public void Respawn(float x, float y)
+    {
+        SetX(x);
+        SetY(y);
+        life = DEFAULT_LIFE;
+        speed = DEFAULT_SPEED;
+        xMove = 0;
+        yMove = 0;
+        image = Assets.heroRight;
+    }
+
     /*! \fn private void UpdateImage()
         \brief Actualizeaza imaginea eroului in functie de directia de miscare.
      */
@@ -127,10 +146,37 @@ public class Hero extends Character
     @Override
     public void Draw(Graphics g)
     {
-        g.drawImage(image, (int)x, (int)y, width, height, null);
+        ///Pozitia desenata este interpolata intre ultimele doua tick-uri pentru o miscare fluida
+        ///si este transformata din coordonate de harta in coordonate de ecran cu ajutorul camerei
+        float alpha = refLink.GetInterpolation();
+        GameCamera camera = refLink.GetGameCamera();
+        DrawAt(g, image, GetRenderX(alpha) - camera.GetRenderXOffset(alpha), GetRenderY(alpha) - camera.GetRenderYOffset(alpha));
 
         ///doar pentru debug daca se doreste vizualizarea dreptunghiului de coliziune altfel se vor comenta urmatoarele doua linii
         //g.setColor(Color.blue);
         //g.fillRect((int)(x + bounds.x), (int)(y + bounds.y), bounds.width, bounds.height);
     }
-}
\ No newline at end of file
+
+    /*! \fn public void DrawAt(Graphics g, BufferedImage img, float drawX, float drawY)
+        \brief Deseneaza eroul cu o imagine si o pozitie pe ecran date (de exemplu dintr-un WorldSnapshot).
+     */
+    public void DrawAt(Graphics g, BufferedImage img, float drawX, float drawY)
+    {
+        ///Imaginea este copiata din pagina atlasului sau scalata o singura data (ScaledImageCache), apoi doar copiata
+        TextureAtlas atlas = Assets.atlas;
+        TextureAtlas.Region region = atlas != null ? atlas.Find(img) : null;
+        if (region != null && region.width == width && region.height == height) {
+            atlas.Draw(g, region, (int)drawX, (int)drawY);
+        } else {
+            g.drawImage(ScaledImageCache.Get(img, width, height), (int)drawX, (int)drawY, null);
+        }
+    }
+
+    /*! \fn public BufferedImage GetImage()
+        \brief Returneaza imaginea curenta a eroului.
+     */
+    public BufferedImage GetImage()
+    {
+        return image;
+    }
+}
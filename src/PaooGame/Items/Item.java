@@ -14,6 +14,8 @@ public abstract class Item
         ///ce pot sa apara in urma calculelor, urmand a se converti la intreg doar in momentul desenarii.
     protected float x;                  /*!< Pozitia pe axa X a "tablei" de joc a imaginii entitatii.*/
     protected float y;                  /*!< Pozitia pe axa Y a "tablei" de joc a imaginii entitatii.*/
+    protected float prevX;              /*!< Pozitia pe axa X de la tick-ul anterior (pentru interpolarea desenarii).*/
+    protected float prevY;              /*!< Pozitia pe axa Y de la tick-ul anterior (pentru interpolarea desenarii).*/
     protected int width;                /*!< Latimea imaginii entitatii.*/
     protected int height;               /*!< Inaltimea imaginii entitatii.*/
     protected Rectangle bounds;         /*!< Dreptunghiul curent de coliziune.*/
@@ -34,6 +36,8 @@ public abstract class Item
     {
         this.x = x;             /*!< Retine coordonata pe axa X.*/
         this.y = y;             /*!< Retine coordonata pe axa X.*/
+        this.prevX = x;
+        this.prevY = y;
         this.width = width;     /*!< Retine latimea imaginii.*/
         this.height = height;   /*!< Retine inaltimea imaginii.*/
         this.refLink = refLink; /*!< Retine the "shortcut".*/
@@ -67,6 +71,35 @@ public abstract class Item
         return y;
     }
 
+    /*! \fn public void SavePreviousPosition()
+        \brief Retine pozitia curenta ca pozitie anterioara; se apeleaza la inceputul fiecarui tick.
+     */
+    public void SavePreviousPosition()
+    {
+        prevX = x;
+        prevY = y;
+    }
+
+    /*! \fn public float GetRenderX(float alpha)
+        \brief Returneaza pozitia pe axa X interpolata intre tick-ul anterior si cel curent.
+
+        \param alpha Factorul de interpolare [0, 1].
+     */
+    public float GetRenderX(float alpha)
+    {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    /*! \fn public float GetRenderY(float alpha)
+        \brief Returneaza pozitia pe axa Y interpolata intre tick-ul anterior si cel curent.
+
+        \param alpha Factorul de interpolare [0, 1].
+     */
+    public float GetRenderY(float alpha)
+    {
+        return prevY + (y - prevY) * alpha;
+    }
+
     /*! \fn public float GetWidth()
         \brief Returneaza latimea entitatii.
      */
@@ -89,6 +122,7 @@ public abstract class Item
     public void SetX(float x)
     {
         this.x = x;
+        this.prevX = x;
     }
 
     /*! \fn public float SetY()
@@ -97,6 +131,7 @@ public abstract class Item
     public void SetY(float y)
     {
         this.y = y;
+        this.prevY = y;
     }
 
     /*! \fn public float SetWidth()
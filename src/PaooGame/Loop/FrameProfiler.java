@@ -0,0 +1,345 @@
+package PaooGame.Loop;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/*! \class FrameProfiler
+    \brief Profiler de frame-uri: timpul fiecarei faze (Update, desenarea hartii pe layer-e, HUD, show()),
+    numarul de dale desenate si pauzele GC, pentru ultimele capacity frame-uri.
+
+    Fazele se masoara cu perechi Begin(faza) / End(faza) (System.nanoTime()); o faza apelata de mai multe ori
+    intr-un frame (de exemplu Update() recuperand tick-uri) se aduna. La EndFrame() valorile frame-ului sunt
+    copiate in buffere circulare prealocate (long[faza][capacity]), deci inregistrarea nu aloca nimic.
+    Pauzele GC sunt diferenta timpului de colectare raportat de GarbageCollectorMXBean intre doua frame-uri.
+
+    Un profiler este scris de un singur fir (cel care apeleaza BeginFrame()/EndFrame()). Suprapunerea (F3) si
+    CSV-ul calculeaza percentilele pe o copie sortata, intr-un vector refolosit.
+ */
+public final class FrameProfiler
+{
+    public static final int FRAME           = 0;    /*!< Lucrul efectiv din frame (fara asteptarea pana la urmatorul).*/
+    public static final int UPDATE          = 1;    /*!< Game.Update(), toate tick-urile din frame.*/
+    public static final int KEYS            = 2;    /*!< KeyManager.Update().*/
+    public static final int STATE_UPDATE    = 3;    /*!< State.Update().*/
+    public static final int DRAW            = 4;    /*!< Desenarea starii (fara show()).*/
+    public static final int MAP             = 5;    /*!< Map.Draw().*/
+    public static final int HUD             = 6;    /*!< Textele starii (nivel, controale).*/
+    public static final int SHOW            = 7;    /*!< BufferStrategy.show().*/
+    public static final int GC              = 8;    /*!< Timpul de colectare GC raportat in timpul frame-ului.*/
+    public static final int LAYER           = 9;    /*!< LAYER + i: desenarea dalelor layer-ului i (la refacerea chunk-urilor).*/
+    public static final int MAX_LAYERS      = 8;
+    public static final int PHASE_COUNT     = LAYER + MAX_LAYERS;
+    public static final int DEFAULT_CAPACITY = 2048;    /*!< ~34 s la 60 de frame-uri pe secunda.*/
+
+    private static final long BUDGET_NANOS = 1_000_000_000L / 60;
+    private static final int GRAPH_FRAMES = 240;
+    private static final int GRAPH_HEIGHT = 80;
+    private static final int TEXT_REFRESH_FRAMES = 30;
+    private static final int[] GRAPH_PHASES = {UPDATE, MAP, HUD, SHOW, GC};
+    private static final Color[] GRAPH_COLORS = {
+            new Color(80, 200, 80), new Color(80, 140, 255), new Color(255, 200, 60),
+            new Color(220, 90, 220), new Color(255, 60, 60)
+    };
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Font FONT = new Font("Monospaced", Font.PLAIN, 11);
+    private static final int[] TEXT_PHASES = {FRAME, UPDATE, STATE_UPDATE, DRAW, MAP, HUD, SHOW, GC};
+
+    private final String name;
+    private final int capacity;
+    private final String[] phaseNames = new String[PHASE_COUNT];
+    private final String[] layerNames = new String[MAX_LAYERS];
+    private final long[][] samples;         /*!< samples[faza][frame % capacity], in ns.*/
+    private final int[] tileSamples;        /*!< Dalele desenate in fiecare frame.*/
+    private final long[] current = new long[PHASE_COUNT];
+    private final long[] started = new long[PHASE_COUNT];
+    private final long[] maxNanos = new long[PHASE_COUNT];      /*!< Maximul de la pornire (nu doar din buffer).*/
+    private final long[] scratch;           /*!< Copie sortata pentru percentile.*/
+    private int currentTiles;
+    private long frames;                    /*!< Frame-uri inregistrate de la pornire.*/
+    private long frameStart;
+
+    private long lastGcMillis;
+    private long lastGcCount;
+    private long gcPauses;                  /*!< Colectari GC de la pornire.*/
+
+    private volatile boolean overlayVisible;
+    private final String[] overlayLines = new String[TEXT_PHASES.length + 2];
+    private long overlayFrame = -TEXT_REFRESH_FRAMES;
+
+    /*! \fn public FrameProfiler(String name, int capacity)
+        \brief Constructorul; name apare in suprapunere si in CSV, capacity este numarul de frame-uri pastrate.
+     */
+    public FrameProfiler(String name, int capacity)
+    {
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+        this.samples = new long[PHASE_COUNT][this.capacity];
+        this.tileSamples = new int[this.capacity];
+        this.scratch = new long[this.capacity];
+        String[] names = {"frame", "update", "keys", "state.update", "draw", "map.draw", "hud", "show", "gc"};
+        System.arraycopy(names, 0, phaseNames, 0, names.length);
+        for (int i = 0; i < MAX_LAYERS; i++) {
+            phaseNames[LAYER + i] = "layer " + i;
+        }
+        lastGcMillis = JvmMetrics.GcMillis();
+        lastGcCount = JvmMetrics.GcCount();
+    }
+
+    /*! \fn public void BeginFrame()
+        \brief Incepe un frame nou (valorile fazelor pornesc de la 0).
+     */
+    public void BeginFrame()
+    {
+        Arrays.fill(current, 0L);
+        currentTiles = 0;
+        frameStart = System.nanoTime();
+    }
+
+    /*! \fn public void EndFrame()
+        \brief Termina frame-ul curent si il scrie in bufferele circulare.
+     */
+    public void EndFrame()
+    {
+        current[FRAME] = System.nanoTime() - frameStart;
+        long gcMillis = JvmMetrics.GcMillis();
+        long gcCount = JvmMetrics.GcCount();
+        current[GC] = (gcMillis - lastGcMillis) * 1_000_000L;
+        gcPauses += gcCount - lastGcCount;
+        lastGcMillis = gcMillis;
+        lastGcCount = gcCount;
+
+        int slot = (int) (frames % capacity);
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            long value = current[p];
+            samples[p][slot] = value;
+            if (value > maxNanos[p]) {
+                maxNanos[p] = value;
+            }
+        }
+        tileSamples[slot] = currentTiles;
+        frames++;
+    }
+
+    /*! \fn public void Begin(int phase)
+        \brief Porneste masurarea unei faze.
+     */
+    public void Begin(int phase)
+    {
+        started[phase] = System.nanoTime();
+    }
+
+    /*! \fn public void End(int phase)
+        \brief Opreste masurarea unei faze si aduna durata la frame-ul curent.
+     */
+    public void End(int phase)
+    {
+        current[phase] += System.nanoTime() - started[phase];
+    }
+
+    /*! \fn public void AddTiles(int count)
+        \brief Aduna dale desenate la frame-ul curent.
+     */
+    public void AddTiles(int count)
+    {
+        currentTiles += count;
+    }
+
+    /*! \fn public void SetLayerName(int layer, String layerName)
+        \brief Numele afisat pentru faza LAYER + layer (numele layer-ului din harta).
+     */
+    public void SetLayerName(int layer, String layerName)
+    {
+        if (layer >= 0 && layer < MAX_LAYERS && layerName != null && layerName != layerNames[layer]) {
+            layerNames[layer] = layerName;
+            phaseNames[LAYER + layer] = "layer " + layer + " (" + layerName + ")";
+        }
+    }
+
+    /*! \fn public long GetPercentileNanos(int phase, double percentile)
+        \brief Percentila (0..100) duratei unei faze in frame-urile din buffer; 0 daca nu exista frame-uri.
+     */
+    public long GetPercentileNanos(int phase, double percentile)
+    {
+        int count = Sorted(samples[phase]);
+        return Percentile(count, percentile);
+    }
+
+    /*! \fn private int Sorted(long[] values)
+        \brief Copiaza valorile valide din buffer in scratch, sortate; intoarce numarul lor.
+     */
+    private int Sorted(long[] values)
+    {
+        int count = (int) Math.min(frames, capacity);
+        System.arraycopy(values, 0, scratch, 0, count);
+        Arrays.sort(scratch, 0, count);
+        return count;
+    }
+
+    private int SortedTiles()
+    {
+        int count = (int) Math.min(frames, capacity);
+        for (int i = 0; i < count; i++) {
+            scratch[i] = tileSamples[i];
+        }
+        Arrays.sort(scratch, 0, count);
+        return count;
+    }
+
+    private long Percentile(int count, double percentile)
+    {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return scratch[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    private long Sum(int count)
+    {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += scratch[i];
+        }
+        return sum;
+    }
+
+    /*! \fn public void ToggleOverlay()
+        \brief Afiseaza sau ascunde suprapunerea (poate fi apelata de pe alt fir).
+     */
+    public void ToggleOverlay()
+    {
+        overlayVisible = !overlayVisible;
+    }
+
+    public boolean IsOverlayVisible()
+    {
+        return overlayVisible;
+    }
+
+    /*! \fn public void DrawOverlay(Graphics g, int x, int y)
+        \brief Deseneaza graficul ultimelor frame-uri (faze suprapuse, linia de 16.6 ms) si percentilele fazelor.
+
+        Textele se recalculeaza o data la TEXT_REFRESH_FRAMES frame-uri. Nu face nimic daca suprapunerea este ascunsa.
+     */
+    public void DrawOverlay(Graphics g, int x, int y)
+    {
+        if (!overlayVisible) {
+            return;
+        }
+        if (frames - overlayFrame >= TEXT_REFRESH_FRAMES) {
+            RefreshOverlayText();
+            overlayFrame = frames;
+        }
+
+        int width = GRAPH_FRAMES;
+        int textHeight = overlayLines.length * 13 + 6;
+        g.setColor(BACKGROUND);
+        g.fillRect(x, y, width + 8, GRAPH_HEIGHT + textHeight + 8);
+
+        // Graficul: o coloana de 1 pixel pe frame, fazele suprapuse; 2 * GRAPH_HEIGHT = 2 * 16.6 ms
+        int baseY = y + 4 + GRAPH_HEIGHT;
+        int shown = (int) Math.min(Math.min(frames, capacity), GRAPH_FRAMES);
+        for (int i = 0; i < shown; i++) {
+            int slot = (int) ((frames - shown + i) % capacity);
+            int column = x + 4 + (GRAPH_FRAMES - shown) + i;
+            int top = baseY;
+            for (int p = 0; p < GRAPH_PHASES.length; p++) {
+                int height = (int) (samples[GRAPH_PHASES[p]][slot] * GRAPH_HEIGHT / (2 * BUDGET_NANOS));
+                if (height > 0) {
+                    height = Math.min(height, top - (y + 4));
+                    g.setColor(GRAPH_COLORS[p]);
+                    g.fillRect(column, top - height, 1, height);
+                    top -= height;
+                }
+            }
+            int rest = (int) (samples[FRAME][slot] * GRAPH_HEIGHT / (2 * BUDGET_NANOS)) - (baseY - top);
+            if (rest > 0) {
+                rest = Math.min(rest, top - (y + 4));
+                g.setColor(Color.GRAY);
+                g.fillRect(column, top - rest, 1, rest);
+            }
+        }
+        g.setColor(Color.WHITE);
+        g.drawLine(x + 4, baseY - GRAPH_HEIGHT / 2, x + 4 + width, baseY - GRAPH_HEIGHT / 2);
+
+        g.setFont(FONT);
+        for (int i = 0; i < overlayLines.length; i++) {
+            if (overlayLines[i] != null) {
+                g.drawString(overlayLines[i], x + 4, baseY + 16 + i * 13);
+            }
+        }
+    }
+
+    private void RefreshOverlayText()
+    {
+        overlayLines[0] = name + " (F3)  p50 / p95 / max ms";
+        for (int i = 0; i < TEXT_PHASES.length; i++) {
+            int phase = TEXT_PHASES[i];
+            int count = Sorted(samples[phase]);
+            overlayLines[i + 1] = String.format(Locale.ROOT, "%-13s %6.2f %6.2f %6.2f", phaseNames[phase],
+                    Percentile(count, 50) / 1e6, Percentile(count, 95) / 1e6, Percentile(count, 100) / 1e6);
+        }
+        int count = SortedTiles();
+        overlayLines[overlayLines.length - 1] = "dale p50/max " + Percentile(count, 50) + "/" + Percentile(count, 100)
+                + "  GC x" + gcPauses;
+    }
+
+    /*! \fn public void WriteCsv(PrintWriter out, boolean header)
+        \brief Scrie cate o linie pe faza: numarul de frame-uri, media si percentilele p50/p95/p99 (ms) din buffer,
+        maximul din buffer si maximul de la pornire; plus dalele desenate pe frame si numarul de colectari GC.
+     */
+    public void WriteCsv(PrintWriter out, boolean header)
+    {
+        if (header) {
+            out.println("profiler,faza,unitate,frame-uri,medie,p50,p95,p99,max,max_total");
+        }
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            int count = Sorted(samples[p]);
+            if (p >= LAYER && maxNanos[p] == 0) {
+                continue;   // layer inexistent
+            }
+            out.println(String.format(Locale.ROOT, "%s,%s,ms,%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f", name, phaseNames[p], count,
+                    count > 0 ? Sum(count) / 1e6 / count : 0.0, Percentile(count, 50) / 1e6, Percentile(count, 95) / 1e6,
+                    Percentile(count, 99) / 1e6, Percentile(count, 100) / 1e6, maxNanos[p] / 1e6));
+        }
+        int count = SortedTiles();
+        out.println(String.format(Locale.ROOT, "%s,dale desenate,dale,%d,%.1f,%d,%d,%d,%d,", name, count,
+                count > 0 ? (double) Sum(count) / count : 0.0, Percentile(count, 50), Percentile(count, 95),
+                Percentile(count, 99), Percentile(count, 100)));
+        out.println(String.format(Locale.ROOT, "%s,gc colectari,colectari,%d,,,,,,%d", name, frames, gcPauses));
+    }
+
+    /*! \fn public static void WriteCsv(String path, FrameProfiler... profilers)
+        \brief Scrie intr-un fisier CSV rezultatele profilerelor date (cele null sunt ignorate).
+     */
+    public static void WriteCsv(String path, FrameProfiler... profilers) throws IOException
+    {
+        try (PrintWriter out = new PrintWriter(path, "UTF-8")) {
+            boolean header = true;
+            for (FrameProfiler profiler : profilers) {
+                if (profiler != null) {
+                    profiler.WriteCsv(out, header);
+                    header = false;
+                }
+            }
+        }
+    }
+
+    public long GetFrameCount()
+    {
+        return frames;
+    }
+
+    public long GetGcPauses()
+    {
+        return gcPauses;
+    }
+
+    public String GetName()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,214 @@
+package PaooGame.Loop;
+
+import java.util.concurrent.locks.LockSupport;
+
+/*! \class FrameScheduler
+    \brief Planificator de frame-uri cu pas fix pentru Update() si asteptare hibrida intre frame-uri.
+
+    Logica jocului avanseaza mereu cu pasi egali (tick) folosind un acumulator de timp, iar desenarea
+    se face o data pe frame cu un factor de interpolare intre ultimele doua tick-uri.
+    Intre frame-uri firul de executie nu se invarte in gol: doarme (Thread.sleep) cat timp mai e mult
+    pana la urmatorul frame, apoi foloseste LockSupport.parkNanos() si doar in ultimele sute de
+    microsecunde asteapta activ, pentru precizie.
+
+    Utilizare in bucla jocului:
+        scheduler.BeginFrame();
+        while (scheduler.ShouldUpdate()) Update();
+        Draw(scheduler.GetInterpolation());
+        scheduler.EndFrame();
+ */
+public class FrameScheduler
+{
+    private static final long NANOS_PER_SECOND  = 1_000_000_000L;
+    private static final long SLEEP_THRESHOLD   = 2_000_000L;   /*!< Peste 2 ms ramasi se foloseste Thread.sleep().*/
+    private static final long SPIN_THRESHOLD    = 200_000L;     /*!< Sub 0.2 ms ramasi se asteapta activ.*/
+    private static final int  MAX_UPDATES       = 5;            /*!< Numarul maxim de tick-uri recuperate intr-un frame (evita "spirala mortii").*/
+    private static final long REPORT_INTERVAL   = 5L * NANOS_PER_SECOND; /*!< Intervalul de raportare a statisticilor.*/
+
+    private long tickNanos;         /*!< Durata unui pas de Update() in nanosecunde.*/
+    private long frameNanos;        /*!< Durata tinta a unui frame in nanosecunde.*/
+
+    private long accumulator;       /*!< Timpul neconsumat inca de Update().*/
+    private long lastFrameStart;    /*!< Momentul de inceput al frame-ului anterior.*/
+    private long nextFrameDeadline; /*!< Momentul la care trebuie sa inceapa urmatorul frame.*/
+    private int  updatesThisFrame;  /*!< Cate tick-uri au fost executate in frame-ul curent.*/
+    private boolean started;
+
+    private final FrameStats stats = new FrameStats();
+    private boolean reportEnabled;  /*!< Raportul periodic in consola este oprit implicit (Main: --frame-stats).*/
+    private long lastReportTime;
+    private long lastReportCpu;
+
+    /*! \fn public FrameScheduler(int updatesPerSecond, int framesPerSecond)
+        \brief Constructorul planificatorului.
+
+        \param updatesPerSecond Numarul de apeluri Update() pe secunda (pasul fix al simularii).
+        \param framesPerSecond Numarul tinta de frame-uri desenate pe secunda.
+     */
+    public FrameScheduler(int updatesPerSecond, int framesPerSecond)
+    {
+        SetUpdateRate(updatesPerSecond);
+        SetTargetFrameRate(framesPerSecond);
+    }
+
+    /*! \fn public void SetUpdateRate(int updatesPerSecond)
+        \brief Modifica frecventa pasului fix de simulare.
+     */
+    public void SetUpdateRate(int updatesPerSecond)
+    {
+        if (updatesPerSecond <= 0) {
+            throw new IllegalArgumentException("Frecventa de update invalida: " + updatesPerSecond);
+        }
+        tickNanos = NANOS_PER_SECOND / updatesPerSecond;
+    }
+
+    /*! \fn public void SetTargetFrameRate(int framesPerSecond)
+        \brief Modifica numarul tinta de frame-uri pe secunda. O valoare <= 0 inseamna fara limita.
+     */
+    public void SetTargetFrameRate(int framesPerSecond)
+    {
+        frameNanos = framesPerSecond > 0 ? NANOS_PER_SECOND / framesPerSecond : 0;
+    }
+
+    /*! \fn public void SetReportEnabled(boolean enabled)
+        \brief Activeaza/dezactiveaza afisarea periodica a statisticilor in consola.
+     */
+    public void SetReportEnabled(boolean enabled)
+    {
+        reportEnabled = enabled;
+    }
+
+    /*! \fn public void BeginFrame()
+        \brief Marcheaza inceputul unui frame si adauga timpul scurs in acumulator.
+     */
+    public void BeginFrame()
+    {
+        long now = System.nanoTime();
+        if (!started) {
+            started = true;
+            lastFrameStart = now;
+            nextFrameDeadline = now + frameNanos;
+            lastReportTime = now;
+            lastReportCpu = JvmMetrics.CpuNanos();
+            accumulator = tickNanos; // primul frame executa un Update() inainte de desenare
+        } else {
+            long elapsed = now - lastFrameStart;
+            stats.Record(elapsed, frameNanos);
+            lastFrameStart = now;
+            // Dupa o pauza lunga (debugger, fereastra mutata) nu recuperam mai mult de MAX_UPDATES tick-uri
+            accumulator += Math.min(elapsed, MAX_UPDATES * tickNanos);
+        }
+        updatesThisFrame = 0;
+    }
+
+    /*! \fn public boolean ShouldUpdate()
+        \brief Returneaza true cat timp mai trebuie executat un pas fix de Update() in frame-ul curent.
+     */
+    public boolean ShouldUpdate()
+    {
+        if (accumulator >= tickNanos && updatesThisFrame < MAX_UPDATES) {
+            accumulator -= tickNanos;
+            updatesThisFrame++;
+            return true;
+        }
+        return false;
+    }
+
+    /*! \fn public float GetInterpolation()
+        \brief Returneaza factorul de interpolare [0, 1] dintre starea anterioara si cea curenta.
+     */
+    public float GetInterpolation()
+    {
+        float alpha = (float) accumulator / tickNanos;
+        return alpha > 1.0f ? 1.0f : alpha;
+    }
+
+    /*! \fn public void EndFrame()
+        \brief Asteapta pana la inceputul urmatorului frame fara a tine procesorul ocupat.
+     */
+    public void EndFrame()
+    {
+        long workEnd = System.nanoTime();
+        stats.RecordWork(workEnd - lastFrameStart);
+
+        if (frameNanos > 0) {
+            WaitUntil(nextFrameDeadline);
+            nextFrameDeadline += frameNanos;
+            long now = System.nanoTime();
+            // Daca am ramas in urma cu mai mult de un frame nu incercam sa recuperam in rafala
+            if (now - nextFrameDeadline > frameNanos) {
+                nextFrameDeadline = now + frameNanos;
+            }
+        }
+
+        if (reportEnabled && workEnd - lastReportTime >= REPORT_INTERVAL) {
+            Report(workEnd);
+        }
+    }
+
+    /*! \fn public static void WaitUntil(long deadline)
+        \brief Asteptare hibrida: sleep cat timp e mult, parkNanos pentru rest si spin in final.
+
+        \param deadline Momentul (System.nanoTime()) pana la care se asteapta.
+     */
+    public static void WaitUntil(long deadline)
+    {
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            if (remaining > SLEEP_THRESHOLD) {
+                try {
+                    Thread.sleep((remaining - SLEEP_THRESHOLD) / 1_000_000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else if (remaining > SPIN_THRESHOLD) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /*! \fn private void Report(long now)
+        \brief Afiseaza FPS, jitter-ul si procentul de procesor folosit de firul jocului.
+     */
+    private void Report(long now)
+    {
+        long cpu = JvmMetrics.CpuNanos();
+        long wall = now - lastReportTime;
+        String cpuText = (cpu >= 0 && lastReportCpu >= 0)
+                ? String.format("%.1f%%", 100.0 * (cpu - lastReportCpu) / wall)
+                : "n/a";
+
+        System.out.println(String.format(
+                "[FrameScheduler] FPS: %.1f | frame: %.2f ms | jitter: %.3f ms (max %.3f ms) | lucru: %.2f ms | CPU fir: %s",
+                stats.GetFramesPerSecond(), stats.GetAverageFrameMillis(), stats.GetJitterMillis(),
+                stats.GetMaxDeviationMillis(), stats.GetAverageWorkMillis(), cpuText));
+
+        stats.Reset();
+        lastReportTime = now;
+        lastReportCpu = cpu;
+    }
+
+    /*! \fn public FrameStats GetStats()
+        \brief Returneaza statisticile frame-urilor din intervalul curent de raportare.
+     */
+    public FrameStats GetStats()
+    {
+        return stats;
+    }
+
+    public long GetTickNanos()
+    {
+        return tickNanos;
+    }
+
+    public long GetFrameNanos()
+    {
+        return frameNanos;
+    }
+}
@@ -0,0 +1,97 @@
+package PaooGame.Loop;
+
+/*! \class FrameStats
+    \brief Statistici despre durata frame-urilor: medie, jitter (deviatia standard) si abaterea maxima fata de tinta.
+
+    Valorile se acumuleaza in campuri primitive, fara alocari pe frame, si se reseteaza la fiecare raport.
+ */
+public class FrameStats
+{
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private long frames;            /*!< Numarul de frame-uri masurate.*/
+    private double sumFrame;        /*!< Suma duratelor frame-urilor (ns).*/
+    private double sumFrameSq;      /*!< Suma patratelor duratelor (ns^2), pentru deviatia standard.*/
+    private long maxDeviation;      /*!< Abaterea maxima fata de durata tinta (ns).*/
+    private double sumWork;         /*!< Suma timpilor de lucru efectiv (Update + Draw) (ns).*/
+    private long workSamples;
+
+    /*! \fn public void Record(long frameNanos, long targetNanos)
+        \brief Inregistreaza durata unui frame.
+
+        \param frameNanos Durata masurata a frame-ului.
+        \param targetNanos Durata tinta (0 daca nu exista limita).
+     */
+    public void Record(long frameNanos, long targetNanos)
+    {
+        frames++;
+        sumFrame += frameNanos;
+        sumFrameSq += (double) frameNanos * frameNanos;
+        if (targetNanos > 0) {
+            long deviation = Math.abs(frameNanos - targetNanos);
+            if (deviation > maxDeviation) {
+                maxDeviation = deviation;
+            }
+        }
+    }
+
+    /*! \fn public void RecordWork(long workNanos)
+        \brief Inregistreaza cat a durat lucrul efectiv dintr-un frame (fara asteptare).
+     */
+    public void RecordWork(long workNanos)
+    {
+        sumWork += workNanos;
+        workSamples++;
+    }
+
+    /*! \fn public void Reset()
+        \brief Reseteaza toate valorile acumulate.
+     */
+    public void Reset()
+    {
+        frames = 0;
+        sumFrame = 0;
+        sumFrameSq = 0;
+        maxDeviation = 0;
+        sumWork = 0;
+        workSamples = 0;
+    }
+
+    public long GetFrameCount()
+    {
+        return frames;
+    }
+
+    public double GetFramesPerSecond()
+    {
+        return sumFrame > 0 ? frames * 1_000_000_000.0 / sumFrame : 0;
+    }
+
+    public double GetAverageFrameMillis()
+    {
+        return frames > 0 ? sumFrame / frames / NANOS_PER_MILLI : 0;
+    }
+
+    /*! \fn public double GetJitterMillis()
+        \brief Returneaza deviatia standard a duratei frame-urilor, in milisecunde.
+     */
+    public double GetJitterMillis()
+    {
+        if (frames < 2) {
+            return 0;
+        }
+        double mean = sumFrame / frames;
+        double variance = sumFrameSq / frames - mean * mean;
+        return variance > 0 ? Math.sqrt(variance) / NANOS_PER_MILLI : 0;
+    }
+
+    public double GetMaxDeviationMillis()
+    {
+        return maxDeviation / NANOS_PER_MILLI;
+    }
+
+    public double GetAverageWorkMillis()
+    {
+        return workSamples > 0 ? sumWork / workSamples / NANOS_PER_MILLI : 0;
+    }
+}
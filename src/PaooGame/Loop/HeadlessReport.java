@@ -0,0 +1,88 @@
+package PaooGame.Loop;
+
+import java.util.Locale;
+
+/*! \class HeadlessReport
+    \brief Rezultatul unei rulari fara fereastra (Game.RunHeadless): tick-uri pe secunda si rata de alocare.
+
+    Alocarile sunt cele ale firului care a rulat simularea (fara firele de fundal, de exemplu preincarcarea
+    hartilor); -1 daca JVM-ul nu le poate masura.
+ */
+public class HeadlessReport
+{
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final long ticks;           /*!< Numarul de tick-uri rulate.*/
+    private final long frames;          /*!< Numarul de frame-uri desenate in imaginea din memorie (0 fara desenare).*/
+    private final long nanos;           /*!< Durata rularii.*/
+    private final long allocatedBytes;  /*!< Octetii alocati de firul simularii (-1 daca nu se pot masura).*/
+    private final long gcCount;         /*!< Colectarile GC din timpul rularii.*/
+    private final long gcMillis;        /*!< Durata colectarilor GC (ms).*/
+
+    public HeadlessReport(long ticks, long frames, long nanos, long allocatedBytes, long gcCount, long gcMillis)
+    {
+        this.ticks = ticks;
+        this.frames = frames;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    public long GetTicks()
+    {
+        return ticks;
+    }
+
+    public long GetFrames()
+    {
+        return frames;
+    }
+
+    public double GetSeconds()
+    {
+        return nanos / NANOS_PER_SECOND;
+    }
+
+    public double GetTicksPerSecond()
+    {
+        return nanos > 0 ? ticks * NANOS_PER_SECOND / nanos : 0;
+    }
+
+    /*! \fn public double GetAllocationRate()
+        \brief Octetii alocati pe secunda (-1 daca alocarile nu se pot masura).
+     */
+    public double GetAllocationRate()
+    {
+        return allocatedBytes >= 0 && nanos > 0 ? allocatedBytes * NANOS_PER_SECOND / nanos : -1;
+    }
+
+    /*! \fn public long GetBytesPerTick()
+        \brief Octetii alocati in medie de un tick (-1 daca alocarile nu se pot masura).
+     */
+    public long GetBytesPerTick()
+    {
+        return allocatedBytes >= 0 && ticks > 0 ? allocatedBytes / ticks : -1;
+    }
+
+    public long GetGcCount()
+    {
+        return gcCount;
+    }
+
+    public long GetGcMillis()
+    {
+        return gcMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        String allocation = allocatedBytes >= 0
+                ? String.format(Locale.ROOT, "%.2f MB/s (%d B/tick)", GetAllocationRate() / (1024.0 * 1024.0), GetBytesPerTick())
+                : "alocari nemasurabile";
+        return String.format(Locale.ROOT, "%d tick-uri%s in %.2f s: %.0f tick-uri/s | alocare %s | GC: %d colectari, %d ms",
+                ticks, frames > 0 ? " (" + frames + " frame-uri desenate)" : "", GetSeconds(), GetTicksPerSecond(),
+                allocation, gcCount, gcMillis);
+    }
+}
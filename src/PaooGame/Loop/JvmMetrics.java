@@ -0,0 +1,82 @@
+package PaooGame.Loop;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*! \class JvmMetrics
+    \brief Contoarele JVM folosite la masuratori: timpul CPU si octetii alocati de firul curent, colectarile GC.
+
+    Valorile sunt totaluri de la pornirea JVM-ului; apelantul face diferenta intre doua citiri. Citirile nu aloca
+    nimic, deci pot fi facute in fiecare frame (FrameProfiler).
+ */
+public final class JvmMetrics
+{
+    private static final GarbageCollectorMXBean[] collectors =
+            ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+    private static final com.sun.management.ThreadMXBean allocationBean = AllocationBean();
+
+    private JvmMetrics()
+    {
+    }
+
+    /*! \fn public static long CpuNanos()
+        \brief Timpul CPU al firului curent (ns) sau -1 daca JVM-ul nu il poate masura.
+     */
+    public static long CpuNanos()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        try {
+            return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadCpuTime() : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /*! \fn public static long AllocatedBytes()
+        \brief Totalul octetilor alocati de firul curent sau -1 daca JVM-ul nu il poate masura.
+     */
+    public static long AllocatedBytes()
+    {
+        if (allocationBean == null || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*! \fn public static long GcCount()
+        \brief Numarul total de colectari GC (toate colectoarele).
+     */
+    public static long GcCount()
+    {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    /*! \fn public static long GcMillis()
+        \brief Durata totala a colectarilor GC (ms, toate colectoarele).
+     */
+    public static long GcMillis()
+    {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static com.sun.management.ThreadMXBean AllocationBean()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                return sunBean;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package PaooGame.Loop;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*! \class SnapshotExchange
+    \brief Schimb fara lock-uri (triple buffering) al snapshot-urilor intre firul de update si cel de desenare.
+
+    Exista trei snapshot-uri prealocate: unul in care scrie firul de update (back), unul din care citeste
+    firul de desenare (front) si unul intermediar (middle). Publicarea si preluarea sunt cate un singur
+    getAndSet() pe un AtomicInteger, deci niciun fir nu il blocheaza pe celalalt, iar desenarea vede
+    intotdeauna cel mai recent snapshot complet.
+ */
+public class SnapshotExchange
+{
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH      = 4;  /*!< Bit setat cand middle contine un snapshot inca necitit.*/
+
+    private final WorldSnapshot[] buffers = new WorldSnapshot[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   /*!< Folosit doar de firul de update.*/
+    private int front = 2;  /*!< Folosit doar de firul de desenare.*/
+
+    public SnapshotExchange()
+    {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new WorldSnapshot();
+        }
+    }
+
+    /*! \fn public WorldSnapshot BeginWrite()
+        \brief Returneaza snapshot-ul in care firul de update poate scrie starea tick-ului curent.
+     */
+    public WorldSnapshot BeginWrite()
+    {
+        WorldSnapshot snapshot = buffers[back];
+        snapshot.Clear();
+        return snapshot;
+    }
+
+    /*! \fn public void Publish()
+        \brief Publica snapshot-ul scris si preia un buffer liber pentru urmatorul tick.
+     */
+    public void Publish()
+    {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /*! \fn public WorldSnapshot AcquireLatest()
+        \brief Returneaza cel mai recent snapshot publicat (sau pe cel anterior daca nu a aparut altul nou).
+     */
+    public WorldSnapshot AcquireLatest()
+    {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return buffers[front];
+    }
+}
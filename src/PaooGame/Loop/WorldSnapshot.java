@@ -0,0 +1,90 @@
+package PaooGame.Loop;
+
+import PaooGame.Items.Hero;
+import PaooGame.Maps.Map;
+import PaooGame.States.State;
+
+import java.awt.image.BufferedImage;
+
+/*! \class WorldSnapshot
+    \brief Copie a starii lumii produsa de firul de update si consumata de firul de desenare.
+
+    Obiectele sunt prealocate si refolosite de SnapshotExchange; un snapshot este scris doar de firul de
+    update si, dupa publicare, este citit doar de firul de desenare, deci nu necesita sincronizare proprie.
+ */
+public class WorldSnapshot
+{
+    public long tick;                   /*!< Numarul tick-ului de simulare care a produs snapshot-ul.*/
+    public long publishNanos;           /*!< Momentul publicarii (System.nanoTime()).*/
+    public State state;                 /*!< Starea jocului activa la acel tick.*/
+    public Map map;                     /*!< Harta activa (null in afara PlayState).*/
+
+    public Hero hero;                   /*!< Eroul (null daca snapshot-ul nu contine un erou).*/
+    public float heroPrevX;             /*!< Pozitia X a eroului la tick-ul anterior.*/
+    public float heroPrevY;             /*!< Pozitia Y a eroului la tick-ul anterior.*/
+    public float heroX;                 /*!< Pozitia X a eroului la tick-ul curent.*/
+    public float heroY;                 /*!< Pozitia Y a eroului la tick-ul curent.*/
+    public BufferedImage heroImage;     /*!< Imaginea curenta a eroului.*/
+
+    public float cameraPrevX;           /*!< Offset-ul camerei pe X la tick-ul anterior.*/
+    public float cameraPrevY;           /*!< Offset-ul camerei pe Y la tick-ul anterior.*/
+    public float cameraX;               /*!< Offset-ul camerei pe X la tick-ul curent.*/
+    public float cameraY;               /*!< Offset-ul camerei pe Y la tick-ul curent.*/
+
+    public boolean[] layerVisible = new boolean[8]; /*!< Vizibilitatea fiecarui layer al hartii.*/
+    public int layerCount;              /*!< Numarul de intrari valide din layerVisible.*/
+
+    /*! \fn public void Clear()
+        \brief Goleste snapshot-ul inainte de a fi rescris.
+     */
+    public void Clear()
+    {
+        state = null;
+        map = null;
+        hero = null;
+        heroImage = null;
+        layerCount = 0;
+    }
+
+    /*! \fn public void EnsureLayerCapacity(int count)
+        \brief Mareste vectorul de vizibilitate daca harta are mai multe layer-uri decat capacitatea curenta.
+     */
+    public void EnsureLayerCapacity(int count)
+    {
+        if (layerVisible.length < count) {
+            layerVisible = new boolean[Math.max(count, layerVisible.length * 2)];
+        }
+    }
+
+    /*! \fn public float GetCameraRenderX(float alpha)
+        \brief Offset-ul camerei pe X interpolat intre tick-ul anterior si cel curent.
+     */
+    public float GetCameraRenderX(float alpha)
+    {
+        return cameraPrevX + (cameraX - cameraPrevX) * alpha;
+    }
+
+    /*! \fn public float GetCameraRenderY(float alpha)
+        \brief Offset-ul camerei pe Y interpolat intre tick-ul anterior si cel curent.
+     */
+    public float GetCameraRenderY(float alpha)
+    {
+        return cameraPrevY + (cameraY - cameraPrevY) * alpha;
+    }
+
+    /*! \fn public float GetHeroRenderX(float alpha)
+        \brief Pozitia X a eroului interpolata intre tick-ul anterior si cel curent.
+     */
+    public float GetHeroRenderX(float alpha)
+    {
+        return heroPrevX + (heroX - heroPrevX) * alpha;
+    }
+
+    /*! \fn public float GetHeroRenderY(float alpha)
+        \brief Pozitia Y a eroului interpolata intre tick-ul anterior si cel curent.
+     */
+    public float GetHeroRenderY(float alpha)
+    {
+        return heroPrevY + (heroY - heroPrevY) * alpha;
+    }
+}
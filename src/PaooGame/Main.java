@@ -1,10 +1,68 @@
 package PaooGame;
 
+import PaooGame.Input.SyntheticInput;
+import PaooGame.Loop.HeadlessReport;
+
 public class Main
 {
+    private static final long DEFAULT_HEADLESS_TICKS = 36_000;  /*!< 10 minute de joc la 60 de tick-uri/s.*/
+    private static final int HEADLESS_RESTART_INTERVAL = 1_800; /*!< Botul reporneste nivelul o data la 30 s de joc.*/
+
     public static void main(String[] args)
     {
+        long headlessTicks = 0;
+        boolean headlessRender = false;
+        long seed = 1;
+        for (String arg : args)
+        {
+            /// --headless[=tick-uri]: simularea ruleaza fara fereastra, cu intrare generata, cat de repede se poate
+            if (arg.startsWith("--headless"))
+            {
+                headlessTicks = arg.startsWith("--headless=") ? Long.parseLong(arg.substring("--headless=".length())) : DEFAULT_HEADLESS_TICKS;
+            }
+            /// --render: in modul fara fereastra fiecare tick se deseneaza intr-o imagine din memorie
+            else if ("--render".equals(arg))
+            {
+                headlessRender = true;
+            }
+            /// --seed=n: seed-ul intrarii generate
+            else if (arg.startsWith("--seed="))
+            {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            }
+        }
+        if (headlessTicks > 0 && System.getProperty("java.awt.headless") == null)
+        {
+            /// Trebuie setata inainte de primul acces la AWT
+            System.setProperty("java.awt.headless", "true");
+        }
+
         Game paooGame = new Game("PaooGame", 1280, 720);
+        for (String arg : args)
+        {
+            /// --decoupled: simularea si desenarea ruleaza pe fire separate
+            if ("--decoupled".equals(arg))
+            {
+                paooGame.SetDecoupledRendering(true);
+            }
+            /// --frame-stats: statisticile frame-urilor sunt afisate in consola la fiecare 5 s
+            else if ("--frame-stats".equals(arg))
+            {
+                paooGame.SetFrameStatsReport(true);
+            }
+            /// --profile-csv[=fisier]: la iesire se scriu percentilele fazelor frame-urilor (implicit profiler.csv)
+            else if (arg.startsWith("--profile-csv"))
+            {
+                paooGame.SetProfilerCsv(arg.startsWith("--profile-csv=") ? arg.substring("--profile-csv=".length()) : "profiler.csv");
+            }
+        }
+
+        if (headlessTicks > 0)
+        {
+            HeadlessReport report = paooGame.RunHeadless(headlessTicks, new SyntheticInput(seed, HEADLESS_RESTART_INTERVAL), headlessRender);
+            System.out.println("Rezultat: " + report);
+            System.exit(0);
+        }
         paooGame.StartGame();
     }
 }
@@ -0,0 +1,313 @@
+package PaooGame.Maps;
+
+import PaooGame.Tiles.Tile;
+
+import java.nio.LongBuffer;
+import java.util.List;
+
+/*! \class CollisionLayer
+    \brief Proprietatile de coliziune ale fiecarei dale a hartii, calculate o singura data la incarcare.
+
+    Pentru fiecare proprietate (SOLID, DANGEROUS, WATER) exista un plan de biti: un long[] cu cate un bit pe dala,
+    pe randuri. Fiecare rand incepe la un cuvant nou (wordsPerRow cuvinte pe rand), astfel incat verificarea
+    unui interval de pana la 64 de dale dintr-un rand este o singura operatie AND cu o masca.
+
+    O dala primeste o proprietate daca o are dala de pe oricare layer din aceeasi pozitie. Proprietatile unui ID
+    vin din Tile (IsSolid/IsWater), din listele de ID-uri din MapLoader si din proprietatile tileset-ului
+    ("solid", "dangerous", "water" sau clasa "water").
+ */
+public class CollisionLayer
+{
+    public static final int SOLID       = 0;    /*!< Dala blocheaza miscarea.*/
+    public static final int DANGEROUS   = 1;    /*!< Dala raneste (capcana).*/
+    public static final int WATER       = 2;    /*!< Dala este apa.*/
+    public static final int FLAG_COUNT  = 3;
+
+    private static final int LEGACY_ID_LIMIT    = 1101;     /*!< Peste ultimul ID din listele MapLoader.*/
+    private static final int MAX_ID_TABLE       = 1 << 16;  /*!< Marimea maxima a tabelului de proprietati din Build().*/
+
+    private final int width;            /*!< Latimea hartii in dale.*/
+    private final int height;           /*!< Inaltimea hartii in dale.*/
+    private final int wordsPerRow;      /*!< Numarul de cuvinte de 64 de biti pe un rand.*/
+    private final long[][] planes;      /*!< planes[flag][y * wordsPerRow + x / 64], bitul x % 64.*/
+    private volatile int version;       /*!< Creste la fiecare modificare (pentru invalidarea cache-urilor derivate).*/
+
+    public CollisionLayer(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.planes = new long[FLAG_COUNT][wordsPerRow * height];
+    }
+
+    /*! \fn public static CollisionLayer Build(int width, int height, List<TileGrid> layers, List<MapLoader.TilesetData> tilesets)
+        \brief Construieste planurile de biti pentru layer-ele date.
+
+        Proprietatile fiecarui ID distinct sunt calculate o singura data (intr-un tabel), apoi fiecare layer
+        este parcurs secvential. Tabelul acopera doar ID-urile care pot avea proprietati (Tile.tiles, listele din
+        MapLoader si intervalele tileset-urilor, cel mult MAX_ID_TABLE); un ID din afara lui este clasificat direct,
+        astfel incat un GID foarte mare din fisier nu aloca un tabel urias.
+     */
+    public static CollisionLayer Build(int width, int height, List<TileGrid> layers, List<MapLoader.TilesetData> tilesets)
+    {
+        CollisionLayer collision = new CollisionLayer(width, height);
+        MapLoader legacy = new MapLoader();
+        byte[] idFlags = new byte[IdTableSize(tilesets)];   // bitul f = proprietatea f; bitul 7 = ID deja calculat
+
+        for (TileGrid grid : layers) {
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                int wordRow = y * collision.wordsPerRow;
+                for (int x = 0; x < width; x++) {
+                    int id = grid.GetIndex(row + x);
+                    if (id == 0) {
+                        continue;
+                    }
+                    int flags;
+                    if (id < idFlags.length) {
+                        flags = idFlags[id];
+                        if (flags == 0) {
+                            flags = Classify(id, legacy, tilesets) | 0x80;
+                            idFlags[id] = (byte) flags;
+                        }
+                    } else {
+                        flags = Classify(id, legacy, tilesets);
+                    }
+                    long bit = 1L << x;     // shift-ul foloseste doar ultimii 6 biti din x
+                    int word = wordRow + (x >>> 6);
+                    for (int f = 0; f < FLAG_COUNT; f++) {
+                        if ((flags & (1 << f)) != 0) {
+                            collision.planes[f][word] |= bit;
+                        }
+                    }
+                }
+            }
+        }
+        return collision;
+    }
+
+    /*! \fn private static int IdTableSize(List<MapLoader.TilesetData> tilesets)
+        \brief Marimea tabelului de proprietati din Build(): primul ID dupa toate ID-urile cunoscute, cel mult MAX_ID_TABLE.
+     */
+    private static int IdTableSize(List<MapLoader.TilesetData> tilesets)
+    {
+        long size = Math.max(Tile.tiles.length, LEGACY_ID_LIMIT);
+        for (MapLoader.TilesetData tileset : tilesets) {
+            size = Math.max(size, (long) tileset.firstGid + tileset.tileCount);
+        }
+        return (int) Math.min(size, MAX_ID_TABLE);
+    }
+
+    /*! \fn static CollisionLayer Read(int width, int height, LongBuffer source)
+        \brief Construieste stratul din planuri deja calculate (harta compilata), in ordinea proprietatilor.
+
+        Se copiaza doar cuvintele planurilor (wordsPerRow * height pe plan), fara clasificarea dalelor.
+     */
+    static CollisionLayer Read(int width, int height, LongBuffer source)
+    {
+        CollisionLayer collision = new CollisionLayer(width, height);
+        for (long[] plane : collision.planes) {
+            source.get(plane);
+        }
+        return collision;
+    }
+
+    /*! \fn public CollisionLayer Copy()
+        \brief Returneaza o copie independenta a planurilor (de exemplu peste coliziunea comuna din LevelCache).
+     */
+    public CollisionLayer Copy()
+    {
+        CollisionLayer copy = new CollisionLayer(width, height);
+        for (int f = 0; f < FLAG_COUNT; f++) {
+            System.arraycopy(planes[f], 0, copy.planes[f], 0, planes[f].length);
+        }
+        return copy;
+    }
+
+    /*! \fn public static int Classify(int id, MapLoader legacy, List<MapLoader.TilesetData> tilesets)
+        \brief Returneaza proprietatile (bitul f = proprietatea f) ale unui ID de dala.
+     */
+    public static int Classify(int id, MapLoader legacy, List<MapLoader.TilesetData> tilesets)
+    {
+        int flags = 0;
+        Tile tile = id > 0 && id < Tile.tiles.length ? Tile.tiles[id] : null;
+        if (tile != null) {
+            if (tile.IsSolid()) flags |= 1 << SOLID;
+            if (tile.IsWater()) flags |= 1 << WATER;
+        }
+        if (legacy.isSolidTile(id)) flags |= 1 << SOLID;
+        if (legacy.isDangerousTile(id)) flags |= 1 << DANGEROUS;
+
+        MapLoader.TilesetData tileset = FindTileset(id, tilesets);
+        if (tileset != null && tileset.propertyCount > 0) {
+            if ("true".equals(tileset.getProperty(id, "solid"))) flags |= 1 << SOLID;
+            if ("true".equals(tileset.getProperty(id, "dangerous"))) flags |= 1 << DANGEROUS;
+            if ("true".equals(tileset.getProperty(id, "water")) || "water".equals(tileset.getProperty(id, "type"))) {
+                flags |= 1 << WATER;
+            }
+        }
+        return flags;
+    }
+
+    private static MapLoader.TilesetData FindTileset(int id, List<MapLoader.TilesetData> tilesets)
+    {
+        MapLoader.TilesetData found = null;
+        for (MapLoader.TilesetData tileset : tilesets) {
+            if (tileset.firstGid <= id && (found == null || tileset.firstGid > found.firstGid)) {
+                found = tileset;
+            }
+        }
+        return found;
+    }
+
+    /*! \fn public boolean Is(int flag, int x, int y)
+        \brief Verifica proprietatea unei dale; dalele din afara hartii nu au nicio proprietate.
+     */
+    public boolean Is(int flag, int x, int y)
+    {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return (planes[flag][y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public boolean IsSolid(int x, int y)
+    {
+        return Is(SOLID, x, y);
+    }
+
+    public boolean IsDangerous(int x, int y)
+    {
+        return Is(DANGEROUS, x, y);
+    }
+
+    public boolean IsWater(int x, int y)
+    {
+        return Is(WATER, x, y);
+    }
+
+    /*! \fn public boolean AnyInRect(int flag, int x0, int y0, int x1, int y1)
+        \brief Verifica daca vreo dala din dreptunghiul [x0, x1] x [y0, y1] (inclusiv) are proprietatea data.
+
+        Dreptunghiul este taiat la marginile hartii. Pentru fiecare rand se testeaza cate un cuvant cu o masca,
+        deci o entitate de pana la 64 de dale latime costa o operatie pe rand.
+     */
+    public boolean AnyInRect(int flag, int x0, int y0, int x1, int y1)
+    {
+        if (x0 < 0) x0 = 0;
+        if (y0 < 0) y0 = 0;
+        if (x1 >= width) x1 = width - 1;
+        if (y1 >= height) y1 = height - 1;
+        if (x0 > x1 || y0 > y1) {
+            return false;
+        }
+
+        long[] plane = planes[flag];
+        int firstWord = x0 >>> 6;
+        int lastWord = x1 >>> 6;
+        long firstMask = -1L << x0;             // bitii >= x0 % 64
+        long lastMask = -1L >>> (63 - (x1 & 63)); // bitii <= x1 % 64
+
+        if (firstWord == lastWord) {
+            long mask = firstMask & lastMask;
+            for (int y = y0, index = y0 * wordsPerRow + firstWord; y <= y1; y++, index += wordsPerRow) {
+                if ((plane[index] & mask) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (int y = y0; y <= y1; y++) {
+            int row = y * wordsPerRow;
+            if ((plane[row + firstWord] & firstMask) != 0 || (plane[row + lastWord] & lastMask) != 0) {
+                return true;
+            }
+            for (int w = firstWord + 1; w < lastWord; w++) {
+                if (plane[row + w] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*! \fn public int GetFlags(int x, int y)
+        \brief Returneaza toate proprietatile unei dale (bitul f = proprietatea f); 0 in afara hartii.
+     */
+    public int GetFlags(int x, int y)
+    {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0;
+        }
+        int index = y * wordsPerRow + (x >>> 6);
+        int flags = 0;
+        for (int f = 0; f < FLAG_COUNT; f++) {
+            if ((planes[f][index] & (1L << x)) != 0) {
+                flags |= 1 << f;
+            }
+        }
+        return flags;
+    }
+
+    /*! \fn public void Set(int flag, int x, int y, boolean value)
+        \brief Seteaza sau sterge proprietatea unei dale (de exemplu cand harta se modifica in joc).
+     */
+    public void Set(int flag, int x, int y, boolean value)
+    {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int index = y * wordsPerRow + (x >>> 6);
+        long before = planes[flag][index];
+        if (value) {
+            planes[flag][index] |= 1L << x;
+        } else {
+            planes[flag][index] &= ~(1L << x);
+        }
+        if (planes[flag][index] != before) {
+            version++;
+        }
+    }
+
+    /*! \fn public void SetFlags(int x, int y, int flags)
+        \brief Seteaza toate proprietatile unei dale (bitul f = proprietatea f).
+     */
+    public void SetFlags(int x, int y, int flags)
+    {
+        for (int f = 0; f < FLAG_COUNT; f++) {
+            Set(f, x, y, (flags & (1 << f)) != 0);
+        }
+    }
+
+    /*! \fn public long[] GetPlane(int flag)
+        \brief Returneaza planul de biti al unei proprietati (nu trebuie modificat); vezi GetWordsPerRow().
+     */
+    public long[] GetPlane(int flag)
+    {
+        return planes[flag];
+    }
+
+    /*! \fn public int GetVersion()
+        \brief Returneaza un numar care se schimba ori de cate ori se modifica vreo proprietate.
+     */
+    public int GetVersion()
+    {
+        return version;
+    }
+
+    public int GetWordsPerRow()
+    {
+        return wordsPerRow;
+    }
+
+    public int GetWidth()
+    {
+        return width;
+    }
+
+    public int GetHeight()
+    {
+        return height;
+    }
+}
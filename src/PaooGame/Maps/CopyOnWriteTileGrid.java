@@ -0,0 +1,131 @@
+package PaooGame.Maps;
+
+import java.util.function.IntConsumer;
+
+/*! \class CopyOnWriteTileGrid
+    \brief Vedere modificabila peste o grila de baza care nu este niciodata scrisa (datele din LevelCache).
+
+    Celulele sunt impartite in segmente de SPAN_SIZE dale consecutive (pe randuri). Un segment este copiat
+    din baza intr-un int[] propriu doar la prima scriere in el; citirile dintr-un segment necopiat merg direct
+    in grila de baza. Reset() arunca segmentele copiate si raporteaza doar dalele care difereau de baza, deci
+    repornirea unui nivel costa proportional cu ce a modificat jocul, nu cu dimensiunea hartii.
+ */
+public final class CopyOnWriteTileGrid extends TileGrid
+{
+    public static final int SPAN_SHIFT = 8;
+    public static final int SPAN_SIZE = 1 << SPAN_SHIFT;    /*!< Dale pe segment.*/
+    private static final int SPAN_MASK = SPAN_SIZE - 1;
+
+    private final TileGrid base;    /*!< Datele nivelului, doar citite.*/
+    private final int[][] spans;    /*!< spans[index >>> SPAN_SHIFT]: segmentul copiat sau null.*/
+    private int dirtySpans;         /*!< Numarul de segmente copiate.*/
+
+    /*! \fn public CopyOnWriteTileGrid(TileGrid base)
+        \brief Construieste vederea peste grila data; nu se aloca nimic pentru date pana la prima scriere.
+     */
+    public CopyOnWriteTileGrid(TileGrid base)
+    {
+        super(base.GetWidth(), base.GetHeight());
+        this.base = base;
+        this.spans = new int[(width * height + SPAN_MASK) >>> SPAN_SHIFT][];
+    }
+
+    @Override
+    public int GetIndex(int index)
+    {
+        int[] span = spans[index >>> SPAN_SHIFT];
+        return span == null ? base.GetIndex(index) : span[index & SPAN_MASK];
+    }
+
+    @Override
+    public void SetIndex(int index, int id)
+    {
+        int s = index >>> SPAN_SHIFT;
+        int[] span = spans[s];
+        if (span == null) {
+            if (base.GetIndex(index) == id) {
+                return;
+            }
+            span = CopySpan(s);
+        }
+        span[index & SPAN_MASK] = id;
+    }
+
+    private int[] CopySpan(int s)
+    {
+        int[] span = new int[SPAN_SIZE];
+        int first = s << SPAN_SHIFT;
+        int count = Math.min(SPAN_SIZE, width * height - first);
+        for (int i = 0; i < count; i++) {
+            span[i] = base.GetIndex(first + i);
+        }
+        spans[s] = span;
+        dirtySpans++;
+        return span;
+    }
+
+    /*! \fn public boolean CanStore(int id)
+        \brief Segmentele copiate sunt int[], deci orice ID incape.
+     */
+    @Override
+    public boolean CanStore(int id)
+    {
+        return true;
+    }
+
+    /*! \fn public int Reset(IntConsumer changed)
+        \brief Revine la datele de baza si apeleaza changed cu indexul fiecarei dale care diferea de baza.
+
+        \param changed Primeste indexurile liniare ale dalelor refacute (poate fi null).
+        \return Numarul de dale refacute.
+     */
+    public int Reset(IntConsumer changed)
+    {
+        if (dirtySpans == 0) {
+            return 0;
+        }
+        int restored = 0;
+        int cells = width * height;
+        for (int s = 0; s < spans.length; s++) {
+            int[] span = spans[s];
+            if (span == null) {
+                continue;
+            }
+            spans[s] = null;
+            int first = s << SPAN_SHIFT;
+            int count = Math.min(SPAN_SIZE, cells - first);
+            for (int i = 0; i < count; i++) {
+                if (span[i] != base.GetIndex(first + i)) {
+                    restored++;
+                    if (changed != null) {
+                        changed.accept(first + i);
+                    }
+                }
+            }
+        }
+        dirtySpans = 0;
+        return restored;
+    }
+
+    /*! \fn public boolean IsModified()
+        \brief Verifica daca s-a scris vreodata in grila de la ultimul Reset().
+     */
+    public boolean IsModified()
+    {
+        return dirtySpans != 0;
+    }
+
+    public TileGrid GetBase()
+    {
+        return base;
+    }
+
+    /*! \fn public long GetMemoryBytes()
+        \brief Memoria proprie a vederii (segmentele copiate si tabelul lor), fara grila de baza care este comuna.
+     */
+    @Override
+    public long GetMemoryBytes()
+    {
+        return (long) spans.length * 4 + (long) dirtySpans * SPAN_SIZE * Integer.BYTES;
+    }
+}
@@ -0,0 +1,47 @@
+package PaooGame.Maps;
+
+/*! \class IntTileGrid
+    \brief TileGrid cu ID-uri pe 32 de biti, 4 octeti pe dala.
+ */
+public final class IntTileGrid extends TileGrid
+{
+    private final int[] tiles;
+
+    public IntTileGrid(int width, int height)
+    {
+        this(width, height, new int[width * height]);
+    }
+
+    /*! \fn IntTileGrid(int width, int height, int[] tiles)
+        \brief Foloseste direct vectorul dat (pe randuri), fara copie.
+     */
+    IntTileGrid(int width, int height, int[] tiles)
+    {
+        super(width, height);
+        this.tiles = tiles;
+    }
+
+    @Override
+    public int GetIndex(int index)
+    {
+        return tiles[index];
+    }
+
+    @Override
+    public void SetIndex(int index, int id)
+    {
+        tiles[index] = id;
+    }
+
+    @Override
+    public boolean CanStore(int id)
+    {
+        return true;
+    }
+
+    @Override
+    public long GetMemoryBytes()
+    {
+        return (long) tiles.length * Integer.BYTES;
+    }
+}
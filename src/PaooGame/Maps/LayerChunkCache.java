@@ -0,0 +1,277 @@
+package PaooGame.Maps;
+
+import PaooGame.Tiles.Tile;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/*! \class LayerChunkCache
+    \brief Cache de imagini pre-randate pentru bucati (chunk-uri) de CHUNK_TILES x CHUNK_TILES dale.
+
+    In loc sa deseneze fiecare dala a fiecarui layer la fiecare frame, harta deseneaza o singura data
+    toate layer-ele vizibile ale unui chunk intr-o imagine compatibila cu ecranul, iar apoi fiecare
+    frame inseamna doar cateva blit-uri (cate unul pentru fiecare chunk vizibil).
+
+    Chunk-urile se construiesc la prima folosire si sunt eliminate dupa politica LRU cand se depaseste
+    capacitatea. Un chunk este invalidat cand o dala din el se schimba; toate chunk-urile sunt invalidate
+    cand se schimba setul de layer-e vizibile.
+
+    Draw() trebuie apelata mereu de pe acelasi fir (firul de desenare); invalidarile pot veni de pe orice fir.
+ */
+public class LayerChunkCache
+{
+    public static final int CHUNK_TILES         = 16;   /*!< Latura unui chunk, in dale.*/
+    public static final int DEFAULT_CAPACITY    = 32;   /*!< Numarul implicit de chunk-uri pastrate in memorie.*/
+
+    /*! \interface ChunkPainter
+        \brief Deseneaza continutul unui chunk (toate layer-ele vizibile) intr-un context grafic.
+     */
+    public interface ChunkPainter
+    {
+        /*! \fn void PaintChunk(Graphics2D g, int tileX0, int tileY0, int tileX1, int tileY1, long visibleMask)
+            \brief Deseneaza dalele din [tileX0, tileX1) x [tileY0, tileY1) cu coltul (tileX0, tileY0) in (0, 0).
+         */
+        void PaintChunk(Graphics2D g, int tileX0, int tileY0, int tileX1, int tileY1, long visibleMask);
+    }
+
+    private final ChunkPainter painter;
+    private final int mapWidth;         /*!< Latimea hartii in dale.*/
+    private final int mapHeight;        /*!< Inaltimea hartii in dale.*/
+    private final int chunksX;          /*!< Numarul de chunk-uri pe orizontala.*/
+    private final LinkedHashMap<Long, BufferedImage> chunks;
+
+    private long cachedMask = 0;        /*!< Masca layer-elor vizibile cu care au fost construite chunk-urile.*/
+
+    private final Object pendingLock = new Object();
+    private long[] pendingChunks = new long[16]; /*!< Chunk-uri invalidate de pe alte fire, inca neprocesate.*/
+    private final long[] pendingBits;   /*!< Bitul unui chunk este setat daca chunk-ul este deja in pendingChunks.*/
+    private int pendingCount;
+    private boolean pendingAll;
+    private volatile boolean hasPending;
+
+    private long hits;                  /*!< Chunk-uri desenate din cache.*/
+    private long misses;                /*!< Chunk-uri (re)construite.*/
+    private long evictions;             /*!< Chunk-uri eliminate pentru a respecta capacitatea.*/
+
+    /*! \fn public LayerChunkCache(ChunkPainter painter, int mapWidth, int mapHeight, int capacity)
+        \brief Constructorul cache-ului.
+
+        \param painter Obiectul care stie sa deseneze dalele unui chunk.
+        \param mapWidth Latimea hartii in dale.
+        \param mapHeight Inaltimea hartii in dale.
+        \param capacity Numarul maxim de chunk-uri pastrate.
+     */
+    public LayerChunkCache(ChunkPainter painter, int mapWidth, int mapHeight, final int capacity)
+    {
+        this.painter = painter;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.chunksX = (mapWidth + CHUNK_TILES - 1) / CHUNK_TILES;
+        int chunksY = (mapHeight + CHUNK_TILES - 1) / CHUNK_TILES;
+        this.pendingBits = new long[(chunksX * chunksY + Long.SIZE - 1) / Long.SIZE];
+        this.chunks = new LinkedHashMap<Long, BufferedImage>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Long, BufferedImage> eldest) {
+                if (size() > capacity) {
+                    eldest.getValue().flush();
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /*! \fn public void Draw(Graphics g, int tileX0, int tileY0, int tileX1, int tileY1, int offsetX, int offsetY, long visibleMask)
+        \brief Deseneaza regiunea de dale [tileX0, tileX1) x [tileY0, tileY1) folosind chunk-urile din cache.
+
+        \param g Contextul grafic.
+        \param tileX0 Prima coloana vizibila.
+        \param tileY0 Primul rand vizibil.
+        \param tileX1 Coloana de dupa ultima vizibila.
+        \param tileY1 Randul de dupa ultimul vizibil.
+        \param offsetX Pozitia pe ecran (pixeli) a coloanei 0 a hartii.
+        \param offsetY Pozitia pe ecran (pixeli) a randului 0 a hartii.
+        \param visibleMask Bitul i setat daca layer-ul i este vizibil.
+     */
+    public void Draw(Graphics g, int tileX0, int tileY0, int tileX1, int tileY1, int offsetX, int offsetY, long visibleMask)
+    {
+        ApplyPendingInvalidations();
+
+        if (visibleMask != cachedMask) {
+            Clear();
+            cachedMask = visibleMask;
+        }
+        if (visibleMask == 0) {
+            return;
+        }
+
+        int chunkPixelsX = CHUNK_TILES * Tile.TILE_WIDTH;
+        int chunkPixelsY = CHUNK_TILES * Tile.TILE_HEIGHT;
+        int cx0 = Math.max(0, tileX0) / CHUNK_TILES;
+        int cy0 = Math.max(0, tileY0) / CHUNK_TILES;
+        int cx1 = (Math.min(tileX1, mapWidth) - 1) / CHUNK_TILES;
+        int cy1 = (Math.min(tileY1, mapHeight) - 1) / CHUNK_TILES;
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                BufferedImage chunk = GetChunk(cx, cy);
+                g.drawImage(chunk, offsetX + cx * chunkPixelsX, offsetY + cy * chunkPixelsY, null);
+            }
+        }
+    }
+
+    /*! \fn private BufferedImage GetChunk(int cx, int cy)
+        \brief Returneaza imaginea unui chunk, construind-o daca nu exista in cache.
+     */
+    private BufferedImage GetChunk(int cx, int cy)
+    {
+        long key = (long) cy * chunksX + cx;
+        BufferedImage chunk = chunks.get(key);
+        if (chunk != null) {
+            hits++;
+            return chunk;
+        }
+
+        misses++;
+        int tileX0 = cx * CHUNK_TILES;
+        int tileY0 = cy * CHUNK_TILES;
+        int tileX1 = Math.min(tileX0 + CHUNK_TILES, mapWidth);
+        int tileY1 = Math.min(tileY0 + CHUNK_TILES, mapHeight);
+
+        chunk = CreateChunkImage((tileX1 - tileX0) * Tile.TILE_WIDTH, (tileY1 - tileY0) * Tile.TILE_HEIGHT);
+        Graphics2D g2 = chunk.createGraphics();
+        try {
+            painter.PaintChunk(g2, tileX0, tileY0, tileX1, tileY1, cachedMask);
+        } finally {
+            g2.dispose();
+        }
+        chunks.put(key, chunk);
+        return chunk;
+    }
+
+    /*! \fn private static BufferedImage CreateChunkImage(int width, int height)
+        \brief Creeaza o imagine transparenta compatibila cu configuratia grafica a ecranului,
+        astfel incat Java2D sa o poata pastra accelerata.
+     */
+    private static BufferedImage CreateChunkImage(int width, int height)
+    {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /*! \fn public void InvalidateTile(int tileX, int tileY)
+        \brief Marcheaza ca invalid chunk-ul care contine dala data. Poate fi apelata de pe orice fir.
+
+        Fiecare chunk apare cel mult o data in coada, deci coada ramane marginita de numarul de chunk-uri
+        chiar daca Draw() nu este apelata (modul fara fereastra, harti fara desenare).
+     */
+    public void InvalidateTile(int tileX, int tileY)
+    {
+        if (tileX < 0 || tileY < 0 || tileX >= mapWidth || tileY >= mapHeight) {
+            return;
+        }
+        int key = (tileY / CHUNK_TILES) * chunksX + (tileX / CHUNK_TILES);
+        long bit = 1L << key;
+        synchronized (pendingLock) {
+            if (pendingAll || (pendingBits[key >>> 6] & bit) != 0) {
+                return;
+            }
+            pendingBits[key >>> 6] |= bit;
+            if (pendingCount == pendingChunks.length) {
+                pendingChunks = Arrays.copyOf(pendingChunks, pendingCount * 2);
+            }
+            pendingChunks[pendingCount++] = key;
+            hasPending = true;
+        }
+    }
+
+    /*! \fn public void InvalidateAll()
+        \brief Marcheaza ca invalide toate chunk-urile. Poate fi apelata de pe orice fir.
+     */
+    public void InvalidateAll()
+    {
+        synchronized (pendingLock) {
+            ClearPendingBits();
+            pendingAll = true;
+            pendingCount = 0;
+            hasPending = true;
+        }
+    }
+
+    /*! \fn private void ApplyPendingInvalidations()
+        \brief Elimina din cache chunk-urile invalidate de la ultimul frame.
+     */
+    private void ApplyPendingInvalidations()
+    {
+        if (!hasPending) {
+            return;
+        }
+        synchronized (pendingLock) {
+            if (pendingAll) {
+                Clear();
+            } else {
+                for (int i = 0; i < pendingCount; i++) {
+                    BufferedImage removed = chunks.remove(pendingChunks[i]);
+                    if (removed != null) {
+                        removed.flush();
+                    }
+                }
+                ClearPendingBits();
+            }
+            pendingAll = false;
+            pendingCount = 0;
+            hasPending = false;
+        }
+    }
+
+    /*! \fn private void ClearPendingBits()
+        \brief Sterge bitii chunk-urilor din coada (doar cu pendingLock luat).
+     */
+    private void ClearPendingBits()
+    {
+        for (int i = 0; i < pendingCount; i++) {
+            int key = (int) pendingChunks[i];
+            pendingBits[key >>> 6] &= ~(1L << key);
+        }
+    }
+
+    /*! \fn private void Clear()
+        \brief Elibereaza toate chunk-urile din cache.
+     */
+    private void Clear()
+    {
+        Iterator<BufferedImage> it = chunks.values().iterator();
+        while (it.hasNext()) {
+            it.next().flush();
+            it.remove();
+        }
+    }
+
+    public long GetHits()
+    {
+        return hits;
+    }
+
+    public long GetMisses()
+    {
+        return misses;
+    }
+
+    public long GetEvictions()
+    {
+        return evictions;
+    }
+
+    public int GetCachedChunkCount()
+    {
+        return chunks.size();
+    }
+}
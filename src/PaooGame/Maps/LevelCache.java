@@ -0,0 +1,208 @@
+package PaooGame.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/*! \class LevelCache
+    \brief Pastreaza datele parsate ale nivelurilor (layer-e si coliziune), pe cale, ca sa nu fie citite din nou.
+
+    Datele unui nivel (Level) nu se modifica dupa incarcare; fiecare Map primeste vederi CopyOnWriteTileGrid
+    peste ele si o copie a coliziunii, deci repornirea sau revenirea la un nivel nu mai parseaza fisierul.
+    O intrare este valabila cat timp fisierul sursa are aceeasi data a modificarii si aceeasi lungime; altfel
+    nivelul este citit din nou (din .bmap daca este la zi, altfel din .tmx).
+
+    Se pastreaza cel mult capacity niveluri, cel folosit cel mai demult fiind aruncat primul; intrarile sunt
+    referinte slabe (SoftReference), deci GC-ul le poate elibera daca memoria se termina. Metodele pot fi
+    apelate de pe orice fir (jocul si firul de preincarcare al MapPreloader); parsarea se face in afara blocarii.
+ */
+public class LevelCache
+{
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private static final LevelCache shared = new LevelCache(DEFAULT_CAPACITY);
+
+    /*! \class Level
+        \brief Datele nemodificabile ale unui nivel; grilele si coliziunea nu trebuie scrise.
+     */
+    public static final class Level
+    {
+        final String path;
+        final int width;
+        final int height;
+        final String[] names;
+        final boolean[] visible;
+        final TileGrid[] layers;
+        final CollisionLayer collision;
+        final List<MapLoader.TilesetData> tilesets;    /*!< Tileset-urile cu care a fost clasificata coliziunea.*/
+        final long lastModified;
+        final long length;
+
+        Level(String path, int width, int height, List<MapLoader.LayerData> layerData, CollisionLayer collision,
+              List<MapLoader.TilesetData> tilesets, long lastModified, long length)
+        {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.names = new String[layerData.size()];
+            this.visible = new boolean[layerData.size()];
+            this.layers = new TileGrid[layerData.size()];
+            for (int i = 0; i < layers.length; i++) {
+                MapLoader.LayerData layer = layerData.get(i);
+                names[i] = layer.name;
+                visible[i] = layer.visible;
+                layers[i] = layer.tiles;
+            }
+            this.collision = collision;
+            this.tilesets = tilesets;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        public int GetWidth()
+        {
+            return width;
+        }
+
+        public int GetHeight()
+        {
+            return height;
+        }
+
+        public int GetLayerCount()
+        {
+            return layers.length;
+        }
+
+        /*! \fn public long GetMemoryBytes()
+            \brief Memoria grilelor si a coliziunii (pentru grilele din .bmap, datele din fisier).
+         */
+        public long GetMemoryBytes()
+        {
+            long bytes = 0;
+            for (TileGrid grid : layers) {
+                bytes += grid.GetMemoryBytes();
+            }
+            return bytes + (long) CollisionLayer.FLAG_COUNT * collision.GetPlane(0).length * Long.BYTES;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, SoftReference<Level>> levels;
+    private int hits;
+    private int misses;
+
+    /*! \fn public LevelCache(int capacity)
+        \brief Constructorul; capacity este numarul maxim de niveluri pastrate.
+     */
+    public LevelCache(int capacity)
+    {
+        this.capacity = Math.max(1, capacity);
+        this.levels = new LinkedHashMap<String, SoftReference<Level>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<String, SoftReference<Level>> eldest)
+            {
+                return size() > LevelCache.this.capacity;
+            }
+        };
+    }
+
+    /*! \fn public static LevelCache GetShared()
+        \brief Cache-ul folosit de Map.
+     */
+    public static LevelCache GetShared()
+    {
+        return shared;
+    }
+
+    /*! \fn public Level Get(String path)
+        \brief Returneaza nivelul de la calea data, din cache daca fisierul nu s-a schimbat, altfel il incarca.
+
+        Erorile de citire sunt aruncate mai departe si nivelul nu este pastrat.
+     */
+    public Level Get(String path) throws Exception
+    {
+        File source = new File(path);
+        long lastModified = source.lastModified();
+        long length = source.length();
+        synchronized (this) {
+            SoftReference<Level> reference = levels.get(path);
+            Level level = reference != null ? reference.get() : null;
+            if (level != null && level.lastModified == lastModified && level.length == length) {
+                hits++;
+                return level;
+            }
+            if (reference != null) {
+                levels.remove(path);
+            }
+            misses++;
+        }
+
+        Level level = Load(path, lastModified, length);
+        synchronized (this) {
+            levels.put(path, new SoftReference<>(level));
+        }
+        return level;
+    }
+
+    /*! \fn private static Level Load(String path, long lastModified, long length)
+        \brief Citeste nivelul: harta compilata daca este la zi (MapBinaryLoader), altfel fisierul .tmx.
+     */
+    private static Level Load(String path, long lastModified, long length) throws Exception
+    {
+        if (lastModified == 0L) {
+            throw new IOException("Fisierul nu exista: " + path);
+        }
+        MapLoader.MapData compiled = MapBinaryLoader.LoadIfCurrent(path);
+        if (compiled != null) {
+            System.out.println("Harta compilata gasita: " + MapBinaryLoader.CompiledPath(path));
+            return new Level(path, compiled.width, compiled.height, compiled.layers, compiled.collision,
+                    compiled.tilesets, lastModified, length);
+        }
+
+        TmxStreamLoader.TmxMap tmx = new TmxStreamLoader().Load(path);
+        List<MapLoader.LayerData> layers = new ArrayList<>(tmx.layers.size());
+        List<TileGrid> grids = new ArrayList<>(tmx.layers.size());
+        for (TmxStreamLoader.TmxLayer layer : tmx.layers) {
+            // Datele vin deja pe randuri; grila alege short[] daca toate ID-urile incap pe 16 biti
+            TileGrid grid = TileGrid.FromArray(layer.tiles, tmx.width, tmx.height);
+            layers.add(new MapLoader.LayerData(layer.name, layer.visible, grid));
+            grids.add(grid);
+        }
+        List<MapLoader.TilesetData> tilesets = Collections.emptyList();
+        CollisionLayer collision = CollisionLayer.Build(tmx.width, tmx.height, grids, tilesets);
+        return new Level(path, tmx.width, tmx.height, layers, collision, tilesets, lastModified, length);
+    }
+
+    /*! \fn public synchronized void Invalidate(String path)
+        \brief Scoate nivelul dat din cache (va fi citit din nou la urmatorul Get).
+     */
+    public synchronized void Invalidate(String path)
+    {
+        levels.remove(path);
+    }
+
+    public synchronized void Clear()
+    {
+        levels.clear();
+    }
+
+    public synchronized int GetHits()
+    {
+        return hits;
+    }
+
+    public synchronized int GetMisses()
+    {
+        return misses;
+    }
+
+    public synchronized int GetSize()
+    {
+        return levels.size();
+    }
+}
@@ -1,16 +1,17 @@
 package PaooGame.Maps;
 
+import PaooGame.AI.FlowFieldService;
+import PaooGame.AI.PathfindingService;
+import PaooGame.GameCamera;
+import PaooGame.Loop.FrameProfiler;
 import PaooGame.RefLinks;
 import PaooGame.Tiles.Tile;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.*;
-
 import java.awt.*;
-import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /*! \class Map
     \brief Clasa ce reprezinta o harta de joc incarcata din fisier .tmx (Tiled).
@@ -22,21 +23,46 @@ public class Map {
     private int height;
     private String mapPath;
 
-    // Lista de layer-uri (fiecare layer are propria sa matrice de tile-uri)
+    // Lista de layer-uri (fiecare layer are propria sa grila de tile-uri, pe randuri)
     private List<MapLayer> layers;
     private boolean mapLoaded = false;
 
+    // Cache cu imagini pre-randate pentru chunk-uri de 16x16 dale (construit dupa incarcare)
+    private LayerChunkCache chunkCache;
+
+    // Proprietatile de coliziune ale dalelor (solid/periculos/apa), copiate din nivel la incarcare
+    private CollisionLayer collisionLayer;
+
+    // Tileset-urile nivelului (proprietatile solid/dangerous/water ale dalelor), folosite si de SetTileId
+    private List<MapLoader.TilesetData> tilesets = Collections.emptyList();
+
+    // Regulile de coliziune pe ID-uri fixe din MapLoader (fara stare, deci comune tuturor hartilor)
+    private static final MapLoader legacyTiles = new MapLoader();
+
+    // Datele nemodificabile ale nivelului din LevelCache (pentru Reset) si apelul refolosit de Reset
+    private LevelCache.Level level;
+    private final IntConsumer restoreTile = this::RestoreTile;
+
+    // Profiler-ul firului care deseneaza harta (preluat la fiecare Draw, folosit si la refacerea chunk-urilor)
+    private FrameProfiler profiler;
+
+    // Cautarea de drumuri pentru AI, creata la prima folosire
+    private PathfindingService pathfinding;
+
+    // Campul de directii catre erou, comun tuturor inamicilor (creat la prima folosire)
+    private FlowFieldService flowField;
+
     /*! \class MapLayer
         \brief Clasa interna pentru a reprezenta un layer al hartii
      */
     private static class MapLayer {
         String name;
-        int[][] tiles;
+        TileGrid tiles;
         boolean visible;
 
-        public MapLayer(String name, int width, int height) {
+        public MapLayer(String name, TileGrid tiles) {
             this.name = name;
-            this.tiles = new int[width][height];
+            this.tiles = tiles;
             this.visible = true;
         }
     }
@@ -64,9 +90,10 @@ public class Map {
         System.out.println("=== INCARCAREA HARTII ===");
         System.out.println("Cale fisier: " + customPath);
 
-        // Incearca sa incarce harta TMX cu toate layer-urile
+        // Datele nivelului vin din LevelCache (parsate o singura data); harta primeste vederi copy-on-write peste ele
         try {
-            LoadWorldFromTMX(mapPath);
+            LoadWorldFromLevel(LevelCache.GetShared().Get(mapPath));
+            chunkCache = new LayerChunkCache(this::PaintChunk, width, height, LayerChunkCache.DEFAULT_CAPACITY);
             mapLoaded = true;
             System.out.println("SUCCES! Harta TMX incarcata corect din: " + mapPath);
             System.out.println("Dimensiuni: " + width + "x" + height + " tile-uri");
@@ -80,7 +107,7 @@ public class Map {
             System.out.println("\nVerifica urmatoarele:");
             System.out.println("1. Fisierul " + mapPath + " exista?");
             System.out.println("2. Fisierul este un TMX valid exportat din Tiled?");
-            System.out.println("3. Datele sunt in format CSV?");
+            System.out.println("3. Datele sunt in format CSV sau Base64 (zlib/gzip)?");
             System.out.println("4. Calea catre fisier este corecta?");
         }
         System.out.println("========================");
@@ -94,36 +121,95 @@ public class Map {
     }
 
     /*! \fn public void Draw(Graphics g)
-        \brief Deseneaza harta pe ecran cu toate layer-urile in ordine.
+        \brief Deseneaza harta pe ecran cu toate layer-urile in ordine, vazuta prin camera jocului.
 
         \param g Contextul grafic in care sa se deseneze harta
      */
     public void Draw(Graphics g) {
+        GameCamera camera = refLink.GetGameCamera();
+        float alpha = refLink.GetInterpolation();
+        Draw(g, null, camera.GetRenderXOffset(alpha), camera.GetRenderYOffset(alpha));
+    }
+
+    /*! \fn public void Draw(Graphics g, boolean[] layerVisible, float xOffset, float yOffset)
+        \brief Deseneaza portiunea vizibila a hartii pentru un offset de camera si o vizibilitate a layer-elor date.
+
+        Se deseneaza doar dalele care intersecteaza fereastra, deci costul unui frame depinde de dimensiunea
+        ferestrei si nu de dimensiunea hartii. Folosita si de firul de desenare separat, care primeste
+        vizibilitatea si offset-ul camerei copiate intr-un WorldSnapshot. Durata este inregistrata in profiler-ul
+        jocului (faza MAP, iar la refacerea chunk-urilor cate o faza pe layer si numarul de dale desenate).
+
+        \param g Contextul grafic in care sa se deseneze harta
+        \param layerVisible Vizibilitatea fiecarui layer sau null pentru starea curenta a layer-elor
+        \param xOffset Coordonata X in harta (pixeli) a coltului stanga-sus al ferestrei
+        \param yOffset Coordonata Y in harta (pixeli) a coltului stanga-sus al ferestrei
+     */
+    public void Draw(Graphics g, boolean[] layerVisible, float xOffset, float yOffset) {
+        profiler = refLink.GetGame().GetProfiler();
+        profiler.Begin(FrameProfiler.MAP);
+        try {
+            DrawMap(g, layerVisible, xOffset, yOffset);
+        } finally {
+            profiler.End(FrameProfiler.MAP);
+        }
+    }
+
+    /*! \fn private void DrawMap(Graphics g, boolean[] layerVisible, float xOffset, float yOffset)
+        \brief Corpul lui Draw(), masurat ca faza MAP a profiler-ului firului de desenare
+     */
+    private void DrawMap(Graphics g, boolean[] layerVisible, float xOffset, float yOffset) {
         // Daca harta nu s-a incarcat, afiseaza un mesaj de eroare vizual
         if (!mapLoaded || layers.isEmpty() || width <= 0 || height <= 0) {
             drawErrorScreen(g);
             return;
         }
 
-        // Calculeaza cate dale incap pe ecran
-        int tilesX = (refLink.GetGame().GetWidth() / Tile.TILE_WIDTH) + 1;
-        int tilesY = (refLink.GetGame().GetHeight() / Tile.TILE_HEIGHT) + 1;
+        // Offset-ul in pixeli intregi (deplasarea partiala in interiorul unei dale permite scroll fluid)
+        int pixelX = (int) Math.floor(xOffset);
+        int pixelY = (int) Math.floor(yOffset);
 
-        // Limiteaza la dimensiunile hartii
-        tilesX = Math.min(tilesX, width);
-        tilesY = Math.min(tilesY, height);
-
-        // Deseneaza fiecare layer in ordine (primul layer e la fund, ultimul e deasupra)
-        for (MapLayer layer : layers) {
-            if (!layer.visible) continue; // Skip layer-urile invizibile
+        // Intervalul de dale care intersecteaza fereastra, limitat la dimensiunile hartii
+        int tileX0 = Math.max(0, Math.floorDiv(pixelX, Tile.TILE_WIDTH));
+        int tileY0 = Math.max(0, Math.floorDiv(pixelY, Tile.TILE_HEIGHT));
+        int tileX1 = Math.min(width, Math.floorDiv(pixelX + refLink.GetGame().GetWidth() - 1, Tile.TILE_WIDTH) + 1);
+        int tileY1 = Math.min(height, Math.floorDiv(pixelY + refLink.GetGame().GetHeight() - 1, Tile.TILE_HEIGHT) + 1);
 
-            DrawLayer(g, layer, tilesX, tilesY);
+        if (tileX0 < tileX1 && tileY0 < tileY1) {
+            DrawVisibleLayers(g, layerVisible, tileX0, tileY0, tileX1, tileY1, -pixelX, -pixelY);
         }
 
         // Afiseaza informatii despre harta in coltul stanga-sus pentru confirmare
         drawMapInfo(g);
     }
 
+    /*! \fn private void DrawVisibleLayers(Graphics g, boolean[] layerVisible, int tileX0, int tileY0, int tileX1, int tileY1, int offsetX, int offsetY)
+        \brief Deseneaza layer-ele vizibile pentru regiunea de dale data
+     */
+    private void DrawVisibleLayers(Graphics g, boolean[] layerVisible, int tileX0, int tileY0, int tileX1, int tileY1,
+                                   int offsetX, int offsetY) {
+        // Masca layer-elor vizibile; la schimbarea ei cache-ul de chunk-uri se reconstruieste
+        long visibleMask = 0;
+        for (int i = 0; i < layers.size(); i++) {
+            boolean visible = (layerVisible != null && i < layerVisible.length) ? layerVisible[i] : layers.get(i).visible;
+            if (visible) {
+                visibleMask |= 1L << i;
+            }
+        }
+
+        if (layers.size() <= 64) {
+            // Fiecare chunk vizibil este un singur blit al tuturor layer-elor deja compuse
+            chunkCache.Draw(g, tileX0, tileY0, tileX1, tileY1, offsetX, offsetY, visibleMask);
+        } else {
+            // Prea multe layer-e pentru masca: se deseneaza dala cu dala
+            for (int i = 0; i < layers.size(); i++) {
+                boolean visible = (layerVisible != null && i < layerVisible.length) ? layerVisible[i] : layers.get(i).visible;
+                if (!visible) continue; // Skip layer-urile invizibile
+
+                DrawLayer(g, layers.get(i), tileX0, tileY0, tileX1, tileY1, offsetX, offsetY);
+            }
+        }
+    }
+
     /*! \fn private void drawErrorScreen(Graphics g)
         \brief Deseneaza ecranul de eroare cand harta nu se incarca
 
@@ -176,28 +262,61 @@ public class Map {
         }
     }
 
-    /*! \fn private void DrawLayer(Graphics g, MapLayer layer, int tilesX, int tilesY)
-        \brief Deseneaza un singur layer
+    /*! \fn private void PaintChunk(Graphics2D g, int tileX0, int tileY0, int tileX1, int tileY1, long visibleMask)
+        \brief Deseneaza toate layer-ele vizibile ale unui chunk in imaginea acestuia (apelata de LayerChunkCache)
+     */
+    private void PaintChunk(Graphics2D g, int tileX0, int tileY0, int tileX1, int tileY1, long visibleMask) {
+        // Primul layer e la fund, ultimul e deasupra
+        for (int i = 0; i < layers.size() && i < 64; i++) {
+            if ((visibleMask & (1L << i)) != 0) {
+                boolean profiled = profiler != null && i < FrameProfiler.MAX_LAYERS;
+                if (profiled) {
+                    profiler.SetLayerName(i, layers.get(i).name);
+                    profiler.Begin(FrameProfiler.LAYER + i);
+                }
+                DrawLayer(g, layers.get(i), tileX0, tileY0, tileX1, tileY1,
+                        -tileX0 * Tile.TILE_WIDTH, -tileY0 * Tile.TILE_HEIGHT);
+                if (profiled) {
+                    profiler.End(FrameProfiler.LAYER + i);
+                }
+            }
+        }
+    }
+
+    /*! \fn private void DrawLayer(Graphics g, MapLayer layer, int tileX0, int tileY0, int tileX1, int tileY1, int offsetX, int offsetY)
+        \brief Deseneaza dalele unui layer din regiunea [tileX0, tileX1) x [tileY0, tileY1)
 
         \param g Contextul grafic
         \param layer Layer-ul de desenat
-        \param tilesX Numarul de tile-uri pe orizontala
-        \param tilesY Numarul de tile-uri pe verticala
+        \param tileX0 Prima coloana
+        \param tileY0 Primul rand
+        \param tileX1 Coloana de dupa ultima
+        \param tileY1 Randul de dupa ultimul
+        \param offsetX Pozitia in pixeli a coloanei 0 in contextul grafic
+        \param offsetY Pozitia in pixeli a randului 0 in contextul grafic
      */
-    private void DrawLayer(Graphics g, MapLayer layer, int tilesX, int tilesY) {
-        for (int y = 0; y < tilesY; y++) {
-            for (int x = 0; x < tilesX; x++) {
-                int tileId = layer.tiles[x][y];
+    private void DrawLayer(Graphics g, MapLayer layer, int tileX0, int tileY0, int tileX1, int tileY1, int offsetX, int offsetY) {
+        TileGrid tiles = layer.tiles;
+        int drawn = 0;
+        for (int y = tileY0; y < tileY1; y++) {
+            // Datele sunt pe randuri: parcurgerea unui rand inseamna citiri consecutive din memorie
+            int row = y * width;
+            for (int x = tileX0; x < tileX1; x++) {
+                int tileId = tiles.GetIndex(row + x);
 
                 // Doar deseneaza tile-uri care nu sunt goale (ID 0 in multe cazuri inseamna gol)
                 if (tileId > 0) {
                     Tile tile = GetTileById(tileId);
                     if (tile != null) {
-                        tile.Draw(g, x * Tile.TILE_WIDTH, y * Tile.TILE_HEIGHT);
+                        tile.Draw(g, offsetX + x * Tile.TILE_WIDTH, offsetY + y * Tile.TILE_HEIGHT);
+                        drawn++;
                     }
                 }
             }
         }
+        if (profiler != null) {
+            profiler.AddTiles(drawn);
+        }
     }
 
     /*! \fn public Tile GetTile(int x, int y)
@@ -232,7 +351,7 @@ public class Map {
             throw new IndexOutOfBoundsException("Tile [" + x + "," + y + "] este in afara hartii.");
         }
 
-        int tileId = layers.get(layerIndex).tiles[x][y];
+        int tileId = layers.get(layerIndex).tiles.Get(x, y);
         return GetTileById(tileId);
     }
 
@@ -261,139 +380,63 @@ public class Map {
         return tile;
     }
 
-    /*! \fn private void LoadWorldFromTMX(String path)
-        \brief Incarca harta dintr-un fisier .tmx cu toate layer-urile in format CSV.
-
-        \param path Calea catre fisierul TMX
-     */
-    private void LoadWorldFromTMX(String path) throws Exception {
-        System.out.println("Incepe incarcarea hartii TMX din: " + path);
+    /*! \fn private void LoadWorldFromLevel(LevelCache.Level level)
+        \brief Preia layer-ele si coliziunea unui nivel din LevelCache, fara nicio parsare.
 
-        // Verifica existenta fisierului
-        File file = new File(path);
-        System.out.println("Calea absoluta catre fisier: " + file.getAbsolutePath());
+        Fiecare layer este un CopyOnWriteTileGrid peste grila comuna a nivelului, iar coliziunea este o copie
+        (se modifica prin SetTileId), deci Reset() poate reveni oricand la starea din fisier.
 
-        if (!file.exists()) {
-            throw new Exception("Fisierul TMX nu exista la calea: " + file.getAbsolutePath());
-        }
-
-        if (!file.canRead()) {
-            throw new Exception("Fisierul TMX nu poate fi citit. Verifica permisiunile.");
-        }
-
-        System.out.println("Fisierul TMX gasit si poate fi citit");
-
-        // Parseaza XML-ul
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(file);
-        doc.getDocumentElement().normalize();
-
-        Element mapElement = doc.getDocumentElement();
-        System.out.println("Element root gasit: " + mapElement.getNodeName());
-
-        // Verifica daca elementul root este 'map'
-        if (!"map".equals(mapElement.getNodeName())) {
-            throw new Exception("Fisierul nu este un TMX valid. Elementul root este '" +
-                    mapElement.getNodeName() + "' in loc de 'map'");
-        }
-
-        // Extrage dimensiunile hartii
-        String widthAttr = mapElement.getAttribute("width");
-        String heightAttr = mapElement.getAttribute("height");
-
-        if (widthAttr.isEmpty() || heightAttr.isEmpty()) {
-            throw new Exception("Atributele 'width' si 'height' lipsesc din elementul 'map'");
+        \param level Datele nivelului (nu se modifica)
+     */
+    private void LoadWorldFromLevel(LevelCache.Level level) {
+        this.level = level;
+        width = level.width;
+        height = level.height;
+        for (int i = 0; i < level.layers.length; i++) {
+            MapLayer mapLayer = new MapLayer(level.names[i], new CopyOnWriteTileGrid(level.layers[i]));
+            mapLayer.visible = level.visible[i];
+            layers.add(mapLayer);
+            System.out.println("Layer-ul '" + mapLayer.name + "' procesat cu succes (vizibil: " + mapLayer.visible
+                    + ", " + (level.layers[i].GetMemoryBytes() / 1024) + " KB)");
         }
+        collisionLayer = level.collision.Copy();
+        tilesets = level.tilesets;
+    }
 
-        width = Integer.parseInt(widthAttr);
-        height = Integer.parseInt(heightAttr);
-
-        System.out.println("Dimensiuni harta extrase: " + width + " x " + height + " tile-uri");
-
-        if (width <= 0 || height <= 0) {
-            throw new Exception("Dimensiunile hartii sunt invalide: " + width + "x" + height);
-        }
+    /*! \fn public int Reset()
+        \brief Aduce harta la starea din fisier (restart de nivel), fara a o citi din nou.
 
-        // Gaseste toate layer-urile
-        NodeList layerList = doc.getElementsByTagName("layer");
-        System.out.println("Numarul de layer-uri gasite: " + layerList.getLength());
+        Se refac doar dalele modificate de joc: pentru fiecare se invalideaza chunk-ul pre-randat si se copiaza
+        proprietatile de coliziune din nivelul comun. Vizibilitatea layer-elor revine la cea din fisier.
 
-        if (layerList.getLength() == 0) {
-            throw new Exception("Nu s-au gasit layer-uri in fisierul TMX");
+        \return Numarul de dale refacute
+     */
+    public int Reset() {
+        if (!mapLoaded || level == null) {
+            return 0;
         }
-
-        // Proceseaza fiecare layer
-        for (int layerIndex = 0; layerIndex < layerList.getLength(); layerIndex++) {
-            Element layer = (Element) layerList.item(layerIndex);
-            String layerName = layer.getAttribute("name");
-            String visibleAttr = layer.getAttribute("visible");
-            boolean visible = visibleAttr.isEmpty() || !"0".equals(visibleAttr);
-
-            System.out.println("Se proceseaza layer-ul " + (layerIndex + 1) + ": '" + layerName + "' (vizibil: " + visible + ")");
-
-            // Creeaza un nou layer
-            MapLayer mapLayer = new MapLayer(layerName, width, height);
-            mapLayer.visible = visible;
-
-            // Gaseste datele din layer
-            NodeList dataList = layer.getElementsByTagName("data");
-            if (dataList.getLength() == 0) {
-                System.out.println("Layer-ul '" + layerName + "' nu are date, se sare");
-                continue;
-            }
-
-            Element data = (Element) dataList.item(0);
-            String encoding = data.getAttribute("encoding");
-            String compression = data.getAttribute("compression");
-
-            System.out.println("Encoding date pentru '" + layerName + "': '" + (encoding.isEmpty() ? "none" : encoding) + "'");
-
-            // Verifica encoding-ul
-            if (!encoding.isEmpty() && !"csv".equals(encoding)) {
-                throw new Exception("Encoding '" + encoding + "' nu este suportat pentru layer-ul '" + layerName + "'. Foloseste CSV in Tiled.");
+        int restored = 0;
+        for (int i = 0; i < layers.size(); i++) {
+            MapLayer layer = layers.get(i);
+            if (layer.tiles instanceof CopyOnWriteTileGrid) {
+                restored += ((CopyOnWriteTileGrid) layer.tiles).Reset(restoreTile);
             }
-
-            if (!compression.isEmpty()) {
-                throw new Exception("Compresia '" + compression + "' nu este suportata pentru layer-ul '" + layerName + "'. Dezactiveaza compresia in Tiled.");
+            if (layer.visible != level.visible[i]) {
+                layer.visible = level.visible[i];
+                chunkCache.InvalidateAll();
             }
-
-            // Extrage si proceseaza datele CSV
-            String csvData = data.getTextContent().trim();
-            if (csvData.isEmpty()) {
-                System.out.println("Layer-ul '" + layerName + "' are date goale, se umple cu 0");
-                // Layer-ul ramane cu toate tile-urile 0 (goale)
-            } else {
-                // Proceseaza datele CSV
-                csvData = csvData.replaceAll("\\s+", "");
-                String[] tileIds = csvData.split(",");
-
-                if (tileIds.length != width * height) {
-                    throw new Exception("Nepotrivire in numarul de tile-uri pentru layer-ul '" + layerName + "'! Gasite: " + tileIds.length +
-                            ", asteptate: " + (width * height));
-                }
-
-                // Populeaza matricea layer-ului
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        int index = y * width + x;
-                        try {
-                            int id = Integer.parseInt(tileIds[index].trim());
-                            mapLayer.tiles[x][y] = id;
-                        } catch (NumberFormatException e) {
-                            throw new Exception("ID de tile invalid in layer-ul '" + layerName + "' la pozitia [" + x + "," + y +
-                                    "] (index " + index + "): '" + tileIds[index] + "'");
-                        }
-                    }
-                }
-            }
-
-            // Adauga layer-ul la lista
-            layers.add(mapLayer);
-            System.out.println("Layer-ul '" + layerName + "' procesat cu succes");
         }
+        return restored;
+    }
 
-        System.out.println("Harta TMX cu " + layers.size() + " layer-uri a fost incarcata complet!");
+    /*! \fn private void RestoreTile(int index)
+        \brief Invalideaza chunk-ul unei dale refacute de Reset() si ii reface coliziunea din nivelul comun
+     */
+    private void RestoreTile(int index) {
+        int x = index % width;
+        int y = index / width;
+        chunkCache.InvalidateTile(x, y);
+        collisionLayer.SetFlags(x, y, level.collision.GetFlags(x, y));
     }
 
     /*! \fn public void SetLayerVisible(int layerIndex, boolean visible)
@@ -404,6 +447,9 @@ public class Map {
      */
     public void SetLayerVisible(int layerIndex, boolean visible) {
         if (layerIndex >= 0 && layerIndex < layers.size()) {
+            if (layers.get(layerIndex).visible != visible && chunkCache != null) {
+                chunkCache.InvalidateAll();
+            }
             layers.get(layerIndex).visible = visible;
             System.out.println("Layer " + layerIndex + " (" + layers.get(layerIndex).name + ") " +
                     (visible ? "afisat" : "ascuns"));
@@ -426,6 +472,98 @@ public class Map {
         System.out.println("Layer-ul cu numele '" + layerName + "' nu a fost gasit");
     }
 
+    /*! \fn public void SetTileId(int x, int y, int layerIndex, int tileId)
+        \brief Modifica ID-ul unei dale si invalideaza chunk-ul pre-randat care o contine
+
+        \param x Coordonata X
+        \param y Coordonata Y
+        \param layerIndex Indexul layer-ului
+        \param tileId Noul ID al dalei (0 = gol)
+     */
+    public void SetTileId(int x, int y, int layerIndex, int tileId) {
+        if (!mapLoaded || layerIndex < 0 || layerIndex >= layers.size()) {
+            return;
+        }
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        MapLayer layer = layers.get(layerIndex);
+        if (layer.tiles.Get(x, y) != tileId) {
+            if (!layer.tiles.CanStore(tileId)) {
+                layer.tiles = layer.tiles.Widen();
+            }
+            layer.tiles.Set(x, y, tileId);
+            chunkCache.InvalidateTile(x, y);
+            UpdateCollision(x, y);
+        }
+    }
+
+    /*! \fn private void UpdateCollision(int x, int y)
+        \brief Recalculeaza proprietatile de coliziune ale unei dale din toate layer-ele
+     */
+    private void UpdateCollision(int x, int y) {
+        int flags = 0;
+        for (MapLayer layer : layers) {
+            int id = layer.tiles.Get(x, y);
+            if (id != 0) {
+                flags |= CollisionLayer.Classify(id, legacyTiles, tilesets);
+            }
+        }
+        collisionLayer.SetFlags(x, y, flags);
+    }
+
+    /*! \fn public CollisionLayer GetCollisionLayer()
+        \brief Returneaza proprietatile de coliziune ale dalelor (null daca harta nu s-a incarcat)
+     */
+    public CollisionLayer GetCollisionLayer() {
+        return collisionLayer;
+    }
+
+    /*! \fn public PathfindingService GetPathfinding()
+        \brief Returneaza serviciul de cautare a drumurilor pentru aceasta harta (null daca harta nu s-a incarcat)
+     */
+    public PathfindingService GetPathfinding() {
+        if (pathfinding == null && collisionLayer != null) {
+            pathfinding = new PathfindingService(collisionLayer);
+        }
+        return pathfinding;
+    }
+
+    /*! \fn public FlowFieldService GetFlowField()
+        \brief Returneaza campul de directii catre erou pentru aceasta harta (null daca harta nu s-a incarcat)
+     */
+    public FlowFieldService GetFlowField() {
+        if (flowField == null && collisionLayer != null) {
+            flowField = new FlowFieldService(collisionLayer);
+        }
+        return flowField;
+    }
+
+    /*! \fn public void UpdateFlowFieldTarget(int tileX, int tileY)
+        \brief Muta tinta campului de directii; nu face nimic cat timp niciun caracter nu a cerut campul
+     */
+    public void UpdateFlowFieldTarget(int tileX, int tileY) {
+        if (flowField != null) {
+            flowField.SetTarget(tileX, tileY);
+        }
+    }
+
+    /*! \fn public LayerChunkCache GetChunkCache()
+        \brief Returneaza cache-ul de chunk-uri pre-randate (null daca harta nu s-a incarcat)
+     */
+    public LayerChunkCache GetChunkCache() {
+        return chunkCache;
+    }
+
+    /*! \fn public void CopyLayerVisibility(boolean[] dest)
+        \brief Copiaza vizibilitatea layer-elor in vectorul dat (cel putin getLayerCount() elemente).
+     */
+    public void CopyLayerVisibility(boolean[] dest) {
+        for (int i = 0; i < layers.size(); i++) {
+            dest[i] = layers.get(i).visible;
+        }
+    }
+
     // Getters
     public int getLayerCount() {
         return layers.size();
@@ -438,6 +576,16 @@ public class Map {
         return null;
     }
 
+    /*! \fn public TileGrid GetLayerTiles(int layerIndex)
+        \brief Returneaza grila de dale a unui layer (null daca indexul este invalid). Nu trebuie modificata direct; foloseste SetTileId.
+     */
+    public TileGrid GetLayerTiles(int layerIndex) {
+        if (layerIndex >= 0 && layerIndex < layers.size()) {
+            return layers.get(layerIndex).tiles;
+        }
+        return null;
+    }
+
     public boolean isMapLoaded() {
         return mapLoaded;
     }
@@ -481,7 +629,7 @@ public class Map {
                 System.out.print("    Primele tile-uri: ");
                 for (int x = 0; x < Math.min(5, width); x++) {
                     for (int y = 0; y < Math.min(2, height); y++) {
-                        System.out.print(layer.tiles[x][y] + " ");
+                        System.out.print(layer.tiles.Get(x, y) + " ");
                     }
                 }
                 System.out.println();
@@ -501,12 +649,8 @@ public class Map {
         }
 
         for (MapLayer layer : layers) {
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    if (layer.tiles[x][y] > 0) {
-                        return true;
-                    }
-                }
+            if (!layer.tiles.IsEmpty()) {
+                return true;
             }
         }
         return false;
@@ -544,6 +688,6 @@ public class Map {
             return 0;
         }
 
-        return layers.get(layerIndex).tiles[x][y];
+        return layers.get(layerIndex).tiles.Get(x, y);
     }
 }
\ No newline at end of file
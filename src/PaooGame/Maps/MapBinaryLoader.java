@@ -0,0 +1,244 @@
+package PaooGame.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/*! \class MapBinaryLoader
+    \brief Incarca hartile compilate de MapCompiler (.bmap): fisierele mici sunt citite pe heap, cele mari sunt
+    mapate in memorie (FileChannel.map).
+
+    Formatul (little-endian, versiunea VERSION):
+        antet (HEADER_SIZE octeti):
+            int MAGIC, int VERSION, int latime, int inaltime, int latime dala, int inaltime dala,
+            long lungimea sursei, long CRC32 al sursei,
+            int layer-e, int tileset-uri, int grupuri de obiecte, int offset coliziune, int FLAG_COUNT, int rezervat
+        tabelul de layer-e:   int offset date, byte octeti pe dala (2 sau 4), byte vizibil, text nume
+        tileset-uri:          int firstGid, int tileCount, int columns, text nume, text sursa, text imagine,
+                              int proprietati, apoi pentru fiecare: int ID local, text nume, text valoare
+        grupuri de obiecte:   text nume, byte vizibil, int obiecte,
+                              apoi pentru fiecare: int id, text nume, text tip, float x, y, latime, inaltime
+        datele layer-elor:    cate un vector de dale pe randuri, fiecare aliniat la 8 octeti
+        coliziunea:           FLAG_COUNT planuri de biti ale CollisionLayer (long, wordsPerRow * inaltime fiecare)
+    unde "text" = short lungime (fara semn) + octetii UTF-8.
+
+    Layer-ele devin MappedTileGrid peste continutul fisierului, iar coliziunea este citita gata calculata. Doar
+    tabelele mici (nume, tileset-uri, obiecte) sunt decodate in obiecte Java.
+
+    O mapare nu poate fi eliberata explicit: ramane pana cand GC-ul colecteaza buffer-ul, iar pe Windows fisierul
+    mapat este blocat tot acest timp (nu poate fi suprascris de MapCompiler si nici sters). De aceea fisierele de
+    cel mult HEAP_COPY_LIMIT octeti (toate hartile jocului) sunt citite intr-un buffer pe heap si nu blocheaza
+    nimic. Doar hartile mai mari sunt mapate; ele raman blocate cat timp nivelul este in LevelCache sau in joc,
+    deci se recompileaza cu jocul oprit. Sursa (.tmx/.json) nu este niciodata mapata: CRC-ul ei se calculeaza
+    citind fisierul in flux.
+
+    Un fisier compilat este folosit numai daca sursa (.tmx/.json) are aceeasi lungime si acelasi CRC32 ca la
+    compilare; altfel LoadIfCurrent() intoarce null si apelantul citeste formatul text.
+ */
+public class MapBinaryLoader
+{
+    public static final int MAGIC = 0x50414D42;     /*!< 'BMAP' in little-endian.*/
+    public static final int VERSION = 1;            /*!< Se creste la orice schimbare de format sau de clasificare a dalelor.*/
+    public static final String EXTENSION = ".bmap";
+    static final int HEADER_SIZE = 64;
+    static final long HEAP_COPY_LIMIT = 16L << 20;   /*!< Fisierele pana la aceasta dimensiune se citesc pe heap (fara blocare).*/
+    private static final int CHECKSUM_BUFFER = 1 << 16;
+
+    private MapBinaryLoader()
+    {
+    }
+
+    /*! \fn public static String CompiledPath(String sourcePath)
+        \brief Calea fisierului compilat pentru o harta text: aceeasi cale, cu extensia .bmap.
+     */
+    public static String CompiledPath(String sourcePath)
+    {
+        int slash = Math.max(sourcePath.lastIndexOf('/'), sourcePath.lastIndexOf('\\'));
+        int dot = sourcePath.lastIndexOf('.');
+        return (dot > slash ? sourcePath.substring(0, dot) : sourcePath) + EXTENSION;
+    }
+
+    /*! \fn public static MapLoader.MapData LoadIfCurrent(String sourcePath)
+        \brief Incarca versiunea compilata a hartii text date, daca exista si corespunde sursei; altfel null.
+
+        Erorile de citire nu sunt fatale: se afiseaza motivul si se intoarce null (se va citi formatul text).
+     */
+    public static MapLoader.MapData LoadIfCurrent(String sourcePath)
+    {
+        File compiled = new File(CompiledPath(sourcePath));
+        if (!compiled.isFile()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = Open(compiled.toPath());
+            CheckHeader(buffer, compiled.getPath());
+            File source = new File(sourcePath);
+            if (source.isFile() && (buffer.getLong(24) != source.length() || buffer.getLong(32) != Checksum(source.toPath()))) {
+                System.out.println("Harta compilata " + compiled.getPath() + " este mai veche decat sursa, se citeste " + sourcePath);
+                return null;
+            }
+            return Read(buffer, compiled.getPath());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("EROARE la citirea hartii compilate " + compiled.getPath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*! \fn public static MapLoader.MapData Load(Path path)
+        \brief Incarca un fisier .bmap, fara verificarea sursei.
+     */
+    public static MapLoader.MapData Load(Path path) throws IOException
+    {
+        ByteBuffer buffer = Open(path);
+        CheckHeader(buffer, path.toString());
+        return Read(buffer, path.toString());
+    }
+
+    /*! \fn static long Checksum(Path path)
+        \brief CRC32 al continutului unui fisier (identifica sursa unei harti compilate).
+
+        Fisierul este citit in flux si inchis imediat, deci nu ramane blocat (Tiled il poate salva cu jocul pornit).
+     */
+    static long Checksum(Path path) throws IOException
+    {
+        try (CheckedInputStream in = new CheckedInputStream(Files.newInputStream(path), new CRC32())) {
+            byte[] buffer = new byte[CHECKSUM_BUFFER];
+            while (in.read(buffer) != -1) {
+                // CRC-ul se actualizeaza la fiecare citire
+            }
+            return in.getChecksum().getValue();
+        }
+    }
+
+    /*! \fn private static ByteBuffer Open(Path path)
+        \brief Continutul fisierului compilat: citit pe heap daca are cel mult HEAP_COPY_LIMIT octeti, altfel mapat.
+     */
+    private static ByteBuffer Open(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= HEAP_COPY_LIMIT) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    // se citeste pana la sfarsitul fisierului
+                }
+                buffer.flip();
+                return buffer.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            // Maparea ramane valida si dupa inchiderea canalului (si blocheaza fisierul pe Windows pana la GC)
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return mapped;
+        }
+    }
+
+    private static void CheckHeader(ByteBuffer buffer, String name) throws IOException
+    {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Fisierul nu este o harta compilata: " + name);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versiune " + buffer.getInt(4) + " a hartii compilate (asteptata " + VERSION + "): " + name);
+        }
+    }
+
+    /*! \fn private static MapLoader.MapData Read(ByteBuffer buffer, String name)
+        \brief Citeste tabelele si creeaza grilele mapate; buffer-ul contine tot fisierul.
+     */
+    private static MapLoader.MapData Read(ByteBuffer buffer, String name) throws IOException
+    {
+        MapLoader.MapData map = new MapLoader.MapData();
+        map.width = buffer.getInt(8);
+        map.height = buffer.getInt(12);
+        map.tileWidth = buffer.getInt(16);
+        map.tileHeight = buffer.getInt(20);
+        int layerCount = buffer.getInt(40);
+        int tilesetCount = buffer.getInt(44);
+        int groupCount = buffer.getInt(48);
+        int collisionOffset = buffer.getInt(52);
+        if (buffer.getInt(56) != CollisionLayer.FLAG_COUNT) {
+            throw new IOException("Numar diferit de proprietati de coliziune in " + name);
+        }
+
+        long cells = (long) map.width * map.height;
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        in.position(HEADER_SIZE);
+        for (int i = 0; i < layerCount; i++) {
+            int offset = in.getInt();
+            int bytesPerTile = in.get();
+            boolean visible = in.get() != 0;
+            String layerName = ReadString(in);
+            if (offset < 0 || offset + cells * bytesPerTile > buffer.capacity()) {
+                throw new IOException("Layer-ul '" + layerName + "' iese din fisier: " + name);
+            }
+            ByteBuffer data = Slice(buffer, offset, (int) (cells * bytesPerTile));
+            map.layers.add(new MapLoader.LayerData(layerName, visible,
+                    new MappedTileGrid(map.width, map.height, data, bytesPerTile)));
+        }
+        if (!map.layers.isEmpty()) {
+            map.tiles = map.layers.get(0).tiles;
+        }
+
+        for (int i = 0; i < tilesetCount; i++) {
+            MapLoader.TilesetData tileset = new MapLoader.TilesetData();
+            tileset.firstGid = in.getInt();
+            tileset.tileCount = in.getInt();
+            tileset.columns = in.getInt();
+            tileset.name = ReadString(in);
+            tileset.source = ReadString(in);
+            tileset.image = ReadString(in);
+            int properties = in.getInt();
+            for (int p = 0; p < properties; p++) {
+                tileset.addProperty(in.getInt(), ReadString(in), ReadString(in));
+            }
+            map.tilesets.add(tileset);
+        }
+
+        for (int i = 0; i < groupCount; i++) {
+            MapLoader.ObjectGroupData group = new MapLoader.ObjectGroupData();
+            group.name = ReadString(in);
+            group.visible = in.get() != 0;
+            int objects = in.getInt();
+            for (int o = 0; o < objects; o++) {
+                int id = in.getInt();
+                String objectName = ReadString(in);
+                String type = ReadString(in);
+                group.add(id, objectName, type, in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat());
+            }
+            map.objectGroups.add(group);
+        }
+
+        int wordsPerRow = (map.width + 63) >>> 6;
+        long collisionBytes = (long) CollisionLayer.FLAG_COUNT * wordsPerRow * map.height * Long.BYTES;
+        if (collisionOffset < in.position() || collisionOffset + collisionBytes > buffer.capacity()) {
+            throw new IOException("Coliziunea iese din fisier: " + name);
+        }
+        map.collision = CollisionLayer.Read(map.width, map.height,
+                Slice(buffer, collisionOffset, (int) collisionBytes).asLongBuffer());
+        return map;
+    }
+
+    private static ByteBuffer Slice(ByteBuffer buffer, int offset, int length)
+    {
+        ByteBuffer copy = buffer.duplicate();
+        copy.position(offset).limit(offset + length);
+        return copy.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String ReadString(ByteBuffer in)
+    {
+        int length = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,295 @@
+package PaooGame.Maps;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*! \class MapCompiler
+    \brief Unealta rulata la build (nu in joc) care transforma hartile .tmx si .json in fisiere .bmap.
+
+    Harta este citita cu aceleasi parsere ca in joc (TmxStreamLoader, respectiv TiledJsonReader), iar coliziunea
+    este calculata la fel ca la incarcarea text: pentru .tmx fara proprietatile tileset-urilor (ca in Map),
+    pentru .json cu ele (ca in MapLoader). Formatul este descris in MapBinaryLoader. Fiecare layer este scris cu
+    2 octeti pe dala daca toate ID-urile incap pe 16 biti, altfel cu 4.
+
+    Pe Windows un .bmap mai mare decat MapBinaryLoader.HEAP_COPY_LIMIT ramane blocat cat timp jocul il are mapat;
+    in acest caz scrierea esueaza cu un mesaj explicit si harta se recompileaza cu jocul oprit.
+
+    Rulare (din radacina proiectului); fara argumente se compileaza toate hartile din res/Mapa:
+        java -cp out PaooGame.Maps.MapCompiler [harta.tmx|harta.json ...]
+ */
+public class MapCompiler
+{
+    private static final String DEFAULT_DIRECTORY = "res/Mapa";
+
+    public static void main(String[] args) throws Exception
+    {
+        List<String> sources = new ArrayList<>();
+        if (args.length > 0) {
+            Collections.addAll(sources, args);
+        } else {
+            CollectSources(new File(DEFAULT_DIRECTORY), sources);
+        }
+        for (String source : sources) {
+            String output = MapBinaryLoader.CompiledPath(source);
+            long size = Compile(source, output);
+            System.out.println(source + " -> " + output + " (" + size + " octeti)");
+        }
+    }
+
+    private static void CollectSources(File directory, List<String> sources)
+    {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName().toLowerCase();
+            if (file.isDirectory()) {
+                CollectSources(file, sources);
+            } else if (name.endsWith(".tmx") || name.endsWith(".json")) {
+                sources.add(file.getPath());
+            }
+        }
+    }
+
+    /*! \fn public static long Compile(String sourcePath, String outputPath)
+        \brief Compileaza harta text data in fisierul outputPath si intoarce dimensiunea acestuia.
+     */
+    public static long Compile(String sourcePath, String outputPath) throws Exception
+    {
+        File source = new File(sourcePath);
+        MapLoader.MapData map = Parse(source);
+        long checksum = MapBinaryLoader.Checksum(source.toPath());
+        ByteBuffer data = Write(map, source.length(), checksum);
+        try (FileChannel channel = FileChannel.open(new File(outputPath).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } catch (FileSystemException e) {
+            throw new IOException("Nu se poate scrie " + outputPath + " (este folosit de alt proces, de exemplu "
+                    + "jocul care are harta mapata): " + e.getMessage(), e);
+        }
+        return data.limit();
+    }
+
+    /*! \fn static MapLoader.MapData Parse(File source)
+        \brief Citeste harta text (dupa extensie) si calculeaza coliziunea ca la incarcarea normala.
+     */
+    static MapLoader.MapData Parse(File source) throws Exception
+    {
+        if (source.getName().toLowerCase().endsWith(".json")) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(source), 1 << 16)) {
+                MapLoader.MapData map = new TiledJsonReader().Read(in);
+                map.getCollisionLayer();
+                return map;
+            }
+        }
+
+        TmxStreamLoader.TmxMap tmx = new TmxStreamLoader().Load(source.getPath());
+        MapLoader.MapData map = new MapLoader.MapData();
+        map.width = tmx.width;
+        map.height = tmx.height;
+        map.tileWidth = tmx.tileWidth;
+        map.tileHeight = tmx.tileHeight;
+        List<TileGrid> grids = new ArrayList<>();
+        for (TmxStreamLoader.TmxLayer layer : tmx.layers) {
+            TileGrid grid = TileGrid.FromArray(layer.tiles, tmx.width, tmx.height);
+            map.layers.add(new MapLoader.LayerData(layer.name, layer.visible, grid));
+            grids.add(grid);
+        }
+        if (!map.layers.isEmpty()) {
+            map.tiles = map.layers.get(0).tiles;
+        }
+        map.collision = CollisionLayer.Build(map.width, map.height, grids, Collections.emptyList());
+        return map;
+    }
+
+    /*! \fn static ByteBuffer Write(MapLoader.MapData map, long sourceLength, long sourceChecksum)
+        \brief Serializeaza harta in formatul .bmap (vezi MapBinaryLoader).
+     */
+    static ByteBuffer Write(MapLoader.MapData map, long sourceLength, long sourceChecksum) throws IOException
+    {
+        long cells = (long) map.width * map.height;
+        int[] bytesPerTile = new int[map.layers.size()];
+        for (int i = 0; i < bytesPerTile.length; i++) {
+            bytesPerTile[i] = IsShort(map.layers.get(i).tiles) ? Short.BYTES : Integer.BYTES;
+        }
+
+        // Tabelele au dimensiune fixa odata cunoscute textele, deci offset-urile se pot calcula dinainte
+        byte[] tables = Tables(map, bytesPerTile, new int[bytesPerTile.length]);
+        long position = Align(MapBinaryLoader.HEADER_SIZE + tables.length);
+        int[] offsets = new int[bytesPerTile.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = (int) position;
+            position = Align(position + cells * bytesPerTile[i]);
+        }
+        CollisionLayer collision = map.getCollisionLayer();
+        int collisionOffset = (int) position;
+        position += (long) CollisionLayer.FLAG_COUNT * collision.GetPlane(0).length * Long.BYTES;
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Harta este prea mare pentru formatul compilat");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) position).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MapBinaryLoader.MAGIC);
+        out.putInt(MapBinaryLoader.VERSION);
+        out.putInt(map.width);
+        out.putInt(map.height);
+        out.putInt(map.tileWidth);
+        out.putInt(map.tileHeight);
+        out.putLong(sourceLength);
+        out.putLong(sourceChecksum);
+        out.putInt(map.layers.size());
+        out.putInt(map.tilesets.size());
+        out.putInt(map.objectGroups.size());
+        out.putInt(collisionOffset);
+        out.putInt(CollisionLayer.FLAG_COUNT);
+        out.putInt(0);
+        out.put(Tables(map, bytesPerTile, offsets));
+
+        for (int i = 0; i < offsets.length; i++) {
+            out.position(offsets[i]);
+            TileGrid grid = map.layers.get(i).tiles;
+            for (int c = 0; c < cells; c++) {
+                if (bytesPerTile[i] == Short.BYTES) {
+                    out.putShort((short) grid.GetIndex(c));
+                } else {
+                    out.putInt(grid.GetIndex(c));
+                }
+            }
+        }
+        out.position(collisionOffset);
+        for (int f = 0; f < CollisionLayer.FLAG_COUNT; f++) {
+            for (long word : collision.GetPlane(f)) {
+                out.putLong(word);
+            }
+        }
+        out.flip();
+        return out;
+    }
+
+    /*! \fn private static byte[] Tables(MapLoader.MapData map, int[] bytesPerTile, int[] offsets)
+        \brief Tabelul layer-elor, tileset-urile si obiectele, cu offset-urile date pentru datele layer-elor.
+     */
+    private static byte[] Tables(MapLoader.MapData map, int[] bytesPerTile, int[] offsets) throws IOException
+    {
+        TableWriter out = new TableWriter();
+        for (int i = 0; i < offsets.length; i++) {
+            MapLoader.LayerData layer = map.layers.get(i);
+            out.PutInt(offsets[i]);
+            out.PutByte(bytesPerTile[i]);
+            out.PutByte(layer.visible ? 1 : 0);
+            out.PutString(layer.name);
+        }
+        for (MapLoader.TilesetData tileset : map.tilesets) {
+            out.PutInt(tileset.firstGid);
+            out.PutInt(tileset.tileCount);
+            out.PutInt(tileset.columns);
+            out.PutString(tileset.name);
+            out.PutString(tileset.source);
+            out.PutString(tileset.image);
+            out.PutInt(tileset.propertyCount);
+            for (int p = 0; p < tileset.propertyCount; p++) {
+                out.PutInt(tileset.propertyTileIds[p]);
+                out.PutString(tileset.propertyNames[p]);
+                out.PutString(tileset.propertyValues[p]);
+            }
+        }
+        for (MapLoader.ObjectGroupData group : map.objectGroups) {
+            out.PutString(group.name);
+            out.PutByte(group.visible ? 1 : 0);
+            out.PutInt(group.count);
+            for (int o = 0; o < group.count; o++) {
+                out.PutInt(group.ids[o]);
+                out.PutString(group.names[o]);
+                out.PutString(group.types[o]);
+                out.PutFloat(group.x[o]);
+                out.PutFloat(group.y[o]);
+                out.PutFloat(group.width[o]);
+                out.PutFloat(group.height[o]);
+            }
+        }
+        return out.ToArray();
+    }
+
+    private static boolean IsShort(TileGrid grid)
+    {
+        for (int i = 0, n = grid.GetWidth() * grid.GetHeight(); i < n; i++) {
+            int id = grid.GetIndex(i);
+            if (id < 0 || id > TileGrid.MAX_SHORT_ID) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long Align(long position)
+    {
+        return (position + 7) & ~7L;
+    }
+
+    /*! \class TableWriter
+        \brief Buffer little-endian care creste dupa nevoie, pentru tabelele de dimensiune variabila.
+     */
+    private static final class TableWriter
+    {
+        private ByteBuffer buffer = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+
+        void PutInt(int value)
+        {
+            Ensure(Integer.BYTES).putInt(value);
+        }
+
+        void PutFloat(float value)
+        {
+            Ensure(Float.BYTES).putFloat(value);
+        }
+
+        void PutByte(int value)
+        {
+            Ensure(1).put((byte) value);
+        }
+
+        void PutString(String value) throws IOException
+        {
+            byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                throw new IOException("Text prea lung pentru formatul compilat: " + bytes.length + " octeti");
+            }
+            Ensure(Short.BYTES + bytes.length).putShort((short) bytes.length).put(bytes);
+        }
+
+        byte[] ToArray()
+        {
+            byte[] bytes = new byte[buffer.position()];
+            buffer.flip();
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private ByteBuffer Ensure(int bytes)
+        {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            return buffer;
+        }
+    }
+}
@@ -1,153 +1,217 @@
 package PaooGame.Maps;
 
-import java.io.*;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class MapLoader {
-    private int mapWidth;
-    private int mapHeight;
-    private int tileWidth;
-    private int tileHeight;
+    private final TiledJsonReader reader = new TiledJsonReader();
 
-    public class MapData {
-        public int[][] tiles;
+    public static class MapData {
+        public TileGrid tiles;      // primul layer de dale (pe rânduri)
         public int width;
         public int height;
         public int tileWidth;
         public int tileHeight;
+        public final List<LayerData> layers = new ArrayList<>();
+        public final List<TilesetData> tilesets = new ArrayList<>();
+        public final List<ObjectGroupData> objectGroups = new ArrayList<>();
+        public CollisionLayer collision;   // proprietățile de coliziune din toate layer-ele, calculate la încărcare
 
-        public MapData(int[][] tiles, int width, int height, int tileW, int tileH) {
+        public MapData() {
+        }
+
+        public MapData(TileGrid tiles, int width, int height, int tileW, int tileH) {
             this.tiles = tiles;
             this.width = width;
             this.height = height;
             this.tileWidth = tileW;
             this.tileHeight = tileH;
         }
-    }
 
-    /**
-     * Încarcă o hartă din format JSON exportat de Tiled
-     */
-    public MapData loadMap(String jsonPath) {
-        try {
-            InputStream is = getClass().getResourceAsStream(jsonPath);
-            if (is == null) {
-                System.err.println("Nu pot găsi fișierul: " + jsonPath);
-                return null;
+        /**
+         * Returnează stratul de coliziune, construindu-l la prima cerere dacă harta nu a venit din loadMap()
+         */
+        public CollisionLayer getCollisionLayer() {
+            if (collision == null) {
+                List<TileGrid> grids = new ArrayList<>();
+                if (layers.isEmpty()) {
+                    grids.add(tiles);
+                } else {
+                    for (LayerData layer : layers) {
+                        grids.add(layer.tiles);
+                    }
+                }
+                collision = CollisionLayer.Build(width, height, grids, tilesets);
             }
+            return collision;
+        }
 
-            Scanner scanner = new Scanner(is);
-            StringBuilder jsonContent = new StringBuilder();
-
-            while (scanner.hasNextLine()) {
-                jsonContent.append(scanner.nextLine());
+        /**
+         * Returnează layer-ul de dale cu numele dat sau null
+         */
+        public LayerData getLayer(String name) {
+            for (LayerData layer : layers) {
+                if (layer.name.equals(name)) {
+                    return layer;
+                }
             }
-            scanner.close();
-
-            String json = jsonContent.toString();
-
-            // Extrage dimensiunile hărții
-            extractMapDimensions(json);
+            return null;
+        }
 
-            // Extrage datele tile-urilor
-            int[][] tiles = extractTileData(json);
+        /**
+         * Returnează tileset-ul căruia îi aparține GID-ul dat sau null
+         */
+        public TilesetData getTileset(int gid) {
+            TilesetData found = null;
+            for (TilesetData tileset : tilesets) {
+                if (tileset.firstGid <= gid && (found == null || tileset.firstGid > found.firstGid)) {
+                    found = tileset;
+                }
+            }
+            return found;
+        }
+    }
 
-            return new MapData(tiles, mapWidth, mapHeight, tileWidth, tileHeight);
+    /**
+     * Un layer de dale (grila pe rânduri, short[] sau int[] după cel mai mare ID)
+     */
+    public static class LayerData {
+        public final String name;
+        public boolean visible;
+        public final TileGrid tiles;
+
+        public LayerData(String name, boolean visible, TileGrid tiles) {
+            this.name = name;
+            this.visible = visible;
+            this.tiles = tiles;
+        }
 
-        } catch (Exception e) {
-            System.err.println("Eroare la încărcarea hărții: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+        public int getTile(int x, int y) {
+            return tiles.Get(x, y);
         }
     }
 
     /**
-     * Extrage dimensiunile hărții din JSON
+     * Un tileset; proprietățile dalelor (definite inline) sunt păstrate în vectori paraleli
      */
-    private void extractMapDimensions(String json) {
-        try {
-            // Caută "width":value
-            Pattern widthPattern = Pattern.compile("\"width\":(\\d+)");
-            Matcher widthMatcher = widthPattern.matcher(json);
-            if (widthMatcher.find()) {
-                mapWidth = Integer.parseInt(widthMatcher.group(1));
-            }
-
-            // Caută "height":value
-            Pattern heightPattern = Pattern.compile("\"height\":(\\d+)");
-            Matcher heightMatcher = heightPattern.matcher(json);
-            if (heightMatcher.find()) {
-                mapHeight = Integer.parseInt(heightMatcher.group(1));
+    public static class TilesetData {
+        public int firstGid;
+        public String name = "";
+        public String source = "";      // tileset extern (.tsx), proprietățile lui nu sunt citite
+        public String image = "";
+        public int tileCount;
+        public int columns;
+
+        public int propertyCount;
+        public int[] propertyTileIds = new int[0];       // ID local (fără firstGid)
+        public String[] propertyNames = new String[0];
+        public String[] propertyValues = new String[0];
+
+        void addProperty(int tileId, String name, String value) {
+            if (propertyCount == propertyTileIds.length) {
+                int capacity = Math.max(8, propertyCount * 2);
+                propertyTileIds = Arrays.copyOf(propertyTileIds, capacity);
+                propertyNames = Arrays.copyOf(propertyNames, capacity);
+                propertyValues = Arrays.copyOf(propertyValues, capacity);
             }
+            propertyTileIds[propertyCount] = tileId;
+            propertyNames[propertyCount] = name;
+            propertyValues[propertyCount] = value;
+            propertyCount++;
+        }
 
-            // Caută "tilewidth":value
-            Pattern tileWidthPattern = Pattern.compile("\"tilewidth\":(\\d+)");
-            Matcher tileWidthMatcher = tileWidthPattern.matcher(json);
-            if (tileWidthMatcher.find()) {
-                tileWidth = Integer.parseInt(tileWidthMatcher.group(1));
+        /**
+         * Returnează valoarea proprietății pentru GID-ul dat sau null dacă nu există
+         */
+        public String getProperty(int gid, String name) {
+            int localId = gid - firstGid;
+            for (int i = 0; i < propertyCount; i++) {
+                if (propertyTileIds[i] == localId && propertyNames[i].equals(name)) {
+                    return propertyValues[i];
+                }
             }
+            return null;
+        }
+    }
 
-            // Caută "tileheight":value
-            Pattern tileHeightPattern = Pattern.compile("\"tileheight\":(\\d+)");
-            Matcher tileHeightMatcher = tileHeightPattern.matcher(json);
-            if (tileHeightMatcher.find()) {
-                tileHeight = Integer.parseInt(tileHeightMatcher.group(1));
+    /**
+     * Un objectgroup; obiectele sunt păstrate în vectori paraleli
+     */
+    public static class ObjectGroupData {
+        public String name = "";
+        public boolean visible = true;
+        public int count;
+        public int[] ids = new int[0];
+        public String[] names = new String[0];
+        public String[] types = new String[0];
+        public float[] x = new float[0];
+        public float[] y = new float[0];
+        public float[] width = new float[0];
+        public float[] height = new float[0];
+
+        void add(int id, String name, String type, float ox, float oy, float ow, float oh) {
+            if (count == ids.length) {
+                int capacity = Math.max(8, count * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                types = Arrays.copyOf(types, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                width = Arrays.copyOf(width, capacity);
+                height = Arrays.copyOf(height, capacity);
             }
-
-        } catch (Exception e) {
-            // Valori default dacă nu găsește
-            mapWidth = 120;
-            mapHeight = 40;
-            tileWidth = 32;
-            tileHeight = 32;
+            ids[count] = id;
+            names[count] = name;
+            types[count] = type;
+            x[count] = ox;
+            y[count] = oy;
+            width[count] = ow;
+            height[count] = oh;
+            count++;
         }
     }
 
     /**
-     * Extrage array-ul de tile-uri din JSON
+     * Încarcă o hartă din format JSON exportat de Tiled (toate layer-ele, tileset-urile și grupurile de obiecte)
      */
-    private int[][] extractTileData(String json) {
-        try {
-            // Găsește primul layer cu "data"
-            Pattern dataPattern = Pattern.compile("\"data\":\\[(.*?)\\]");
-            Matcher dataMatcher = dataPattern.matcher(json);
-
-            if (dataMatcher.find()) {
-                String dataString = dataMatcher.group(1);
-                String[] values = dataString.split(",");
-
-                int[][] tiles = new int[mapHeight][mapWidth];
-                int index = 0;
-
-                for (int y = 0; y < mapHeight && index < values.length; y++) {
-                    for (int x = 0; x < mapWidth && index < values.length; x++) {
-                        int rawTileId = Integer.parseInt(values[index].trim());
-                        tiles[y][x] = cleanTileId(rawTileId);
-                        index++;
-                    }
-                }
-
-                return tiles;
+    public MapData loadMap(String jsonPath) {
+        MapData compiled = loadCompiled(jsonPath);
+        if (compiled != null) {
+            return compiled;
+        }
+        try (InputStream is = getClass().getResourceAsStream(jsonPath)) {
+            if (is == null) {
+                System.err.println("Nu pot găsi fișierul: " + jsonPath);
+                return null;
             }
+            return reader.Read(new BufferedInputStream(is, 1 << 16));
 
         } catch (Exception e) {
-            System.err.println("Eroare la parsarea tile-urilor: " + e.getMessage());
+            System.err.println("Eroare la încărcarea hărții " + jsonPath + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
-
-        return new int[mapHeight][mapWidth]; // Hartă goală dacă eșuează
     }
 
     /**
-     * Curăță ID-urile de tile-uri de flip flags din Tiled
+     * Încarcă versiunea compilată (.bmap) a hărții, dacă resursa este un fișier pe disc și există una la zi; altfel null
      */
-    private int cleanTileId(int rawTileId) {
-        // Elimină bit flags pentru transformări (flip horizontal/vertical/diagonal)
-        if (rawTileId > 100000) { // Dacă ID-ul e suspect de mare
-            return rawTileId & 0x0FFFFFFF; // Păstrează doar primii 28 biți
+    private MapData loadCompiled(String jsonPath) {
+        URL url = getClass().getResource(jsonPath);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;    // în arhivă .jar nu se poate mapa fișierul
+        }
+        try {
+            return MapBinaryLoader.LoadIfCurrent(Paths.get(url.toURI()).toString());
+        } catch (URISyntaxException e) {
+            return null;
         }
-        return rawTileId;
     }
 
     /**
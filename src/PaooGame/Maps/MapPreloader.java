@@ -0,0 +1,160 @@
+package PaooGame.Maps;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/*! \class MapPreloader
+    \brief Incarca hartile nivelurilor pe un fir de fundal, inainte sa fie cerute, si le pastreaza pe cele recente.
+
+    Preload() porneste incarcarea (o singura data pentru o cale), iar Take() preda harta pe firul jocului numai
+    daca este gata, fara sa astepte; astfel schimbarea nivelului costa doar inlocuirea referintelor. O harta luata
+    cu Take() este scoasa din cache (jocul o poate modifica), deci pentru o noua folosire se cere din nou Preload().
+    Se pastreaza cel mult capacity harti, cele folosite cel mai demult fiind aruncate primele.
+
+    Preload(), Take() si IsReady() sunt apelate doar de pe firul jocului; harta construita pe firul de fundal
+    este publicata prin CompletableFuture.
+ */
+public class MapPreloader
+{
+    public static final int DEFAULT_CAPACITY = 3;
+    private static final long DEFAULT_EXPECTED_NANOS = 500_000_000L;   /*!< Durata presupusa a unei incarcari necunoscute.*/
+
+    private static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "map-preload");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    /*! \class Entry
+        \brief O incarcare pornita (sau terminata) pentru o cale.
+     */
+    private static final class Entry
+    {
+        CompletableFuture<Map> future;
+        volatile long beginNanos;   /*!< Momentul in care firul de fundal a inceput incarcarea (0 cat timp asteapta).*/
+    }
+
+    private final Function<String, Map> loader;
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<String, Long> loadNanos = new ConcurrentHashMap<>();   /*!< Durata ultimei incarcari pe cale.*/
+
+    /*! \fn public MapPreloader(Function<String, Map> loader, int capacity)
+        \brief Constructorul.
+
+        \param loader Construieste harta pentru o cale (rulat pe firul de fundal; nu trebuie sa atinga starea jocului).
+        \param capacity Numarul maxim de harti pastrate.
+     */
+    public MapPreloader(Function<String, Map> loader, int capacity)
+    {
+        this.loader = loader;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /*! \fn public void Preload(String path)
+        \brief Porneste incarcarea hartii pe firul de fundal, daca nu este deja incarcata sau in curs.
+     */
+    public void Preload(String path)
+    {
+        if (entries.get(path) != null) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.future = CompletableFuture.supplyAsync(() -> {
+            long begin = System.nanoTime();
+            entry.beginNanos = begin;
+            Map map = loader.apply(path);
+            loadNanos.put(path, System.nanoTime() - begin);
+            return map;
+        }, BACKGROUND);
+        entries.put(path, entry);
+
+        // Cele folosite cel mai demult ies primele (o incarcare inca neinceputa este anulata)
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest != entry) {
+                eldest.future.cancel(false);
+                iterator.remove();
+            }
+        }
+    }
+
+    /*! \fn public boolean IsReady(String path)
+        \brief true daca harta pentru cale este incarcata si poate fi luata imediat cu Take().
+     */
+    public boolean IsReady(String path)
+    {
+        Entry entry = entries.get(path);
+        return entry != null && entry.future.isDone();
+    }
+
+    /*! \fn public Map Take(String path)
+        \brief Preda harta daca este gata (si o scoate din cache), altfel null; nu asteapta niciodata.
+
+        Daca incarcarea a esuat, exceptia este aruncata aici, pe firul jocului.
+     */
+    public Map Take(String path)
+    {
+        Entry entry = entries.get(path);
+        if (entry == null || !entry.future.isDone()) {
+            return null;
+        }
+        entries.remove(path);
+        return entry.future.join();
+    }
+
+    /*! \fn public Map TakeBlocking(String path)
+        \brief Preda harta, asteptand incarcarea (pornita acum daca nu exista deja).
+     */
+    public Map TakeBlocking(String path)
+    {
+        Preload(path);
+        Entry entry = entries.remove(path);
+        return entry.future.join();
+    }
+
+    /*! \fn public float GetProgress(String path)
+        \brief Progresul estimat al incarcarii, intre 0 si 1.
+
+        Incarcarea nu raporteaza pasi intermediari, asa ca progresul este timpul scurs raportat la durata ultimei
+        incarcari a aceleiasi cai (sau DEFAULT_EXPECTED_NANOS), limitat la 95% pana la terminare.
+     */
+    public float GetProgress(String path)
+    {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return 0.0f;
+        }
+        if (entry.future.isDone()) {
+            return 1.0f;
+        }
+        long begin = entry.beginNanos;
+        if (begin == 0) {
+            return 0.0f;    // inca asteapta dupa alta incarcare
+        }
+        long expected = loadNanos.getOrDefault(path, DEFAULT_EXPECTED_NANOS);
+        float progress = (float) (System.nanoTime() - begin) / Math.max(1L, expected);
+        return Math.min(0.95f, progress);
+    }
+
+    /*! \fn public double GetLoadMillis(String path)
+        \brief Durata ultimei incarcari a caii pe firul de fundal (ms) sau -1 daca nu a fost incarcata.
+     */
+    public double GetLoadMillis(String path)
+    {
+        Long nanos = loadNanos.get(path);
+        return nanos == null ? -1.0 : nanos / 1_000_000.0;
+    }
+
+    public int GetSize()
+    {
+        return entries.size();
+    }
+}
@@ -0,0 +1,64 @@
+package PaooGame.Maps;
+
+import java.nio.ByteBuffer;
+
+/*! \class MappedTileGrid
+    \brief TileGrid care citeste ID-urile direct din continutul unui fisier de harta compilat (MapBinaryLoader).
+
+    Buffer-ul este fie fisierul mapat in memorie (datele raman in afara heap-ului), fie copia lui de pe heap pentru
+    fisierele mici; in ambele cazuri layer-ul nu este copiat separat. Grila este doar pentru citire: CanStore() intoarce
+    false, asa ca Map.SetTileId() trece layer-ul intr-o copie pe heap (Widen()) la prima modificare.
+ */
+public final class MappedTileGrid extends TileGrid
+{
+    private final ByteBuffer data;      /*!< Datele layer-ului, little-endian, incepand de la pozitia 0.*/
+    private final boolean wide;         /*!< true: 4 octeti pe dala, false: 2 octeti (fara semn).*/
+
+    /*! \fn MappedTileGrid(int width, int height, ByteBuffer data, int bytesPerTile)
+        \brief Construieste grila peste buffer-ul dat (o felie little-endian din fisierul mapat).
+     */
+    MappedTileGrid(int width, int height, ByteBuffer data, int bytesPerTile)
+    {
+        super(width, height);
+        if (bytesPerTile != Short.BYTES && bytesPerTile != Integer.BYTES) {
+            throw new IllegalArgumentException("Dimensiune invalida a unei dale: " + bytesPerTile + " octeti");
+        }
+        if (data.capacity() < (long) width * height * bytesPerTile) {
+            throw new IllegalArgumentException("Buffer prea mic pentru o grila de " + width + "x" + height);
+        }
+        this.data = data;
+        this.wide = bytesPerTile == Integer.BYTES;
+    }
+
+    @Override
+    public int GetIndex(int index)
+    {
+        return wide ? data.getInt(index << 2) : data.getShort(index << 1) & 0xFFFF;
+    }
+
+    @Override
+    public void SetIndex(int index, int id)
+    {
+        throw new UnsupportedOperationException("Grila mapata este doar pentru citire; foloseste Widen()");
+    }
+
+    @Override
+    public boolean CanStore(int id)
+    {
+        return false;
+    }
+
+    /*! \fn public long GetMemoryBytes()
+        \brief Memoria datelor layer-ului (din fisierul mapat sau din copia lui de pe heap).
+     */
+    @Override
+    public long GetMemoryBytes()
+    {
+        return (long) width * height * (wide ? Integer.BYTES : Short.BYTES);
+    }
+
+    public int GetBytesPerTile()
+    {
+        return wide ? Integer.BYTES : Short.BYTES;
+    }
+}
@@ -0,0 +1,42 @@
+package PaooGame.Maps;
+
+/*! \class ShortTileGrid
+    \brief TileGrid cu ID-uri pe 16 biti fara semn (0 - 65535), 2 octeti pe dala.
+ */
+public final class ShortTileGrid extends TileGrid
+{
+    private final short[] tiles;
+
+    public ShortTileGrid(int width, int height)
+    {
+        super(width, height);
+        this.tiles = new short[width * height];
+    }
+
+    @Override
+    public int GetIndex(int index)
+    {
+        return tiles[index] & 0xFFFF;
+    }
+
+    @Override
+    public void SetIndex(int index, int id)
+    {
+        if (id < 0 || id > MAX_SHORT_ID) {
+            throw new IllegalArgumentException("ID-ul " + id + " nu incape pe 16 biti; foloseste Widen()");
+        }
+        tiles[index] = (short) id;
+    }
+
+    @Override
+    public boolean CanStore(int id)
+    {
+        return id >= 0 && id <= MAX_SHORT_ID;
+    }
+
+    @Override
+    public long GetMemoryBytes()
+    {
+        return (long) tiles.length * Short.BYTES;
+    }
+}
@@ -0,0 +1,28 @@
+package PaooGame.Maps;
+
+/*! \class TileFlags
+    \brief Bitii de transformare pe care Tiled ii pune in partea superioara a ID-ului global (GID) al unei dale.
+
+    Jocul nu deseneaza dalele oglindite/rotite, asa ca toate incarcatoarele de harti elimina acesti biti
+    in acelasi mod, folosind CleanGid().
+ */
+public final class TileFlags
+{
+    public static final int FLIPPED_HORIZONTALLY = 0x80000000; /*!< Dala oglindita orizontal.*/
+    public static final int FLIPPED_VERTICALLY   = 0x40000000; /*!< Dala oglindita vertical.*/
+    public static final int FLIPPED_DIAGONALLY   = 0x20000000; /*!< Dala oglindita pe diagonala (rotatie cu 90 de grade).*/
+    public static final int ROTATED_HEXAGONAL    = 0x10000000; /*!< Rotatie cu 120 de grade (doar harti hexagonale).*/
+    public static final int GID_MASK             = 0x0FFFFFFF; /*!< Bitii ramasi formeaza ID-ul propriu-zis.*/
+
+    private TileFlags()
+    {
+    }
+
+    /*! \fn public static int CleanGid(int rawGid)
+        \brief Returneaza ID-ul dalei fara bitii de transformare.
+     */
+    public static int CleanGid(int rawGid)
+    {
+        return rawGid & GID_MASK;
+    }
+}
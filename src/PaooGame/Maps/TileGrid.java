@@ -0,0 +1,154 @@
+package PaooGame.Maps;
+
+/*! \class TileGrid
+    \brief Matrice de ID-uri de dale stocata intr-un singur vector contiguu, pe randuri (index = y * width + x).
+
+    Parcurgerea pe randuri (y in exterior, x in interior) - cum se face la desenare si la coliziuni - inseamna
+    citiri secventiale din memorie. Cand toate ID-urile incap pe 16 biti se foloseste ShortTileGrid (jumatate din
+    memorie), altfel IntTileGrid. Metodele nu verifica limitele; apelantul se asigura ca 0 <= x < width, 0 <= y < height.
+ */
+public abstract class TileGrid
+{
+    public static final int MAX_SHORT_ID = 0xFFFF;  /*!< Cel mai mare ID care incape intr-un ShortTileGrid.*/
+
+    protected final int width;      /*!< Latimea in dale.*/
+    protected final int height;     /*!< Inaltimea in dale.*/
+
+    protected TileGrid(int width, int height)
+    {
+        if (width < 0 || height < 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dimensiuni invalide pentru TileGrid: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /*! \fn public static TileGrid FromArray(int[] tiles, int width, int height)
+        \brief Construieste grila potrivita pentru ID-urile date (pe randuri).
+
+        Daca toate ID-urile incap pe 16 biti datele sunt copiate intr-un ShortTileGrid; altfel vectorul
+        este folosit direct (fara copie) de un IntTileGrid.
+     */
+    public static TileGrid FromArray(int[] tiles, int width, int height)
+    {
+        if (tiles.length != width * height) {
+            throw new IllegalArgumentException("Vectorul are " + tiles.length + " dale, asteptate " + (width * height));
+        }
+        for (int id : tiles) {
+            if (id < 0 || id > MAX_SHORT_ID) {
+                return new IntTileGrid(width, height, tiles);
+            }
+        }
+        return CopyOf(tiles, width, height);
+    }
+
+    /*! \fn public static TileGrid CopyOf(int[] tiles, int width, int height)
+        \brief Ca FromArray, dar copiaza mereu primele width * height elemente (vectorul poate fi refolosit dupa apel).
+     */
+    public static TileGrid CopyOf(int[] tiles, int width, int height)
+    {
+        int count = width * height;
+        if (tiles.length < count) {
+            throw new IllegalArgumentException("Vectorul are " + tiles.length + " dale, asteptate " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            int id = tiles[i];
+            if (id < 0 || id > MAX_SHORT_ID) {
+                return new IntTileGrid(width, height, java.util.Arrays.copyOf(tiles, count));
+            }
+        }
+        ShortTileGrid grid = new ShortTileGrid(width, height);
+        for (int i = 0; i < count; i++) {
+            grid.SetIndex(i, tiles[i]);
+        }
+        return grid;
+    }
+
+    /*! \fn public static TileGrid Create(int width, int height, int maxId)
+        \brief Creeaza o grila goala (toate dalele 0) capabila sa pastreze ID-uri pana la maxId.
+     */
+    public static TileGrid Create(int width, int height, int maxId)
+    {
+        return maxId <= MAX_SHORT_ID ? new ShortTileGrid(width, height) : new IntTileGrid(width, height);
+    }
+
+    /*! \fn public abstract int GetIndex(int index)
+        \brief Returneaza ID-ul de la indexul liniar dat (y * width + x).
+     */
+    public abstract int GetIndex(int index);
+
+    /*! \fn public abstract void SetIndex(int index, int id)
+        \brief Seteaza ID-ul de la indexul liniar dat; ID-ul trebuie sa respecte CanStore().
+     */
+    public abstract void SetIndex(int index, int id);
+
+    /*! \fn public abstract boolean CanStore(int id)
+        \brief Verifica daca ID-ul dat poate fi pastrat in aceasta grila.
+     */
+    public abstract boolean CanStore(int id);
+
+    /*! \fn public abstract long GetMemoryBytes()
+        \brief Returneaza memoria ocupata de datele grilei (fara antetul obiectelor).
+     */
+    public abstract long GetMemoryBytes();
+
+    public final int Get(int x, int y)
+    {
+        return GetIndex(y * width + x);
+    }
+
+    public final void Set(int x, int y, int id)
+    {
+        SetIndex(y * width + x, id);
+    }
+
+    /*! \fn public TileGrid Widen()
+        \brief Returneaza o grila cu aceleasi date care accepta orice ID pe 32 de biti (this daca este deja una).
+     */
+    public TileGrid Widen()
+    {
+        if (this instanceof IntTileGrid) {
+            return this;
+        }
+        IntTileGrid grid = new IntTileGrid(width, height);
+        for (int i = 0, n = width * height; i < n; i++) {
+            grid.SetIndex(i, GetIndex(i));
+        }
+        return grid;
+    }
+
+    /*! \fn public int[] ToArray()
+        \brief Returneaza o copie a datelor, pe randuri.
+     */
+    public int[] ToArray()
+    {
+        int[] tiles = new int[width * height];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = GetIndex(i);
+        }
+        return tiles;
+    }
+
+    /*! \fn public boolean IsEmpty()
+        \brief Verifica daca toate dalele sunt 0.
+     */
+    public boolean IsEmpty()
+    {
+        for (int i = 0, n = width * height; i < n; i++) {
+            if (GetIndex(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int GetWidth()
+    {
+        return width;
+    }
+
+    public int GetHeight()
+    {
+        return height;
+    }
+}
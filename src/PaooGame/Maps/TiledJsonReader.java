@@ -0,0 +1,698 @@
+package PaooGame.Maps;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/*! \class TiledJsonReader
+    \brief Parser de harti JSON exportate de Tiled, scris de mana, care citeste fisierul o singura data.
+
+    Caracterele sunt citite pe bucati dintr-un Reader si interpretate direct (fara a construi tot textul
+    intr-un String, fara expresii regulate si fara split()). Sunt citite toate layer-ele de dale (inclusiv
+    cele din grupuri), tileset-urile (cu proprietatile dalelor definite inline) si grupurile de obiecte.
+    ID-urile dalelor sunt scrise direct in vectori int[], iar dimensiunile hartii sunt citite doar de pe
+    obiectul radacina (nu de pe primul layer intalnit).
+
+    Un obiect TiledJsonReader poate fi refolosit pentru mai multe incarcari, dar nu de pe mai multe fire simultan.
+ */
+public class TiledJsonReader
+{
+    private static final int EOF = -1;
+
+    private Reader in;
+    private final char[] buffer = new char[8192];   /*!< Bucata curenta din fisier.*/
+    private int position;                           /*!< Pozitia urmatorului caracter din buffer.*/
+    private int limit;                              /*!< Numarul de caractere valide din buffer.*/
+    private int line;                               /*!< Linia curenta (pentru mesajele de eroare).*/
+
+    private final StringBuilder text = new StringBuilder(64);  /*!< Ultima cheie sau valoare text citita.*/
+    private int[] scratch = new int[4096];          /*!< Buffer refolosit pentru datele unui layer.*/
+
+    /*! \fn public MapLoader.MapData Read(InputStream stream)
+        \brief Citeste o harta JSON din fluxul dat. Fluxul nu este inchis.
+     */
+    public MapLoader.MapData Read(InputStream stream) throws Exception
+    {
+        in = new InputStreamReader(stream, StandardCharsets.UTF_8);
+        position = 0;
+        limit = 0;
+        line = 1;
+        try {
+            MapLoader.MapData map = new MapLoader.MapData();
+            ReadMap(map);
+            Validate(map);
+            return map;
+        } finally {
+            in = null;
+        }
+    }
+
+    /*! \fn private void ReadMap(MapLoader.MapData map)
+        \brief Citeste obiectul radacina al hartii.
+     */
+    private void ReadMap(MapLoader.MapData map) throws Exception
+    {
+        Expect('{');
+        if (NextEntry('}', true)) {
+            do {
+                ReadKey();
+                if (KeyIs("width")) {
+                    map.width = ReadInt();
+                } else if (KeyIs("height")) {
+                    map.height = ReadInt();
+                } else if (KeyIs("tilewidth")) {
+                    map.tileWidth = ReadInt();
+                } else if (KeyIs("tileheight")) {
+                    map.tileHeight = ReadInt();
+                } else if (KeyIs("infinite")) {
+                    if (ReadBoolean()) {
+                        throw Error("Hartile infinite (chunk-uri) nu sunt suportate");
+                    }
+                } else if (KeyIs("layers")) {
+                    ReadLayers(map);
+                } else if (KeyIs("tilesets")) {
+                    ReadTilesets(map.tilesets);
+                } else {
+                    SkipValue();
+                }
+            } while (NextEntry('}', false));
+        }
+    }
+
+    /*! \fn private void ReadLayers(MapLoader.MapData map)
+        \brief Citeste un vector de layer-e; layer-ele din grupuri sunt adaugate in ordine, "aplatizat".
+     */
+    private void ReadLayers(MapLoader.MapData map) throws Exception
+    {
+        Expect('[');
+        if (NextEntry(']', true)) {
+            do {
+                ReadLayer(map);
+            } while (NextEntry(']', false));
+        }
+    }
+
+    /*! \fn private void ReadLayer(MapLoader.MapData map)
+        \brief Citeste un singur layer: tilelayer, objectgroup sau group. Alte tipuri sunt ignorate.
+
+        Cheile apar in ordine alfabetica in fisierele Tiled ("data" inaintea lui "type"/"width"), de aceea
+        continutul este retinut si abia la final este atribuit tipului corect de layer.
+     */
+    private void ReadLayer(MapLoader.MapData map) throws Exception
+    {
+        String name = "";
+        String type = "";
+        boolean visible = true;
+        int width = -1;
+        int height = -1;
+        int tileCount = -1;
+        MapLoader.ObjectGroupData objects = null;
+        int firstChild = map.layers.size();
+        int firstChildGroup = map.objectGroups.size();
+
+        Expect('{');
+        if (NextEntry('}', true)) {
+            do {
+                ReadKey();
+                if (KeyIs("name")) {
+                    name = ReadString();
+                } else if (KeyIs("type")) {
+                    type = ReadString();
+                } else if (KeyIs("visible")) {
+                    visible = ReadBoolean();
+                } else if (KeyIs("width")) {
+                    width = ReadInt();
+                } else if (KeyIs("height")) {
+                    height = ReadInt();
+                } else if (KeyIs("data")) {
+                    if (Peek() != '[') {
+                        throw Error("Layer-ul '" + name + "' are datele codate (base64); exporta harta din Tiled cu Layer Format = CSV");
+                    }
+                    tileCount = ReadTileData();
+                } else if (KeyIs("chunks")) {
+                    throw Error("Hartile infinite (chunk-uri) nu sunt suportate");
+                } else if (KeyIs("objects")) {
+                    objects = new MapLoader.ObjectGroupData();
+                    ReadObjects(objects);
+                } else if (KeyIs("layers")) {
+                    ReadLayers(map);
+                } else {
+                    SkipValue();
+                }
+            } while (NextEntry('}', false));
+        }
+
+        if ("tilelayer".equals(type)) {
+            if (tileCount < 0) {
+                throw Error("Layer-ul '" + name + "' nu are date");
+            }
+            if (width <= 0 || height <= 0 || tileCount != width * height) {
+                throw Error("Nepotrivire in numarul de tile-uri pentru layer-ul '" + name + "'! Gasite: " + tileCount
+                        + ", asteptate: " + width + "x" + height);
+            }
+            // Datele sunt deja pe randuri, ca in TileGrid; se copiaza din buffer-ul refolosit
+            map.layers.add(new MapLoader.LayerData(name, visible, TileGrid.CopyOf(scratch, width, height)));
+        } else if ("objectgroup".equals(type)) {
+            if (objects == null) {
+                objects = new MapLoader.ObjectGroupData();
+            }
+            objects.name = name;
+            objects.visible = visible;
+            map.objectGroups.add(objects);
+        } else if ("group".equals(type) && !visible) {
+            // Vizibilitatea grupului se afla abia dupa copii (cheia "visible" vine dupa "layers")
+            for (int i = firstChild; i < map.layers.size(); i++) {
+                map.layers.get(i).visible = false;
+            }
+            for (int i = firstChildGroup; i < map.objectGroups.size(); i++) {
+                map.objectGroups.get(i).visible = false;
+            }
+        }
+    }
+
+    /*! \fn private int ReadTileData()
+        \brief Citeste vectorul "data" al unui layer in buffer-ul scratch, eliminand bitii de flip din Tiled.
+
+        \return Numarul de dale citite.
+     */
+    private int ReadTileData() throws Exception
+    {
+        int count = 0;
+        Expect('[');
+        if (NextEntry(']', true)) {
+            do {
+                if (count == scratch.length) {
+                    scratch = Arrays.copyOf(scratch, count * 2);
+                }
+                scratch[count++] = TileFlags.CleanGid(ReadGid());
+            } while (NextEntry(']', false));
+        }
+        return count;
+    }
+
+    /*! \fn private void ReadTilesets(List<MapLoader.TilesetData> tilesets)
+        \brief Citeste vectorul de tileset-uri (externe - doar "source" - sau definite inline).
+     */
+    private void ReadTilesets(List<MapLoader.TilesetData> tilesets) throws Exception
+    {
+        Expect('[');
+        if (NextEntry(']', true)) {
+            do {
+                MapLoader.TilesetData tileset = new MapLoader.TilesetData();
+                Expect('{');
+                if (NextEntry('}', true)) {
+                    do {
+                        ReadKey();
+                        if (KeyIs("firstgid")) {
+                            tileset.firstGid = ReadInt();
+                        } else if (KeyIs("name")) {
+                            tileset.name = ReadString();
+                        } else if (KeyIs("source")) {
+                            tileset.source = ReadString();
+                        } else if (KeyIs("image")) {
+                            tileset.image = ReadString();
+                        } else if (KeyIs("tilecount")) {
+                            tileset.tileCount = ReadInt();
+                        } else if (KeyIs("columns")) {
+                            tileset.columns = ReadInt();
+                        } else if (KeyIs("tiles")) {
+                            ReadTilesetTiles(tileset);
+                        } else {
+                            SkipValue();
+                        }
+                    } while (NextEntry('}', false));
+                }
+                tilesets.add(tileset);
+            } while (NextEntry(']', false));
+        }
+    }
+
+    /*! \fn private void ReadTilesetTiles(MapLoader.TilesetData tileset)
+        \brief Citeste proprietatile dalelor unui tileset inline ("tiles": [{"id": .., "properties": [..]}]).
+     */
+    private void ReadTilesetTiles(MapLoader.TilesetData tileset) throws Exception
+    {
+        Expect('[');
+        if (NextEntry(']', true)) {
+            do {
+                int id = -1;
+                int firstProperty = tileset.propertyCount;
+                Expect('{');
+                if (NextEntry('}', true)) {
+                    do {
+                        ReadKey();
+                        if (KeyIs("id")) {
+                            id = ReadInt();
+                        } else if (KeyIs("type") || KeyIs("class")) {
+                            // Clasa dalei este tratata ca proprietatea "type"
+                            tileset.addProperty(id, "type", ReadString());
+                        } else if (KeyIs("properties")) {
+                            ReadProperties(tileset, id);
+                        } else {
+                            SkipValue();
+                        }
+                    } while (NextEntry('}', false));
+                }
+                // "id" poate aparea dupa "properties"
+                for (int i = firstProperty; i < tileset.propertyCount; i++) {
+                    tileset.propertyTileIds[i] = id;
+                }
+            } while (NextEntry(']', false));
+        }
+    }
+
+    /*! \fn private void ReadProperties(MapLoader.TilesetData tileset, int tileId)
+        \brief Citeste un vector de proprietati Tiled ({"name", "type", "value"}); valorile sunt pastrate ca text.
+     */
+    private void ReadProperties(MapLoader.TilesetData tileset, int tileId) throws Exception
+    {
+        Expect('[');
+        if (NextEntry(']', true)) {
+            do {
+                String name = null;
+                String value = "";
+                Expect('{');
+                if (NextEntry('}', true)) {
+                    do {
+                        ReadKey();
+                        if (KeyIs("name")) {
+                            name = ReadString();
+                        } else if (KeyIs("value")) {
+                            value = ReadScalarAsString();
+                        } else {
+                            SkipValue();
+                        }
+                    } while (NextEntry('}', false));
+                }
+                if (name != null) {
+                    tileset.addProperty(tileId, name, value);
+                }
+            } while (NextEntry(']', false));
+        }
+    }
+
+    /*! \fn private void ReadObjects(MapLoader.ObjectGroupData group)
+        \brief Citeste obiectele unui objectgroup in vectorii primitivi ai grupului.
+     */
+    private void ReadObjects(MapLoader.ObjectGroupData group) throws Exception
+    {
+        Expect('[');
+        if (NextEntry(']', true)) {
+            do {
+                int id = 0;
+                String name = "";
+                String type = "";
+                float x = 0, y = 0, width = 0, height = 0;
+                Expect('{');
+                if (NextEntry('}', true)) {
+                    do {
+                        ReadKey();
+                        if (KeyIs("id")) {
+                            id = ReadInt();
+                        } else if (KeyIs("name")) {
+                            name = ReadString();
+                        } else if (KeyIs("type") || KeyIs("class")) {
+                            type = ReadString();
+                        } else if (KeyIs("x")) {
+                            x = (float) ReadNumber();
+                        } else if (KeyIs("y")) {
+                            y = (float) ReadNumber();
+                        } else if (KeyIs("width")) {
+                            width = (float) ReadNumber();
+                        } else if (KeyIs("height")) {
+                            height = (float) ReadNumber();
+                        } else {
+                            SkipValue();
+                        }
+                    } while (NextEntry('}', false));
+                }
+                group.add(id, name, type, x, y, width, height);
+            } while (NextEntry(']', false));
+        }
+    }
+
+    /*! \fn private void Validate(MapLoader.MapData map)
+        \brief Verifica dimensiunile layer-elor fata de harta, seteaza grila primului layer si construieste stratul de coliziune.
+     */
+    private void Validate(MapLoader.MapData map) throws Exception
+    {
+        if (map.width <= 0 || map.height <= 0) {
+            throw new Exception("Dimensiuni invalide ale hartii: " + map.width + "x" + map.height);
+        }
+        for (MapLoader.LayerData layer : map.layers) {
+            if (layer.tiles.GetWidth() != map.width || layer.tiles.GetHeight() != map.height) {
+                throw new Exception("Layer-ul '" + layer.name + "' are " + layer.tiles.GetWidth() + "x" + layer.tiles.GetHeight()
+                        + " dale, harta are " + map.width + "x" + map.height);
+            }
+        }
+
+        // Primul layer ramane accesibil si prin 'tiles' (folosit de CollisionDetector)
+        map.tiles = map.layers.isEmpty() ? new ShortTileGrid(map.width, map.height) : map.layers.get(0).tiles;
+        map.getCollisionLayer();
+    }
+
+    // ---------------------------------------------------------------- tokenizer
+
+    /*! \fn private int Peek()
+        \brief Returneaza urmatorul caracter diferit de spatiu, fara a-l consuma (EOF la sfarsitul fisierului).
+     */
+    private int Peek() throws IOException
+    {
+        while (true) {
+            if (position == limit && !Fill()) {
+                return EOF;
+            }
+            char c = buffer[position];
+            if (c == ' ' || c == '\t' || c == '\r') {
+                position++;
+            } else if (c == '\n') {
+                line++;
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    /*! \fn private int NextChar()
+        \brief Consuma urmatorul caracter (inclusiv spatii); EOF la sfarsitul fisierului.
+     */
+    private int NextChar() throws IOException
+    {
+        if (position == limit && !Fill()) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private boolean Fill() throws IOException
+    {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    private void Expect(char expected) throws Exception
+    {
+        int c = Peek();
+        if (c != expected) {
+            throw Error("Se astepta '" + expected + "', gasit " + Describe(c));
+        }
+        position++;
+    }
+
+    /*! \fn private boolean NextEntry(char close, boolean first)
+        \brief Trece la urmatorul element dintr-un obiect sau vector.
+
+        \param close '}' sau ']'.
+        \param first true imediat dupa paranteza de deschidere.
+        \return true daca urmeaza un element, false daca s-a ajuns la paranteza de inchidere (consumata).
+     */
+    private boolean NextEntry(char close, boolean first) throws Exception
+    {
+        int c = Peek();
+        if (c == close) {
+            position++;
+            return false;
+        }
+        if (first) {
+            return true;
+        }
+        if (c != ',') {
+            throw Error("Se astepta ',' sau '" + close + "', gasit " + Describe(c));
+        }
+        position++;
+        return true;
+    }
+
+    /*! \fn private void ReadKey()
+        \brief Citeste o cheie si ':' de dupa ea; cheia ramane in 'text' (fara a crea un String).
+     */
+    private void ReadKey() throws Exception
+    {
+        ReadStringInto();
+        Expect(':');
+    }
+
+    private boolean KeyIs(String key)
+    {
+        int length = key.length();
+        if (text.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String ReadString() throws Exception
+    {
+        ReadStringInto();
+        return text.toString();
+    }
+
+    /*! \fn private void ReadStringInto()
+        \brief Citeste un sir JSON (cu secvente escape) in 'text'.
+     */
+    private void ReadStringInto() throws Exception
+    {
+        Expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = NextChar();
+            if (c == '"') {
+                return;
+            }
+            if (c == EOF || c == '\n') {
+                throw Error("Sir neterminat");
+            }
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            int e = NextChar();
+            switch (e) {
+                case '"':  text.append('"'); break;
+                case '\\': text.append('\\'); break;
+                case '/':  text.append('/'); break;
+                case 'b':  text.append('\b'); break;
+                case 'f':  text.append('\f'); break;
+                case 'n':  text.append('\n'); break;
+                case 'r':  text.append('\r'); break;
+                case 't':  text.append('\t'); break;
+                case 'u': {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(NextChar(), 16);
+                        if (digit < 0) {
+                            throw Error("Secventa \\u invalida");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    text.append((char) code);
+                    break;
+                }
+                default:
+                    throw Error("Secventa escape invalida: \\" + Describe(e));
+            }
+        }
+    }
+
+    /*! \fn private int ReadGid()
+        \brief Citeste un ID de dala: intreg fara semn pe 32 de biti (bitii de flip pot depasi Integer.MAX_VALUE).
+     */
+    private int ReadGid() throws Exception
+    {
+        int c = Peek();
+        if (c < '0' || c > '9') {
+            throw Error("Se astepta un ID de dala, gasit " + Describe(c));
+        }
+        long value = 0;
+        while (true) {
+            if (position == limit && !Fill()) {
+                break;
+            }
+            c = buffer[position];
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            if (value > 0xFFFFFFFFL) {
+                throw Error("ID de dala prea mare");
+            }
+            position++;
+        }
+        return (int) value;
+    }
+
+    private int ReadInt() throws Exception
+    {
+        double value = ReadNumber();
+        if (value != Math.rint(value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw Error("Se astepta un numar intreg, gasit " + value);
+        }
+        return (int) value;
+    }
+
+    /*! \fn private double ReadNumber()
+        \brief Citeste un numar JSON; intregii sunt acumulati direct, doar numerele cu zecimale trec prin Double.parseDouble.
+     */
+    private double ReadNumber() throws Exception
+    {
+        int c = Peek();
+        boolean negative = false;
+        if (c == '-') {
+            negative = true;
+            position++;
+            c = NextCharNoSkip();
+        }
+        if (c < '0' || c > '9') {
+            throw Error("Se astepta un numar, gasit " + Describe(c));
+        }
+
+        long integer = 0;
+        int digits = 0;
+        while (c >= '0' && c <= '9') {
+            integer = integer * 10 + (c - '0');
+            digits++;
+            position++;
+            c = NextCharNoSkip();
+        }
+        if (c != '.' && c != 'e' && c != 'E' && digits < 18) {
+            return negative ? -integer : integer;
+        }
+
+        text.setLength(0);
+        if (negative) text.append('-');
+        text.append(integer);
+        while (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-' || (c >= '0' && c <= '9')) {
+            text.append((char) c);
+            position++;
+            c = NextCharNoSkip();
+        }
+        try {
+            return Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            throw Error("Numar invalid: " + text);
+        }
+    }
+
+    /*! \fn private int NextCharNoSkip()
+        \brief Returneaza caracterul curent (fara a-l consuma si fara a sari peste spatii).
+     */
+    private int NextCharNoSkip() throws IOException
+    {
+        if (position == limit && !Fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean ReadBoolean() throws Exception
+    {
+        int c = Peek();
+        if (c == 't') {
+            ReadLiteral("true");
+            return true;
+        }
+        if (c == 'f') {
+            ReadLiteral("false");
+            return false;
+        }
+        throw Error("Se astepta true/false, gasit " + Describe(c));
+    }
+
+    private void ReadLiteral(String literal) throws Exception
+    {
+        for (int i = 0; i < literal.length(); i++) {
+            if (NextChar() != literal.charAt(i)) {
+                throw Error("Se astepta '" + literal + "'");
+            }
+        }
+    }
+
+    /*! \fn private String ReadScalarAsString()
+        \brief Citeste o valoare simpla (sir, numar, boolean, null) si o returneaza ca text.
+     */
+    private String ReadScalarAsString() throws Exception
+    {
+        int c = Peek();
+        if (c == '"') {
+            return ReadString();
+        }
+        if (c == 't' || c == 'f') {
+            return Boolean.toString(ReadBoolean());
+        }
+        if (c == 'n') {
+            ReadLiteral("null");
+            return "";
+        }
+        if (c == '{' || c == '[') {
+            SkipValue();
+            return "";
+        }
+        double value = ReadNumber();
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    /*! \fn private void SkipValue()
+        \brief Sare peste o valoare oarecare (inclusiv obiecte si vectori imbricati) fara a o memora.
+     */
+    private void SkipValue() throws Exception
+    {
+        int c = Peek();
+        switch (c) {
+            case '{':
+                position++;
+                if (NextEntry('}', true)) {
+                    do {
+                        ReadKey();
+                        SkipValue();
+                    } while (NextEntry('}', false));
+                }
+                break;
+            case '[':
+                position++;
+                if (NextEntry(']', true)) {
+                    do {
+                        SkipValue();
+                    } while (NextEntry(']', false));
+                }
+                break;
+            case '"':
+                ReadStringInto();
+                break;
+            case 't':
+            case 'f':
+                ReadBoolean();
+                break;
+            case 'n':
+                ReadLiteral("null");
+                break;
+            default:
+                ReadNumber();
+                break;
+        }
+    }
+
+    private static String Describe(int c)
+    {
+        return c == EOF ? "sfarsitul fisierului" : "'" + (char) c + "'";
+    }
+
+    private Exception Error(String message)
+    {
+        return new Exception(message + " (linia " + line + ")");
+    }
+}
@@ -0,0 +1,499 @@
+package PaooGame.Maps;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/*! \class TmxStreamLoader
+    \brief Incarcator de harti .tmx (Tiled) bazat pe StAX (XMLStreamReader).
+
+    Spre deosebire de parsarea DOM, fisierul este citit o singura data, ca flux, fara a construi arborele
+    XML in memorie. ID-urile dalelor din datele CSV sunt citite direct din caracterele furnizate de parser
+    (getTextCharacters) intr-un vector int[], fara String-uri intermediare, fara replaceAll()/split().
+    Datele base64 (optional comprimate zlib/gzip) sunt decodate direct in acelasi tip de vector.
+    Bitii de flip/rotatie din Tiled sunt eliminati din toate ID-urile (vezi TileFlags).
+ */
+public class TmxStreamLoader
+{
+    /*! \class TmxLayer
+        \brief Un layer de dale citit din fisier; dalele sunt stocate pe randuri (index = y * width + x).
+     */
+    public static class TmxLayer
+    {
+        public final String name;
+        public final boolean visible;
+        public final int[] tiles;
+
+        public TmxLayer(String name, boolean visible, int[] tiles)
+        {
+            this.name = name;
+            this.visible = visible;
+            this.tiles = tiles;
+        }
+    }
+
+    /*! \class TmxMap
+        \brief Rezultatul incarcarii: dimensiunile hartii si layer-ele de dale in ordinea din fisier.
+     */
+    public static class TmxMap
+    {
+        public int width;
+        public int height;
+        public int tileWidth;
+        public int tileHeight;
+        public final List<TmxLayer> layers = new ArrayList<>();
+    }
+
+    private static final XMLInputFactory FACTORY = CreateFactory();
+    private static final int[] BASE64_VALUES = CreateBase64Table(); /*!< Valoarea fiecarui caracter base64 (-1 = invalid).*/
+
+    // Buffere refolosite intre layer-e (si intre incarcari, daca acelasi obiect este refolosit)
+    private byte[] textBuffer = new byte[4096];     /*!< Textul base64 al layer-ului curent, fara spatii.*/
+    private byte[] decodedBuffer = new byte[4096];  /*!< Octetii decodati din base64.*/
+    private final byte[] inflateBuffer = new byte[16 * 1024]; /*!< Bucata curenta de date decomprimate.*/
+
+    private static XMLInputFactory CreateFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /*! \fn public TmxMap Load(String path)
+        \brief Incarca harta din fisierul dat.
+
+        \param path Calea catre fisierul TMX.
+     */
+    public TmxMap Load(String path) throws Exception
+    {
+        File file = new File(path);
+        if (!file.exists()) {
+            throw new Exception("Fisierul TMX nu exista la calea: " + file.getAbsolutePath());
+        }
+        if (!file.canRead()) {
+            throw new Exception("Fisierul TMX nu poate fi citit. Verifica permisiunile.");
+        }
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 64 * 1024)) {
+            return Load(in);
+        }
+    }
+
+    /*! \fn public TmxMap Load(InputStream in)
+        \brief Incarca harta dintr-un flux de octeti cu continut TMX.
+     */
+    public TmxMap Load(InputStream in) throws Exception
+    {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            return Parse(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /*! \fn private TmxMap Parse(XMLStreamReader reader)
+        \brief Parcurge evenimentele XML si construieste harta.
+     */
+    private TmxMap Parse(XMLStreamReader reader) throws Exception
+    {
+        TmxMap map = null;
+        String layerName = null;
+        boolean layerVisible = true;
+        int[] layerTiles = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String element = reader.getLocalName();
+                if (map == null) {
+                    // Verifica daca elementul root este 'map'
+                    if (!"map".equals(element)) {
+                        throw new Exception("Fisierul nu este un TMX valid. Elementul root este '" + element + "' in loc de 'map'");
+                    }
+                    map = ReadMapHeader(reader);
+                } else if ("layer".equals(element)) {
+                    layerName = Attribute(reader, "name");
+                    String visibleAttr = Attribute(reader, "visible");
+                    layerVisible = visibleAttr.isEmpty() || !"0".equals(visibleAttr);
+                    layerTiles = null;
+                } else if ("data".equals(element) && layerName != null) {
+                    layerTiles = ReadLayerData(reader, map, layerName);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("layer".equals(reader.getLocalName()) && layerName != null) {
+                    if (layerTiles != null) {
+                        map.layers.add(new TmxLayer(layerName, layerVisible, layerTiles));
+                    } else {
+                        System.out.println("Layer-ul '" + layerName + "' nu are date, se sare");
+                    }
+                    layerName = null;
+                    layerTiles = null;
+                }
+            }
+        }
+
+        if (map == null) {
+            throw new Exception("Fisierul TMX nu contine elementul 'map'");
+        }
+        if (map.layers.isEmpty()) {
+            throw new Exception("Nu s-au gasit layer-uri in fisierul TMX");
+        }
+        return map;
+    }
+
+    /*! \fn private TmxMap ReadMapHeader(XMLStreamReader reader)
+        \brief Citeste atributele elementului 'map' (dimensiunile hartii si ale dalelor).
+     */
+    private TmxMap ReadMapHeader(XMLStreamReader reader) throws Exception
+    {
+        String widthAttr = Attribute(reader, "width");
+        String heightAttr = Attribute(reader, "height");
+        if (widthAttr.isEmpty() || heightAttr.isEmpty()) {
+            throw new Exception("Atributele 'width' si 'height' lipsesc din elementul 'map'");
+        }
+
+        TmxMap map = new TmxMap();
+        map.width = Integer.parseInt(widthAttr);
+        map.height = Integer.parseInt(heightAttr);
+        String tileWidthAttr = Attribute(reader, "tilewidth");
+        String tileHeightAttr = Attribute(reader, "tileheight");
+        map.tileWidth = tileWidthAttr.isEmpty() ? 0 : Integer.parseInt(tileWidthAttr);
+        map.tileHeight = tileHeightAttr.isEmpty() ? 0 : Integer.parseInt(tileHeightAttr);
+
+        if (map.width <= 0 || map.height <= 0) {
+            throw new Exception("Dimensiunile hartii sunt invalide: " + map.width + "x" + map.height);
+        }
+        return map;
+    }
+
+    /*! \fn private int[] ReadLayerData(XMLStreamReader reader, TmxMap map, String layerName)
+        \brief Citeste continutul unui element 'data'; la iesire cititorul este pe END_ELEMENT-ul acestuia.
+
+        Sunt suportate datele CSV si cele base64, necomprimate sau comprimate cu zlib/gzip. Fara atributul
+        'encoding' continutul este citit ca CSV, ca in incarcarea DOM anterioara: un element gol da un layer de 0,
+        iar formatul XML depreciat (<tile gid=.../>) este respins explicit.
+     */
+    private int[] ReadLayerData(XMLStreamReader reader, TmxMap map, String layerName) throws Exception
+    {
+        String encoding = Attribute(reader, "encoding");
+        String compression = Attribute(reader, "compression");
+        int expected = map.width * map.height;
+
+        if (encoding.isEmpty() || "csv".equals(encoding)) {
+            if (!compression.isEmpty()) {
+                throw new Exception("Compresia '" + compression + "' nu este valida pentru datele CSV ale layer-ului '" + layerName + "'.");
+            }
+            return ReadCsv(reader, expected, layerName);
+        }
+
+        if ("base64".equals(encoding)) {
+            if (!compression.isEmpty() && !"zlib".equals(compression) && !"gzip".equals(compression)) {
+                throw new Exception("Compresia '" + compression + "' nu este suportata pentru layer-ul '" + layerName
+                        + "'. Foloseste zlib, gzip sau fara compresie in Tiled.");
+            }
+            return ReadBase64(reader, expected, layerName, compression);
+        }
+
+        throw new Exception("Encoding '" + encoding + "' nu este suportat pentru layer-ul '"
+                + layerName + "'. Foloseste CSV sau Base64 in Tiled.");
+    }
+
+    /*! \fn private int[] ReadBase64(XMLStreamReader reader, int expected, String layerName, String compression)
+        \brief Decodeaza datele base64 (optional comprimate) ale unui layer.
+
+        Textul base64 este copiat (fara spatii) intr-un buffer de octeti refolosit, decodat intr-un alt buffer refolosit, iar
+        apoi octetii (eventual decomprimati cu java.util.zip.Inflater) sunt transformati direct in GID-uri
+        little-endian in vectorul layer-ului, fara alte copii intermediare.
+     */
+    private int[] ReadBase64(XMLStreamReader reader, int expected, String layerName, String compression) throws Exception
+    {
+        int textLength = 0;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                char[] chars = reader.getTextCharacters();
+                int start = reader.getTextStart();
+                int length = reader.getTextLength();
+                EnsureTextCapacity(textLength + length);
+                for (int i = start; i < start + length; i++) {
+                    char c = chars[i];
+                    if (c > ' ') {
+                        textBuffer[textLength++] = (byte) c;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                throw new Exception("Layer-ul '" + layerName + "' contine elementul '" + reader.getLocalName()
+                        + "' in date; hartile infinite (chunk-uri) nu sunt suportate");
+            }
+        }
+
+        int[] tiles = new int[expected];
+        if (textLength == 0) {
+            System.out.println("Layer-ul '" + layerName + "' are date goale, se umple cu 0");
+            return tiles;
+        }
+
+        EnsureDecodedCapacity(textLength / 4 * 3 + 3);
+        int decodedLength = DecodeBase64(textBuffer, textLength, decodedBuffer, layerName);
+
+        int count;
+        if (compression.isEmpty()) {
+            count = StoreLittleEndian(decodedBuffer, 0, decodedLength, tiles, 0, layerName, expected);
+        } else {
+            count = Inflate(decodedBuffer, decodedLength, "gzip".equals(compression), tiles, layerName, expected);
+        }
+
+        if (count != expected * 4) {
+            throw new Exception("Nepotrivire in numarul de tile-uri pentru layer-ul '" + layerName + "'! Gasite: " + (count / 4) +
+                    ", asteptate: " + expected);
+        }
+        return tiles;
+    }
+
+    /*! \fn private int Inflate(byte[] data, int length, boolean gzip, int[] tiles, String layerName, int expected)
+        \brief Decomprima datele zlib/gzip pe bucati si scrie GID-urile direct in tiles.
+
+        \return Numarul total de octeti decomprimati.
+     */
+    private int Inflate(byte[] data, int length, boolean gzip, int[] tiles, String layerName, int expected) throws Exception
+    {
+        int offset = gzip ? SkipGzipHeader(data, length, layerName) : 0;
+        // zlib are antet si suma de control proprii; gzip se decomprima "brut" dupa antet
+        Inflater inflater = new Inflater(gzip);
+        try {
+            inflater.setInput(data, offset, length - offset);
+            int total = 0;
+            int pending = 0; // octeti ramasi in inflateBuffer dintr-un GID incomplet
+            while (!inflater.finished()) {
+                int n = inflater.inflate(inflateBuffer, pending, inflateBuffer.length - pending);
+                if (n == 0) {
+                    if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new Exception("Date comprimate incomplete in layer-ul '" + layerName + "'");
+                    }
+                    continue;
+                }
+                int available = pending + n;
+                int whole = available & ~3;
+                StoreLittleEndian(inflateBuffer, 0, whole, tiles, total, layerName, expected);
+                total += whole;
+                pending = available - whole;
+                if (pending > 0) {
+                    System.arraycopy(inflateBuffer, whole, inflateBuffer, 0, pending);
+                }
+            }
+            return total + pending;
+        } catch (DataFormatException e) {
+            throw new Exception("Date comprimate invalide in layer-ul '" + layerName + "': " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /*! \fn private static int StoreLittleEndian(byte[] src, int from, int to, int[] tiles, int byteOffset, String layerName, int expected)
+        \brief Transforma octetii [from, to) in GID-uri little-endian (fara bitii de flip) incepand cu dala byteOffset / 4.
+
+        \return Numarul de octeti procesati.
+     */
+    private static int StoreLittleEndian(byte[] src, int from, int to, int[] tiles, int byteOffset, String layerName, int expected) throws Exception
+    {
+        int index = byteOffset >> 2;
+        if (index + ((to - from) >> 2) > tiles.length) {
+            throw new Exception("Nepotrivire in numarul de tile-uri pentru layer-ul '" + layerName + "'! Gasite: peste "
+                    + expected + ", asteptate: " + expected);
+        }
+        for (int i = from; i + 3 < to; i += 4) {
+            int gid = (src[i] & 0xFF)
+                    | (src[i + 1] & 0xFF) << 8
+                    | (src[i + 2] & 0xFF) << 16
+                    | (src[i + 3] & 0xFF) << 24;
+            tiles[index++] = TileFlags.CleanGid(gid);
+        }
+        return to - from;
+    }
+
+    /*! \fn private static int SkipGzipHeader(byte[] data, int length, String layerName)
+        \brief Returneaza pozitia de dupa antetul gzip (RFC 1952), pentru decomprimarea cu Inflater "nowrap".
+     */
+    private static int SkipGzipHeader(byte[] data, int length, String layerName) throws Exception
+    {
+        if (length < 18 || (data[0] & 0xFF) != 0x1F || (data[1] & 0xFF) != 0x8B || data[2] != 8) {
+            throw new Exception("Antet gzip invalid in layer-ul '" + layerName + "'");
+        }
+        int flags = data[3] & 0xFF;
+        int pos = 10;
+        if ((flags & 0x04) != 0) { // FEXTRA
+            pos += 2 + ((data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8);
+        }
+        if ((flags & 0x08) != 0) { // FNAME
+            while (pos < length && data[pos++] != 0) { }
+        }
+        if ((flags & 0x10) != 0) { // FCOMMENT
+            while (pos < length && data[pos++] != 0) { }
+        }
+        if ((flags & 0x02) != 0) { // FHCRC
+            pos += 2;
+        }
+        if (pos >= length) {
+            throw new Exception("Antet gzip invalid in layer-ul '" + layerName + "'");
+        }
+        return pos;
+    }
+
+    /*! \fn private static int DecodeBase64(byte[] src, int length, byte[] dst, String layerName)
+        \brief Decodeaza base64 standard (RFC 4648) din src in dst, fara alocari.
+
+        \return Numarul de octeti decodati.
+     */
+    private static int DecodeBase64(byte[] src, int length, byte[] dst, String layerName) throws Exception
+    {
+        int out = 0;
+        int bits = 0;
+        int accumulator = 0;
+        for (int i = 0; i < length; i++) {
+            int c = src[i];
+            if (c == '=') {
+                break;
+            }
+            int value = (c >= 0 && c < 128) ? BASE64_VALUES[c] : -1;
+            if (value < 0) {
+                throw new Exception("Date base64 invalide in layer-ul '" + layerName + "' (caracterul '" + (char) (c & 0xFF) + "')");
+            }
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                dst[out++] = (byte) (accumulator >> bits);
+            }
+        }
+        return out;
+    }
+
+    private static int[] CreateBase64Table()
+    {
+        int[] table = new int[128];
+        Arrays.fill(table, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            table[alphabet.charAt(i)] = i;
+        }
+        return table;
+    }
+
+    private void EnsureTextCapacity(int capacity)
+    {
+        if (textBuffer.length < capacity) {
+            textBuffer = Arrays.copyOf(textBuffer, Math.max(capacity, textBuffer.length * 2));
+        }
+    }
+
+    private void EnsureDecodedCapacity(int capacity)
+    {
+        if (decodedBuffer.length < capacity) {
+            decodedBuffer = new byte[Math.max(capacity, decodedBuffer.length * 2)];
+        }
+    }
+
+    /*! \fn private int[] ReadCsv(XMLStreamReader reader, int expected, String layerName)
+        \brief Parseaza ID-urile separate prin virgula direct din caracterele parser-ului.
+
+        Un numar poate fi impartit intre doua evenimente CHARACTERS consecutive, de aceea valoarea
+        partiala este pastrata intre apeluri. Valorile sunt acumulate pe 32 de biti fara semn, astfel
+        incat ID-urile cu bitii de flip din Tiled setati (peste 2^31) sunt citite corect inainte de curatare.
+     */
+    private int[] ReadCsv(XMLStreamReader reader, int expected, String layerName) throws Exception
+    {
+        int[] tiles = new int[expected];
+        int count = 0;
+        int value = 0;
+        boolean inNumber = false;
+        boolean empty = true;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                char[] chars = reader.getTextCharacters();
+                int end = reader.getTextStart() + reader.getTextLength();
+                for (int i = reader.getTextStart(); i < end; i++) {
+                    char c = chars[i];
+                    if (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        inNumber = true;
+                        empty = false;
+                    } else if (c == ',') {
+                        if (!inNumber) {
+                            throw InvalidTile(layerName, count, expected);
+                        }
+                        count = Store(tiles, count, value, layerName, expected);
+                        value = 0;
+                        inNumber = false;
+                    } else if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                        throw new Exception("ID de tile invalid in layer-ul '" + layerName + "' la indexul " + count
+                                + ": caracter neasteptat '" + c + "'");
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if ("tile".equals(reader.getLocalName())) {
+                    // Datele XML (<tile gid=.../>) sunt depreciate in Tiled
+                    throw new Exception("Layer-ul '" + layerName + "' foloseste formatul XML (<tile gid=.../>), care nu este"
+                            + " suportat. Foloseste CSV sau Base64 in Tiled.");
+                }
+                throw new Exception("Layer-ul '" + layerName + "' contine elementul '" + reader.getLocalName()
+                        + "' in date; hartile infinite (chunk-uri) nu sunt suportate");
+            }
+        }
+
+        if (inNumber) {
+            count = Store(tiles, count, value, layerName, expected);
+        }
+
+        if (empty) {
+            System.out.println("Layer-ul '" + layerName + "' are date goale, se umple cu 0");
+            return tiles;
+        }
+        if (count != expected) {
+            throw new Exception("Nepotrivire in numarul de tile-uri pentru layer-ul '" + layerName + "'! Gasite: " + count +
+                    ", asteptate: " + expected);
+        }
+        return tiles;
+    }
+
+    private static int Store(int[] tiles, int count, int value, String layerName, int expected) throws Exception
+    {
+        if (count >= tiles.length) {
+            throw new Exception("Nepotrivire in numarul de tile-uri pentru layer-ul '" + layerName + "'! Gasite: peste "
+                    + expected + ", asteptate: " + expected);
+        }
+        tiles[count] = TileFlags.CleanGid(value);
+        return count + 1;
+    }
+
+    private static Exception InvalidTile(String layerName, int index, int expected)
+    {
+        return new Exception("ID de tile invalid in layer-ul '" + layerName + "' la indexul " + index
+                + " (din " + expected + "): valoare lipsa");
+    }
+
+    private static String Attribute(XMLStreamReader reader, String name)
+    {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+}
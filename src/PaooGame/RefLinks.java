@@ -47,6 +47,22 @@ public class RefLinks
         return game.GetHeight();
     }
 
+    /*! \fn public GameCamera GetGameCamera()
+        \brief Returneaza referinta catre camera jocului.
+     */
+    public GameCamera GetGameCamera()
+    {
+        return game.GetGameCamera();
+    }
+
+    /*! \fn public float GetInterpolation()
+        \brief Returneaza factorul de interpolare al frame-ului curent.
+     */
+    public float GetInterpolation()
+    {
+        return game.GetInterpolation();
+    }
+
     /*! \fn public Game GetGame()
         \brief Intoarce referinta catre obiectul Game.
      */
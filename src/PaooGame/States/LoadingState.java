@@ -0,0 +1,86 @@
+package PaooGame.States;
+
+import PaooGame.RefLinks;
+
+import java.awt.*;
+
+/*! \class public class LoadingState extends State
+    \brief Ecranul afisat cand se cere un nivel a carui harta nu a terminat inca incarcarea pe firul de fundal.
+
+    La fiecare Update() se incearca activarea nivelului in PlayState (fara asteptare); cand harta este gata,
+    se revine la PlayState. Pana atunci se deseneaza progresul estimat al incarcarii.
+ */
+public class LoadingState extends State
+{
+    private final PlayState playState;  /*!< Starea de joc in care se activeaza nivelul.*/
+    private final int level;            /*!< Nivelul asteptat.*/
+    private final String levelName;
+    private final long startNanos = System.nanoTime();
+    private volatile float progress;    /*!< Calculat in Update(), citit si de firul de desenare.*/
+
+    /*! \fn public LoadingState(RefLinks refLink, PlayState playState, int level, String levelName)
+        \brief Constructorul de initializare al clasei.
+
+        \param refLink O referinta catre un obiect "shortcut", obiect ce contine o serie de referinte utile in program.
+        \param playState Starea de joc care a cerut nivelul.
+        \param level Nivelul asteptat (1..MAX_LEVELS).
+        \param levelName Numele afisat al nivelului.
+     */
+    public LoadingState(RefLinks refLink, PlayState playState, int level, String levelName)
+    {
+        super(refLink);
+        this.playState = playState;
+        this.level = level;
+        this.levelName = levelName;
+    }
+
+    /*! \fn public void Update()
+        \brief Activeaza nivelul daca harta lui este gata, altfel actualizeaza progresul.
+     */
+    @Override
+    public void Update()
+    {
+        if (playState.tryActivateLevel(level)) {
+            System.out.println("Nivel " + level + " incarcat dupa " + (System.nanoTime() - startNanos) / 1_000_000 + " ms de asteptare");
+            State.SetState(playState);
+            return;
+        }
+        progress = playState.getLoadingProgress(level);
+    }
+
+    /*! \fn public void Draw(Graphics g)
+        \brief Deseneaza numele nivelului si bara de progres.
+
+        \param g Contextul grafic in care trebuie sa deseneze starea jocului pe ecran.
+     */
+    @Override
+    public void Draw(Graphics g)
+    {
+        int width = refLink.GetWidth();
+        int height = refLink.GetHeight();
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, width, height);
+
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 24));
+        FontMetrics fm = g.getFontMetrics();
+        String title = "Se incarca " + levelName + "...";
+        g.drawString(title, (width - fm.stringWidth(title)) / 2, height / 2 - 30);
+
+        // Bara de progres
+        int barWidth = 400;
+        int barHeight = 20;
+        int x = (width - barWidth) / 2;
+        int y = height / 2;
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(x, y, barWidth, barHeight);
+        g.setColor(Color.GREEN);
+        g.fillRect(x, y, (int) (barWidth * progress), barHeight);
+        g.setColor(Color.WHITE);
+        g.drawRect(x, y, barWidth, barHeight);
+
+        g.setFont(new Font("Arial", Font.PLAIN, 14));
+        String percent = (int) (progress * 100) + "%";
+        g.drawString(percent, (width - g.getFontMetrics().stringWidth(percent)) / 2, y + barHeight + 20);
+    }
+}
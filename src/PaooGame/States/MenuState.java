@@ -1,6 +1,8 @@
 package PaooGame.States;
 
 import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.ScaledImageCache;
+import PaooGame.Input.KeyManager;
 import PaooGame.RefLinks;
 import java.awt.*;
 import java.awt.event.KeyEvent;
@@ -19,9 +21,6 @@ public class MenuState extends State
 
     private String[] menuOptions = {"NEW GAME", "LOAD GAME", "SETTINGS", "QUIT"};
     private int selectedOption = 0;
-    private boolean enterPressed = false;
-    private boolean upPressed = false;
-    private boolean downPressed = false;
 
     // Timer pentru debugging
     private long lastDebugTime = 0;
@@ -61,48 +60,32 @@ public class MenuState extends State
             return;
         }
 
+        KeyManager keys = refLink.GetKeyManager();
+
         // Navigare sus
-        if(refLink.GetKeyManager().up && !upPressed)
+        if(keys.IsPressed(KeyEvent.VK_W))
         {
-            upPressed = true;
             selectedOption--;
             if(selectedOption < 0)
                 selectedOption = menuOptions.length - 1;
             System.out.println("Navigare sus - optiune selectata: " + menuOptions[selectedOption]);
         }
-        else if(!refLink.GetKeyManager().up)
-        {
-            upPressed = false;
-        }
 
         // Navigare jos
-        if(refLink.GetKeyManager().down && !downPressed)
+        if(keys.IsPressed(KeyEvent.VK_S))
         {
-            downPressed = true;
             selectedOption++;
             if(selectedOption >= menuOptions.length)
                 selectedOption = 0;
             System.out.println("Navigare jos - optiune selectata: " + menuOptions[selectedOption]);
         }
-        else if(!refLink.GetKeyManager().down)
-        {
-            downPressed = false;
-        }
 
         // Selectare optiune (Enter sau Space)
-        boolean enterKey = refLink.GetKeyManager().keys[KeyEvent.VK_ENTER];
-        boolean spaceKey = refLink.GetKeyManager().keys[KeyEvent.VK_SPACE];
-
-        if((enterKey || spaceKey) && !enterPressed)
+        if(keys.IsPressed(KeyEvent.VK_ENTER) || keys.IsPressed(KeyEvent.VK_SPACE))
         {
-            enterPressed = true;
             System.out.println("Optiune selectata: " + menuOptions[selectedOption]);
             executeSelectedOption();
         }
-        else if(!enterKey && !spaceKey)
-        {
-            enterPressed = false;
-        }
     }
 
     private void executeSelectedOption()
@@ -152,7 +135,7 @@ public class MenuState extends State
         // Desenarea fundalului
         if (Assets.backgroundMenu != null) {
             // Scaleaza imaginea la dimensiunea ferestrei
-            g.drawImage(Assets.backgroundMenu, 0, 0, refLink.GetWidth(), refLink.GetHeight(), null);
+            g.drawImage(ScaledImageCache.Get(Assets.backgroundMenu, refLink.GetWidth(), refLink.GetHeight()), 0, 0, null);
         } else {
             // Fundal de rezerva
             g.setColor(backgroundColor);
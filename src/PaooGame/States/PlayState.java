@@ -1,8 +1,16 @@
 package PaooGame.States;
 
+import PaooGame.GameCamera;
+import PaooGame.Input.KeyManager;
+import PaooGame.Items.EntityIndex;
+import PaooGame.Items.EntityWorld;
 import PaooGame.Items.Hero;
+import PaooGame.Loop.FrameProfiler;
+import PaooGame.Loop.WorldSnapshot;
 import PaooGame.Maps.Map;
+import PaooGame.Maps.MapPreloader;
 import PaooGame.RefLinks;
+import PaooGame.Tiles.Tile;
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
@@ -15,6 +23,9 @@ public class PlayState extends State
     private Hero hero;
     private Map map;
 
+    // Entitatile nivelului, pe vectori, cu indexul spatial pentru coliziunile dintre ele (celule de 2x2 dale)
+    private EntityWorld entityWorld;
+
     // Variabile pentru gestionarea nivelurilor
     private static int currentLevel = 1;
     private static final int MAX_LEVELS = 3;
@@ -40,13 +51,10 @@ public class PlayState extends State
             {250, 200}    // Level 3 spawn (tile-uri 32x23)
     };
 
-    // Control pentru taste
-    private boolean nextLevelPressed = false;
-    private boolean restartPressed = false;
-    private boolean menuPressed = false;
-    private boolean level1Pressed = false;
-    private boolean level2Pressed = false;
-    private boolean level3Pressed = false;
+    // Hartile nivelurilor sunt incarcate pe un fir de fundal inainte de a fi cerute (comun tuturor PlayState-urilor)
+    private static MapPreloader preloader;
+
+    private double lastSwapMillis;  /*!< Cat a durat ultima inlocuire a nivelului pe firul jocului.*/
 
     /*! \fn public PlayState(RefLinks refLink)
         \brief Constructorul de initializare al clasei
@@ -54,49 +62,153 @@ public class PlayState extends State
     public PlayState(RefLinks refLink)
     {
         super(refLink);
-        loadCurrentLevel();
+        if (preloader == null) {
+            preloader = new MapPreloader(path -> LoadMap(refLink, path), MapPreloader.DEFAULT_CAPACITY);
+        }
+        // Primul nivel se asteapta (nu exista inca nimic de desenat); daca a fost preincarcat nu se asteapta deloc
+        activateLevel(currentLevel, preloader.TakeBlocking(LEVEL_PATHS[currentLevel - 1]));
         System.out.println("PlayState initializat pentru " + LEVEL_NAMES[currentLevel - 1]);
     }
 
-    /*! \fn private void loadCurrentLevel()
-        \brief Incarca nivelul curent
+    /*! \fn private static Map LoadMap(RefLinks refLink, String levelPath)
+        \brief Construieste harta unui nivel (pe firul de fundal), cu harta implicita daca fisierul nu se incarca
      */
-    private void loadCurrentLevel()
+    private static Map LoadMap(RefLinks refLink, String levelPath)
     {
+        System.out.println("Incarcarea hartii din: " + levelPath);
         try {
-            System.out.println("=== INCARCAREA NIVELULUI " + currentLevel + " ===");
-
-            String levelPath = LEVEL_PATHS[currentLevel - 1];
-            System.out.println("Incarcarea hartii din: " + levelPath);
-
-            map = new Map(refLink, levelPath);
+            Map loaded = new Map(refLink, levelPath);
 
             // Verifica daca harta s-a incarcat
-            if (!map.isMapLoaded()) {
-                System.err.println("ATENTIE: Harta nu s-a incarcat! Folosesc harta implicita.");
-                map = new Map(refLink); // Fallback la The_map.tmx
+            if (loaded.isMapLoaded()) {
+                return loaded;
             }
+            System.err.println("ATENTIE: Harta nu s-a incarcat! Folosesc harta implicita.");
+        } catch (Exception e) {
+            System.err.println("EROARE la incarcarea hartii " + levelPath + ": " + e.getMessage());
+        }
+        return new Map(refLink); // Fallback la The_map.tmx
+    }
+
+    /*! \fn private void loadLevel(int level)
+        \brief Trece la nivelul dat: imediat daca harta este preincarcata, altfel prin LoadingState
+     */
+    private void loadLevel(int level)
+    {
+        String levelPath = LEVEL_PATHS[level - 1];
+        preloader.Preload(levelPath);
+        if (!tryActivateLevel(level)) {
+            System.out.println("Nivelul " + level + " nu este inca incarcat, se asteapta...");
+            State.SetState(new LoadingState(refLink, this, level, LEVEL_NAMES[level - 1]));
+        }
+    }
+
+    /*! \fn boolean tryActivateLevel(int level)
+        \brief Inlocuieste nivelul curent cu cel dat daca harta lui este gata; nu asteapta niciodata
+     */
+    boolean tryActivateLevel(int level)
+    {
+        Map loaded;
+        try {
+            loaded = preloader.Take(LEVEL_PATHS[level - 1]);
+        } catch (Exception e) {
+            System.err.println("EROARE la incarcarea nivelului " + level + ": " + e.getMessage());
+            loaded = new Map(refLink);
+        }
+        if (loaded == null) {
+            return false;
+        }
+        activateLevel(level, loaded);
+        return true;
+    }
 
-            refLink.SetMap(map);
+    /*! \fn float getLoadingProgress(int level)
+        \brief Progresul estimat al incarcarii nivelului dat (0..1), pentru LoadingState
+     */
+    float getLoadingProgress(int level)
+    {
+        return preloader.GetProgress(LEVEL_PATHS[level - 1]);
+    }
 
-            // Construieste eroul
-            float spawnX = SPAWN_POSITIONS[currentLevel - 1][0];
-            float spawnY = SPAWN_POSITIONS[currentLevel - 1][1];
-            hero = new Hero(refLink, spawnX, spawnY);
+    /*! \fn private void activateLevel(int level, Map loaded)
+        \brief Face nivelul curent cu harta deja incarcata (doar inlocuiri de referinte pe firul jocului)
+     */
+    private void activateLevel(int level, Map loaded)
+    {
+        long start = System.nanoTime();
+        int previousLevel = currentLevel;
+        currentLevel = level;
+        map = loaded;
+        refLink.SetMap(map);
+
+        // Construieste eroul
+        float spawnX = SPAWN_POSITIONS[currentLevel - 1][0];
+        float spawnY = SPAWN_POSITIONS[currentLevel - 1][1];
+        hero = new Hero(refLink, spawnX, spawnY);
+        resetItems();
+        resetCamera();
+        lastSwapMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        // Nivelul urmator si cel parasit se pregatesc in fundal (din LevelCache, fara parsare daca au mai fost incarcate);
+        // restartul nivelului curent nu mai are nevoie de o copie, se face pe loc cu Map.Reset()
+        preloader.Preload(LEVEL_PATHS[currentLevel % MAX_LEVELS]);
+        if (previousLevel != currentLevel) {
+            preloader.Preload(LEVEL_PATHS[previousLevel - 1]);
+        }
 
-            System.out.println("SUCCESS: Nivel " + currentLevel + " incarcat");
-            System.out.println("Harta: " + levelPath);
-            System.out.println("Spawn erou: " + spawnX + ", " + spawnY);
-            System.out.println("===================================");
+        System.out.println("SUCCESS: Nivel " + currentLevel + " activ (" + String.format("%.3f", lastSwapMillis) + " ms pe firul jocului)");
+        System.out.println("Harta: " + map.getMapPath());
+        System.out.println("Spawn erou: " + spawnX + ", " + spawnY);
+    }
 
-        } catch (Exception e) {
-            System.err.println("EROARE la incarcarea nivelului " + currentLevel + ": " + e.getMessage());
+    /*! \fn public double GetLastSwapMillis()
+        \brief Durata ultimei schimbari de nivel pe firul jocului (ms), fara asteptarea din LoadingState
+     */
+    public double GetLastSwapMillis()
+    {
+        return lastSwapMillis;
+    }
+
+    /*! \fn private void restartLevel()
+        \brief Reporneste nivelul curent pe loc: harta revine la datele din LevelCache, eroul la pozitia de start
 
-            // Fallback complet
-            map = new Map(refLink);
-            refLink.SetMap(map);
-            hero = new Hero(refLink, 100, 100);
+        Se refac doar dalele modificate in timpul jocului (Map.Reset()); harta, eroul si entitatile nu sunt
+        construite din nou. Daca harta curenta este cea de rezerva, nivelul se incarca normal.
+     */
+    private void restartLevel()
+    {
+        if (map == null || !map.isMapLoaded() || !LEVEL_PATHS[currentLevel - 1].equals(map.getMapPath())) {
+            loadLevel(currentLevel);
+            return;
         }
+        map.Reset();
+        hero.Respawn(SPAWN_POSITIONS[currentLevel - 1][0], SPAWN_POSITIONS[currentLevel - 1][1]);
+        entityWorld.Clear();
+        entityWorld.Attach(hero);
+        resetCamera();
+    }
+
+    /*! \fn private void resetItems()
+        \brief Reface entitatile nivelului; eroul este atasat ca Item si se misca singur
+     */
+    private void resetItems()
+    {
+        entityWorld = new EntityWorld(2 * Tile.TILE_WIDTH, 2 * Tile.TILE_HEIGHT);
+        entityWorld.Attach(hero);
+    }
+
+    /*! \fn private void resetCamera()
+        \brief Limiteaza camera la harta noului nivel si o centreaza pe erou
+     */
+    private void resetCamera()
+    {
+        GameCamera camera = refLink.GetGameCamera();
+        if (map != null && map.isMapLoaded()) {
+            camera.SetMapBounds(map.getWidth() * Tile.TILE_WIDTH, map.getHeight() * Tile.TILE_HEIGHT);
+        } else {
+            camera.SetMapBounds(0, 0);
+        }
+        camera.CenterOn(hero);
     }
 
     /*! \fn public void Update()
@@ -109,59 +221,68 @@ public class PlayState extends State
             map.Update();
         }
         hero.Update();
+        if (map != null) {
+            // Inamicii care urmaresc eroul folosesc un singur camp de directii catre dala in care se afla
+            map.UpdateFlowFieldTarget(hero.GetTileX(), hero.GetTileY());
+        }
+        // Camera urmareste eroul
+        GameCamera camera = refLink.GetGameCamera();
+        camera.Follow(hero);
+        // Miscarea, coliziunile intre entitati si decuparea dupa camera, pe vectorii tuturor entitatilor
+        entityWorld.Update(map != null && map.isMapLoaded() ? map.GetCollisionLayer() : null,
+                Tile.TILE_WIDTH, Tile.TILE_HEIGHT,
+                camera.GetXOffset(), camera.GetYOffset(), camera.GetViewWidth(), camera.GetViewHeight());
 
         handleLevelInput();
     }
 
+    /*! \fn public EntityIndex GetEntityIndex()
+        \brief Returneaza indexul spatial al entitatilor, actualizat la fiecare tick
+     */
+    public EntityIndex GetEntityIndex()
+    {
+        return entityWorld.GetIndex();
+    }
+
+    /*! \fn public EntityWorld GetEntityWorld()
+        \brief Returneaza entitatile nivelului curent
+     */
+    public EntityWorld GetEntityWorld()
+    {
+        return entityWorld;
+    }
+
     /*! \fn private void handleLevelInput()
         \brief Gestioneaza inputul pentru controlul nivelurilor
      */
     private void handleLevelInput()
     {
+        KeyManager keys = refLink.GetKeyManager();
+
         // Trecere la urmatorul nivel cu N
-        if (refLink.GetKeyManager().keys[KeyEvent.VK_N] && !nextLevelPressed) {
-            nextLevelPressed = true;
+        if (keys.IsPressed(KeyEvent.VK_N)) {
             nextLevel();
-        } else if (!refLink.GetKeyManager().keys[KeyEvent.VK_N]) {
-            nextLevelPressed = false;
         }
 
         // Restart nivel curent cu R
-        if (refLink.GetKeyManager().keys[KeyEvent.VK_R] && !restartPressed) {
-            restartPressed = true;
-            loadCurrentLevel();
-        } else if (!refLink.GetKeyManager().keys[KeyEvent.VK_R]) {
-            restartPressed = false;
+        if (keys.IsPressed(KeyEvent.VK_R)) {
+            restartLevel();
         }
 
         // Intoarcere la meniu cu ESC
-        if (refLink.GetKeyManager().keys[KeyEvent.VK_ESCAPE] && !menuPressed) {
-            menuPressed = true;
+        if (keys.IsPressed(KeyEvent.VK_ESCAPE)) {
             State.SetState(new MenuState(refLink));
-        } else if (!refLink.GetKeyManager().keys[KeyEvent.VK_ESCAPE]) {
-            menuPressed = false;
         }
 
         // Selectare directa nivel cu tastele 1, 2, 3
-        if (refLink.GetKeyManager().keys[KeyEvent.VK_1] && !level1Pressed) {
-            level1Pressed = true;
+        if (keys.IsPressed(KeyEvent.VK_1)) {
             loadSpecificLevel(1);
-        } else if (!refLink.GetKeyManager().keys[KeyEvent.VK_1]) {
-            level1Pressed = false;
         }
-
-        if (refLink.GetKeyManager().keys[KeyEvent.VK_2] && !level2Pressed) {
-            level2Pressed = true;
+        if (keys.IsPressed(KeyEvent.VK_2)) {
             loadSpecificLevel(2);
-        } else if (!refLink.GetKeyManager().keys[KeyEvent.VK_2]) {
-            level2Pressed = false;
         }
-
-        if (refLink.GetKeyManager().keys[KeyEvent.VK_3] && !level3Pressed) {
-            level3Pressed = true;
+        if (keys.IsPressed(KeyEvent.VK_3)) {
             loadSpecificLevel(3);
-        } else if (!refLink.GetKeyManager().keys[KeyEvent.VK_3]) {
-            level3Pressed = false;
         }
     }
 
@@ -171,13 +292,11 @@ public class PlayState extends State
     private void nextLevel()
     {
         if (currentLevel < MAX_LEVELS) {
-            currentLevel++;
-            loadCurrentLevel();
-            System.out.println("Trecere la nivelul " + currentLevel);
+            System.out.println("Trecere la nivelul " + (currentLevel + 1));
+            loadLevel(currentLevel + 1);
         } else {
             System.out.println("Toate nivelurile completate! Restart.");
-            currentLevel = 1;
-            loadCurrentLevel();
+            loadLevel(1);
         }
     }
 
@@ -187,9 +306,8 @@ public class PlayState extends State
     private void loadSpecificLevel(int levelNumber)
     {
         if (levelNumber >= 1 && levelNumber <= MAX_LEVELS && levelNumber != currentLevel) {
-            currentLevel = levelNumber;
-            loadCurrentLevel();
-            System.out.println("Incarcare nivel " + currentLevel);
+            System.out.println("Incarcare nivel " + levelNumber);
+            loadLevel(levelNumber);
         }
     }
 
@@ -207,17 +325,77 @@ public class PlayState extends State
         // Deseneaza eroul
         hero.Draw(g);
 
-        // Informatii despre nivel
+        // Informatii despre nivel si controale
+        FrameProfiler profiler = refLink.GetGame().GetProfiler();
+        profiler.Begin(FrameProfiler.HUD);
         drawLevelInfo(g);
+        drawControls(g);
+        profiler.End(FrameProfiler.HUD);
+    }
 
-        // Controale
+    /*! \fn public void WriteSnapshot(WorldSnapshot snapshot)
+        \brief Copiaza pozitia eroului si vizibilitatea layer-elor pentru firul de desenare
+     */
+    @Override
+    public void WriteSnapshot(WorldSnapshot snapshot)
+    {
+        snapshot.map = map;
+        if (map != null) {
+            snapshot.EnsureLayerCapacity(map.getLayerCount());
+            map.CopyLayerVisibility(snapshot.layerVisible);
+            snapshot.layerCount = map.getLayerCount();
+        }
+
+        GameCamera camera = refLink.GetGameCamera();
+        snapshot.cameraPrevX = camera.GetRenderXOffset(0.0f);
+        snapshot.cameraPrevY = camera.GetRenderYOffset(0.0f);
+        snapshot.cameraX = camera.GetXOffset();
+        snapshot.cameraY = camera.GetYOffset();
+
+        snapshot.hero = hero;
+        snapshot.heroPrevX = hero.GetRenderX(0.0f);
+        snapshot.heroPrevY = hero.GetRenderY(0.0f);
+        snapshot.heroX = hero.GetX();
+        snapshot.heroY = hero.GetY();
+        snapshot.heroImage = hero.GetImage();
+    }
+
+    /*! \fn public void Draw(Graphics g, WorldSnapshot snapshot, float alpha)
+        \brief Deseneaza jocul din snapshot-ul publicat de firul de update
+     */
+    @Override
+    public void Draw(Graphics g, WorldSnapshot snapshot, float alpha)
+    {
+        float cameraX = snapshot.GetCameraRenderX(alpha);
+        float cameraY = snapshot.GetCameraRenderY(alpha);
+        if (snapshot.map != null) {
+            snapshot.map.Draw(g, snapshot.layerVisible, cameraX, cameraY);
+        }
+
+        if (snapshot.hero != null) {
+            snapshot.hero.DrawAt(g, snapshot.heroImage,
+                    snapshot.GetHeroRenderX(alpha) - cameraX, snapshot.GetHeroRenderY(alpha) - cameraY);
+        }
+
+        FrameProfiler profiler = refLink.GetGame().GetProfiler();
+        profiler.Begin(FrameProfiler.HUD);
+        drawLevelInfo(g, snapshot.map);
         drawControls(g);
+        profiler.End(FrameProfiler.HUD);
     }
 
     /*! \fn private void drawLevelInfo(Graphics g)
         \brief Deseneaza informatii despre nivelul curent
      */
     private void drawLevelInfo(Graphics g)
+    {
+        drawLevelInfo(g, map);
+    }
+
+    /*! \fn private void drawLevelInfo(Graphics g, Map map)
+        \brief Deseneaza informatii despre nivelul curent pentru harta data
+     */
+    private void drawLevelInfo(Graphics g, Map map)
     {
         g.setColor(Color.WHITE);
         g.setFont(new Font("Arial", Font.BOLD, 16));
@@ -251,6 +429,7 @@ public class PlayState extends State
         g.drawString("N - Nivel urmator", x, y + 45);
         g.drawString("R - Restart", x, y + 60);
         g.drawString("ESC - Meniu", x + 150, y + 15);
+        g.drawString("F3 - Profiler", x + 150, y + 30);
     }
 
     // Getters
@@ -1,5 +1,6 @@
 package PaooGame.States;
 
+import PaooGame.Input.KeyManager;
 import PaooGame.RefLinks;
 import java.awt.*;
 import java.awt.event.KeyEvent;
@@ -22,12 +23,6 @@ public class SettingsState extends State
 
     private String[] settingOptions = {"SUNET: ON", "MUZICA: ON", "VOLUM: 100%", "SALVARE SETARI", "INAPOI LA MENIU"};
     private int selectedOption = 0;
-    private boolean enterPressed = false;
-    private boolean upPressed = false;
-    private boolean downPressed = false;
-    private boolean leftPressed = false;
-    private boolean rightPressed = false;
-    private boolean escapePressed = false;
 
     // Variabile pentru setari
     private boolean soundEnabled = true;
@@ -57,75 +52,47 @@ public class SettingsState extends State
 
     private void handleInput()
     {
+        KeyManager keys = refLink.GetKeyManager();
+
         // Navigare sus
-        if(refLink.GetKeyManager().up && !upPressed)
+        if(keys.IsPressed(KeyEvent.VK_W))
         {
-            upPressed = true;
             selectedOption--;
             if(selectedOption < 0)
                 selectedOption = settingOptions.length - 1;
         }
-        else if(!refLink.GetKeyManager().up)
-        {
-            upPressed = false;
-        }
 
         // Navigare jos
-        if(refLink.GetKeyManager().down && !downPressed)
+        if(keys.IsPressed(KeyEvent.VK_S))
         {
-            downPressed = true;
             selectedOption++;
             if(selectedOption >= settingOptions.length)
                 selectedOption = 0;
         }
-        else if(!refLink.GetKeyManager().down)
-        {
-            downPressed = false;
-        }
 
         // Navigare stanga (pentru modificarea setarilor)
-        if(refLink.GetKeyManager().left && !leftPressed)
+        if(keys.IsPressed(KeyEvent.VK_A))
         {
-            leftPressed = true;
             modifySetting(-1);
         }
-        else if(!refLink.GetKeyManager().left)
-        {
-            leftPressed = false;
-        }
 
         // Navigare dreapta (pentru modificarea setarilor)
-        if(refLink.GetKeyManager().right && !rightPressed)
+        if(keys.IsPressed(KeyEvent.VK_D))
         {
-            rightPressed = true;
             modifySetting(1);
         }
-        else if(!refLink.GetKeyManager().right)
-        {
-            rightPressed = false;
-        }
 
         // Selectare optiune
-        if((refLink.GetKeyManager().keys[KeyEvent.VK_ENTER] || refLink.GetKeyManager().keys[KeyEvent.VK_SPACE]) && !enterPressed)
+        if(keys.IsPressed(KeyEvent.VK_ENTER) || keys.IsPressed(KeyEvent.VK_SPACE))
         {
-            enterPressed = true;
             executeSelectedOption();
         }
-        else if(!refLink.GetKeyManager().keys[KeyEvent.VK_ENTER] && !refLink.GetKeyManager().keys[KeyEvent.VK_SPACE])
-        {
-            enterPressed = false;
-        }
 
         // Intoarcere la meniu cu ESC
-        if(refLink.GetKeyManager().keys[KeyEvent.VK_ESCAPE] && !escapePressed)
+        if(keys.IsPressed(KeyEvent.VK_ESCAPE))
         {
-            escapePressed = true;
             State.SetState(new MenuState(refLink));
         }
-        else if(!refLink.GetKeyManager().keys[KeyEvent.VK_ESCAPE])
-        {
-            escapePressed = false;
-        }
     }
 
     private void modifySetting(int direction)
@@ -1,5 +1,6 @@
 package PaooGame.States;
 
+import PaooGame.Loop.WorldSnapshot;
 import PaooGame.RefLinks;
 
 import java.awt.*;
@@ -15,7 +16,7 @@ public abstract class State
 {
         ///Urmatoarele atribute sunt statice pentru a evita dealocarea spatiului de memorie la trecerea dintr-o stare in alta.
     private static State previousState  = null; /*!< Referinta catre starea anterioara a jocului.*/
-    private static State currentState   = null; /*!< Referinta catre starea curenta a jocului: game, meniu, settings, about etc.*/
+    private static volatile State currentState = null; /*!< Referinta catre starea curenta a jocului: game, meniu, settings, about etc.*/
     protected RefLinks refLink;
     public State(RefLinks refLink)
     {
@@ -42,4 +43,25 @@ public abstract class State
     public abstract void Update();
         ///Metoda abstracta destinata desenarii starii curente
     public abstract void Draw(Graphics g);
+
+    /*! \fn public void WriteSnapshot(WorldSnapshot snapshot)
+        \brief Copiaza in snapshot datele necesare desenarii pe un fir separat.
+
+        Implicit nu se copiaza nimic; starile care nu suprascriu metoda sunt desenate direct cu Draw(g).
+     */
+    public void WriteSnapshot(WorldSnapshot snapshot)
+    {
+    }
+
+    /*! \fn public void Draw(Graphics g, WorldSnapshot snapshot, float alpha)
+        \brief Deseneaza starea pe baza unui snapshot (modul cu fir de desenare separat).
+
+        \param g Contextul grafic.
+        \param snapshot Ultimul snapshot publicat de firul de update.
+        \param alpha Factorul de interpolare intre tick-ul anterior si cel din snapshot.
+     */
+    public void Draw(Graphics g, WorldSnapshot snapshot, float alpha)
+    {
+        Draw(g);
+    }
 }
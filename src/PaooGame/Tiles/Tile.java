@@ -1,6 +1,8 @@
 package PaooGame.Tiles;
 
 import PaooGame.Graphics.Assets;
+import PaooGame.Graphics.ScaledImageCache;
+import PaooGame.Graphics.TextureAtlas;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 
@@ -47,6 +49,9 @@ public class Tile
 
     protected BufferedImage img;
     protected final int id;
+    private BufferedImage scaled;       /*!< img la dimensiunea TILE_WIDTH x TILE_HEIGHT (din ScaledImageCache).*/
+    private BufferedImage scaledSource; /*!< Imaginea din care a fost obtinut scaled.*/
+    private TextureAtlas.Region region; /*!< Regiunea din Assets.atlas pentru img (deja TILE_WIDTH x TILE_HEIGHT) sau null.*/
 
     /*! \fn public Tile(BufferedImage texture, int id)
         \brief Constructorul aferent clasei.
@@ -71,7 +76,21 @@ public class Tile
     public void Draw(Graphics g, int x, int y)
     {
         if (img != null) {
-            g.drawImage(img, x, y, TILE_WIDTH, TILE_HEIGHT, null);
+            if (scaledSource != img) {
+                TextureAtlas atlas = Assets.atlas;
+                region = atlas != null ? atlas.Find(img) : null;
+                if (region != null && (region.width != TILE_WIDTH || region.height != TILE_HEIGHT)) {
+                    region = null;
+                }
+                scaled = region == null ? ScaledImageCache.Get(img, TILE_WIDTH, TILE_HEIGHT) : null;
+                scaledSource = img;
+            }
+            // Copiere simpla, fara scalare la fiecare desenare (din pagina atlasului daca dala este in atlas)
+            if (region != null) {
+                Assets.atlas.Draw(g, region, x, y);
+            } else {
+                g.drawImage(scaled, x, y, null);
+            }
         } else {
             // Placeholder daca imaginea lipseste
             g.setColor(Color.MAGENTA);
@@ -88,6 +107,11 @@ public class Tile
      */
     public boolean IsSolid() { return false; }
 
+    /*! \fn public boolean IsWater()
+        \brief Returneaza daca dala este apa (folosita de CollisionLayer).
+     */
+    public boolean IsWater() { return false; }
+
     /*! \fn public int GetId()
         \brief Returneaza id-ul dalei.
      */
@@ -118,11 +142,13 @@ class SoilTile extends Tile {
 
 class WaterTile extends Tile {
     public WaterTile(int id) { super(Assets.water, id); }
+    @Override public boolean IsWater() { return true; }
     @Override public boolean IsSolid() { return true; }
 }
 
 class DeepWaterTile extends Tile {
     public DeepWaterTile(int id) { super(Assets.deepWater, id); }
+    @Override public boolean IsWater() { return true; }
     @Override public boolean IsSolid() { return true; }
 }
 